@@ -0,0 +1,188 @@
+package com.popcodelab.mddapi.benchmarks;
+
+import com.popcodelab.mddapi.dto.post.PostDto;
+import com.popcodelab.mddapi.entities.Post;
+import com.popcodelab.mddapi.entities.Topic;
+import com.popcodelab.mddapi.entities.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+
+/**
+ * The BenchmarkData class generates deterministic, realistic looking data sets for the benchmarks.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+final class BenchmarkData {
+
+    /**
+     * The words the generated texts are made of.
+     */
+    private static final String[] WORDS = {
+            "java", "spring", "cloud", "data", "model", "stream", "thread", "cache", "query", "index",
+            "network", "security", "learning", "machine", "service", "deploy", "kernel", "memory", "latency", "design"
+    };
+
+    /**
+     * The words the generated articles are made of, the first ones being the most frequent.
+     */
+    private static final String[] ARTICLE_WORDS = (
+            "the of and to a in is that for it with as on be this are we by from or an can you at not have which "
+            + "but when will your if more all their one there so use also how into than then these what our new "
+            + "java spring boot service request response database query index cache memory thread latency "
+            + "performance application configuration deployment container kubernetes docker security token "
+            + "authentication frontend angular typescript component module library framework version release "
+            + "feature build maven gradle test integration production environment server client network "
+            + "stream collection object interface method class record exception logging monitoring metrics "
+            + "developer team project review commit branch migration schema transaction connection pool "
+            + "throughput benchmark profiling garbage collector heap virtual reactive asynchronous scalability"
+    ).split(" ");
+
+    /**
+     * The seed of the generators, so that every run benchmarks the same data.
+     */
+    private static final long SEED = 42L;
+
+    /**
+     * Utility class, not meant to be instantiated.
+     */
+    private BenchmarkData() {
+    }
+
+    /**
+     * Generates users with IDs from 1 to count.
+     *
+     * @param count the number of users
+     * @return the users
+     */
+    static List<User> users(final int count) {
+        List<User> users = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            User user = new User();
+            user.setId(id);
+            user.setUsername("user" + id);
+            user.setEmail("user" + id + "@mdd.dev");
+            user.setPassword("$2a$10$abcdefghijklmnopqrstuv");
+            user.setSubscribedTopicIds(new ArrayList<>(List.of(1L + id % 20, 1L + (id + 7) % 20)));
+            users.add(user);
+        }
+        return users;
+    }
+
+    /**
+     * Generates topics with IDs from 1 to count.
+     *
+     * @param count the number of topics
+     * @return the topics
+     */
+    static List<Topic> topics(final int count) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<Topic> topics = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            Topic topic = new Topic();
+            topic.setId(id);
+            topic.setTitle(text(random, 2) + " " + id);
+            topic.setDescription(text(random, 10));
+            topics.add(topic);
+        }
+        return topics;
+    }
+
+    /**
+     * Generates posts spread over the given users and topics.
+     *
+     * @param count      the number of posts
+     * @param userCount  the number of authors
+     * @param topicCount the number of topics
+     * @return the posts
+     */
+    static List<Post> posts(final int count, final int userCount, final int topicCount) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        LocalDateTime now = LocalDateTime.now();
+        List<Post> posts = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            Post post = new Post();
+            post.setId(id);
+            post.setTitle(text(random, 8));
+            post.setContent(text(random, 150));
+            post.setUserId(1L + random.nextInt(userCount));
+            post.setTopicId(1L + random.nextInt(topicCount));
+            post.setCreatedAt(now.minusMinutes(id));
+            post.setUpdatedAt(post.getCreatedAt());
+            posts.add(post);
+        }
+        return posts;
+    }
+
+    /**
+     * Generates post DTOs as returned by the feed.
+     *
+     * @param count the number of posts
+     * @return the post DTOs
+     */
+    static List<PostDto> postDtos(final int count) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        LocalDateTime now = LocalDateTime.now();
+        return LongStream.rangeClosed(1, count)
+                .mapToObj(id -> PostDto.builder()
+                        .id(id)
+                        .title(text(random, 8))
+                        .content(text(random, 150))
+                        .userId(1L + id % 100)
+                        .username("user" + (1L + id % 100))
+                        .topicId(1L + id % 20)
+                        .topicTitle(text(random, 2))
+                        .createdAt(now.minusMinutes(id))
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Generates an article of sentences and paragraphs, its words following a skewed distribution as in real texts.
+     *
+     * @param random    the generator
+     * @param wordCount the number of words
+     * @return the article
+     */
+    static String article(final SplittableRandom random, final int wordCount) {
+        StringBuilder article = new StringBuilder(wordCount * 7);
+        int sentenceLength = 0;
+        for (int i = 0; i < wordCount; i++) {
+            // The square of a uniform value picks the first words more often
+            double skew = random.nextDouble();
+            String word = ARTICLE_WORDS[(int) (skew * skew * ARTICLE_WORDS.length)];
+            if (sentenceLength == 0) {
+                article.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+            } else {
+                article.append(' ').append(word);
+            }
+            if (++sentenceLength > 6 + random.nextInt(14)) {
+                article.append(random.nextInt(6) == 0 ? ".\n\n" : ". ");
+                sentenceLength = 0;
+            }
+        }
+        return article.append('.').toString();
+    }
+
+    /**
+     * Generates a text of random words.
+     *
+     * @param random    the generator
+     * @param wordCount the number of words
+     * @return the text
+     */
+    static String text(final SplittableRandom random, final int wordCount) {
+        StringBuilder text = new StringBuilder(wordCount * 8);
+        for (int i = 0; i < wordCount; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,44 @@
+package com.popcodelab.mddapi.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * The BenchmarkRunner class is the entry point of the benchmarks jar.
+ * It accepts the usual JMH command line options, always enables the GC profiler to report the allocation rate
+ * of every benchmark, and writes the results as JSON so that two commits can be compared.
+ * <p>
+ * The JSON file defaults to target/jmh-result.json and can be changed with the jmh.result system property.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+public final class BenchmarkRunner {
+
+    /**
+     * Utility class, not meant to be instantiated.
+     */
+    private BenchmarkRunner() {
+    }
+
+    /**
+     * Runs the benchmarks selected by the command line.
+     *
+     * @param args the JMH command line options
+     * @throws Exception if the options are invalid or the benchmarks fail
+     */
+    public static void main(final String[] args) throws Exception {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        Options options = new OptionsBuilder()
+                .parent(commandLineOptions)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(System.getProperty("jmh.result", "target/jmh-result.json"))
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,132 @@
+package com.popcodelab.mddapi.benchmarks;
+
+import com.popcodelab.mddapi.dto.authentication.UserDto;
+import com.popcodelab.mddapi.dto.post.PostDto;
+import com.popcodelab.mddapi.entities.Post;
+import com.popcodelab.mddapi.entities.User;
+import com.popcodelab.mddapi.mappers.PostMapper;
+import com.popcodelab.mddapi.mappers.PostMapperImpl;
+import com.popcodelab.mddapi.mappers.UserMapper;
+import com.popcodelab.mddapi.mappers.UserMapperImpl;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the MapStruct generated mappers with the reflective ModelMapper they replaced,
+ * configured as it was in the API (strict matching). Run with the GC profiler to compare the allocations.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    /**
+     * The number of posts mapped per invocation.
+     */
+    private static final int POST_COUNT = 1000;
+
+    /**
+     * The posts to map.
+     */
+    private List<Post> posts;
+
+    /**
+     * The user to map.
+     */
+    private User user;
+
+    /**
+     * The generated post mapper.
+     */
+    private PostMapper postMapper;
+
+    /**
+     * The generated user mapper.
+     */
+    private UserMapper userMapper;
+
+    /**
+     * The reflective baseline.
+     */
+    private ModelMapper modelMapper;
+
+    /**
+     * Creates the mappers and the data.
+     */
+    @Setup
+    public void setUp() {
+        posts = BenchmarkData.posts(POST_COUNT, 100, 20);
+        user = BenchmarkData.users(1).get(0);
+        postMapper = new PostMapperImpl();
+        userMapper = new UserMapperImpl();
+        modelMapper = new ModelMapper();
+        modelMapper.getConfiguration().setMatchingStrategy(MatchingStrategies.STRICT);
+    }
+
+    /**
+     * Maps the posts with MapStruct.
+     *
+     * @param blackhole the sink of the DTOs
+     */
+    @Benchmark
+    public void postsWithMapStruct(final Blackhole blackhole) {
+        for (Post post : posts) {
+            blackhole.consume(postMapper.toDto(post, "author", "topic"));
+        }
+    }
+
+    /**
+     * Maps the posts with ModelMapper, then sets the joined fields as the services used to.
+     *
+     * @param blackhole the sink of the DTOs
+     */
+    @Benchmark
+    public void postsWithModelMapper(final Blackhole blackhole) {
+        for (Post post : posts) {
+            PostDto postDto = modelMapper.map(post, PostDto.class);
+            postDto.setUsername("author");
+            postDto.setTopicTitle("topic");
+            blackhole.consume(postDto);
+        }
+    }
+
+    /**
+     * Maps a user with MapStruct.
+     *
+     * @return the DTO, consumed by JMH
+     */
+    @Benchmark
+    public UserDto userWithMapStruct() {
+        return userMapper.toDto(user);
+    }
+
+    /**
+     * Maps a user with ModelMapper.
+     *
+     * @return the DTO, consumed by JMH
+     */
+    @Benchmark
+    public UserDto userWithModelMapper() {
+        return modelMapper.map(user, UserDto.class);
+    }
+}
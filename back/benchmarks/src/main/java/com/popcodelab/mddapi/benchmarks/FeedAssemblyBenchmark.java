@@ -0,0 +1,106 @@
+package com.popcodelab.mddapi.benchmarks;
+
+import com.popcodelab.mddapi.dto.post.PostDto;
+import com.popcodelab.mddapi.entities.Post;
+import com.popcodelab.mddapi.entities.Topic;
+import com.popcodelab.mddapi.entities.User;
+import com.popcodelab.mddapi.invalidation.InvalidationBus;
+import com.popcodelab.mddapi.mappers.PostMapperImpl;
+import com.popcodelab.mddapi.repositories.PostRepository;
+import com.popcodelab.mddapi.repositories.TopicRepository;
+import com.popcodelab.mddapi.repositories.UserRepository;
+import com.popcodelab.mddapi.services.OutboxService;
+import com.popcodelab.mddapi.services.PostService;
+import com.popcodelab.mddapi.services.PostViewService;
+import com.popcodelab.mddapi.services.impl.IdempotencyServiceImpl;
+import com.popcodelab.mddapi.services.impl.PostServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the assembly of the feed by PostServiceImpl.getPostsFromUserTopics, the repositories being
+ * replaced by in-memory stubs: what is measured is the grouping, the joins in memory and the DTO mapping.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FeedAssemblyBenchmark {
+
+    /**
+     * The number of users authoring the posts.
+     */
+    private static final int USER_COUNT = 500;
+
+    /**
+     * The number of topics of the posts.
+     */
+    private static final int TOPIC_COUNT = 20;
+
+    /**
+     * The number of posts in the feed.
+     */
+    @Param({"100", "1000", "10000"})
+    private int postCount;
+
+    /**
+     * The service under benchmark.
+     */
+    private PostService postService;
+
+    /**
+     * The topics the reader is subscribed to.
+     */
+    private List<Long> topicIds;
+
+    /**
+     * Wires the service with stub repositories returning the generated data.
+     */
+    @Setup
+    public void setUp() {
+        List<Post> posts = BenchmarkData.posts(postCount, USER_COUNT, TOPIC_COUNT);
+        List<User> users = BenchmarkData.users(USER_COUNT);
+        List<Topic> topics = BenchmarkData.topics(TOPIC_COUNT);
+        PostRepository postRepository = Stubs.stub(PostRepository.class, Map.of("findByTopicIds", args -> posts));
+        UserRepository userRepository = Stubs.stub(UserRepository.class, Map.of("findByIds", args -> users));
+        TopicRepository topicRepository = Stubs.stub(TopicRepository.class, Map.of("findByIds", args -> topics));
+        postService = new PostServiceImpl(postRepository, userRepository, topicRepository, new PostMapperImpl(),
+                new IdempotencyServiceImpl(Duration.ofMinutes(1), 1), TransactionOperations.withoutTransaction(),
+                Stubs.stub(OutboxService.class, Map.of()), Stubs.stub(PostViewService.class, Map.of()),
+                Stubs.stub(InvalidationBus.class, Map.of()),
+                // The posts are not sharded
+                Stubs.stub(ObjectProvider.class, Map.of("getIfAvailable", args -> null)));
+        topicIds = topics.stream().map(Topic::getId).toList();
+    }
+
+    /**
+     * Assembles the feed.
+     *
+     * @return the feed, consumed by JMH
+     */
+    @Benchmark
+    public List<PostDto> getPostsFromUserTopics() {
+        return postService.getPostsFromUserTopics(topicIds);
+    }
+}
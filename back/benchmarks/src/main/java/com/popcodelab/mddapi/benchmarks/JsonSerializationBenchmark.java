@@ -0,0 +1,70 @@
+package com.popcodelab.mddapi.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.popcodelab.mddapi.dto.post.PostDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the JSON serialization of a feed, with an ObjectMapper configured as the one of Spring MVC.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    /**
+     * The number of posts in the feed.
+     */
+    @Param({"100", "1000"})
+    private int postCount;
+
+    /**
+     * The serializer.
+     */
+    private ObjectMapper objectMapper;
+
+    /**
+     * The feed to serialize.
+     */
+    private List<PostDto> posts;
+
+    /**
+     * Creates the serializer and the feed.
+     */
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        posts = BenchmarkData.postDtos(postCount);
+    }
+
+    /**
+     * Serializes the feed.
+     *
+     * @return the JSON bytes, consumed by JMH
+     * @throws Exception if the serialization fails
+     */
+    @Benchmark
+    public byte[] serializeFeed() throws Exception {
+        return objectMapper.writeValueAsBytes(posts);
+    }
+}
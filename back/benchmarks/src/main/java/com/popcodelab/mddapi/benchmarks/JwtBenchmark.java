@@ -0,0 +1,102 @@
+package com.popcodelab.mddapi.benchmarks;
+
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import com.popcodelab.mddapi.security.services.JwtService;
+import com.popcodelab.mddapi.security.services.impl.JwtServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the issue of a JWT by JwtServiceImpl at login and its verification on every authenticated request,
+ * with the HS256 encoder and decoder built as in SecurityConfiguration.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    /**
+     * A 512 bits secret, as the one of the .env file.
+     */
+    private static final String SECRET = "07de59bb6cf65ed1a453e8ed539599ff45f2d32bb26f8071f0f2b8035e1f2d15"
+            + "0d33fa2346439760403b3ea60d1e421d1d4789bca277a2825f812fa6494fe87b";
+
+    /**
+     * The service issuing the tokens.
+     */
+    private JwtService jwtService;
+
+    /**
+     * The decoder verifying the tokens.
+     */
+    private JwtDecoder jwtDecoder;
+
+    /**
+     * The authenticated user.
+     */
+    private Authentication authentication;
+
+    /**
+     * A valid token, to verify.
+     */
+    private String token;
+
+    /**
+     * Builds the encoder, the decoder and a token.
+     */
+    @Setup
+    public void setUp() {
+        jwtService = new JwtServiceImpl(new NimbusJwtEncoder(new ImmutableSecret<>(SECRET.getBytes())));
+        Stubs.setField(jwtService, "stringJwtExpiration", "86400000");
+        jwtDecoder = NimbusJwtDecoder.withSecretKey(new SecretKeySpec(SECRET.getBytes(), "HmacSHA256"))
+                .macAlgorithm(MacAlgorithm.HS256)
+                .build();
+        authentication = new UsernamePasswordAuthenticationToken("user1@mdd.dev", null, List.of());
+        token = jwtService.generateToken(authentication);
+    }
+
+    /**
+     * Issues a token.
+     *
+     * @return the token, consumed by JMH
+     */
+    @Benchmark
+    public String issue() {
+        return jwtService.generateToken(authentication);
+    }
+
+    /**
+     * Verifies a token.
+     *
+     * @return the decoded token, consumed by JMH
+     */
+    @Benchmark
+    public Jwt verify() {
+        return jwtDecoder.decode(token);
+    }
+}
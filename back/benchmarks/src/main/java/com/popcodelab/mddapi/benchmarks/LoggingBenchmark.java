@@ -0,0 +1,163 @@
+package com.popcodelab.mddapi.benchmarks;
+
+import com.popcodelab.mddapi.monitoring.LogMarkers;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.builder.api.AppenderComponentBuilder;
+import org.apache.logging.log4j.core.config.builder.api.ConfigurationBuilder;
+import org.apache.logging.log4j.core.config.builder.api.ConfigurationBuilderFactory;
+import org.apache.logging.log4j.core.config.builder.api.LoggerComponentBuilder;
+import org.apache.logging.log4j.core.config.builder.impl.BuiltConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the logging overhead on the request path of the comments of a post, which logs once per comment
+ * at DEBUG level and once for the post.
+ * <p>
+ * The modes are the synchronous file logging of the former default configuration, the async loggers of
+ * log4j2-spring.xml with and without the rate limit of the per-item logs, and the INFO level of production,
+ * where the DEBUG logs are skipped. The events are written to a temporary file, with the pattern of application.yml.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoggingBenchmark {
+
+    /**
+     * The name of the logger, one of the services of the API.
+     */
+    private static final String LOGGER_NAME = "com.popcodelab.mddapi.services.impl.CommentServiceImpl";
+
+    /**
+     * The file log pattern of application.yml.
+     */
+    private static final String PATTERN = "%d{HH:mm:ss.SSS} [%thread] %-5level %logger{36} - %msg%n";
+
+    /**
+     * The number of comments of the post.
+     */
+    @Param({"50"})
+    private int commentCount;
+
+    /**
+     * The logging configuration.
+     */
+    @Param({"sync", "async", "async-rate-limited", "info"})
+    private String mode;
+
+    /**
+     * The directory of the log file.
+     */
+    private Path directory;
+
+    /**
+     * The logger context of the mode, independent of the one of the benchmark harness.
+     */
+    private LoggerContext loggerContext;
+
+    /**
+     * The logger under benchmark.
+     */
+    private Logger logger;
+
+    /**
+     * The IDs of the comments, boxed as they are by the entities.
+     */
+    private Long[] commentIds;
+
+    /**
+     * Starts a logger context configured for the mode.
+     *
+     * @throws IOException if the log directory cannot be created
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("logging-benchmark");
+        ConfigurationBuilder<BuiltConfiguration> builder = ConfigurationBuilderFactory.newConfigurationBuilder();
+        builder.setConfigurationName("logging-benchmark-" + mode);
+        builder.setStatusLevel(org.apache.logging.log4j.Level.WARN);
+        boolean async = mode.startsWith("async");
+        AppenderComponentBuilder file = builder.newAppender("File", "RandomAccessFile")
+                .addAttribute("fileName", directory.resolve("mdd-api.log").toString())
+                .addAttribute("immediateFlush", !async)
+                .add(builder.newLayout("PatternLayout").addAttribute("pattern", PATTERN));
+        builder.add(file);
+        org.apache.logging.log4j.Level level = "info".equals(mode)
+                ? org.apache.logging.log4j.Level.INFO
+                : org.apache.logging.log4j.Level.DEBUG;
+        LoggerComponentBuilder loggerConfig = async
+                ? builder.newAsyncLogger(LOGGER_NAME, level)
+                : builder.newLogger(LOGGER_NAME, level);
+        loggerConfig.add(builder.newAppenderRef("File")).addAttribute("additivity", false);
+        if ("async-rate-limited".equals(mode)) {
+            loggerConfig.addComponent(builder.newComponent("Filters")
+                    .addComponent(builder.newFilter("MarkerFilter", Filter.Result.NEUTRAL, Filter.Result.ACCEPT)
+                            .addAttribute("marker", LogMarkers.PER_ITEM.getName()))
+                    .addComponent(builder.newFilter("BurstFilter", Filter.Result.NEUTRAL, Filter.Result.DENY)
+                            .addAttribute("level", "DEBUG")
+                            .addAttribute("rate", 20)
+                            .addAttribute("maxBurst", 200)));
+        }
+        builder.add(loggerConfig);
+        builder.add(builder.newRootLogger(org.apache.logging.log4j.Level.OFF));
+        loggerContext = new LoggerContext("logging-benchmark-" + mode);
+        builder.setLoggerContext(loggerContext);
+        loggerContext.start(builder.build());
+        logger = loggerContext.getLogger(LOGGER_NAME);
+        commentIds = new Long[commentCount];
+        for (int i = 0; i < commentCount; i++) {
+            commentIds[i] = 1_000L + i;
+        }
+    }
+
+    /**
+     * Stops the logger context, flushing the async loggers, and deletes the log file.
+     *
+     * @throws IOException if the log file cannot be deleted
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        loggerContext.stop();
+        try (var files = Files.list(directory)) {
+            for (Path path : files.toList()) {
+                Files.delete(path);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    /**
+     * Logs as the request of the comments of a post does.
+     */
+    @Benchmark
+    public void logCommentsRequest() {
+        for (Long commentId : commentIds) {
+            logger.debug(LogMarkers.PER_ITEM, "Convert comment id {} to DTO", commentId);
+        }
+        logger.debug("Post Id : {} has been retrieved > Title : {}", commentIds[0], "Benchmark post");
+    }
+}
@@ -0,0 +1,75 @@
+package com.popcodelab.mddapi.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the BCrypt encoder of SecurityConfiguration, paid once per registration (encode)
+ * and once per login (matches).
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordEncoderBenchmark {
+
+    /**
+     * The password of the user.
+     */
+    private static final String PASSWORD = "correct-horse-battery-staple";
+
+    /**
+     * The encoder, with the default strength used by the API.
+     */
+    private BCryptPasswordEncoder passwordEncoder;
+
+    /**
+     * The hash of the password.
+     */
+    private String hash;
+
+    /**
+     * Creates the encoder and hashes the password.
+     */
+    @Setup
+    public void setUp() {
+        passwordEncoder = new BCryptPasswordEncoder();
+        hash = passwordEncoder.encode(PASSWORD);
+    }
+
+    /**
+     * Hashes the password, as done at registration.
+     *
+     * @return the hash, consumed by JMH
+     */
+    @Benchmark
+    public String encode() {
+        return passwordEncoder.encode(PASSWORD);
+    }
+
+    /**
+     * Checks the password against its hash, as done at login.
+     *
+     * @return the result, consumed by JMH
+     */
+    @Benchmark
+    public boolean matches() {
+        return passwordEncoder.matches(PASSWORD, hash);
+    }
+}
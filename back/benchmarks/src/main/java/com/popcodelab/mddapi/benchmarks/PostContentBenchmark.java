@@ -0,0 +1,97 @@
+package com.popcodelab.mddapi.benchmarks;
+
+import com.popcodelab.mddapi.compression.PostContentCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the storage of the content of a post: in UTF-8, as in the former LONGTEXT column, and with the
+ * PostContentCodec, which compresses the contents from 512 bytes. The stored size of each is printed once per
+ * fork, as the bytes written to and read from the database, the encoding and decoding costs being measured.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PostContentBenchmark {
+
+    /**
+     * The number of words of the content: a short note, a usual post and a long article.
+     */
+    @Param({"60", "400", "3000"})
+    private int wordCount;
+
+    /**
+     * The storage of the content.
+     */
+    @Param({"utf8", "codec"})
+    private String storage;
+
+    /**
+     * The content of the post.
+     */
+    private String content;
+
+    /**
+     * The stored content.
+     */
+    private byte[] stored;
+
+    /**
+     * Generates the content and prints its stored size.
+     */
+    @Setup
+    public void setUp() {
+        content = BenchmarkData.article(new SplittableRandom(42L), wordCount);
+        stored = encode();
+        System.out.printf(Locale.ROOT, "%nContent of %d words stored as %s: %d bytes (%d bytes in UTF-8)%n",
+                wordCount, storage, stored.length, content.getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    /**
+     * Encodes the content, as when a post is saved.
+     *
+     * @return the stored bytes, consumed by JMH
+     */
+    @Benchmark
+    public byte[] encode() {
+        return switch (storage) {
+            case "utf8" -> content.getBytes(StandardCharsets.UTF_8);
+            case "codec" -> PostContentCodec.encode(content);
+            default -> throw new IllegalArgumentException("Unknown storage " + storage);
+        };
+    }
+
+    /**
+     * Decodes the stored content, as when a post is loaded.
+     *
+     * @return the content, consumed by JMH
+     */
+    @Benchmark
+    public String decode() {
+        return switch (storage) {
+            case "utf8" -> new String(stored, StandardCharsets.UTF_8);
+            case "codec" -> PostContentCodec.decode(stored);
+            default -> throw new IllegalArgumentException("Unknown storage " + storage);
+        };
+    }
+}
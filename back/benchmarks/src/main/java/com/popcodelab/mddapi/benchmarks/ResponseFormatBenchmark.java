@@ -0,0 +1,96 @@
+package com.popcodelab.mddapi.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.popcodelab.mddapi.dto.post.PostDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the serialization of a feed in the response formats of the API: JSON with reflective accessors,
+ * as before, and JSON, CBOR and Smile with the generated accessors of Blackbird, as served now.
+ * The payload size of each format is printed once per fork, the serialization cost being measured.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseFormatBenchmark {
+
+    /**
+     * The number of posts in the feed.
+     */
+    @Param({"1000"})
+    private int postCount;
+
+    /**
+     * The response format.
+     */
+    @Param({"json-reflection", "json", "cbor", "smile"})
+    private String format;
+
+    /**
+     * The serializer of the format.
+     */
+    private ObjectMapper objectMapper;
+
+    /**
+     * The feed to serialize.
+     */
+    private List<PostDto> posts;
+
+    /**
+     * Creates the serializer and the feed, and prints the payload size.
+     *
+     * @throws Exception if the serialization fails
+     */
+    @Setup
+    public void setUp() throws Exception {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        switch (format) {
+            case "json-reflection" -> {
+            }
+            case "json" -> builder.modulesToInstall(new BlackbirdModule());
+            case "cbor" -> builder.modulesToInstall(new BlackbirdModule()).factory(new CBORFactory());
+            case "smile" -> builder.modulesToInstall(new BlackbirdModule()).factory(new SmileFactory());
+            default -> throw new IllegalArgumentException("Unknown format " + format);
+        }
+        objectMapper = builder.build();
+        posts = BenchmarkData.postDtos(postCount);
+        int size = objectMapper.writeValueAsBytes(posts).length;
+        System.out.printf(Locale.ROOT, "%nPayload of %d posts as %s: %d bytes (%.1f bytes per post)%n",
+                postCount, format, size, (double) size / postCount);
+    }
+
+    /**
+     * Serializes the feed.
+     *
+     * @return the serialized bytes, consumed by JMH
+     * @throws Exception if the serialization fails
+     */
+    @Benchmark
+    public byte[] serializeFeed() throws Exception {
+        return objectMapper.writeValueAsBytes(posts);
+    }
+}
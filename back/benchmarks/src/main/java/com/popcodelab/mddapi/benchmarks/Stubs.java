@@ -0,0 +1,64 @@
+package com.popcodelab.mddapi.benchmarks;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * The Stubs class builds in-memory stand-ins for the repositories and services the benchmarked code depends on,
+ * so that the benchmarks measure the code of the API and not a database.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+final class Stubs {
+
+    /**
+     * Utility class, not meant to be instantiated.
+     */
+    private Stubs() {
+    }
+
+    /**
+     * Creates a stub of an interface answering the given methods, by name.
+     * Any other method throws an UnsupportedOperationException.
+     *
+     * @param type    the interface to stub
+     * @param answers the answer of each stubbed method, computed from the call arguments
+     * @param <T>     the type of the interface
+     * @return the stub
+     */
+    static <T> T stub(final Class<T> type, final Map<String, Function<Object[], Object>> answers) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    Function<Object[], Object> answer = answers.get(method.getName());
+                    if (answer != null) {
+                        return answer.apply(args);
+                    }
+                    return switch (method.getName()) {
+                        case "toString" -> type.getSimpleName() + " stub";
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        case "equals" -> proxy == args[0];
+                        default -> throw new UnsupportedOperationException("Not stubbed : " + method);
+                    };
+                }));
+    }
+
+    /**
+     * Sets a field normally injected by Spring, such as a @Value field.
+     *
+     * @param target the object owning the field
+     * @param name   the name of the field
+     * @param value  the value to set
+     */
+    static void setField(final Object target, final String name, final Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to set the field " + name, e);
+        }
+    }
+}
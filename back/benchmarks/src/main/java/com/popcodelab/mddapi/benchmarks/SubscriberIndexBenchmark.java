@@ -0,0 +1,129 @@
+package com.popcodelab.mddapi.benchmarks;
+
+import com.popcodelab.mddapi.repositories.UserRepository;
+import com.popcodelab.mddapi.services.SubscriberIndexService;
+import com.popcodelab.mddapi.services.impl.SubscriberIndexServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Benchmarks the reverse index of the topic subscribers with one million users,
+ * each one subscribed to a few of the topics. The heap retained by the index is printed at setup.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SubscriberIndexBenchmark {
+
+    /**
+     * The number of users.
+     */
+    private static final int USER_COUNT = 1_000_000;
+
+    /**
+     * The number of topics.
+     */
+    private static final int TOPIC_COUNT = 50;
+
+    /**
+     * The maximum number of topics a user is subscribed to.
+     */
+    private static final int MAX_SUBSCRIPTIONS = 5;
+
+    /**
+     * The index under benchmark.
+     */
+    private SubscriberIndexService subscriberIndexService;
+
+    /**
+     * The topics intersected by the common subscriber benchmarks.
+     */
+    private final List<Long> commonTopicIds = List.of(1L, 2L);
+
+    /**
+     * Fills the index, then prints its retained heap.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long before = runtime.totalMemory() - runtime.freeMemory();
+        subscriberIndexService = new SubscriberIndexServiceImpl(Stubs.stub(UserRepository.class, Map.of()));
+        SplittableRandom random = new SplittableRandom(42L);
+        long subscriptions = 0;
+        for (long userId = 1; userId <= USER_COUNT; userId++) {
+            int count = 1 + random.nextInt(MAX_SUBSCRIPTIONS);
+            for (int i = 0; i < count; i++) {
+                subscriberIndexService.addSubscription(userId, 1L + random.nextInt(TOPIC_COUNT));
+                subscriptions++;
+            }
+        }
+        System.gc();
+        long after = runtime.totalMemory() - runtime.freeMemory();
+        System.out.printf("%nSubscriber index: %d users, %d subscriptions, ~%d KiB retained%n",
+                USER_COUNT, subscriptions, (after - before) / 1024);
+    }
+
+    /**
+     * Counts the subscribers of a topic.
+     *
+     * @return the count, consumed by JMH
+     */
+    @Benchmark
+    public long subscriberCount() {
+        return subscriberIndexService.getSubscriberCount(1L);
+    }
+
+    /**
+     * Checks a subscription.
+     *
+     * @return the result, consumed by JMH
+     */
+    @Benchmark
+    public boolean isSubscribed() {
+        return subscriberIndexService.isSubscribed(1L, 123_457L);
+    }
+
+    /**
+     * Counts the users subscribed to two topics.
+     *
+     * @return the count, consumed by JMH
+     */
+    @Benchmark
+    public long commonSubscriberCount() {
+        return subscriberIndexService.getCommonSubscriberCount(commonTopicIds);
+    }
+
+    /**
+     * Iterates over the users subscribed to two topics, as a fan-out would.
+     *
+     * @return the number of visited users, consumed by JMH
+     */
+    @Benchmark
+    public long forEachCommonSubscriber() {
+        LongAdder visited = new LongAdder();
+        subscriberIndexService.forEachCommonSubscriber(commonTopicIds, userId -> visited.increment());
+        return visited.sum();
+    }
+}
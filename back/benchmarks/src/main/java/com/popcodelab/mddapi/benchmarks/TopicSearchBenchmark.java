@@ -0,0 +1,95 @@
+package com.popcodelab.mddapi.benchmarks;
+
+import com.popcodelab.mddapi.dto.topic.TopicDto;
+import com.popcodelab.mddapi.repositories.UserRepository;
+import com.popcodelab.mddapi.services.TopicSearchService;
+import com.popcodelab.mddapi.services.TopicService;
+import com.popcodelab.mddapi.services.impl.SubscriberIndexServiceImpl;
+import com.popcodelab.mddapi.services.impl.TopicSearchServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the prefix and fuzzy search of the topics over ten thousand topics.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TopicSearchBenchmark {
+
+    /**
+     * The number of indexed topics.
+     */
+    private static final int TOPIC_COUNT = 10_000;
+
+    /**
+     * The query, a prefix or a misspelled word.
+     */
+    @Param({"ja", "java", "jvaa sprng"})
+    private String query;
+
+    /**
+     * The search service under benchmark.
+     */
+    private TopicSearchService topicSearchService;
+
+    /**
+     * Indexes the generated topics.
+     */
+    @Setup
+    public void setUp() {
+        List<TopicDto> topics = BenchmarkData.topics(TOPIC_COUNT).stream()
+                .map(topic -> TopicDto.builder()
+                        .id(topic.getId())
+                        .title(topic.getTitle())
+                        .description(topic.getDescription())
+                        .build())
+                .toList();
+        TopicService topicService = Stubs.stub(TopicService.class, Map.of("getAllTopics", args -> topics));
+        TopicSearchServiceImpl searchService = new TopicSearchServiceImpl(topicService,
+                new SubscriberIndexServiceImpl(Stubs.stub(UserRepository.class, Map.of())));
+        // The slow search warning would only measure the logging
+        Stubs.setField(searchService, "latencyTargetMicros", Long.MAX_VALUE);
+        searchService.buildIndex();
+        topicSearchService = searchService;
+    }
+
+    /**
+     * Searches by prefix.
+     *
+     * @return the matching topics, consumed by JMH
+     */
+    @Benchmark
+    public List<TopicDto> prefix() {
+        return topicSearchService.search(query, false, 10);
+    }
+
+    /**
+     * Searches by prefix, tolerating typos.
+     *
+     * @return the matching topics, consumed by JMH
+     */
+    @Benchmark
+    public List<TopicDto> fuzzy() {
+        return topicSearchService.search(query, true, 10);
+    }
+}
@@ -0,0 +1,22 @@
+package com.popcodelab.mddapi.reactive;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * The MddReactiveReadApplication class starts the non-blocking read API of the feed, the posts and the comments.
+ * It runs next to the API, on WebFlux and R2DBC, against the same database.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@SpringBootApplication
+@Log4j2
+public class MddReactiveReadApplication {
+
+    public static void main(final String[] args) {
+        log.debug("Starting MDD - Reactive read API");
+        SpringApplication.run(MddReactiveReadApplication.class, args);
+    }
+}
@@ -0,0 +1,29 @@
+package com.popcodelab.mddapi.reactive.configuration;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The ShardingGuardConfiguration class stops the reactive read API from starting when the posts are sharded,
+ * that is when shards are configured under application.datasource.sharding.shards, as they are for the API.
+ * <p>
+ * The readers only query the default database, which holds no post once the shards are enabled: rather than
+ * serving empty feeds and missing posts, the application refuses to start.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@Configuration
+@ConditionalOnProperty(name = "application.datasource.sharding.shards[0].url")
+public class ShardingGuardConfiguration {
+
+    /**
+     * Refuses the sharded posts.
+     *
+     * @throws IllegalStateException always, as the configuration is only loaded with shards
+     */
+    public ShardingGuardConfiguration() {
+        throw new IllegalStateException("The reactive read API only reads the default database, it cannot serve "
+                + "sharded posts: application.datasource.sharding.shards must be empty");
+    }
+}
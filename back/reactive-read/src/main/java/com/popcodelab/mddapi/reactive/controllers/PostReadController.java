@@ -0,0 +1,77 @@
+package com.popcodelab.mddapi.reactive.controllers;
+
+import com.popcodelab.mddapi.dto.comment.CommentDto;
+import com.popcodelab.mddapi.dto.post.PostDto;
+import com.popcodelab.mddapi.reactive.repositories.CommentReadRepository;
+import com.popcodelab.mddapi.reactive.repositories.PostReadRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The PostReadController class serves the read endpoints of the posts with the same paths and DTOs as the API.
+ * <p>
+ * The lists are streamed as the rows come from the database, with backpressure: as a JSON array,
+ * or as newline-delimited JSON when the client accepts application/x-ndjson.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/api/posts")
+@RequiredArgsConstructor
+public class PostReadController {
+
+    /**
+     * The reader of the posts.
+     */
+    private final PostReadRepository postReadRepository;
+
+    /**
+     * The reader of the comments.
+     */
+    private final CommentReadRepository commentReadRepository;
+
+    /**
+     * Streams the posts of the topics subscribed by the authenticated user.
+     *
+     * @param authentication the authentication object representing the currently authenticated user
+     * @return the posts
+     */
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<PostDto> getPostsFromUserTopics(final Authentication authentication) {
+        return postReadRepository.findPostsFromUserTopics(authentication.getName());
+    }
+
+    /**
+     * Retrieves a post by its id.
+     *
+     * @param id The id of the post to retrieve.
+     * @return the post, or a 404 (Not Found) response if it does not exist
+     */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<PostDto>> getPostById(final @PathVariable Long id) {
+        return postReadRepository.findById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Streams the comments of a post.
+     *
+     * @param postId the ID of the post
+     * @return the comments
+     */
+    @GetMapping(value = "/{postId}/comments",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<CommentDto> getAllCommentsByPostId(final @PathVariable Long postId) {
+        return commentReadRepository.findCommentsByPostId(postId);
+    }
+}
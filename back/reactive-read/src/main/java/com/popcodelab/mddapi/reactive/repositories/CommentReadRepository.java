@@ -0,0 +1,62 @@
+package com.popcodelab.mddapi.reactive.repositories;
+
+import com.popcodelab.mddapi.dto.comment.CommentDto;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+/**
+ * The CommentReadRepository class reads the comments of a post with their author in a single query.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@Repository
+@RequiredArgsConstructor
+public class CommentReadRepository {
+
+    /**
+     * The client of the database.
+     */
+    private final DatabaseClient databaseClient;
+
+    /**
+     * Streams the comments of a post.
+     *
+     * @param postId the ID of the post
+     * @return the comments
+     */
+    public Flux<CommentDto> findCommentsByPostId(final Long postId) {
+        return databaseClient.sql("""
+                        SELECT c.id, c.content, c.user_id, u.user_name, c.post_id, c.created_at
+                        FROM comments c
+                        JOIN users u ON u.id = c.user_id
+                        WHERE c.post_id = :postId
+                        ORDER BY c.created_at, c.id
+                        """)
+                .bind("postId", postId)
+                .map(CommentReadRepository::toDto)
+                .all();
+    }
+
+    /**
+     * Maps a row to a CommentDto.
+     *
+     * @param row the row
+     * @return the CommentDto
+     */
+    private static CommentDto toDto(final Readable row) {
+        return CommentDto.builder()
+                .id(row.get("id", Long.class))
+                .content(row.get("content", String.class))
+                .userId(row.get("user_id", Long.class))
+                .username(row.get("user_name", String.class))
+                .postId(row.get("post_id", Long.class))
+                .createdAt(row.get("created_at", LocalDateTime.class))
+                .build();
+    }
+}
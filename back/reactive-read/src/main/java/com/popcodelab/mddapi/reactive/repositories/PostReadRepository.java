@@ -0,0 +1,93 @@
+package com.popcodelab.mddapi.reactive.repositories;
+
+import com.popcodelab.mddapi.compression.PostContentCodec;
+import com.popcodelab.mddapi.dto.post.PostDto;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * The PostReadRepository class reads the posts with their author and topic in a single query,
+ * mapping the rows to the PostDto of the API as they stream from the database.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@Repository
+@RequiredArgsConstructor
+public class PostReadRepository {
+
+    /**
+     * The columns of a PostDto.
+     */
+    private static final String SELECT_POSTS = """
+            SELECT p.id, p.title, p.content, p.user_id, u.user_name, p.topic_id, t.title AS topic_title,
+                   p.unique_viewers, p.created_at
+            FROM posts p
+            JOIN users u ON u.id = p.user_id
+            JOIN topics t ON t.id = p.topic_id
+            """;
+
+    /**
+     * The client of the database.
+     */
+    private final DatabaseClient databaseClient;
+
+    /**
+     * Streams the posts of the topics a user is subscribed to.
+     *
+     * @param identifier the email or the username of the user, as found in the JWT token
+     * @return the posts
+     */
+    public Flux<PostDto> findPostsFromUserTopics(final String identifier) {
+        return databaseClient.sql(SELECT_POSTS + """
+                        WHERE p.topic_id IN (
+                            SELECT s.subscribed_topic_ids
+                            FROM user_subscribed_topic_ids s
+                            JOIN users me ON me.id = s.user_id
+                            WHERE me.email = :identifier OR me.user_name = :identifier)
+                        ORDER BY p.created_at DESC, p.id DESC
+                        """)
+                .bind("identifier", identifier)
+                .map(PostReadRepository::toDto)
+                .all();
+    }
+
+    /**
+     * Reads a post.
+     *
+     * @param id the ID of the post
+     * @return the post, or an empty Mono if it does not exist
+     */
+    public Mono<PostDto> findById(final Long id) {
+        return databaseClient.sql(SELECT_POSTS + "WHERE p.id = :id")
+                .bind("id", id)
+                .map(PostReadRepository::toDto)
+                .one();
+    }
+
+    /**
+     * Maps a row to a PostDto.
+     *
+     * @param row the row
+     * @return the PostDto
+     */
+    private static PostDto toDto(final Readable row) {
+        return PostDto.builder()
+                .id(row.get("id", Long.class))
+                .title(row.get("title", String.class))
+                .content(PostContentCodec.decode(row.get("content", byte[].class)))
+                .userId(row.get("user_id", Long.class))
+                .username(row.get("user_name", String.class))
+                .topicId(row.get("topic_id", Long.class))
+                .topicTitle(row.get("topic_title", String.class))
+                .uniqueViewers(row.get("unique_viewers", Long.class))
+                .createdAt(row.get("created_at", LocalDateTime.class))
+                .build();
+    }
+}
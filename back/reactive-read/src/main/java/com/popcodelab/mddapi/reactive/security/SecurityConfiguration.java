@@ -0,0 +1,88 @@
+package com.popcodelab.mddapi.reactive.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsConfigurationSource;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * The SecurityConfiguration class validates the JWT tokens issued by the API, with the same secret,
+ * so that a client can call both APIs with the same token.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@Configuration
+@EnableWebFluxSecurity
+public class SecurityConfiguration {
+
+    /**
+     * The JWT secret used for verifying JWT tokens, shared with the API.
+     */
+    @Value("${application.security.jwt.secret}")
+    private String jwtSecret;
+
+    /**
+     * The url of the client for connecting to the server.
+     */
+    @Value("${client.url}")
+    private String clientUrl;
+
+    /**
+     * Returns an instance of ReactiveJwtDecoder used for decoding JWT tokens.
+     *
+     * @return the ReactiveJwtDecoder instance.
+     */
+    @Bean
+    public ReactiveJwtDecoder jwtDecoder() {
+        SecretKeySpec secretKey = new SecretKeySpec(this.jwtSecret.trim().getBytes(), "HmacSHA256");
+        return NimbusReactiveJwtDecoder.withSecretKey(secretKey).macAlgorithm(MacAlgorithm.HS256).build();
+    }
+
+    /**
+     * Returns the CorsConfigurationSource, allowing the client to read from this API.
+     *
+     * @return the CorsConfigurationSource instance
+     */
+    @Bean
+    CorsConfigurationSource corsConfigurationSource() {
+        CorsConfiguration configuration = new CorsConfiguration();
+        configuration.setAllowedOrigins(Collections.singletonList(clientUrl));
+        configuration.setAllowedMethods(Arrays.asList("GET", "OPTIONS"));
+        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Cache-Control", "Content-Type", "Accept"));
+        configuration.setAllowCredentials(true);
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", configuration);
+        return source;
+    }
+
+    /**
+     * Returns the SecurityWebFilterChain: every request must carry a valid JWT token.
+     *
+     * @param http the ServerHttpSecurity configuration
+     * @return the configured SecurityWebFilterChain object
+     */
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(final ServerHttpSecurity http) {
+        return http
+                .cors(cors -> cors.configurationSource(corsConfigurationSource()))
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .authorizeExchange(exchange -> exchange.anyExchange().authenticated())
+                .oauth2ResourceServer(oauth2 -> oauth2.jwt(jwt -> jwt.jwtDecoder(jwtDecoder())))
+                .build();
+    }
+}
@@ -0,0 +1,26 @@
+package com.popcodelab.mddapi.reactive.configuration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShardingGuardConfigurationTests {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(ShardingGuardConfiguration.class);
+
+    @Test
+    void theApplicationStartsWithoutShards() {
+        contextRunner.run(context -> assertThat(context).hasNotFailed());
+    }
+
+    @Test
+    void theApplicationRefusesToStartWithShards() {
+        contextRunner.withPropertyValues("application.datasource.sharding.shards[0].url=jdbc:mysql://shard-1/mdd")
+                .run(context -> assertThat(context).getFailure()
+                        .rootCause()
+                        .isInstanceOf(IllegalStateException.class)
+                        .hasMessageContaining("sharded posts"));
+    }
+}
@@ -0,0 +1,140 @@
+package com.popcodelab.mddapi.reactive.controllers;
+
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import com.popcodelab.mddapi.dto.post.PostDto;
+import com.popcodelab.mddapi.reactive.repositories.CommentReadRepository;
+import com.popcodelab.mddapi.reactive.repositories.PostReadRepository;
+import com.popcodelab.mddapi.reactive.security.SecurityConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@WebFluxTest(controllers = PostReadController.class, properties = {
+        "application.security.jwt.secret=" + PostReadControllerTests.JWT_SECRET,
+        "client.url=http://localhost:4200"})
+@Import(SecurityConfiguration.class)
+class PostReadControllerTests {
+
+    static final String JWT_SECRET = "a-secret-of-at-least-thirty-two-bytes-for-hs256";
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private PostReadRepository postReadRepository;
+
+    @MockBean
+    private CommentReadRepository commentReadRepository;
+
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        Instant now = Instant.now();
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .issuer("self")
+                .issuedAt(now)
+                .expiresAt(now.plus(1, ChronoUnit.HOURS))
+                .subject("reader@mdd.dev")
+                .build();
+        token = new NimbusJwtEncoder(new ImmutableSecret<>(new SecretKeySpec(JWT_SECRET.getBytes(), "HmacSHA256")))
+                .encode(JwtEncoderParameters.from(JwsHeader.with(MacAlgorithm.HS256).build(), claims))
+                .getTokenValue();
+        when(postReadRepository.findPostsFromUserTopics("reader@mdd.dev"))
+                .thenReturn(Flux.just(post(2L, "Second"), post(1L, "First")));
+    }
+
+    @Test
+    void theFeedIsReadAsAJsonArray() {
+        webTestClient.get().uri("/api/posts")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].title").isEqualTo("Second")
+                .jsonPath("$[1].title").isEqualTo("First");
+    }
+
+    @Test
+    void theFeedIsStreamedAsNewlineDelimitedJson() {
+        String body = webTestClient.get().uri("/api/posts")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertNotNull(body);
+        String[] lines = body.strip().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{") && lines[0].contains("\"title\":\"Second\""));
+        assertTrue(lines[1].startsWith("{") && lines[1].contains("\"title\":\"First\""));
+    }
+
+    @Test
+    void anUnknownPostIsNotFound() {
+        when(postReadRepository.findById(3L)).thenReturn(Mono.empty());
+
+        webTestClient.get().uri("/api/posts/3")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void theRequestsWithoutATokenAreRejected() {
+        webTestClient.get().uri("/api/posts")
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    /**
+     * Creates a post of the feed.
+     *
+     * @param id    the ID of the post
+     * @param title the title of the post
+     * @return the post
+     */
+    private static PostDto post(final Long id, final String title) {
+        return PostDto.builder()
+                .id(id)
+                .title(title)
+                .content("Content of " + title)
+                .userId(1L)
+                .username("author")
+                .topicId(1L)
+                .topicTitle("Java")
+                .uniqueViewers(0L)
+                .createdAt(LocalDateTime.of(2024, 6, 1, 12, id.intValue()))
+                .build();
+    }
+}
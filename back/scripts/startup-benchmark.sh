@@ -0,0 +1,74 @@
+#!/usr/bin/env bash
+#
+# Measures the time to first request of the backend, as built by default and as built by the fast-startup profile.
+#
+# Each run starts the application, then polls the health endpoint on the management port until it answers UP.
+# The time from the launch of the JVM to this first successful response is reported, the health check
+# including a round trip to the database.
+#
+# Usage, from the back directory, after mvn package -P fast-startup :
+#   scripts/startup-benchmark.sh [runs]
+#
+# The environment variables of application.yml are read from the .env file when present.
+
+set -euo pipefail
+
+RUNS="${1:-5}"
+JAR_NAME="mdd-api-0.0.1-SNAPSHOT-exec.jar"
+DEFAULT_JAR="target/${JAR_NAME}"
+FAST_STARTUP_DIRECTORY="target/fast-startup"
+
+if [[ -f .env ]]; then
+  set -a
+  # shellcheck disable=SC1091
+  source .env
+  set +a
+fi
+
+HEALTH_URL="http://localhost:${APP_MANAGEMENT_PORT:-3105}/actuator/health"
+
+if [[ ! -f "${DEFAULT_JAR}" || ! -f "${FAST_STARTUP_DIRECTORY}/application.jsa" ]]; then
+  echo "Build the application first : mvn package -P fast-startup" >&2
+  exit 1
+fi
+
+# Starts the application with the given command, waits for its first successful request, then stops it.
+# Prints the elapsed time in milliseconds.
+time_to_first_request() {
+  local start end pid
+  start=$(date +%s%N)
+  "$@" > /dev/null 2>&1 &
+  pid=$!
+  until curl --silent --fail "${HEALTH_URL}" | grep --quiet '"status":"UP"'; do
+    if ! kill -0 "${pid}" 2> /dev/null; then
+      echo "The application stopped before its first request, run it alone to see why" >&2
+      exit 1
+    fi
+    sleep 0.05
+  done
+  end=$(date +%s%N)
+  kill "${pid}"
+  wait "${pid}" 2> /dev/null || true
+  echo $(( (end - start) / 1000000 ))
+}
+
+# Runs a mode several times and prints each time and their median.
+benchmark() {
+  local mode="$1"
+  shift
+  local times=()
+  for (( run = 1; run <= RUNS; run++ )); do
+    times+=("$(time_to_first_request "$@")")
+  done
+  local sorted
+  sorted=($(printf '%s\n' "${times[@]}" | sort --numeric-sort))
+  printf '%-13s runs: %s ms, median: %s ms\n' "${mode}" "${times[*]}" "${sorted[$(( RUNS / 2 ))]}"
+}
+
+benchmark "default" \
+  java -jar "${DEFAULT_JAR}"
+
+benchmark "fast-startup" \
+  java -XX:SharedArchiveFile="${FAST_STARTUP_DIRECTORY}/application.jsa" \
+  -Dspring.aot.enabled=true -Dspring.profiles.active=fast-startup \
+  -jar "${FAST_STARTUP_DIRECTORY}/${JAR_NAME}"
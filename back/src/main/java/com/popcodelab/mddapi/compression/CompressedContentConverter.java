@@ -0,0 +1,25 @@
+package com.popcodelab.mddapi.compression;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * The CompressedContentConverter class stores the content of the posts with the {@link PostContentCodec}, so that
+ * the entities keep a plain String while the long contents are compressed in the database.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@Converter
+public class CompressedContentConverter implements AttributeConverter<String, byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(final String content) {
+        return content == null ? null : PostContentCodec.encode(content);
+    }
+
+    @Override
+    public String convertToEntityAttribute(final byte[] stored) {
+        return stored == null ? null : PostContentCodec.decode(stored);
+    }
+}
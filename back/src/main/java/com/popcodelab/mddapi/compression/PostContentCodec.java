@@ -0,0 +1,174 @@
+package com.popcodelab.mddapi.compression;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * The PostContentCodec class encodes the content of a post to the bytes stored in posts.content, and back.
+ * <p>
+ * The first byte is the version of the format. A content shorter than the compression threshold, or which does
+ * not shrink, is stored as is in UTF-8 after the {@link #RAW} byte. A longer one is stored after the
+ * {@link #DEFLATE_DICTIONARY_V1} byte as its length in UTF-8, on four bytes, followed by its raw Deflate stream
+ * compressed with a preset dictionary of words common in the posts, which makes even a few kilobytes of text
+ * shrink well. The dictionary of a version never changes: a new dictionary or algorithm takes a new version, the
+ * former ones remaining readable.
+ * <p>
+ * The class only depends on the JDK, so that the reactive reader decodes the content the same way.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+public final class PostContentCodec {
+
+    /**
+     * The version of the content stored as is, in UTF-8.
+     */
+    public static final byte RAW = 1;
+
+    /**
+     * The version of the content compressed by Deflate with the first dictionary.
+     */
+    public static final byte DEFLATE_DICTIONARY_V1 = 2;
+
+    /**
+     * The size in UTF-8 from which the content is compressed, a shorter one not being worth the CPU.
+     */
+    public static final int COMPRESSION_THRESHOLD = 512;
+
+    /**
+     * The size of the header of the compressed content: its version and its length.
+     */
+    private static final int DEFLATE_HEADER_SIZE = 1 + Integer.BYTES;
+
+    /**
+     * The first dictionary, the most frequent strings being at its end, where Deflate reaches them with the shortest
+     * distances. Never to be changed.
+     */
+    private static final byte[] DICTIONARY_V1 = ("""
+            however although because therefore example performance application configuration implementation \
+            architecture environment development production database framework language library function method \
+            variable parameter interface dependency container deployment microservice kubernetes docker version \
+            release feature request response server client browser frontend backend javascript typescript angular \
+            react python kotlin security authentication authorization password token session cookie network \
+            latency throughput memory thread process algorithm structure collection stream object instance class \
+            public private static final return import package exception error warning debug logging testing \
+            integration unit mock build maven gradle git branch commit merge review code source project team \
+            cloud service data model query index cache learning machine design system user post topic comment \
+            https://github.com/ https://www. ```java ```bash ``` **Note** - [ ] 1. 2. 3. le la les des une un \
+            pour dans avec sur est sont pas que qui plus mais comme this that with from have what when which \
+            there their about would could should will can are was were been into than then them these those \
+            also just only more most some such very well what's it's don't I'm you're we're. In the of the to the \
+            and the for the on the is a is the it is in a to be of a with a that the and a the\s""")
+            .getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * Utility class, not meant to be instantiated.
+     */
+    private PostContentCodec() {
+    }
+
+    /**
+     * Encodes a content, compressed if it reaches the compression threshold and shrinks.
+     *
+     * @param content the content
+     * @return the stored bytes, starting with the version of their format
+     */
+    public static byte[] encode(final String content) {
+        byte[] utf8 = content.getBytes(StandardCharsets.UTF_8);
+        if (utf8.length >= COMPRESSION_THRESHOLD) {
+            byte[] compressed = deflate(utf8);
+            if (compressed != null) {
+                return compressed;
+            }
+        }
+        byte[] stored = new byte[1 + utf8.length];
+        stored[0] = RAW;
+        System.arraycopy(utf8, 0, stored, 1, utf8.length);
+        return stored;
+    }
+
+    /**
+     * Decodes the stored bytes of a content.
+     *
+     * @param stored the stored bytes, starting with the version of their format
+     * @return the content
+     * @throws IllegalArgumentException if the version is unknown or the bytes are corrupted
+     */
+    public static String decode(final byte[] stored) {
+        if (stored.length == 0) {
+            throw new IllegalArgumentException("The stored content has no version");
+        }
+        return switch (stored[0]) {
+            case RAW -> new String(stored, 1, stored.length - 1, StandardCharsets.UTF_8);
+            case DEFLATE_DICTIONARY_V1 -> new String(inflate(stored), StandardCharsets.UTF_8);
+            default -> throw new IllegalArgumentException("Unknown version of the stored content : " + stored[0]);
+        };
+    }
+
+    /**
+     * Compresses a content with the dictionary.
+     *
+     * @param utf8 the content in UTF-8
+     * @return the stored bytes, or null if the content does not shrink
+     */
+    private static byte[] deflate(final byte[] utf8) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            deflater.setDictionary(DICTIONARY_V1);
+            deflater.setInput(utf8);
+            deflater.finish();
+            // Not worth storing unless it saves something on the raw content and its version byte
+            byte[] stored = new byte[utf8.length];
+            ByteBuffer.wrap(stored).put(DEFLATE_DICTIONARY_V1).putInt(utf8.length);
+            int length = DEFLATE_HEADER_SIZE;
+            while (!deflater.finished() && length < stored.length) {
+                length += deflater.deflate(stored, length, stored.length - length);
+            }
+            return deflater.finished() ? Arrays.copyOf(stored, length) : null;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Decompresses a content compressed with the dictionary.
+     *
+     * @param stored the stored bytes
+     * @return the content in UTF-8
+     */
+    private static byte[] inflate(final byte[] stored) {
+        if (stored.length < DEFLATE_HEADER_SIZE) {
+            throw new IllegalArgumentException("The stored content is truncated");
+        }
+        int length = ByteBuffer.wrap(stored, 1, Integer.BYTES).getInt();
+        if (length < 0) {
+            throw new IllegalArgumentException("The stored content has a negative length");
+        }
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setDictionary(DICTIONARY_V1);
+            inflater.setInput(stored, DEFLATE_HEADER_SIZE, stored.length - DEFLATE_HEADER_SIZE);
+            byte[] utf8 = new byte[length];
+            int inflated = 0;
+            while (inflated < length) {
+                int count = inflater.inflate(utf8, inflated, length - inflated);
+                if (count == 0 && (inflater.finished() || inflater.needsInput())) {
+                    break;
+                }
+                inflated += count;
+            }
+            if (inflated != length) {
+                throw new IllegalArgumentException("The stored content is truncated");
+            }
+            return utf8;
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("The stored content is corrupted", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.popcodelab.mddapi.configuration;
+
+import com.popcodelab.mddapi.sql.CommentWriteBehindQueue;
+import com.popcodelab.mddapi.sql.IdBlockAllocator;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+
+/**
+ * This class writes the new comments behind the requests, in batches, when
+ * application.comments.write-behind.enabled is true.
+ * <p>
+ * It must be enabled on all the backend instances at once: the identifiers of the queued comments are reserved
+ * in advance, and a comment inserted meanwhile by an instance using the AUTO_INCREMENT column could take one.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@Configuration
+@ConditionalOnProperty(name = "application.comments.write-behind.enabled", havingValue = "true")
+public class CommentWriteBehindConfiguration {
+
+    /**
+     * Returns the allocator of the identifiers of the comments.
+     *
+     * @param idBlockSize        the number of identifiers reserved at once
+     * @param jdbcTemplate       the JdbcTemplate running the reservations
+     * @param transactionManager the transaction manager of the DataSource
+     * @return the IdBlockAllocator of the comments table
+     */
+    @Bean
+    public IdBlockAllocator commentIdAllocator(
+            @Value("${application.comments.write-behind.id-block-size:100}") final int idBlockSize,
+            final JdbcTemplate jdbcTemplate, final PlatformTransactionManager transactionManager) {
+        return new IdBlockAllocator("comments", idBlockSize, jdbcTemplate, transactionManager);
+    }
+
+    /**
+     * Returns the queue of the comments waiting to be inserted.
+     *
+     * @param queueCapacity         the maximum number of comments waiting to be inserted
+     * @param maxBatchSize          the maximum number of comments inserted by a statement
+     * @param flushInterval         the maximum time a comment waits for its batch
+     * @param jdbcTemplate          the JdbcTemplate running the inserts
+     * @param transactionOperations the TransactionOperations running each batch in a transaction
+     * @return the CommentWriteBehindQueue
+     */
+    @Bean
+    public CommentWriteBehindQueue commentWriteBehindQueue(
+            @Value("${application.comments.write-behind.queue-capacity:10000}") final int queueCapacity,
+            @Value("${application.comments.write-behind.max-batch-size:500}") final int maxBatchSize,
+            @Value("${application.comments.write-behind.flush-interval:5ms}") final Duration flushInterval,
+            final JdbcTemplate jdbcTemplate, final TransactionOperations transactionOperations) {
+        return new CommentWriteBehindQueue(queueCapacity, maxBatchSize, flushInterval, jdbcTemplate,
+                transactionOperations);
+    }
+
+    /**
+     * Publishes the number of comments waiting to be inserted, as mdd.comments.write-behind.pending, and the
+     * number of comments dropped, as mdd.comments.write-behind.dropped.
+     *
+     * @param commentWriteBehindQueue the queue of the comments waiting to be inserted
+     * @return the MeterBinder of the gauge and the counter
+     */
+    @Bean
+    public MeterBinder commentWriteBehindMetrics(final CommentWriteBehindQueue commentWriteBehindQueue) {
+        return registry -> {
+            Gauge.builder("mdd.comments.write-behind.pending", commentWriteBehindQueue,
+                            CommentWriteBehindQueue::getPendingCount)
+                    .description("Comments accepted and not inserted yet")
+                    .register(registry);
+            FunctionCounter.builder("mdd.comments.write-behind.dropped", commentWriteBehindQueue,
+                            CommentWriteBehindQueue::getDroppedCount)
+                    .description("Comments accepted and never inserted")
+                    .register(registry);
+        };
+    }
+}
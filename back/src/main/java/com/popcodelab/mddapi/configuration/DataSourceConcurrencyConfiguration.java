@@ -0,0 +1,161 @@
+package com.popcodelab.mddapi.configuration;
+
+import com.popcodelab.mddapi.sql.ConcurrencyLimitedDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.lang.NonNull;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This class puts a {@link ConcurrencyLimitedDataSource} in front of each connection pool
+ * when application.datasource.concurrency-limit.enabled is true, as in the virtual profile.
+ * <p>
+ * Only the Hikari pools are limited, each with permits of its own: a routing DataSource, to the read replicas or
+ * to the shards, is left as is, so that a connection never waits on two semaphores. The pools created by
+ * {@link ReadReplicaConfiguration} and {@link ShardingConfiguration} are limited through
+ * {@link #limitConcurrency(HikariDataSource, String, Environment)}.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@Configuration
+@Log4j2
+@ConditionalOnProperty(name = "application.datasource.concurrency-limit.enabled", havingValue = "true")
+public class DataSourceConcurrencyConfiguration {
+
+    /**
+     * The prefix of the settings of the limit.
+     */
+    private static final String CONCURRENCY_LIMIT_PREFIX = "application.datasource.concurrency-limit";
+
+    /**
+     * Returns the BeanPostProcessor wrapping the Hikari pools declared as beans. It runs before the other
+     * BeanPostProcessors, which may wrap the pool themselves.
+     *
+     * @param environment the environment holding the settings of the limit
+     * @return the BeanPostProcessor
+     */
+    @Bean
+    public static BeanPostProcessor concurrencyLimitedDataSourcePostProcessor(final Environment environment) {
+        return new ConcurrencyLimitedDataSourcePostProcessor(environment);
+    }
+
+    /**
+     * Returns the MeterBinder publishing the permits of the limit of each pool, tagged with the name of the pool.
+     *
+     * @param dataSource the DataSource, wrapping the ConcurrencyLimitedDataSources
+     * @return the MeterBinder
+     */
+    @Bean
+    public MeterBinder dataSourceConcurrencyMetrics(final DataSource dataSource) {
+        return registry -> {
+            Map<String, ConcurrencyLimitedDataSource> limitedDataSources = new LinkedHashMap<>();
+            collectLimitedDataSources(dataSource, limitedDataSources);
+            limitedDataSources.forEach((poolName, limitedDataSource) -> {
+                Gauge.builder("mdd.datasource.permits.available", limitedDataSource,
+                                ConcurrencyLimitedDataSource::getAvailablePermits)
+                        .description("Connections which can be borrowed without waiting")
+                        .tag("pool", poolName)
+                        .register(registry);
+                Gauge.builder("mdd.datasource.permits.waiting", limitedDataSource,
+                                ConcurrencyLimitedDataSource::getWaitingThreads)
+                        .description("Threads waiting for a connection")
+                        .tag("pool", poolName)
+                        .register(registry);
+            });
+        };
+    }
+
+    /**
+     * Wraps a pool in a ConcurrencyLimitedDataSource when the limit is enabled. The number of permits defaults to
+     * the size of the pool and never exceeds it.
+     *
+     * @param pool        the pool
+     * @param name        the name of the pool, for the logs
+     * @param environment the environment holding the settings of the limit
+     * @return the limited pool, or the pool itself when the limit is disabled
+     */
+    public static DataSource limitConcurrency(final HikariDataSource pool, final String name,
+                                              final Environment environment) {
+        if (!environment.getProperty(CONCURRENCY_LIMIT_PREFIX + ".enabled", Boolean.class, false)) {
+            return pool;
+        }
+        int maxConcurrency = Math.min(pool.getMaximumPoolSize(), environment.getProperty(
+                CONCURRENCY_LIMIT_PREFIX + ".permits", Integer.class, pool.getMaximumPoolSize()));
+        Duration acquireTimeout = environment.getProperty(CONCURRENCY_LIMIT_PREFIX + ".acquire-timeout",
+                Duration.class, Duration.ofSeconds(60));
+        log.info("The pool {} is limited to {} concurrent connections", name, maxConcurrency);
+        return new ConcurrencyLimitedDataSource(pool, maxConcurrency, acquireTimeout);
+    }
+
+    /**
+     * Collects the ConcurrencyLimitedDataSources behind a DataSource, through the targets of the routing ones.
+     *
+     * @param dataSource         the DataSource
+     * @param limitedDataSources the ConcurrencyLimitedDataSources collected, by pool name
+     */
+    private static void collectLimitedDataSources(final DataSource dataSource,
+                                                  final Map<String, ConcurrencyLimitedDataSource> limitedDataSources) {
+        AbstractRoutingDataSource routingDataSource = DataSourceUnwrapper.unwrap(dataSource,
+                AbstractRoutingDataSource.class);
+        if (routingDataSource != null) {
+            routingDataSource.getResolvedDataSources().values()
+                    .forEach(target -> collectLimitedDataSources(target, limitedDataSources));
+            return;
+        }
+        ConcurrencyLimitedDataSource limitedDataSource = DataSourceUnwrapper.unwrap(dataSource,
+                ConcurrencyLimitedDataSource.class);
+        if (limitedDataSource != null) {
+            HikariDataSource pool = DataSourceUnwrapper.unwrap(limitedDataSource, HikariDataSource.class);
+            String poolName = pool == null || pool.getPoolName() == null ? "default" : pool.getPoolName();
+            limitedDataSources.putIfAbsent(poolName, limitedDataSource);
+        }
+    }
+
+    /**
+     * The BeanPostProcessor wrapping the Hikari pools declared as beans.
+     */
+    static class ConcurrencyLimitedDataSourcePostProcessor implements BeanPostProcessor, Ordered {
+
+        /**
+         * The environment holding the settings of the limit.
+         */
+        private final Environment environment;
+
+        /**
+         * Creates a ConcurrencyLimitedDataSourcePostProcessor.
+         *
+         * @param environment the environment holding the settings of the limit
+         */
+        ConcurrencyLimitedDataSourcePostProcessor(final Environment environment) {
+            this.environment = environment;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(@NonNull final Object bean, @NonNull final String beanName) {
+            if (bean instanceof HikariDataSource pool) {
+                return limitConcurrency(pool, beanName, environment);
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
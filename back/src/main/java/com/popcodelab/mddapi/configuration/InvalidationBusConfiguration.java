@@ -0,0 +1,75 @@
+package com.popcodelab.mddapi.configuration;
+
+import com.popcodelab.mddapi.invalidation.InMemoryInvalidationBus;
+import com.popcodelab.mddapi.invalidation.InvalidationListener;
+import com.popcodelab.mddapi.invalidation.MulticastInvalidationBus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.NetworkInterface;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * This class chooses the transport of the cache invalidations between the backend instances, with
+ * application.invalidation.transport: memory, the default, for a single instance, or multicast for several
+ * instances on the same network.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@Configuration
+public class InvalidationBusConfiguration {
+
+    /**
+     * Returns the bus of a single instance, which has no other instance to tell.
+     *
+     * @param listeners         the listeners owning the in-process caches
+     * @param heartbeatInterval the longest time without sending a batch
+     * @return the InMemoryInvalidationBus
+     */
+    @Bean
+    @ConditionalOnProperty(name = "application.invalidation.transport", havingValue = "memory", matchIfMissing = true)
+    public InMemoryInvalidationBus inMemoryInvalidationBus(
+            final List<InvalidationListener> listeners,
+            @Value("${application.invalidation.heartbeat-interval:5s}") final Duration heartbeatInterval) {
+        return new InMemoryInvalidationBus(listeners, heartbeatInterval, new InMemoryInvalidationBus.Network());
+    }
+
+    /**
+     * Returns the bus exchanging the invalidations on a multicast group.
+     *
+     * @param listeners         the listeners owning the in-process caches
+     * @param heartbeatInterval the longest time without sending a batch
+     * @param group             the address of the multicast group
+     * @param port              the port of the multicast group
+     * @param interfaceName     the name of the network interface joining the group, the loopback one if blank
+     * @param timeToLive        the number of routers the datagrams may cross
+     * @return the MulticastInvalidationBus
+     * @throws IOException if the group or the network interface cannot be found
+     */
+    @Bean
+    @ConditionalOnProperty(name = "application.invalidation.transport", havingValue = "multicast")
+    public MulticastInvalidationBus multicastInvalidationBus(
+            final List<InvalidationListener> listeners,
+            @Value("${application.invalidation.heartbeat-interval:5s}") final Duration heartbeatInterval,
+            @Value("${application.invalidation.multicast.group:239.255.77.77}") final String group,
+            @Value("${application.invalidation.multicast.port:45677}") final int port,
+            @Value("${application.invalidation.multicast.interface:}") final String interfaceName,
+            @Value("${application.invalidation.multicast.time-to-live:1}") final int timeToLive)
+            throws IOException {
+        NetworkInterface networkInterface = interfaceName.isBlank()
+                ? NetworkInterface.getByInetAddress(InetAddress.getLoopbackAddress())
+                : NetworkInterface.getByName(interfaceName);
+        if (networkInterface == null) {
+            throw new IllegalStateException("Unknown network interface for the invalidations : " + interfaceName);
+        }
+        return new MulticastInvalidationBus(listeners, heartbeatInterval, new InetSocketAddress(InetAddress.getByName(group), port),
+                networkInterface, timeToLive);
+    }
+}
@@ -0,0 +1,62 @@
+package com.popcodelab.mddapi.configuration;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * This class configures the serialization of the DTOs.
+ * <p>
+ * Besides JSON, the responses can be negotiated as CBOR (application/cbor) or Smile (application/x-jackson-smile)
+ * with the Accept header. The binary converters are built from the ObjectMapper builder of Spring Boot, so they
+ * share the settings and modules of the JSON one. JSON stays the default format.
+ * The Blackbird module replaces the reflective accessors of Jackson by generated ones in every format.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@Configuration
+public class JacksonConfiguration {
+
+    /**
+     * The media type of Smile.
+     */
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    /**
+     * Returns the Blackbird module, registered by Spring Boot in the ObjectMappers.
+     *
+     * @return the BlackbirdModule
+     */
+    @Bean
+    public BlackbirdModule blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    /**
+     * Returns the converter of the CBOR responses.
+     *
+     * @param builder the ObjectMapper builder of Spring Boot
+     * @return the MappingJackson2CborHttpMessageConverter
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(final Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    /**
+     * Returns the converter of the Smile responses.
+     *
+     * @param builder the ObjectMapper builder of Spring Boot
+     * @return the MappingJackson2SmileHttpMessageConverter
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(final Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
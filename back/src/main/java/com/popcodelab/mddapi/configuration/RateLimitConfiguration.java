@@ -0,0 +1,50 @@
+package com.popcodelab.mddapi.configuration;
+
+import com.popcodelab.mddapi.ratelimit.RateLimitFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * This class installs the {@link RateLimitFilter} with the policies of application.rate-limit.policies,
+ * unless application.rate-limit.enabled is false.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+@ConditionalOnProperty(name = "application.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfiguration {
+
+    /**
+     * Returns the filter limiting the rate of the requests.
+     *
+     * @param rateLimitProperties the rate limits of the endpoints
+     * @param meterRegistry       the registry of the metrics
+     * @return the RateLimitFilter
+     */
+    @Bean
+    public RateLimitFilter rateLimitFilter(final RateLimitProperties rateLimitProperties,
+                                           final MeterRegistry meterRegistry) {
+        return new RateLimitFilter(rateLimitProperties.getPolicies(), rateLimitProperties.getMaxClients(),
+                meterRegistry);
+    }
+
+    /**
+     * Registers the filter right after the Spring Security filters, which authenticate the user of the request.
+     *
+     * @param rateLimitFilter the filter limiting the rate of the requests
+     * @return the FilterRegistrationBean
+     */
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(final RateLimitFilter rateLimitFilter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registration;
+    }
+}
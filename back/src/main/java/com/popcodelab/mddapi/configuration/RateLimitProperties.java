@@ -0,0 +1,82 @@
+package com.popcodelab.mddapi.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The RateLimitProperties class holds the rate limits of the endpoints, under application.rate-limit.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@Data
+@ConfigurationProperties(prefix = "application.rate-limit")
+public class RateLimitProperties {
+
+    /**
+     * The rate limited endpoints, a request being limited by the first policy matching it.
+     */
+    private List<Policy> policies = new ArrayList<>();
+
+    /**
+     * The maximum number of clients tracked by each policy.
+     */
+    private int maxClients = 1_000_000;
+
+    /**
+     * The rate limit of an endpoint.
+     */
+    @Data
+    public static class Policy {
+
+        /**
+         * The name of the policy, tagging its metrics.
+         */
+        private String name;
+
+        /**
+         * The HTTP method of the endpoint.
+         */
+        private String method;
+
+        /**
+         * The path pattern of the endpoint, such as /api/posts/{postId}/comments.
+         */
+        private String path;
+
+        /**
+         * What identifies a client.
+         */
+        private Key key = Key.USER;
+
+        /**
+         * The number of requests allowed in a burst, then per period.
+         */
+        private int limit;
+
+        /**
+         * The time needed to allow a full burst again.
+         */
+        private Duration period = Duration.ofMinutes(1);
+    }
+
+    /**
+     * What identifies a client.
+     */
+    public enum Key {
+
+        /**
+         * The authenticated user, or the IP address of the anonymous requests.
+         */
+        USER,
+
+        /**
+         * The IP address.
+         */
+        IP
+    }
+}
@@ -0,0 +1,213 @@
+package com.popcodelab.mddapi.configuration;
+
+import com.popcodelab.mddapi.sql.ReadYourWritesFilter;
+import com.popcodelab.mddapi.sql.ReadYourWritesTracker;
+import com.popcodelab.mddapi.sql.ReplicaHealthChecker;
+import com.popcodelab.mddapi.sql.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class replaces the DataSource of Spring Boot by a {@link ReplicaRoutingDataSource} when at least one
+ * read replica is configured under application.datasource.replication.replicas.
+ * <p>
+ * The pools of the primary and the replicas are created here rather than declared as beans, so that only the
+ * routing DataSource is wrapped by the statement counting and the concurrency limit. They share the
+ * spring.datasource.hikari settings.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@Configuration
+@Log4j2
+@EnableConfigurationProperties(ReplicationProperties.class)
+@ConditionalOnProperty(name = "application.datasource.replication.replicas[0].url")
+public class ReadReplicaConfiguration implements DisposableBean {
+
+    /**
+     * The prefix of the settings of the Hikari pools.
+     */
+    private static final String HIKARI_PREFIX = "spring.datasource.hikari";
+
+    /**
+     * The routing DataSource, closed with the context.
+     */
+    private ReplicaRoutingDataSource routingDataSource;
+
+    /**
+     * Returns the tracker of the users pinned to the primary after a write.
+     *
+     * @param replicationProperties the settings of the replicas
+     * @return the ReadYourWritesTracker
+     */
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(final ReplicationProperties replicationProperties) {
+        return new ReadYourWritesTracker(replicationProperties.getReadYourWritesWindow());
+    }
+
+    /**
+     * Returns the filter carrying the pins of the users with their requests, so that they hold on every instance.
+     *
+     * @param readYourWritesTracker the users pinned to the primary after a write
+     * @return the ReadYourWritesFilter
+     */
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(final ReadYourWritesTracker readYourWritesTracker) {
+        return new ReadYourWritesFilter(readYourWritesTracker);
+    }
+
+    /**
+     * Registers the filter right after the Spring Security filters, around the requests reaching the controllers.
+     *
+     * @param readYourWritesFilter the filter carrying the pins of the users
+     * @return the FilterRegistrationBean
+     */
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilterRegistration(
+            final ReadYourWritesFilter readYourWritesFilter) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration = new FilterRegistrationBean<>(readYourWritesFilter);
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registration;
+    }
+
+    /**
+     * Returns the DataSource of the application, routing the read-only transactions to the replicas.
+     *
+     * @param dataSourceProperties  the settings of the primary database
+     * @param replicationProperties the settings of the replicas
+     * @param readYourWritesTracker the users pinned to the primary after a write
+     * @param environment           the environment holding the settings of the pools
+     * @param meterRegistry         the registry of the metrics of the pools
+     * @return the DataSource
+     */
+    @Bean
+    public DataSource dataSource(final DataSourceProperties dataSourceProperties,
+                                 final ReplicationProperties replicationProperties,
+                                 final ReadYourWritesTracker readYourWritesTracker,
+                                 final Environment environment,
+                                 final ObjectProvider<MeterRegistry> meterRegistry) {
+        Binder binder = Binder.get(environment);
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        configurePool(primary, "mdd-primary", binder, meterRegistry);
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        List<ReplicationProperties.Replica> replicaSettings = replicationProperties.getReplicas();
+        for (int i = 0; i < replicaSettings.size(); i++) {
+            ReplicationProperties.Replica settings = replicaSettings.get(i);
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(dataSourceProperties.determineDriverClassName())
+                    .url(settings.getUrl())
+                    .username(StringUtils.hasText(settings.getUsername())
+                            ? settings.getUsername() : dataSourceProperties.determineUsername())
+                    .password(StringUtils.hasText(settings.getPassword())
+                            ? settings.getPassword() : dataSourceProperties.determinePassword())
+                    .build();
+            String name = "mdd-replica-" + i;
+            configurePool(replica, name, binder, meterRegistry);
+            replicas.put(name, DataSourceConcurrencyConfiguration.limitConcurrency(replica, name, environment));
+        }
+
+        routingDataSource = new ReplicaRoutingDataSource(
+                DataSourceConcurrencyConfiguration.limitConcurrency(primary, primary.getPoolName(), environment),
+                replicas, readYourWritesTracker);
+        log.info("The read-only transactions are routed to {} replica(s)", replicas.size());
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    /**
+     * Returns the health checker of the replicas, run on a fixed delay.
+     *
+     * @param dataSource            the DataSource, wrapping the ReplicaRoutingDataSource
+     * @param replicationProperties the settings of the replicas
+     * @param readYourWritesTracker the users pinned to the primary after a write
+     * @return the ReplicaHealthChecker
+     */
+    @Bean
+    public ReplicaHealthChecker replicaHealthChecker(final DataSource dataSource,
+                                                     final ReplicationProperties replicationProperties,
+                                                     final ReadYourWritesTracker readYourWritesTracker) {
+        return new ReplicaHealthChecker(DataSourceUnwrapper.unwrap(dataSource, ReplicaRoutingDataSource.class),
+                readYourWritesTracker, replicationProperties.getLagQuery(), replicationProperties.getMaxLag());
+    }
+
+    /**
+     * Returns the MeterBinder publishing the state of the routing.
+     *
+     * @param dataSource            the DataSource, wrapping the ReplicaRoutingDataSource
+     * @param readYourWritesTracker the users pinned to the primary after a write
+     * @return the MeterBinder
+     */
+    @Bean
+    public MeterBinder readReplicaMetrics(final DataSource dataSource, final ReadYourWritesTracker readYourWritesTracker) {
+        return registry -> {
+            ReplicaRoutingDataSource replicaRoutingDataSource =
+                    DataSourceUnwrapper.unwrap(dataSource, ReplicaRoutingDataSource.class);
+            if (replicaRoutingDataSource == null) {
+                return;
+            }
+            Gauge.builder("mdd.datasource.replicas.available", replicaRoutingDataSource,
+                            ReplicaRoutingDataSource::getAvailableReplicaCount)
+                    .description("Read replicas serving the read-only transactions")
+                    .register(registry);
+            Gauge.builder("mdd.datasource.read-your-writes.pinned", readYourWritesTracker,
+                            ReadYourWritesTracker::getPinnedCount)
+                    .description("Users reading from the primary after a write")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Closes the pools of the primary and the replicas.
+     *
+     * @throws Exception if a pool cannot be closed
+     */
+    @Override
+    public void destroy() throws Exception {
+        if (routingDataSource != null) {
+            routingDataSource.close();
+        }
+    }
+
+    /**
+     * Applies the shared settings to a pool.
+     *
+     * @param pool          the pool
+     * @param name          the name of the pool, used by its metrics
+     * @param binder        the binder of the spring.datasource.hikari settings
+     * @param meterRegistry the registry of the metrics of the pool
+     */
+    private static void configurePool(final HikariDataSource pool, final String name, final Binder binder,
+                                      final ObjectProvider<MeterRegistry> meterRegistry) {
+        binder.bind(HIKARI_PREFIX, Bindable.ofInstance(pool));
+        pool.setPoolName(name);
+        meterRegistry.ifAvailable(registry -> pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+    }
+}
@@ -0,0 +1,62 @@
+package com.popcodelab.mddapi.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The ReplicationProperties class holds the settings of the read replicas, under application.datasource.replication.
+ * The username and password of a replica default to the ones of the primary database.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@Data
+@ConfigurationProperties(prefix = "application.datasource.replication")
+public class ReplicationProperties {
+
+    /**
+     * The read replicas, none by default.
+     */
+    private List<Replica> replicas = new ArrayList<>();
+
+    /**
+     * The query measuring the lag of a replica, in seconds.
+     */
+    private String lagQuery = "SHOW REPLICA STATUS";
+
+    /**
+     * The maximum lag of a replica serving the reads.
+     */
+    private Duration maxLag = Duration.ofSeconds(2);
+
+    /**
+     * The duration during which a user reads from the primary after a write.
+     */
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+    /**
+     * The connection settings of a read replica.
+     */
+    @Data
+    public static class Replica {
+
+        /**
+         * The JDBC URL of the replica.
+         */
+        private String url;
+
+        /**
+         * The username, defaulting to the one of the primary.
+         */
+        private String username;
+
+        /**
+         * The password, defaulting to the one of the primary.
+         */
+        private String password;
+    }
+}
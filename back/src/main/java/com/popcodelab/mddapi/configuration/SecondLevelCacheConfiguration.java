@@ -0,0 +1,73 @@
+package com.popcodelab.mddapi.configuration;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * This class publishes the hit ratio of each region of the Hibernate second-level cache,
+ * next to the hit and miss counters published by hibernate-micrometer.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@Configuration
+public class SecondLevelCacheConfiguration {
+
+    /**
+     * The regions of the cacheable queries, created on their first use.
+     */
+    private static final List<String> QUERY_REGIONS = List.of("topic-queries", "user-queries");
+
+    /**
+     * Returns the MeterBinder publishing the hit ratio of the regions.
+     *
+     * @param entityManagerFactory the EntityManagerFactory, wrapping the SessionFactory holding the statistics
+     * @return the MeterBinder
+     */
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(final EntityManagerFactory entityManagerFactory) {
+        return registry -> {
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            Set<String> regions = new LinkedHashSet<>(Arrays.asList(statistics.getSecondLevelCacheRegionNames()));
+            regions.addAll(QUERY_REGIONS);
+            for (String region : regions) {
+                Gauge.builder("mdd.hibernate.cache.hit.ratio", statistics, stats -> hitRatio(stats, region))
+                        .tag("region", region)
+                        .description("Share of the lookups of the region found in the second-level cache")
+                        .register(registry);
+            }
+        };
+    }
+
+    /**
+     * Computes the hit ratio of a region.
+     *
+     * @param statistics the statistics of Hibernate
+     * @param region     the name of the region
+     * @return the hit ratio, or NaN if the region has not been used yet
+     */
+    private static double hitRatio(final Statistics statistics, final String region) {
+        CacheRegionStatistics regionStatistics;
+        try {
+            regionStatistics = statistics.getCacheRegionStatistics(region);
+        } catch (IllegalArgumentException e) {
+            return Double.NaN;
+        }
+        if (regionStatistics == null) {
+            return Double.NaN;
+        }
+        long lookups = regionStatistics.getHitCount() + regionStatistics.getMissCount();
+        return lookups == 0 ? Double.NaN : (double) regionStatistics.getHitCount() / lookups;
+    }
+}
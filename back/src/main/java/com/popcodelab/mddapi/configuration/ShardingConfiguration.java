@@ -0,0 +1,175 @@
+package com.popcodelab.mddapi.configuration;
+
+import com.popcodelab.mddapi.sharding.ShardRoutingDataSource;
+import com.popcodelab.mddapi.sharding.ShardTemplate;
+import com.popcodelab.mddapi.sharding.TopicShardRouter;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.log4j.Log4j2;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.NonNull;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class stores the posts and their comments on shards, by topic, when at least one shard is configured under
+ * application.datasource.sharding.shards. The DataSource of the application is wrapped in a
+ * {@link ShardRoutingDataSource}, its database remaining the default one for everything else.
+ * <p>
+ * Each shard generates the IDs of its rows with an offset of its own, set on its MySQL connections, so that the IDs
+ * stay unique across the shards. The users and the topics stay in the default database, so the foreign keys of the
+ * posts and the comments to them cannot hold on a shard: the connections of a shard do not check the foreign keys.
+ * The schema of every shard is migrated with the default database.
+ * <p>
+ * The existing posts of the default database are not moved to the shards, where they would be looked for: the
+ * application refuses to start with shards while the default database holds posts. The comments written behind
+ * insert into the default database, with ids of its own, and are not supported with the shards either.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@Configuration
+@Log4j2
+@EnableConfigurationProperties(ShardingProperties.class)
+@ConditionalOnProperty(name = "application.datasource.sharding.shards[0].url")
+public class ShardingConfiguration {
+
+    /**
+     * The prefix of the settings of the shards.
+     */
+    private static final String SHARDING_PREFIX = "application.datasource.sharding";
+
+    /**
+     * The prefix of the settings of the Hikari pools.
+     */
+    private static final String HIKARI_PREFIX = "spring.datasource.hikari";
+
+    /**
+     * Returns the BeanPostProcessor wrapping the DataSource of the application in a ShardRoutingDataSource, with
+     * a pool per shard sharing the spring.datasource.hikari settings.
+     *
+     * @param environment the environment holding the settings of the shards
+     * @return the BeanPostProcessor
+     */
+    @Bean
+    public static BeanPostProcessor shardRoutingDataSourcePostProcessor(final Environment environment) {
+        if (environment.getProperty("application.comments.write-behind.enabled", Boolean.class, false)) {
+            throw new IllegalStateException("The comments cannot be written behind on shards, "
+                    + "application.comments.write-behind.enabled must be false");
+        }
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(@NonNull final Object bean, @NonNull final String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource
+                        && !(bean instanceof ShardRoutingDataSource)) {
+                    Map<String, DataSource> shards = createShards(Binder.get(environment), environment);
+                    log.info("The posts and their comments are stored on {} shard(s)", shards.size());
+                    return new ShardRoutingDataSource(dataSource, shards);
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Returns the router placing the topics on the shards.
+     *
+     * @param shardingProperties the settings of the shards
+     * @return the TopicShardRouter
+     */
+    @Bean
+    public TopicShardRouter topicShardRouter(final ShardingProperties shardingProperties) {
+        return new TopicShardRouter(
+                shardingProperties.getShards().stream().map(ShardingProperties.Shard::getName).toList(),
+                shardingProperties.getPinnedTopics());
+    }
+
+    /**
+     * Returns the template running the work on the posts and their comments on their shard.
+     *
+     * @param topicShardRouter   the router placing the topics on the shards
+     * @param transactionManager the transaction manager of the DataSource
+     * @return the ShardTemplate
+     */
+    @Bean
+    public ShardTemplate shardTemplate(final TopicShardRouter topicShardRouter,
+                                       final PlatformTransactionManager transactionManager) {
+        return new ShardTemplate(topicShardRouter, transactionManager);
+    }
+
+    /**
+     * Returns the migration of the default database, followed by the one of each shard with the same settings.
+     * The default database must not hold any post, as the posts are only looked for on the shards.
+     *
+     * @param dataSource the DataSource, wrapping the ShardRoutingDataSource
+     * @return the FlywayMigrationStrategy
+     */
+    @Bean
+    public FlywayMigrationStrategy shardedFlywayMigrationStrategy(final DataSource dataSource) {
+        return flyway -> {
+            flyway.migrate();
+            if (!new JdbcTemplate(dataSource).queryForList("SELECT id FROM posts LIMIT 1", Long.class).isEmpty()) {
+                throw new IllegalStateException("The default database holds posts, which are not moved to the shards:"
+                        + " the shards can only be enabled on a database without posts");
+            }
+            DataSourceUnwrapper.unwrap(dataSource, ShardRoutingDataSource.class).getShards().forEach((name, shard) -> {
+                log.info("Migrating the schema of the shard {}", name);
+                Flyway.configure().configuration(flyway.getConfiguration()).dataSource(shard).load().migrate();
+            });
+        };
+    }
+
+    /**
+     * Creates the pools of the shards.
+     *
+     * @param binder      the binder of the settings
+     * @param environment the environment holding the settings of the default database
+     * @return the pools, by shard name
+     */
+    private static Map<String, DataSource> createShards(final Binder binder, final Environment environment) {
+        ShardingProperties properties = binder.bind(SHARDING_PREFIX, ShardingProperties.class)
+                .orElseGet(ShardingProperties::new);
+        List<ShardingProperties.Shard> shardSettings = properties.getShards();
+        Map<String, DataSource> shards = new LinkedHashMap<>();
+        for (int i = 0; i < shardSettings.size(); i++) {
+            ShardingProperties.Shard settings = shardSettings.get(i);
+            HikariDataSource shard = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(environment.getProperty("spring.datasource.driver-class-name"))
+                    .url(settings.getUrl())
+                    .username(StringUtils.hasText(settings.getUsername())
+                            ? settings.getUsername() : environment.getProperty("spring.datasource.username"))
+                    .password(StringUtils.hasText(settings.getPassword())
+                            ? settings.getPassword() : environment.getProperty("spring.datasource.password"))
+                    .build();
+            binder.bind(HIKARI_PREFIX, Bindable.ofInstance(shard));
+            shard.setPoolName("mdd-shard-" + settings.getName());
+            if (!settings.getUrl().startsWith("jdbc:mysql:")) {
+                throw new IllegalStateException("The shard " + settings.getName() + " must be a MySQL database");
+            }
+            // The shard i generates the IDs equal to i + 1 modulo the number of shards, and its rows reference
+            // the users and the topics of the default database
+            shard.setConnectionInitSql("SET SESSION auto_increment_increment = " + shardSettings.size()
+                    + ", auto_increment_offset = " + (i + 1) + ", foreign_key_checks = 0");
+            shards.put(settings.getName(),
+                    DataSourceConcurrencyConfiguration.limitConcurrency(shard, shard.getPoolName(), environment));
+        }
+        return shards;
+    }
+}
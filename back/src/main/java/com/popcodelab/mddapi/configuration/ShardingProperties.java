@@ -0,0 +1,58 @@
+package com.popcodelab.mddapi.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The ShardingProperties class holds the settings of the shards of the posts and their comments, under
+ * application.datasource.sharding. The username and password of a shard default to the ones of the default database.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@Data
+@ConfigurationProperties(prefix = "application.datasource.sharding")
+public class ShardingProperties {
+
+    /**
+     * The shards, none by default. Their order must never change, the IDs generated by a shard depending on it.
+     */
+    private List<Shard> shards = new ArrayList<>();
+
+    /**
+     * The shards of the pinned topics, such as the hot ones, by topic ID.
+     */
+    private Map<Long, String> pinnedTopics = new HashMap<>();
+
+    /**
+     * The connection settings of a shard.
+     */
+    @Data
+    public static class Shard {
+
+        /**
+         * The name of the shard.
+         */
+        private String name;
+
+        /**
+         * The JDBC URL of the shard.
+         */
+        private String url;
+
+        /**
+         * The username, defaulting to the one of the default database.
+         */
+        private String username;
+
+        /**
+         * The password, defaulting to the one of the default database.
+         */
+        private String password;
+    }
+}
@@ -109,7 +109,7 @@ public class AuthenticationController {
             Authentication authentication = this.authenticationService.authenticateUser(signInDto);
             // Generate a JWT token for the authenticated user
             String token = jwtService.generateToken(authentication);
-            log.debug("token : {}", token);
+            log.debug("A token has been issued to {}", authentication.getName());
             // Return the token in the response body with a 200 OK status
             return ResponseEntity.ok(Collections.singletonMap("token", token));
         } catch (AuthenticationException e) {
@@ -2,6 +2,7 @@ package com.popcodelab.mddapi.controllers;
 
 import com.popcodelab.mddapi.dto.comment.CommentDto;
 import com.popcodelab.mddapi.services.CommentService;
+import com.popcodelab.mddapi.services.IdempotencyService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -70,8 +71,9 @@ public class CommentController {
     /**
      * Adds a new comment to a post
      *
-     * @param postId     The ID of the post to add the comment to
-     * @param commentDTO The CommentDto object containing the details of the comment
+     * @param postId         The ID of the post to add the comment to
+     * @param commentDTO     The CommentDto object containing the details of the comment
+     * @param idempotencyKey The optional Idempotency-Key header, a retry with the same key returning the same comment
      * @return The ResponseEntity containing the created CommentDto object
      */
     @Operation(summary = "Adds a new comment to a post")
@@ -80,6 +82,7 @@ public class CommentController {
                     description = "Comment added successfully",
                     content = @Content(schema = @Schema(implementation = CommentDto.class))),
             @ApiResponse(responseCode = "400", description = "Bad request, invalid input"),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key already used for a different comment"),
             @ApiResponse(
                     responseCode = "401",
                     description = "Unauthorized : The request lacks valid authentication credentials"
@@ -88,9 +91,11 @@ public class CommentController {
     })
     @PostMapping
     public ResponseEntity<CommentDto> addNewCommentToPost(final @PathVariable Long postId,
-                                                          final @RequestBody CommentDto commentDTO) {
+                                                          final @RequestBody CommentDto commentDTO,
+                                                          final @RequestHeader(name = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false)
+                                                          String idempotencyKey) {
         commentDTO.setPostId(postId);
-        CommentDto createdComment = commentService.addNewComment(commentDTO);
+        CommentDto createdComment = commentService.addNewComment(commentDTO, idempotencyKey);
         return new ResponseEntity<>(createdComment, HttpStatus.CREATED);
     }
 }
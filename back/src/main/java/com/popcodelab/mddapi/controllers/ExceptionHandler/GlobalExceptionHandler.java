@@ -1,5 +1,6 @@
 package com.popcodelab.mddapi.controllers.ExceptionHandler;
 
+import com.popcodelab.mddapi.exceptions.IdempotencyKeyReusedException;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -19,6 +20,21 @@ import java.util.Date;
 @Log4j2
 public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
 
+    /**
+     * Handles the reuse of an Idempotency-Key for a different request and returns a 422 error response.
+     *
+     * @param ex The exception that occurred.
+     * @param request The web request that triggered the exception.
+     * @return A ResponseEntity containing an ErrorDetails object.
+     */
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<?> idempotencyKeyReusedExceptionHandler(final IdempotencyKeyReusedException ex,
+                                                                  final WebRequest request) {
+        ErrorDetails errorDetails = new ErrorDetails(new Date(), ex.getMessage(), request.getDescription(false));
+        log.warn("Idempotency-Key reused : {} > {}", errorDetails.getMessage(), errorDetails.getDetails());
+        return new ResponseEntity<>(errorDetails, HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
     /**
      * Handles global exceptions and returns an error response.
      *
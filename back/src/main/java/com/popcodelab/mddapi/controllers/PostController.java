@@ -3,6 +3,7 @@ package com.popcodelab.mddapi.controllers;
 
 import com.popcodelab.mddapi.dto.authentication.UserDto;
 import com.popcodelab.mddapi.dto.post.PostDto;
+import com.popcodelab.mddapi.services.IdempotencyService;
 import com.popcodelab.mddapi.services.PostService;
 import com.popcodelab.mddapi.services.UserService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -114,8 +115,8 @@ public class PostController {
             @ApiResponse(responseCode = "404", description = "Not found"),
             @ApiResponse(responseCode = "500", description = "Internal Server Error")
     })
-    public ResponseEntity<PostDto> getPostById(final @PathVariable Long id) {
-        Optional<PostDto> optionalPost = postService.getPostById(id);
+    public ResponseEntity<PostDto> getPostById(final @PathVariable Long id, final Authentication authentication) {
+        Optional<PostDto> optionalPost = postService.getPostById(id, authentication.getName());
         return optionalPost.map(postDto -> new ResponseEntity<>(postDto, HttpStatus.OK)).orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
     }
 
@@ -124,7 +125,8 @@ public class PostController {
      * !
      * Creates a new Post.
      *
-     * @param postDto the PostDto object representing the post to be created
+     * @param postDto        the PostDto object representing the post to be created
+     * @param idempotencyKey the optional Idempotency-Key header, a retry with the same key returning the same post
      * @return the ResponseEntity containing the newly created PostDto object and the HTTP status code 201 (Created)
      */
     @PostMapping
@@ -134,14 +136,17 @@ public class PostController {
                     description = "Post created successfully",
                     content = @Content(schema = @Schema(implementation = PostDto.class))),
             @ApiResponse(responseCode = "400", description = "Bad request, invalid input"),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key already used for a different post"),
             @ApiResponse(
                     responseCode = "401",
                     description = "Unauthorized : The request lacks valid authentication credentials"
             ),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
-    public ResponseEntity<PostDto> newPost(final @RequestBody PostDto postDto) {
-        PostDto newPost = postService.newPost(postDto);
+    public ResponseEntity<PostDto> newPost(final @RequestBody PostDto postDto,
+                                           final @RequestHeader(name = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false)
+                                           String idempotencyKey) {
+        PostDto newPost = postService.newPost(postDto, idempotencyKey);
         return new ResponseEntity<>(newPost, HttpStatus.CREATED);
     }
 }
@@ -1,6 +1,9 @@
 package com.popcodelab.mddapi.controllers;
 
+import com.popcodelab.mddapi.configuration.JacksonConfiguration;
+import com.popcodelab.mddapi.dto.topic.TopicCatalog;
 import com.popcodelab.mddapi.dto.topic.TopicDto;
+import com.popcodelab.mddapi.services.TopicSearchService;
 import com.popcodelab.mddapi.services.TopicService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -10,13 +13,19 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
+import java.util.Locale;
 
 /**
  * The TopicController class is responsible for handling requests related to topics.
@@ -27,6 +36,11 @@ import java.util.List;
 @Tag(name = "Topic", description = "The Topics API. Includes all operations related to topic management.")
 public class TopicController {
 
+    /**
+     * The maximum number of topics returned by a search.
+     */
+    private static final int MAX_SEARCH_LIMIT = 100;
+
     /**
      * The TopicService interface defines the contract for a service that manages topics.
      * It provides methods to retrieve all topics.
@@ -34,37 +48,223 @@ public class TopicController {
     private final TopicService topicService;
 
     /**
-     * Constructs a new TopicController object with the specified TopicService.
+     * The TopicSearchService provides the prefix search used to filter and autocomplete the topics.
+     */
+    private final TopicSearchService topicSearchService;
+
+    /**
+     * Constructs a new TopicController object with the specified TopicService and TopicSearchService.
      *
-     * @param topicService the TopicService instance to be used by the controller
+     * @param topicService       the TopicService instance to be used by the controller
+     * @param topicSearchService the TopicSearchService instance to be used by the controller
      */
-    public TopicController(final TopicService topicService) {
+    public TopicController(final TopicService topicService, final TopicSearchService topicSearchService) {
         this.topicService = topicService;
+        this.topicSearchService = topicSearchService;
     }
 
     /**
      * Retrieves all topics.
+     * <p>
+     * The response body is the pre-serialized topic catalog, sent gzipped when the Accept-Encoding header of the
+     * client accepts gzip with a non-zero quality. The response varies by Accept-Encoding.
+     * The catalog carries a strong ETag, suffixed with -gzip for the gzipped representation, each encoding being a
+     * different representation: a client sending it back in If-None-Match gets a 304 (Not Modified).
      *
-     * @return A ResponseEntity containing a list of TopicDto objects representing the retrieved topics.
+     * @param ifNoneMatch    The entity tag previously received by the client, if any.
+     * @param acceptEncoding The encodings accepted by the client, if any.
+     * @return A ResponseEntity containing the JSON list of TopicDto objects representing the retrieved topics.
      *         The HTTP status code is set to 200 (OK) if topics are found.
+     *         The HTTP status code is set to 304 (Not Modified) if the client copy is still current.
      *         The HTTP status code is set to 401 (Unauthorized) if the user must authenticate itself.
      *         The HTTP status code is set to 404 (Not Found) if no topics are found.
      *         The HTTP status code is set to 500 (Internal Server Error) if an unexpected error occurs.
      */
-    @GetMapping
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "Get all the topics")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "OK : List of topics found",
                     content = @Content(array = @ArraySchema(schema = @Schema(implementation = TopicDto.class)))),
+            @ApiResponse(responseCode = "304", description = "Not Modified : the client copy is still current"),
             @ApiResponse(responseCode = "401", description = "Unauthorized : the user must authenticate itself to get" +
                     " the requested response"),
             @ApiResponse(responseCode = "404", description = "Not Found : No topics found"),
             @ApiResponse(responseCode = "500", description = "Internal Server Error : An unexpected error occurred"
             )
     })
-    public ResponseEntity<List<TopicDto>> getAllTopics() {
-        log.info("Seeking for the topics...");
-        List<TopicDto> topics = topicService.getAllTopics();
+    public ResponseEntity<byte[]> getAllTopics(
+            final @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            final @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        TopicCatalog catalog = topicService.getTopicCatalog();
+        boolean gzipped = acceptsGzip(acceptEncoding);
+        String etag = gzipped ? representationEtag(catalog, "gzip") : catalog.getEtag();
+        if (ifNoneMatch != null && ifNoneMatch.contains(etag)) {
+            return withCatalogHeaders(ResponseEntity.status(HttpStatus.NOT_MODIFIED), etag).build();
+        }
+        ResponseEntity.BodyBuilder builder = withCatalogHeaders(ResponseEntity.ok(), etag)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (gzipped) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .contentLength(catalog.getGzippedJson().length)
+                    .body(catalog.getGzippedJson());
+        }
+        return builder.contentLength(catalog.getJson().length).body(catalog.getJson());
+    }
+
+    /**
+     * Retrieves all topics in CBOR.
+     *
+     * @param ifNoneMatch The entity tag previously received by the client, if any.
+     * @return A ResponseEntity containing the CBOR list of TopicDto objects representing the retrieved topics.
+     *         The HTTP status code is set to 200 (OK) if topics are found.
+     *         The HTTP status code is set to 304 (Not Modified) if the client copy is still current.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_CBOR_VALUE)
+    @Operation(summary = "Get all the topics in CBOR")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK : List of topics found",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = TopicDto.class)))),
+            @ApiResponse(responseCode = "304", description = "Not Modified : the client copy is still current")
+    })
+    public ResponseEntity<List<TopicDto>> getAllTopicsAsCbor(
+            final @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return getAllTopicsInBinaryFormat(ifNoneMatch, "cbor");
+    }
+
+    /**
+     * Retrieves all topics in Smile.
+     *
+     * @param ifNoneMatch The entity tag previously received by the client, if any.
+     * @return A ResponseEntity containing the Smile list of TopicDto objects representing the retrieved topics.
+     *         The HTTP status code is set to 200 (OK) if topics are found.
+     *         The HTTP status code is set to 304 (Not Modified) if the client copy is still current.
+     */
+    @GetMapping(produces = JacksonConfiguration.APPLICATION_SMILE_VALUE)
+    @Operation(summary = "Get all the topics in Smile")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK : List of topics found",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = TopicDto.class)))),
+            @ApiResponse(responseCode = "304", description = "Not Modified : the client copy is still current")
+    })
+    public ResponseEntity<List<TopicDto>> getAllTopicsAsSmile(
+            final @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return getAllTopicsInBinaryFormat(ifNoneMatch, "smile");
+    }
+
+    /**
+     * Searches the topics matching a prefix, for filtering and autocomplete.
+     * Every word of the prefix must start a word of the title or of the description of a topic.
+     *
+     * @param prefix The text typed by the user.
+     * @param fuzzy  true to tolerate typing mistakes in the prefix.
+     * @param limit  The maximum number of topics to return.
+     * @return A ResponseEntity containing the matching topics, most subscribed first.
+     */
+    @GetMapping(params = "prefix")
+    @Operation(summary = "Search the topics by prefix",
+            description = "Filters the topics whose title or description words start with the given prefix")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK : List of matching topics",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = TopicDto.class)))),
+            @ApiResponse(responseCode = "401", description = "Unauthorized : the user must authenticate itself to get" +
+                    " the requested response"),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error : An unexpected error occurred"
+            )
+    })
+    public ResponseEntity<List<TopicDto>> searchTopics(final @RequestParam String prefix,
+                                                       final @RequestParam(defaultValue = "false") boolean fuzzy,
+                                                       final @RequestParam(defaultValue = "10") int limit) {
+        List<TopicDto> topics = topicSearchService.search(prefix, fuzzy, Math.min(limit, MAX_SEARCH_LIMIT));
         return new ResponseEntity<>(topics, HttpStatus.OK);
     }
+
+    /**
+     * Retrieves all topics in a binary format, the topics of the catalog being serialized on each request.
+     * The entity tag of the catalog is suffixed with the format, each format being a different representation.
+     *
+     * @param ifNoneMatch The entity tag previously received by the client, if any.
+     * @param format      The name of the format, suffixing the entity tag.
+     * @return A ResponseEntity containing the topics, or a 304 (Not Modified) if the client copy is still current.
+     */
+    private ResponseEntity<List<TopicDto>> getAllTopicsInBinaryFormat(final String ifNoneMatch, final String format) {
+        TopicCatalog catalog = topicService.getTopicCatalog();
+        String etag = representationEtag(catalog, format);
+        if (ifNoneMatch != null && ifNoneMatch.contains(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(catalog.getTopics());
+    }
+
+    /**
+     * Tells whether the client accepts a gzip response, from the codings of its Accept-Encoding header and their
+     * quality values: gzip, or its x-gzip alias, is accepted unless its quality is zero, and an unlisted gzip takes
+     * the quality of the * wildcard, if any.
+     *
+     * @param acceptEncoding The Accept-Encoding header of the request, if any.
+     * @return true if the response can be sent gzipped.
+     */
+    static boolean acceptsGzip(final String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double wildcardQuality = null;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.length() > 2 && parameter.substring(0, 2).equalsIgnoreCase("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        // An invalid quality value does not accept the coding
+                        quality = 0;
+                    }
+                }
+            }
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzipQuality = gzipQuality == null ? quality : Math.max(gzipQuality, quality);
+            } else if (coding.equals("*")) {
+                wildcardQuality = quality;
+            }
+        }
+        Double quality = gzipQuality != null ? gzipQuality : wildcardQuality;
+        return quality != null && quality > 0;
+    }
+
+    /**
+     * Gets the entity tag of a representation of the topic catalog, the tag of the catalog suffixed with the name
+     * of the representation.
+     *
+     * @param catalog        the topic catalog being served
+     * @param representation the name of the representation, such as its format or its encoding
+     * @return the quoted entity tag
+     */
+    private static String representationEtag(final TopicCatalog catalog, final String representation) {
+        return catalog.getEtag().substring(0, catalog.getEtag().length() - 1) + "-" + representation + "\"";
+    }
+
+    /**
+     * Adds the caching headers of the topic catalog to a response.
+     *
+     * @param builder the builder of the response
+     * @param etag    the entity tag of the representation being served
+     * @return the builder, for chaining
+     */
+    private ResponseEntity.BodyBuilder withCatalogHeaders(final ResponseEntity.BodyBuilder builder,
+                                                          final String etag) {
+        return builder.eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+    }
 }
@@ -2,8 +2,10 @@ package com.popcodelab.mddapi.controllers;
 
 
 import com.popcodelab.mddapi.dto.authentication.UserDto;
+import com.popcodelab.mddapi.dto.topic.TopicDto;
 import com.popcodelab.mddapi.services.UserService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -14,6 +16,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 /**
  * The UserController class handles API endpoints related to user management.
  */
@@ -49,7 +53,7 @@ public class UserController {
      * 404 (Not Found) response if the user information cannot be retrieved.
      */
     @GetMapping
-    @Operation(summary = "Get logged user.", description = "Get information about the logged user")
+    @Operation(summary = "Get logged user.", description = "Get information about the logged user, with the number of unread posts of each subscribed topic")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "User found", content = @Content(schema = @Schema(implementation = UserDto.class))),
             @ApiResponse(responseCode = "401", description = "Unauthorized"),
@@ -58,7 +62,7 @@ public class UserController {
             )})
     public ResponseEntity<?> getLoggedUser(final Authentication authentication) {
         log.debug("Retrieving info for login : {}", authentication.getName());
-        UserDto userDto = userService.getLoggedUser(authentication);
+        UserDto userDto = userService.getLoggedUserWithUnreadCounts(authentication);
         log.debug("User found : {} - {}", userDto.getUsername(), userDto.getEmail());
         return ResponseEntity.ok(userDto);
     }
@@ -155,4 +159,61 @@ public class UserController {
         UserDto updatedUserDto = userService.subscribeToTopic(topicId, authentication);
         return ResponseEntity.ok(updatedUserDto);
     }
+
+    /**
+     * Retrieves the topics the logged user is subscribed to, with their number of unread posts.
+     *
+     * @param authentication The authentication credentials of the user.
+     * @return ResponseEntity<List<TopicDto>> The subscribed topics, with their unread count.
+     */
+    @GetMapping("/topics")
+    @Operation(summary = "Get the subscribed topics.",
+            description = "Get the topics the logged user is subscribed to, with their number of unread posts")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Subscribed topics found",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = TopicDto.class)))
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized : The request lacks valid authentication credentials"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "Internal Server Error : An unexpected error occurred"
+            )
+    })
+    public ResponseEntity<List<TopicDto>> getSubscribedTopics(final Authentication authentication) {
+        return ResponseEntity.ok(userService.getSubscribedTopics(authentication));
+    }
+
+    /**
+     * Marks all the posts of a subscribed topic as read by the logged user.
+     *
+     * @param topicId The ID of the topic.
+     * @param authentication The authentication credentials of the user.
+     * @return ResponseEntity<UserDto> The UserDto object representing the user, with the updated unread counts.
+     */
+    @PutMapping("/topic/{topicId}/read")
+    @Operation(summary = "Marks a subscribed topic as read.",
+            description = "Resets the number of unread posts of a topic the logged user is subscribed to")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Topic marked as read",
+                    content = @Content(schema = @Schema(implementation = UserDto.class))
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized : The request lacks valid authentication credentials"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "Internal Server Error : The user is not subscribed to the topic, or an unexpected error occurred"
+            )
+    })
+    public ResponseEntity<UserDto> markTopicAsRead(final @PathVariable Long topicId, final Authentication authentication) {
+        return ResponseEntity.ok(userService.markTopicAsRead(topicId, authentication));
+    }
 }
@@ -5,6 +5,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * The UserDto class represents a data transfer object (DTO) that contains information about a user.
@@ -38,5 +39,8 @@ public class UserDto {
      */
     private List<Long> subscribedTopicIds;
 
-
+    /**
+     * The number of unread posts of each subscribed topic, keyed by topic ID.
+     */
+    private Map<Long, Long> unreadCounts;
 }
@@ -20,6 +20,7 @@ public class PostDto {
     private String username;
     private Long topicId;
     private String topicTitle;
+    private Long uniqueViewers;
     @JsonProperty("created_at")
     private LocalDateTime createdAt;
 }
@@ -0,0 +1,41 @@
+package com.popcodelab.mddapi.dto.topic;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * The TopicCatalog class is an immutable snapshot of all the topics.
+ * It holds the topics together with their JSON representation, already serialized and gzipped,
+ * so that the topics endpoint can be served without querying the database nor serializing anything.
+ * <p>
+ * The byte arrays are shared between all the requests and must never be modified.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@Getter
+@RequiredArgsConstructor
+public final class TopicCatalog {
+
+    /**
+     * The topics of the catalog, ordered by ID.
+     */
+    private final List<TopicDto> topics;
+
+    /**
+     * The JSON representation of the topics.
+     */
+    private final byte[] json;
+
+    /**
+     * The gzipped JSON representation of the topics.
+     */
+    private final byte[] gzippedJson;
+
+    /**
+     * The strong entity tag of the JSON representation, quoted as expected in the ETag header.
+     */
+    private final String etag;
+}
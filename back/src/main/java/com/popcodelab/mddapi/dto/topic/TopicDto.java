@@ -1,5 +1,6 @@
 package com.popcodelab.mddapi.dto.topic;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -32,4 +33,9 @@ public class TopicDto {
      * It represents the description of a topic.
      */
     private String description;
+    /**
+     * The number of posts of the topic not read yet by the logged user, only set on the subscribed topics.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long unreadCount;
 }
@@ -3,16 +3,19 @@ package com.popcodelab.mddapi.entities;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EntityListeners;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.experimental.Accessors;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 
 @Entity
-@Table(name = "comments")
+@Table(name = "comments", indexes = @Index(name = "idx_comments_post_created", columnList = "post_id, created_at, id"))
 @Accessors
 @Data
 @AllArgsConstructor
@@ -21,6 +24,7 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 public class Comment extends BaseEntity {
 
     @Column(nullable = false)
+    @JdbcTypeCode(SqlTypes.LONGVARCHAR)
     private String content;
 
     @Column(name = "user_id", nullable = false)
@@ -0,0 +1,37 @@
+package com.popcodelab.mddapi.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The IdBlock class represents the next free identifier of a table whose rows get their id before being inserted,
+ * such as the comments written behind. It is read and updated by the IdBlockAllocator.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@Entity
+@Table(name = "id_blocks")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class IdBlock {
+
+    /**
+     * The name of the table.
+     */
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    /**
+     * The first identifier not reserved yet.
+     */
+    @Column(name = "next_id", nullable = false)
+    private Long nextId;
+}
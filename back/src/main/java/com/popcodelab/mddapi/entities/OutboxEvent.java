@@ -0,0 +1,94 @@
+package com.popcodelab.mddapi.entities;
+
+import com.popcodelab.mddapi.events.DomainEvent;
+import com.popcodelab.mddapi.events.DomainEventType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * The OutboxEvent class represents a domain event in the outbox, written in the transaction of the change
+ * it describes and relayed afterwards to the consumers.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@Entity
+@Table(name = "outbox_events")
+@Data
+@NoArgsConstructor
+public class OutboxEvent {
+
+    /**
+     * The identifier of the event, giving the order of the outbox.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * The type of the change.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private DomainEventType type;
+
+    /**
+     * The identifier of the changed post, comment or topic.
+     */
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    /**
+     * The identifier of the topic of a post or of the post of a comment.
+     */
+    @Column(name = "scope_id")
+    private Long scopeId;
+
+    /**
+     * The identifier of the user who made the change.
+     */
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /**
+     * When the change was made.
+     */
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Creates an OutboxEvent.
+     *
+     * @param type        the type of the change
+     * @param aggregateId the identifier of the changed post, comment or topic
+     * @param scopeId     the identifier of the topic of a post or of the post of a comment, otherwise null
+     * @param userId      the identifier of the user who made the change
+     */
+    public OutboxEvent(final DomainEventType type, final Long aggregateId, final Long scopeId, final Long userId) {
+        this.type = type;
+        this.aggregateId = aggregateId;
+        this.scopeId = scopeId;
+        this.userId = userId;
+    }
+
+    /**
+     * Converts the event to the DomainEvent delivered to the consumers.
+     *
+     * @return the DomainEvent
+     */
+    public DomainEvent toDomainEvent() {
+        return new DomainEvent(id, type, aggregateId, scopeId, userId, createdAt);
+    }
+}
@@ -0,0 +1,55 @@
+package com.popcodelab.mddapi.entities;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.MapKeyColumn;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The OutboxOffset class represents the position of a consumer of the domain events in the outbox.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@Entity
+@Table(name = "outbox_offsets")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OutboxOffset {
+
+    /**
+     * The name of the consumer.
+     */
+    @Id
+    @Column(length = 64)
+    private String consumer;
+
+    /**
+     * The identifier of the last event handled by the consumer.
+     */
+    @Column(name = "last_event_id", nullable = false)
+    private Long lastEventId;
+
+    /**
+     * The missing identifiers before the last event, whose transaction may still commit, with the date each one
+     * was found missing.
+     */
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "outbox_gaps", joinColumns = @JoinColumn(name = "consumer"))
+    @MapKeyColumn(name = "event_id")
+    @Column(name = "detected_at", nullable = false)
+    private final Map<Long, LocalDateTime> gaps = new HashMap<>();
+}
@@ -1,16 +1,21 @@
 package com.popcodelab.mddapi.entities;
 
+import com.popcodelab.mddapi.compression.CompressedContentConverter;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "posts")
+@Table(name = "posts", indexes = @Index(name = "idx_posts_topic_created", columnList = "topic_id, created_at, id"))
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -19,7 +24,10 @@ public class Post extends BaseEntity {
     @Column(nullable = false, length = 254)
     private String title;
 
+    // Stored with a version byte, and compressed from 512 bytes, see PostContentCodec
     @Column(nullable = false)
+    @Convert(converter = CompressedContentConverter.class)
+    @JdbcTypeCode(SqlTypes.LONGVARBINARY)
     private String content;
 
     @Column(name = "user_id", nullable = false)
@@ -28,6 +36,12 @@ public class Post extends BaseEntity {
     @Column(name = "topic_id", nullable = false)
     private Long topicId;
 
+    // Estimated from the HyperLogLog sketch of the post, only written by the PostViewService
+    @Column(name = "unique_viewers", nullable = false, updatable = false)
+    private long uniqueViewers;
+
+    // Fetched by a single subselect for all the posts loaded by a query, not one query per post
     @ElementCollection(fetch = FetchType.EAGER)
+    @Fetch(FetchMode.SUBSELECT)
     private final List<Long> commentIds = new ArrayList<>();
 }
@@ -0,0 +1,40 @@
+package com.popcodelab.mddapi.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+/**
+ * The PostViewSketch class represents the HyperLogLog sketch of the viewers of a post, merged with the views
+ * recorded by each backend instance.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@Entity
+@Table(name = "post_view_sketches")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PostViewSketch {
+
+    /**
+     * The identifier of the post.
+     */
+    @Id
+    @Column(name = "post_id")
+    private Long postId;
+
+    /**
+     * The registers of the sketch, one per byte.
+     */
+    @Column(nullable = false, length = 4096)
+    @JdbcTypeCode(SqlTypes.VARBINARY)
+    private byte[] registers;
+}
@@ -1,6 +1,8 @@
 package com.popcodelab.mddapi.entities;
 
 
+import com.popcodelab.mddapi.entities.listeners.TopicCatalogListener;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EntityListeners;
@@ -8,6 +10,8 @@ import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 /**
@@ -18,10 +22,12 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
  */
 @Entity
 @Table(name = "topics")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "topics")
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, TopicCatalogListener.class})
 public class Topic extends BaseEntity {
 
     @Column(nullable = false, length = 254)
@@ -0,0 +1,37 @@
+package com.popcodelab.mddapi.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The TopicPostCount class represents the number of posts of a topic, incremented by the TopicPostCountConsumer
+ * for each new post. It is the reference of the read markers of the subscribers.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@Entity
+@Table(name = "topic_post_counts")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TopicPostCount {
+
+    /**
+     * The identifier of the topic.
+     */
+    @Id
+    @Column(name = "topic_id")
+    private Long topicId;
+
+    /**
+     * The number of posts of the topic.
+     */
+    @Column(name = "post_count", nullable = false)
+    private Long postCount;
+}
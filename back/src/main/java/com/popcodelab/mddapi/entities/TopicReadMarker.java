@@ -0,0 +1,67 @@
+package com.popcodelab.mddapi.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * The TopicReadMarker class represents the last read of a topic by a subscriber, as the number of posts
+ * of the topic at that time. The posts counted since then are unread.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@Entity
+@Table(name = "topic_read_markers")
+@IdClass(TopicReadMarker.Key.class)
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TopicReadMarker {
+
+    /**
+     * The identifier of the subscriber.
+     */
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    /**
+     * The identifier of the topic.
+     */
+    @Id
+    @Column(name = "topic_id")
+    private Long topicId;
+
+    /**
+     * The number of posts of the topic when the subscriber last read it.
+     */
+    @Column(name = "read_post_count", nullable = false)
+    private Long readPostCount;
+
+    /**
+     * The identifier of a read marker.
+     */
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Key implements Serializable {
+
+        /**
+         * The identifier of the subscriber.
+         */
+        private Long userId;
+
+        /**
+         * The identifier of the topic.
+         */
+        private Long topicId;
+    }
+}
@@ -4,6 +4,10 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.util.ArrayList;
@@ -16,7 +20,12 @@ import java.util.List;
  * @version 1.0
  */
 @Entity
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_users_email", columnNames = "email"),
+        @UniqueConstraint(name = "uk_users_user_name", columnNames = "user_name")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -27,13 +36,13 @@ public class User extends BaseEntity {
     /**
      * The userName variable represents the username of a user.
      */
-    @Column(name = "user_name", nullable = false, unique = true, length = 64)
+    @Column(name = "user_name", nullable = false, length = 64)
     private String username;
 
     /**
      * The email variable represents the email address of a user.
      */
-    @Column(nullable = false, unique = true, length = 248)
+    @Column(nullable = false, length = 248)
     private String email;
 
     /**
@@ -46,8 +55,11 @@ public class User extends BaseEntity {
      * The subscribedTopicIds variable represents a list of topic IDs that a user is subscribed to.
      * It is annotated with @ElementCollection and FetchType.EAGER, indicating that it is a collection of elements
      * that should be eagerly fetched from the database.
+     * The collections of all the users loaded by a query are fetched by a single subselect, not one query per user.
      */
     @ElementCollection(fetch = FetchType.EAGER)
+    @Fetch(FetchMode.SUBSELECT)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user-subscriptions")
     private List<Long> subscribedTopicIds = new ArrayList<>();
 
 
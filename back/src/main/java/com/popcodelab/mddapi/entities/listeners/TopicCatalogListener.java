@@ -0,0 +1,101 @@
+package com.popcodelab.mddapi.entities.listeners;
+
+import com.popcodelab.mddapi.dto.topic.TopicDto;
+import com.popcodelab.mddapi.entities.Topic;
+import com.popcodelab.mddapi.services.TopicSearchService;
+import com.popcodelab.mddapi.services.TopicService;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * The TopicCatalogListener class is a JPA entity listener keeping the in-memory views of the topics
+ * up to date: it evicts the topic catalog snapshot and updates the topic search index
+ * whenever a topic is created, updated or deleted.
+ * <p>
+ * When the change happens inside a transaction, the update is deferred until the commit so that
+ * the views are not rebuilt from data that is not visible yet.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@Component
+public class TopicCatalogListener {
+
+    /**
+     * Lazily resolved TopicService, to avoid a dependency cycle with the EntityManagerFactory.
+     */
+    private final ObjectProvider<TopicService> topicService;
+
+    /**
+     * Lazily resolved TopicSearchService, to avoid a dependency cycle with the EntityManagerFactory.
+     */
+    private final ObjectProvider<TopicSearchService> topicSearchService;
+
+    /**
+     * Constructs a new TopicCatalogListener.
+     *
+     * @param topicService       the provider of the TopicService owning the catalog
+     * @param topicSearchService the provider of the TopicSearchService owning the search index
+     */
+    public TopicCatalogListener(final ObjectProvider<TopicService> topicService,
+                                final ObjectProvider<TopicSearchService> topicSearchService) {
+        this.topicService = topicService;
+        this.topicSearchService = topicSearchService;
+    }
+
+    /**
+     * Refreshes the views after a topic has been created or updated.
+     *
+     * @param topic the saved topic
+     */
+    @PostPersist
+    @PostUpdate
+    public void onTopicSaved(final Topic topic) {
+        TopicDto topicDto = TopicDto.builder()
+                .id(topic.getId())
+                .title(topic.getTitle())
+                .description(topic.getDescription())
+                .build();
+        afterCommit(() -> {
+            topicService.getObject().evictTopicCatalog();
+            topicSearchService.getObject().indexTopic(topicDto);
+        });
+    }
+
+    /**
+     * Refreshes the views after a topic has been deleted.
+     *
+     * @param topic the deleted topic
+     */
+    @PostRemove
+    public void onTopicRemoved(final Topic topic) {
+        Long topicId = topic.getId();
+        afterCommit(() -> {
+            topicService.getObject().evictTopicCatalog();
+            topicSearchService.getObject().removeTopic(topicId);
+        });
+    }
+
+    /**
+     * Runs an action after the commit of the current transaction, or immediately if there is none.
+     *
+     * @param action the action to run
+     */
+    private void afterCommit(final Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
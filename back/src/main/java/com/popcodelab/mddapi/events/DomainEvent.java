@@ -0,0 +1,19 @@
+package com.popcodelab.mddapi.events;
+
+import java.time.LocalDateTime;
+
+/**
+ * The DomainEvent record is a change delivered to the consumers of the domain events.
+ *
+ * @param id          the identifier of the event, increasing in the order of the outbox
+ * @param type        the type of the change
+ * @param aggregateId the identifier of the changed post, comment or topic
+ * @param scopeId     the identifier of the topic of a post or of the post of a comment, otherwise null
+ * @param userId      the identifier of the user who made the change
+ * @param createdAt   when the change was made
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+public record DomainEvent(Long id, DomainEventType type, Long aggregateId, Long scopeId, Long userId,
+                          LocalDateTime createdAt) {
+}
@@ -0,0 +1,32 @@
+package com.popcodelab.mddapi.events;
+
+import java.util.List;
+
+/**
+ * The DomainEventConsumer interface is implemented by the beans reacting to the domain events, such as caches,
+ * indexes and counters. The OutboxRelay delivers them the events in batches, in the order of the outbox, on its
+ * own thread and never during the request which made the change.
+ * <p>
+ * The delivery is at least once: when onEvents throws, or the instance stops before the offset of the consumer
+ * is saved, the same events are delivered again. A consumer must therefore tolerate duplicates.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+public interface DomainEventConsumer {
+
+    /**
+     * Gets the name of the consumer, under which its offset is saved. The offset is shared by the backend
+     * instances: a consumer keeping a state per instance must include the instance in its name.
+     *
+     * @return the name of the consumer, up to 64 characters
+     */
+    String getName();
+
+    /**
+     * Handles a batch of events.
+     *
+     * @param events the events, in the order of the outbox
+     */
+    void onEvents(List<DomainEvent> events);
+}
@@ -0,0 +1,31 @@
+package com.popcodelab.mddapi.events;
+
+/**
+ * The DomainEventType enum lists the changes published as domain events, with the meaning of the identifiers
+ * of each event.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+public enum DomainEventType {
+
+    /**
+     * A post has been created. The aggregate is the post, the scope its topic.
+     */
+    POST_CREATED,
+
+    /**
+     * A comment has been added. The aggregate is the comment, the scope its post.
+     */
+    COMMENT_ADDED,
+
+    /**
+     * A user has subscribed to a topic. The aggregate is the topic, without scope.
+     */
+    TOPIC_SUBSCRIBED,
+
+    /**
+     * A user has unsubscribed from a topic. The aggregate is the topic, without scope.
+     */
+    TOPIC_UNSUBSCRIBED
+}
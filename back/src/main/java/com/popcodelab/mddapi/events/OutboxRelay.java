@@ -0,0 +1,342 @@
+package com.popcodelab.mddapi.events;
+
+import com.popcodelab.mddapi.entities.OutboxEvent;
+import com.popcodelab.mddapi.entities.OutboxOffset;
+import com.popcodelab.mddapi.repositories.OutboxEventRepository;
+import com.popcodelab.mddapi.repositories.OutboxOffsetRepository;
+import com.popcodelab.mddapi.sharding.ShardTemplate;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * The OutboxRelay class is the in-process bus of the domain events: it reads the committed events of the outbox
+ * and delivers them to each {@link DomainEventConsumer} bean, in batches, from the offset of the consumer.
+ * <p>
+ * Each batch is delivered in a transaction which locks the offset of the consumer, reads the events following it,
+ * calls the consumer and saves the new offset. The backend instances thus take turns for a consumer, and a consumer
+ * writing to the database in the same transaction handles each event exactly once. Otherwise, a failed batch
+ * is delivered again on the next run. A new consumer starts with the events recorded after its first run.
+ * <p>
+ * The ids of the outbox are given at insert time, so a transaction may commit an event after a later one has been
+ * delivered. The relay therefore stops a batch at a missing id, until the following event is older than the commit
+ * grace. The missing id is then recorded as a gap of the consumer, with its offset, and the delivery goes on.
+ * The gaps are looked up on every batch: an event committing late is delivered then, after the events following it,
+ * and a gap still missing after the gap timeout is taken for a rolled back transaction. Each gap given up on is
+ * logged and counted by the mdd.outbox.gaps.abandoned counter.
+ * <p>
+ * When the posts are sharded, the events of the posts and their comments are recorded in the outbox of their shard.
+ * The relay then reads the outbox of the default database and the one of each shard, each with an offset of its own
+ * per consumer, named after the consumer and the shard. The offsets stay in the default database, so a consumer
+ * writing to it still handles each event once, the events of a shard being read in a transaction of their own.
+ * The events of different outboxes are delivered in separate batches, in no particular order. A new offset of a
+ * shard starts at its first event, as the shards hold no event before the posts are sharded: an event recorded
+ * before the first run of the relay is thus still delivered.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@Component
+@Log4j2
+@RequiredArgsConstructor
+public class OutboxRelay {
+
+    /**
+     * The consumers of the events.
+     */
+    private final List<DomainEventConsumer> consumers;
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    private final OutboxOffsetRepository outboxOffsetRepository;
+
+    /**
+     * The TransactionOperations running the delivery of each batch in a transaction.
+     */
+    private final TransactionOperations transactionOperations;
+
+    /**
+     * The registry of the metrics.
+     */
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * The ShardTemplate reading the outbox of each shard, when the posts are sharded.
+     */
+    private final ObjectProvider<ShardTemplate> shardTemplate;
+
+    /**
+     * The maximum number of events delivered at once to a consumer.
+     */
+    @Value("${application.outbox.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * The time after which a missing id of the outbox is taken for a rolled back transaction.
+     */
+    @Value("${application.outbox.commit-grace:2s}")
+    private Duration commitGrace;
+
+    /**
+     * The time after which a gap of a consumer is given up on, its transaction being taken for rolled back.
+     */
+    @Value("${application.outbox.gap-timeout:10m}")
+    private Duration gapTimeout;
+
+    /**
+     * How long the events are kept in the outbox.
+     */
+    @Value("${application.outbox.retention:7d}")
+    private Duration retention;
+
+    /**
+     * Delivers the new events of each outbox to each consumer, run on a fixed delay. A consumer or an outbox which
+     * fails is retried on the next run, without holding back the others.
+     */
+    @Scheduled(fixedDelayString = "${application.outbox.relay-interval-ms:100}")
+    public void relay() {
+        List<Outbox> outboxes = outboxes();
+        for (DomainEventConsumer consumer : consumers) {
+            for (Outbox outbox : outboxes) {
+                try {
+                    int delivered;
+                    do {
+                        delivered = relayBatch(consumer, outbox);
+                    } while (delivered >= batchSize);
+                } catch (RuntimeException e) {
+                    log.warn("The events could not be delivered to {}, they will be delivered again : {}",
+                            outbox.offsetName(consumer), e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Deletes the events older than the retention from each outbox, run on a fixed delay.
+     */
+    @Transactional
+    @Scheduled(fixedDelayString = "${application.outbox.purge-interval-ms:3600000}")
+    public void purge() {
+        LocalDateTime before = LocalDateTime.now().minus(retention);
+        for (Outbox outbox : outboxes()) {
+            int deleted = outbox.shard() == null
+                    ? outboxEventRepository.deleteCreatedBefore(before)
+                    : shardTemplate.getObject().execute(outbox.shard(), false,
+                            () -> outboxEventRepository.deleteCreatedBefore(before));
+            if (deleted > 0) {
+                log.info("{} events older than {} have been deleted from the outbox{}", deleted, retention,
+                        outbox.shard() == null ? "" : " of the shard " + outbox.shard());
+            }
+        }
+    }
+
+    /**
+     * Lists the outboxes: the one of the default database, then the one of each shard.
+     *
+     * @return the outboxes
+     */
+    private List<Outbox> outboxes() {
+        ShardTemplate shards = shardTemplate.getIfAvailable();
+        if (shards == null) {
+            return List.of(Outbox.DEFAULT);
+        }
+        List<String> shardNames = shards.getShardNames();
+        List<Outbox> outboxes = new ArrayList<>(shardNames.size() + 1);
+        outboxes.add(Outbox.DEFAULT);
+        for (int i = 0; i < shardNames.size(); i++) {
+            // The shard i generates the IDs equal to i + 1 modulo the number of shards
+            outboxes.add(new Outbox(shardNames.get(i), i + 1, shardNames.size()));
+        }
+        return outboxes;
+    }
+
+    /**
+     * Delivers the events of the gaps committed meanwhile and the next batch of events of an outbox to a consumer.
+     *
+     * @param consumer the consumer
+     * @param outbox   the outbox
+     * @return the number of delivered events
+     */
+    private int relayBatch(final DomainEventConsumer consumer, final Outbox outbox) {
+        String offsetName = outbox.offsetName(consumer);
+        Integer delivered = transactionOperations.execute(status -> {
+            // A new consumer starts after the last event of the default database, and at the first one of a shard
+            OutboxOffset offset = outboxOffsetRepository.findForUpdate(offsetName)
+                    .orElseGet(() -> outboxOffsetRepository.save(new OutboxOffset(offsetName,
+                            outbox.shard() == null ? outboxEventRepository.findLastId() : 0L)));
+            List<DomainEvent> events = lateEvents(offsetName, outbox, offset.getGaps());
+            List<DomainEvent> nextEvents = committedEvents(offsetName, outbox, offset,
+                    read(outbox, () -> outboxEventRepository.findByIdGreaterThanOrderByIdAsc(offset.getLastEventId(),
+                            Limit.of(batchSize))));
+            events.addAll(nextEvents);
+            if (events.isEmpty()) {
+                return 0;
+            }
+            consumer.onEvents(events);
+            if (!nextEvents.isEmpty()) {
+                offset.setLastEventId(nextEvents.get(nextEvents.size() - 1).id());
+            }
+            return events.size();
+        });
+        if (delivered != null && delivered > 0) {
+            log.debug("{} events have been delivered to {}", delivered, offsetName);
+        }
+        return delivered == null ? 0 : delivered;
+    }
+
+    /**
+     * Reads an outbox: in the current transaction for the default database, in a transaction of its own for a shard.
+     *
+     * @param outbox the outbox
+     * @param query  the query
+     * @param <T>    the type of the result
+     * @return the result of the query
+     */
+    private <T> T read(final Outbox outbox, final Supplier<T> query) {
+        return outbox.shard() == null ? query.get() : shardTemplate.getObject().execute(outbox.shard(), true, query);
+    }
+
+    /**
+     * Takes out of the gaps of a consumer the events committed since, and the gaps older than the gap timeout.
+     *
+     * @param offsetName the name of the offset of the consumer in the outbox
+     * @param outbox     the outbox
+     * @param gaps       the missing identifiers, with the date each one was found missing
+     * @return the events committed late, in the order of the outbox
+     */
+    private List<DomainEvent> lateEvents(final String offsetName, final Outbox outbox,
+                                         final Map<Long, LocalDateTime> gaps) {
+        List<DomainEvent> lateEvents = new ArrayList<>();
+        if (gaps.isEmpty()) {
+            return lateEvents;
+        }
+        read(outbox, () -> outboxEventRepository.findAllById(gaps.keySet())).stream()
+                .sorted(Comparator.comparing(OutboxEvent::getId))
+                .forEach(event -> {
+                    gaps.remove(event.getId());
+                    lateEvents.add(event.toDomainEvent());
+                });
+        if (!lateEvents.isEmpty()) {
+            log.info("{} events committed late are delivered to {}", lateEvents.size(), offsetName);
+        }
+        LocalDateTime timeoutLimit = LocalDateTime.now().minus(gapTimeout);
+        gaps.entrySet().removeIf(gap -> {
+            if (gap.getValue().isAfter(timeoutLimit)) {
+                return false;
+            }
+            abandonGaps(offsetName, gap.getKey(), 1, 1);
+            return true;
+        });
+        return lateEvents;
+    }
+
+    /**
+     * Keeps the events up to the first missing id which may still be committed. The missing ids skipped, their
+     * following event being older than the commit grace, are recorded as gaps of the consumer, up to the batch
+     * size of gaps: the ones beyond are given up on at once.
+     *
+     * @param offsetName the name of the offset of the consumer in the outbox
+     * @param outbox     the outbox
+     * @param offset     the offset of the consumer
+     * @param events     the events following its last delivered event, in the order of the outbox
+     * @return the events which can be delivered
+     */
+    private List<DomainEvent> committedEvents(final String offsetName, final Outbox outbox, final OutboxOffset offset,
+                                              final List<OutboxEvent> events) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime graceLimit = now.minus(commitGrace);
+        List<DomainEvent> committed = new ArrayList<>(events.size());
+        long expectedId = outbox.nextId(offset.getLastEventId());
+        for (OutboxEvent event : events) {
+            if (event.getId() != expectedId && event.getCreatedAt().isAfter(graceLimit)) {
+                break;
+            }
+            long missingCount = Math.max(0, (event.getId() - expectedId) / outbox.idIncrement());
+            long trackedCount = Math.min(missingCount, Math.max(0, batchSize - offset.getGaps().size()));
+            for (long i = 0; i < trackedCount; i++) {
+                offset.getGaps().put(expectedId + i * outbox.idIncrement(), now);
+            }
+            if (missingCount > trackedCount) {
+                abandonGaps(offsetName, expectedId + trackedCount * outbox.idIncrement(), missingCount - trackedCount,
+                        outbox.idIncrement());
+            }
+            committed.add(event.toDomainEvent());
+            expectedId = outbox.nextId(event.getId());
+        }
+        return committed;
+    }
+
+    /**
+     * Gives up on consecutive missing events, taken for rolled back transactions.
+     *
+     * @param offsetName   the name of the offset of the consumer in the outbox
+     * @param firstEventId the identifier of the first missing event
+     * @param count        the number of missing events
+     * @param idIncrement  the step between two identifiers of the outbox
+     */
+    private void abandonGaps(final String offsetName, final long firstEventId, final long count,
+                             final int idIncrement) {
+        if (count == 1) {
+            log.warn("The event id {} of the outbox is still missing, {} gives up on it", firstEventId, offsetName);
+        } else {
+            log.warn("The {} event ids of the outbox from {} by steps of {} are missing, {} gives up on them",
+                    count, firstEventId, idIncrement, offsetName);
+        }
+        Counter.builder("mdd.outbox.gaps.abandoned")
+                .description("Missing events of the outbox given up on, taken for rolled back transactions")
+                .tag("consumer", offsetName)
+                .register(meterRegistry)
+                .increment(count);
+    }
+
+    /**
+     * An outbox: the one of the default database, or the one of a shard.
+     *
+     * @param shard       the name of the shard, or null for the default database
+     * @param firstId     the first identifier generated by the database
+     * @param idIncrement the step between two identifiers generated by the database
+     */
+    private record Outbox(String shard, long firstId, int idIncrement) {
+
+        /**
+         * The outbox of the default database.
+         */
+        private static final Outbox DEFAULT = new Outbox(null, 1, 1);
+
+        /**
+         * Gets the name of the offset of a consumer in this outbox.
+         *
+         * @param consumer the consumer
+         * @return the name of the consumer, followed by the name of the shard, if any
+         */
+        private String offsetName(final DomainEventConsumer consumer) {
+            return shard == null ? consumer.getName() : consumer.getName() + "@" + shard;
+        }
+
+        /**
+         * Gets the identifier expected after an event.
+         *
+         * @param eventId the identifier of the event, or 0 before the first one
+         * @return the next identifier generated by the database
+         */
+        private long nextId(final long eventId) {
+            return eventId == 0 ? firstId : eventId + idIncrement;
+        }
+    }
+}
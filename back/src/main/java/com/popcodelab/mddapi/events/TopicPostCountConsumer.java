@@ -0,0 +1,51 @@
+package com.popcodelab.mddapi.events;
+
+import com.popcodelab.mddapi.entities.TopicPostCount;
+import com.popcodelab.mddapi.repositories.TopicPostCountRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The TopicPostCountConsumer class counts the posts of each topic from the POST_CREATED events, with one update
+ * per topic and batch. It writes in the transaction of the delivery, which saves its offset, so that each post is
+ * counted exactly once.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@Component
+@RequiredArgsConstructor
+public class TopicPostCountConsumer implements DomainEventConsumer {
+
+    /**
+     * The name of the consumer, whose offset is initialized by the migration creating the counts.
+     */
+    static final String NAME = "topic-post-counts";
+
+    private final TopicPostCountRepository topicPostCountRepository;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onEvents(final List<DomainEvent> events) {
+        Map<Long, Long> newPosts = events.stream()
+                .filter(event -> event.type() == DomainEventType.POST_CREATED)
+                .collect(Collectors.groupingBy(DomainEvent::scopeId, Collectors.counting()));
+        newPosts.forEach((topicId, count) -> {
+            if (topicPostCountRepository.increment(topicId, count) == 0) {
+                // The deliveries of a consumer are serialized by the lock of its offset
+                topicPostCountRepository.save(new TopicPostCount(topicId, count));
+            }
+        });
+    }
+}
@@ -0,0 +1,18 @@
+package com.popcodelab.mddapi.exceptions;
+
+/**
+ * The IdempotencyKeyReusedException is thrown when an Idempotency-Key is sent again with a request
+ * different from the one it was first sent with.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    /**
+     * Creates an IdempotencyKeyReusedException.
+     */
+    public IdempotencyKeyReusedException() {
+        super("The Idempotency-Key has already been used for a different request");
+    }
+}
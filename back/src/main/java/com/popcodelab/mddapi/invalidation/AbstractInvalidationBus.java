@@ -0,0 +1,196 @@
+package com.popcodelab.mddapi.invalidation;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The AbstractInvalidationBus class batches the invalidations published by the backend instance, and passes the
+ * batches received from the other instances to the InvalidationListener beans. Its subclasses carry the batches.
+ * <p>
+ * The invalidations committed meanwhile are sent every flush interval, the same entry being sent once however often
+ * it changed, so that a burst of writes costs a few batches rather than a message per write. Each batch is numbered
+ * by its instance: a receiver drops the batches already received, and clears the whole regions when a batch has been
+ * lost, the caches being then reloaded from the database. An empty batch is sent when the instance has sent nothing
+ * for the heartbeat interval, so that a lost last batch is noticed within that time.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@Log4j2
+public abstract class AbstractInvalidationBus implements InvalidationBus {
+
+    /**
+     * The identifier of the instance, drawn at startup so that a restarted instance starts a new sequence.
+     */
+    private final long nodeId = new SecureRandom().nextLong();
+
+    /**
+     * The invalidations committed since the last batch.
+     */
+    private final Set<Invalidation> pendingInvalidations = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The listeners owning the in-process caches.
+     */
+    private final List<InvalidationListener> listeners;
+
+    /**
+     * The largest number of invalidations of a batch.
+     */
+    private final int maxBatchSize;
+
+    /**
+     * The longest time without sending a batch.
+     */
+    private final long heartbeatIntervalNanos;
+
+    /**
+     * The sequence of the last batch received from each of the other instances.
+     */
+    private final Map<Long, Long> lastSequences = new HashMap<>();
+
+    /**
+     * The sequence of the last batch sent.
+     */
+    private long sequence;
+
+    /**
+     * When the last batch was sent, from System.nanoTime.
+     */
+    private long lastSentNanos = System.nanoTime();
+
+    /**
+     * Creates an AbstractInvalidationBus.
+     *
+     * @param listeners         the listeners owning the in-process caches
+     * @param maxBatchSize      the largest number of invalidations of a batch
+     * @param heartbeatInterval the longest time without sending a batch
+     */
+    protected AbstractInvalidationBus(final List<InvalidationListener> listeners, final int maxBatchSize,
+                                      final Duration heartbeatInterval) {
+        this.listeners = List.copyOf(listeners);
+        this.maxBatchSize = maxBatchSize;
+        this.heartbeatIntervalNanos = heartbeatInterval.toNanos();
+    }
+
+    @Override
+    public void publish(final CacheRegion region, final Long key) {
+        Invalidation invalidation = new Invalidation(region, key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pendingInvalidations.add(invalidation);
+                }
+            });
+        } else {
+            pendingInvalidations.add(invalidation);
+        }
+    }
+
+    /**
+     * Sends the invalidations committed since the last batch, run on a fixed delay. A batch which cannot be sent
+     * is lost, the other instances clearing their caches on the next one.
+     */
+    @Scheduled(fixedDelayString = "${application.invalidation.flush-interval-ms:50}")
+    public synchronized void flush() {
+        if (pendingInvalidations.isEmpty() && System.nanoTime() - lastSentNanos < heartbeatIntervalNanos) {
+            return;
+        }
+        List<Invalidation> invalidations = new ArrayList<>();
+        Iterator<Invalidation> iterator = pendingInvalidations.iterator();
+        do {
+            if (iterator.hasNext()) {
+                invalidations.add(iterator.next());
+                iterator.remove();
+            }
+            if (invalidations.size() == maxBatchSize || !iterator.hasNext()) {
+                sendBatch(invalidations);
+                invalidations = new ArrayList<>();
+            }
+        } while (iterator.hasNext());
+    }
+
+    /**
+     * Gets the identifier of the instance, which its batches carry.
+     *
+     * @return the identifier of the instance
+     */
+    public long getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Sends a batch to the other instances.
+     *
+     * @param batch the batch
+     */
+    protected abstract void send(InvalidationBatch batch);
+
+    /**
+     * Passes a batch received from another instance to the listeners, unless it has already been received. The
+     * batches of the instance itself are ignored.
+     *
+     * @param batch the batch
+     */
+    protected void receive(final InvalidationBatch batch) {
+        if (batch.nodeId() == nodeId) {
+            return;
+        }
+        Long previous;
+        // Not the lock of the flush, the in-memory buses receiving the batches of each other while sending their own
+        synchronized (lastSequences) {
+            previous = lastSequences.get(batch.nodeId());
+            if (previous != null && batch.sequence() <= previous) {
+                log.debug("The invalidation batch {} of the instance {} has already been received",
+                        batch.sequence(), batch.nodeId());
+                return;
+            }
+            lastSequences.put(batch.nodeId(), batch.sequence());
+        }
+        List<Invalidation> invalidations = batch.invalidations();
+        if (previous != null && batch.sequence() > previous + 1) {
+            log.warn("{} invalidation batches of the instance {} have been lost, the caches are cleared",
+                    batch.sequence() - previous - 1, batch.nodeId());
+            invalidations = Arrays.stream(CacheRegion.values()).map(Invalidation::all).toList();
+        }
+        if (invalidations.isEmpty()) {
+            return;
+        }
+        for (InvalidationListener listener : listeners) {
+            try {
+                listener.onInvalidations(invalidations);
+            } catch (RuntimeException e) {
+                log.warn("The invalidations could not be applied by {} : {}",
+                        listener.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Numbers and sends a batch of invalidations.
+     *
+     * @param invalidations the invalidations, possibly none for a heartbeat
+     */
+    private void sendBatch(final List<Invalidation> invalidations) {
+        lastSentNanos = System.nanoTime();
+        try {
+            send(new InvalidationBatch(nodeId, ++sequence, invalidations));
+        } catch (RuntimeException e) {
+            log.warn("{} invalidations could not be sent : {}", invalidations.size(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.popcodelab.mddapi.invalidation;
+
+/**
+ * The CacheRegion enum lists the in-process caches invalidated across the backend instances, with the meaning of
+ * the key of each invalidation.
+ * <p>
+ * The ordinal of a region is sent over the network, so the regions must only be added at the end.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+public enum CacheRegion {
+
+    /**
+     * A user has been updated. The key is the user, evicted from the second-level cache.
+     */
+    USER,
+
+    /**
+     * The subscriptions of a user have changed. The key is the user, whose subscribed topics are evicted from
+     * the second-level cache.
+     */
+    USER_SUBSCRIPTIONS,
+
+    /**
+     * The subscribers of a topic have changed. The key is the topic, reloaded in the subscriber index.
+     */
+    TOPIC_SUBSCRIBERS
+}
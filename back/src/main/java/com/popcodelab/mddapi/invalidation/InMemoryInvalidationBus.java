@@ -0,0 +1,58 @@
+package com.popcodelab.mddapi.invalidation;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The InMemoryInvalidationBus class carries the batches of invalidations between the buses of the same
+ * {@link Network}, within one JVM. It serves a single backend instance, which has no other instance to tell,
+ * and the tests simulating several instances.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+public class InMemoryInvalidationBus extends AbstractInvalidationBus {
+
+    /**
+     * The largest number of invalidations of a batch, not bounded by a transport.
+     */
+    private static final int MAX_BATCH_SIZE = 1000;
+
+    /**
+     * The network of the bus.
+     */
+    private final Network network;
+
+    /**
+     * Creates an InMemoryInvalidationBus and attaches it to a network.
+     *
+     * @param listeners         the listeners owning the in-process caches
+     * @param heartbeatInterval the longest time without sending a batch
+     * @param network           the network carrying the batches to the other buses
+     */
+    public InMemoryInvalidationBus(final List<InvalidationListener> listeners, final Duration heartbeatInterval,
+                                   final Network network) {
+        super(listeners, MAX_BATCH_SIZE, heartbeatInterval);
+        this.network = network;
+        network.buses.add(this);
+    }
+
+    @Override
+    protected void send(final InvalidationBatch batch) {
+        for (InMemoryInvalidationBus bus : network.buses) {
+            bus.receive(batch);
+        }
+    }
+
+    /**
+     * The Network class holds the buses passing their batches to each other.
+     */
+    public static class Network {
+
+        /**
+         * The buses attached to the network.
+         */
+        private final List<InMemoryInvalidationBus> buses = new CopyOnWriteArrayList<>();
+    }
+}
@@ -0,0 +1,22 @@
+package com.popcodelab.mddapi.invalidation;
+
+/**
+ * The Invalidation record is an entry of a cache made stale by a change committed on a backend instance.
+ *
+ * @param region the cache holding the entry
+ * @param key    the key of the entry, or null for the whole region
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+public record Invalidation(CacheRegion region, Long key) {
+
+    /**
+     * Creates the invalidation of a whole region.
+     *
+     * @param region the cache
+     * @return the invalidation of every entry of the region
+     */
+    public static Invalidation all(final CacheRegion region) {
+        return new Invalidation(region, null);
+    }
+}
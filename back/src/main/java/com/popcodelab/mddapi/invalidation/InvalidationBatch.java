@@ -0,0 +1,99 @@
+package com.popcodelab.mddapi.invalidation;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The InvalidationBatch record is a batch of invalidations sent by a backend instance, numbered so that
+ * the receivers drop the duplicates and detect the lost batches.
+ * <p>
+ * Its binary form starts with a version byte, followed by the instance, the sequence and the invalidations,
+ * each one being the ordinal of its region, a byte telling whether it has a key, then the key. The invalidations
+ * of a region unknown to the receiver, added by a newer version of the backend, are skipped.
+ *
+ * @param nodeId        the identifier of the sending instance, drawn at startup
+ * @param sequence      the number of the batch, increased by one on each batch of the instance
+ * @param invalidations the invalidations, possibly none for a heartbeat
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+public record InvalidationBatch(long nodeId, long sequence, List<Invalidation> invalidations) {
+
+    /**
+     * The version of the binary form.
+     */
+    public static final byte FORMAT_VERSION = 1;
+
+    /**
+     * The size of the version, the instance, the sequence and the count of invalidations.
+     */
+    private static final int HEADER_SIZE = Byte.BYTES + 2 * Long.BYTES + Short.BYTES;
+
+    /**
+     * The size of an invalidation.
+     */
+    private static final int INVALIDATION_SIZE = 2 * Byte.BYTES + Long.BYTES;
+
+    /**
+     * Computes the largest number of invalidations of a batch fitting in a given size.
+     *
+     * @param maxSize the largest size of the binary form, in bytes
+     * @return the number of invalidations
+     */
+    public static int maxInvalidations(final int maxSize) {
+        return Math.min(Short.MAX_VALUE, (maxSize - HEADER_SIZE) / INVALIDATION_SIZE);
+    }
+
+    /**
+     * Writes the binary form of the batch.
+     *
+     * @return the bytes of the batch
+     */
+    public byte[] encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + invalidations.size() * INVALIDATION_SIZE)
+                .put(FORMAT_VERSION)
+                .putLong(nodeId)
+                .putLong(sequence)
+                .putShort((short) invalidations.size());
+        for (Invalidation invalidation : invalidations) {
+            buffer.put((byte) invalidation.region().ordinal())
+                    .put((byte) (invalidation.key() == null ? 0 : 1))
+                    .putLong(invalidation.key() == null ? 0 : invalidation.key());
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Reads a batch from its binary form.
+     *
+     * @param buffer the buffer holding the bytes of the batch
+     * @return the batch
+     * @throws IllegalArgumentException if the bytes are not a batch of a known version
+     */
+    public static InvalidationBatch decode(final ByteBuffer buffer) {
+        try {
+            byte version = buffer.get();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unknown version of invalidation batch : " + version);
+            }
+            long nodeId = buffer.getLong();
+            long sequence = buffer.getLong();
+            int count = buffer.getShort();
+            CacheRegion[] regions = CacheRegion.values();
+            List<Invalidation> invalidations = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int region = buffer.get();
+                boolean keyed = buffer.get() != 0;
+                long key = buffer.getLong();
+                if (region >= 0 && region < regions.length) {
+                    invalidations.add(new Invalidation(regions[region], keyed ? key : null));
+                }
+            }
+            return new InvalidationBatch(nodeId, sequence, invalidations);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated invalidation batch", e);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.popcodelab.mddapi.invalidation;
+
+/**
+ * The InvalidationBus interface tells the other backend instances that an entry of their in-process caches is
+ * stale. The invalidations are sent once the current transaction commits, so that the other instances do not
+ * reload the entry before the change is visible, and nothing is sent for a rolled back transaction.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+public interface InvalidationBus {
+
+    /**
+     * Publishes the invalidation of an entry, after the commit of the current transaction, or immediately if
+     * there is none.
+     *
+     * @param region the cache holding the entry
+     * @param key    the key of the entry
+     */
+    void publish(CacheRegion region, Long key);
+}
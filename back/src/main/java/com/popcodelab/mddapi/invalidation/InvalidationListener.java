@@ -0,0 +1,23 @@
+package com.popcodelab.mddapi.invalidation;
+
+import java.util.List;
+
+/**
+ * The InvalidationListener interface is implemented by the beans owning an in-process cache. The InvalidationBus
+ * passes them the invalidations published by the other backend instances, in batches, on its own thread.
+ * <p>
+ * The changes of the local instance are not passed back: the code making a change keeps its own caches up to date.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+public interface InvalidationListener {
+
+    /**
+     * Evicts the entries of a batch of invalidations. The invalidations of the regions the listener does not own
+     * are ignored.
+     *
+     * @param invalidations the invalidations, without duplicates
+     */
+    void onInvalidations(List<Invalidation> invalidations);
+}
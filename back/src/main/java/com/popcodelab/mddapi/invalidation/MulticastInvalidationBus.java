@@ -0,0 +1,153 @@
+package com.popcodelab.mddapi.invalidation;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.NetworkInterface;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * The MulticastInvalidationBus class carries the batches of invalidations between the backend instances in UDP
+ * datagrams sent to a multicast group, which every instance joins. A batch fits in a datagram small enough not to be
+ * fragmented.
+ * <p>
+ * UDP may lose, duplicate or reorder the datagrams: the numbering of the batches makes the receivers drop the
+ * duplicates and the late ones, and clear their caches when a batch is lost. The datagrams of the instance itself,
+ * looped back by the group, are ignored.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@Log4j2
+public class MulticastInvalidationBus extends AbstractInvalidationBus implements SmartLifecycle {
+
+    /**
+     * The largest size of a datagram, under the usual MTU of 1500 bytes less the IP and UDP headers.
+     */
+    static final int MAX_DATAGRAM_SIZE = 1400;
+
+    /**
+     * The multicast group and its port.
+     */
+    private final InetSocketAddress group;
+
+    /**
+     * The network interface joining the group.
+     */
+    private final NetworkInterface networkInterface;
+
+    /**
+     * The number of routers the datagrams may cross.
+     */
+    private final int timeToLive;
+
+    /**
+     * The channel sending and receiving the datagrams, open while the bus is running.
+     */
+    private volatile DatagramChannel channel;
+
+    /**
+     * The thread receiving the datagrams.
+     */
+    private Thread receiver;
+
+    /**
+     * Creates a MulticastInvalidationBus.
+     *
+     * @param listeners         the listeners owning the in-process caches
+     * @param heartbeatInterval the longest time without sending a batch
+     * @param group             the multicast group and its port
+     * @param networkInterface  the network interface joining the group
+     * @param timeToLive        the number of routers the datagrams may cross
+     */
+    public MulticastInvalidationBus(final List<InvalidationListener> listeners, final Duration heartbeatInterval,
+                                    final InetSocketAddress group, final NetworkInterface networkInterface,
+                                    final int timeToLive) {
+        super(listeners, InvalidationBatch.maxInvalidations(MAX_DATAGRAM_SIZE), heartbeatInterval);
+        this.group = group;
+        this.networkInterface = networkInterface;
+        this.timeToLive = timeToLive;
+    }
+
+    @Override
+    public synchronized void start() {
+        try {
+            DatagramChannel datagramChannel = DatagramChannel.open(StandardProtocolFamily.INET)
+                    .setOption(StandardSocketOptions.SO_REUSEADDR, true)
+                    .bind(new InetSocketAddress(group.getPort()))
+                    .setOption(StandardSocketOptions.IP_MULTICAST_IF, networkInterface)
+                    .setOption(StandardSocketOptions.IP_MULTICAST_TTL, timeToLive)
+                    .setOption(StandardSocketOptions.IP_MULTICAST_LOOP, true);
+            datagramChannel.join(group.getAddress(), networkInterface);
+            channel = datagramChannel;
+        } catch (IOException e) {
+            throw new UncheckedIOException("The multicast group " + group + " could not be joined", e);
+        }
+        receiver = Thread.ofPlatform().name("invalidation-receiver").daemon().start(this::receiveDatagrams);
+        log.info("The cache invalidations are exchanged on the multicast group {} through {}", group,
+                networkInterface.getName());
+    }
+
+    @Override
+    public synchronized void stop() {
+        // The invalidations of the last requests
+        flush();
+        try {
+            channel.close();
+            receiver.join();
+        } catch (IOException e) {
+            log.warn("The multicast channel could not be closed : {}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel = null;
+        receiver = null;
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return channel != null;
+    }
+
+    @Override
+    protected void send(final InvalidationBatch batch) {
+        DatagramChannel datagramChannel = channel;
+        if (datagramChannel == null) {
+            throw new IllegalStateException("The multicast bus is not running");
+        }
+        try {
+            datagramChannel.send(ByteBuffer.wrap(batch.encode()), group);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Receives the datagrams until the channel is closed.
+     */
+    private void receiveDatagrams() {
+        ByteBuffer buffer = ByteBuffer.allocate(MAX_DATAGRAM_SIZE);
+        DatagramChannel datagramChannel = channel;
+        while (datagramChannel.isOpen()) {
+            try {
+                buffer.clear();
+                datagramChannel.receive(buffer);
+                buffer.flip();
+                receive(InvalidationBatch.decode(buffer));
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException | IllegalArgumentException e) {
+                log.warn("An invalidation datagram has been dropped : {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.popcodelab.mddapi.invalidation;
+
+import com.popcodelab.mddapi.entities.User;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * The SecondLevelCacheInvalidationListener class evicts from the second-level cache of Hibernate the users changed
+ * by the other backend instances, and their subscriptions. Hibernate only updates the cache of the instance which
+ * made the change, whose expiration would otherwise bound the staleness of the others.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@Component
+@RequiredArgsConstructor
+public class SecondLevelCacheInvalidationListener implements InvalidationListener {
+
+    /**
+     * The role of the subscribed topics of a user, the key of their collection region.
+     */
+    private static final String SUBSCRIPTIONS_ROLE = User.class.getName() + ".subscribedTopicIds";
+
+    /**
+     * The region of the cacheable queries on the users.
+     */
+    private static final String USER_QUERIES_REGION = "user-queries";
+
+    /**
+     * The EntityManagerFactory, wrapping the SessionFactory holding the cache.
+     */
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void onInvalidations(final List<Invalidation> invalidations) {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        boolean usersChanged = false;
+        for (Invalidation invalidation : invalidations) {
+            switch (invalidation.region()) {
+                case USER -> {
+                    if (invalidation.key() == null) {
+                        cache.evictEntityData(User.class);
+                    } else {
+                        cache.evictEntityData(User.class, invalidation.key());
+                    }
+                    usersChanged = true;
+                }
+                case USER_SUBSCRIPTIONS -> {
+                    if (invalidation.key() == null) {
+                        cache.evictCollectionData(SUBSCRIPTIONS_ROLE);
+                    } else {
+                        cache.evictCollectionData(SUBSCRIPTIONS_ROLE, invalidation.key());
+                    }
+                }
+                default -> {
+                    // Not in the second-level cache
+                }
+            }
+        }
+        if (usersChanged) {
+            // A cached lookup by email may still find a user under its previous email
+            cache.evictQueryRegion(USER_QUERIES_REGION);
+        }
+    }
+}
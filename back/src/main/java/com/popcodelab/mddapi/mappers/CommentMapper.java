@@ -0,0 +1,39 @@
+package com.popcodelab.mddapi.mappers;
+
+import com.popcodelab.mddapi.dto.comment.CommentDto;
+import com.popcodelab.mddapi.entities.Comment;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * The CommentMapper interface maps a Comment entity to a CommentDto and vice versa.
+ * The implementation is generated at build time by MapStruct.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@Mapper
+public interface CommentMapper {
+
+    /**
+     * Maps a Comment entity to a CommentDto.
+     *
+     * @param comment  the Comment entity to map
+     * @param username the username of the author of the comment
+     * @return the CommentDto representing the comment
+     */
+    @Mapping(target = "username", source = "username")
+    CommentDto toDto(Comment comment, String username);
+
+    /**
+     * Maps a CommentDto to a new Comment entity.
+     * The identifier and the timestamps are managed by the persistence layer and are not mapped.
+     *
+     * @param commentDto the CommentDto to map
+     * @return the new Comment entity
+     */
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    Comment toEntity(CommentDto commentDto);
+}
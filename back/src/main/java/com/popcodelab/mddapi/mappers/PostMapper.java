@@ -0,0 +1,44 @@
+package com.popcodelab.mddapi.mappers;
+
+import com.popcodelab.mddapi.dto.post.PostDto;
+import com.popcodelab.mddapi.entities.Post;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * The PostMapper interface maps a Post entity to a PostDto and vice versa.
+ * The implementation is generated at build time by MapStruct.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@Mapper
+public interface PostMapper {
+
+    /**
+     * Maps a Post entity to a PostDto.
+     *
+     * @param post       the Post entity to map
+     * @param username   the username of the author of the post
+     * @param topicTitle the title of the topic of the post
+     * @return the PostDto representing the post
+     */
+    @Mapping(target = "username", source = "username")
+    @Mapping(target = "topicTitle", source = "topicTitle")
+    PostDto toDto(Post post, String username, String topicTitle);
+
+    /**
+     * Maps a PostDto to a new Post entity.
+     * The identifier, the timestamps and the comments are managed by the persistence layer and are not mapped,
+     * nor the unique viewers, estimated from the views.
+     *
+     * @param postDto the PostDto to map
+     * @return the new Post entity
+     */
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "commentIds", ignore = true)
+    @Mapping(target = "uniqueViewers", ignore = true)
+    Post toEntity(PostDto postDto);
+}
@@ -0,0 +1,26 @@
+package com.popcodelab.mddapi.mappers;
+
+import com.popcodelab.mddapi.dto.topic.TopicDto;
+import com.popcodelab.mddapi.entities.Topic;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * The TopicMapper interface maps a Topic entity to a TopicDto.
+ * The implementation is generated at build time by MapStruct.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@Mapper
+public interface TopicMapper {
+
+    /**
+     * Maps a Topic entity to a TopicDto. The unread count depends on the user and is not mapped.
+     *
+     * @param topic the Topic entity to map
+     * @return the TopicDto representing the topic
+     */
+    @Mapping(target = "unreadCount", ignore = true)
+    TopicDto toDto(Topic topic);
+}
@@ -0,0 +1,29 @@
+package com.popcodelab.mddapi.mappers;
+
+import com.popcodelab.mddapi.dto.authentication.UserDto;
+import com.popcodelab.mddapi.entities.User;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * The UserMapper interface maps a User entity to a UserDto.
+ * The password of the user is never mapped.
+ * The implementation is generated at build time by MapStruct.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@Mapper
+public interface UserMapper {
+
+    /**
+     * Maps a User entity to a UserDto.
+     * The subscribed topic IDs are copied, so the DTO does not hold the persistent collection.
+     * The unread counts are set by the UserService.
+     *
+     * @param user the User entity to map
+     * @return the UserDto representing the user
+     */
+    @Mapping(target = "unreadCounts", ignore = true)
+    UserDto toDto(User user);
+}
@@ -0,0 +1,22 @@
+package com.popcodelab.mddapi.monitoring;
+
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+
+/**
+ * The LogMarkers class holds the markers of the application logs, matched by the filters of log4j2-spring.xml.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+public final class LogMarkers {
+
+    /**
+     * Marks the logs written once per item of a list, such as each comment of a post.
+     * They are rate limited, so that a long list does not flood the logs nor the ring buffer of the async loggers.
+     */
+    public static final Marker PER_ITEM = MarkerManager.getMarker("PER_ITEM");
+
+    private LogMarkers() {
+    }
+}
@@ -0,0 +1,105 @@
+package com.popcodelab.mddapi.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The VirtualThreadPinningMonitor class reports the virtual threads pinned to their carrier thread,
+ * typically while blocking inside a synchronized block of the JDBC driver or of Hibernate.
+ * It streams the jdk.VirtualThreadPinned events of JFR, logs them with their stack trace
+ * and counts them in mdd.virtual.threads.pinned.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@Component
+@Profile("virtual")
+@Log4j2
+@RequiredArgsConstructor
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    /**
+     * The JFR event emitted when a virtual thread parks while pinned.
+     */
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    /**
+     * The number of frames of the stack trace logged for each event.
+     */
+    private static final int LOGGED_FRAMES = 8;
+
+    /**
+     * The registry of the metrics.
+     */
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * The minimum duration of a pinning to be reported.
+     */
+    @Value("${application.virtual-threads.pinning-threshold:20ms}")
+    private Duration pinningThreshold;
+
+    /**
+     * The stream of the JFR events, or null when the monitor is stopped.
+     */
+    private RecordingStream recordingStream;
+
+    @Override
+    public synchronized void start() {
+        Counter pinnedCounter = Counter.builder("mdd.virtual.threads.pinned")
+                .description("Virtual threads pinned to their carrier longer than the threshold")
+                .register(meterRegistry);
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(pinningThreshold).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, event -> {
+            pinnedCounter.increment();
+            log.warn("Virtual thread pinned for {} ms at {}", event.getDuration().toMillis(), topFrames(event));
+        });
+        recordingStream.startAsync();
+        log.info("Reporting the virtual threads pinned longer than {} ms", pinningThreshold.toMillis());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+            recordingStream = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return recordingStream != null;
+    }
+
+    /**
+     * Formats the top frames of the stack trace of an event.
+     *
+     * @param event the event
+     * @return the frames, separated by " <- "
+     */
+    private static String topFrames(final RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "unknown location";
+        }
+        List<RecordedFrame> frames = event.getStackTrace().getFrames();
+        return frames.stream()
+                .limit(LOGGED_FRAMES)
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber())
+                .collect(Collectors.joining(" <- "));
+    }
+}
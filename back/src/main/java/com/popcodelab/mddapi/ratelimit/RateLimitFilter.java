@@ -0,0 +1,154 @@
+package com.popcodelab.mddapi.ratelimit;
+
+import com.popcodelab.mddapi.configuration.RateLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The RateLimitFilter class limits the rate of the requests of each client on the endpoints of the policies,
+ * answering 429 Too Many Requests with a Retry-After header once the client has used its tokens.
+ * <p>
+ * It runs after the Spring Security filters, so that the authenticated user is known. The rejected requests
+ * are counted in mdd.rate-limit.rejected and the tracked clients in mdd.rate-limit.clients, by policy.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@Log4j2
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    /**
+     * The rate limited endpoints, in the order of the policies.
+     */
+    private final List<Rule> rules;
+
+    /**
+     * Creates a RateLimitFilter.
+     *
+     * @param policies      the rate limits of the endpoints
+     * @param maxClients    the maximum number of clients tracked by each policy
+     * @param meterRegistry the registry of the metrics
+     */
+    public RateLimitFilter(final List<RateLimitProperties.Policy> policies, final int maxClients,
+                           final MeterRegistry meterRegistry) {
+        this.rules = policies.stream()
+                .map(policy -> new Rule(policy, maxClients, meterRegistry))
+                .toList();
+        rules.forEach(rule -> log.info("The {} requests on {} are limited to {} per {} and {}",
+                rule.policy.getMethod(), rule.policy.getPath(), rule.policy.getLimit(), rule.policy.getPeriod(),
+                rule.policy.getKey()));
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull final HttpServletRequest request,
+                                    @NonNull final HttpServletResponse response,
+                                    @NonNull final FilterChain filterChain) throws ServletException, IOException {
+        PathContainer path = PathContainer.parsePath(UrlPathHelper.defaultInstance.getPathWithinApplication(request));
+        for (Rule rule : rules) {
+            if (rule.matches(request.getMethod(), path)) {
+                long waitNanos = rule.limiter.tryAcquire(clientKey(rule.policy.getKey(), request));
+                if (waitNanos > 0) {
+                    rule.rejected.increment();
+                    response.setHeader(HttpHeaders.RETRY_AFTER,
+                            Long.toString(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L))));
+                    response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                    return;
+                }
+                break;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Forgets the clients whose bucket is full again, run on a fixed delay.
+     */
+    @Scheduled(fixedDelayString = "${application.rate-limit.eviction-interval-ms:60000}")
+    public void evictIdleClients() {
+        rules.forEach(rule -> rule.limiter.evictIdle());
+    }
+
+    /**
+     * Gets the key of the client of a request.
+     *
+     * @param key     what identifies a client
+     * @param request the request
+     * @return the key of the client
+     */
+    private static String clientKey(final RateLimitProperties.Key key, final HttpServletRequest request) {
+        if (key == RateLimitProperties.Key.USER) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.isAuthenticated()
+                    && !(authentication instanceof AnonymousAuthenticationToken)) {
+                return "user:" + authentication.getName();
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    /**
+     * A policy, with its parsed path and the buckets of its clients.
+     */
+    private static final class Rule {
+
+        /**
+         * The policy.
+         */
+        private final RateLimitProperties.Policy policy;
+
+        /**
+         * The parsed path pattern of the policy.
+         */
+        private final PathPattern pattern;
+
+        /**
+         * The buckets of the clients.
+         */
+        private final TokenBucketRateLimiter limiter;
+
+        /**
+         * The counter of the rejected requests.
+         */
+        private final Counter rejected;
+
+        private Rule(final RateLimitProperties.Policy policy, final int maxClients, final MeterRegistry meterRegistry) {
+            this.policy = policy;
+            this.pattern = PathPatternParser.defaultInstance.parse(policy.getPath());
+            this.limiter = new TokenBucketRateLimiter(policy.getLimit(), policy.getPeriod(), maxClients);
+            this.rejected = Counter.builder("mdd.rate-limit.rejected")
+                    .description("Requests rejected by a rate limit")
+                    .tag("policy", policy.getName())
+                    .register(meterRegistry);
+            Gauge.builder("mdd.rate-limit.clients", limiter, TokenBucketRateLimiter::getBucketCount)
+                    .description("Clients tracked by a rate limit")
+                    .tag("policy", policy.getName())
+                    .register(meterRegistry);
+        }
+
+        private boolean matches(final String method, final PathContainer path) {
+            return policy.getMethod().equalsIgnoreCase(method) && pattern.matches(path);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.popcodelab.mddapi.ratelimit;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * The TokenBucketRateLimiter class limits the requests of each client to a number of requests per period,
+ * with a token bucket per client.
+ * <p>
+ * A bucket holds up to limit tokens and is refilled with one token every period / limit. It is stored as the
+ * time at which it will be full again, the GCRA form of a token bucket, so that it fits in a single long updated
+ * by compare-and-set, without any lock. A full bucket is the same as no bucket, so the buckets full again are
+ * evicted by {@link #evictIdle()}, the memory only depending on the clients seen during the last period.
+ * A request racing with the eviction of its bucket may be let through as if the bucket were full.
+ * <p>
+ * Once the maximum number of buckets is reached, the new clients share a single overflow bucket until the next
+ * eviction, so that a flood of new clients is still limited, without any scan on the path of the requests.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+public class TokenBucketRateLimiter {
+
+    /**
+     * The delay between two tokens, in nanoseconds.
+     */
+    private final long intervalNanos;
+
+    /**
+     * The time needed to refill an empty bucket, in nanoseconds.
+     */
+    private final long periodNanos;
+
+    /**
+     * The maximum number of buckets, beyond which the new clients share the overflow bucket until the next eviction.
+     */
+    private final int maxBuckets;
+
+    /**
+     * The clock, in nanoseconds.
+     */
+    private final LongSupplier nanoClock;
+
+    /**
+     * The time at which the bucket of each client will be full again, as a nanoClock value.
+     */
+    private final Map<String, AtomicLong> fullAt = new ConcurrentHashMap<>();
+
+    /**
+     * The bucket shared by the new clients while the maximum number of buckets is reached.
+     */
+    private final AtomicLong overflow;
+
+    /**
+     * Creates a TokenBucketRateLimiter.
+     *
+     * @param limit      the number of requests allowed in a burst, and per period
+     * @param period     the time needed to refill an empty bucket
+     * @param maxBuckets the maximum number of buckets
+     */
+    public TokenBucketRateLimiter(final int limit, final Duration period, final int maxBuckets) {
+        this(limit, period, maxBuckets, System::nanoTime);
+    }
+
+    /**
+     * Creates a TokenBucketRateLimiter reading the time from the given clock.
+     *
+     * @param limit      the number of requests allowed in a burst, and per period
+     * @param period     the time needed to refill an empty bucket
+     * @param maxBuckets the maximum number of buckets
+     * @param nanoClock  the clock, in nanoseconds
+     */
+    TokenBucketRateLimiter(final int limit, final Duration period, final int maxBuckets, final LongSupplier nanoClock) {
+        if (limit < 1 || period.isNegative() || period.isZero()) {
+            throw new IllegalArgumentException("A rate limit needs a positive limit and period");
+        }
+        this.periodNanos = period.toNanos();
+        this.intervalNanos = periodNanos / limit;
+        this.maxBuckets = maxBuckets;
+        this.nanoClock = nanoClock;
+        this.overflow = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    /**
+     * Takes a token from the bucket of a client.
+     *
+     * @param key the client
+     * @return 0 if the request is allowed, otherwise the time to wait for the next token, in nanoseconds
+     */
+    public long tryAcquire(final String key) {
+        long now = nanoClock.getAsLong();
+        AtomicLong bucket = fullAt.get(key);
+        if (bucket == null) {
+            bucket = fullAt.size() >= maxBuckets ? overflow : fullAt.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+        while (true) {
+            long current = bucket.get();
+            long next = (current - now < 0 ? now : current) + intervalNanos;
+            long excess = next - now - periodNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (bucket.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Forgets the clients whose bucket is full again.
+     */
+    public void evictIdle() {
+        long now = nanoClock.getAsLong();
+        fullAt.values().removeIf(bucket -> bucket.get() - now <= 0);
+    }
+
+    /**
+     * Gets the number of buckets, some of them possibly full again.
+     *
+     * @return the number of buckets
+     */
+    public int getBucketCount() {
+        return fullAt.size();
+    }
+}
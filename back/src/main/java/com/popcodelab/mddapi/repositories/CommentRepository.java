@@ -2,6 +2,8 @@ package com.popcodelab.mddapi.repositories;
 
 import com.popcodelab.mddapi.entities.Comment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,5 +11,12 @@ import java.util.List;
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
-    List<Comment> findCommentsByPostId(Long postId);
+    /**
+     * Finds the comments of a post, in chronological order.
+     *
+     * @param postId the ID of the post
+     * @return the comments of the post
+     */
+    @Query("SELECT c FROM Comment c WHERE c.postId = :postId ORDER BY c.createdAt, c.id")
+    List<Comment> findCommentsByPostId(@Param("postId") Long postId);
 }
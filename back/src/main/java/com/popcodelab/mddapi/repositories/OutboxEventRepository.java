@@ -0,0 +1,43 @@
+package com.popcodelab.mddapi.repositories;
+
+import com.popcodelab.mddapi.entities.OutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Finds the events following an event, in the order of the outbox.
+     *
+     * @param id    the identifier of the event
+     * @param limit the maximum number of events
+     * @return the events
+     */
+    List<OutboxEvent> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /**
+     * Finds the identifier of the last event.
+     *
+     * @return the identifier of the last event, or 0 if the outbox is empty
+     */
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM OutboxEvent e")
+    Long findLastId();
+
+    /**
+     * Deletes the events older than a date.
+     *
+     * @param before the date
+     * @return the number of deleted events
+     */
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,26 @@
+package com.popcodelab.mddapi.repositories;
+
+import com.popcodelab.mddapi.entities.OutboxOffset;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface OutboxOffsetRepository extends JpaRepository<OutboxOffset, String> {
+
+    /**
+     * Finds the offset of a consumer and locks it until the end of the transaction, so that the backend instances
+     * take turns to deliver the events of the consumer.
+     *
+     * @param consumer the name of the consumer
+     * @return the offset of the consumer, if it has already run
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM OutboxOffset o WHERE o.consumer = :consumer")
+    Optional<OutboxOffset> findForUpdate(@Param("consumer") String consumer);
+}
@@ -33,8 +33,8 @@ public interface PostRepository extends JpaRepository<Post, Long> {
      * Finds a list of posts based on the provided topic IDs.
      *
      * @param topicIds The list of topic IDs.
-     * @return A list of posts matching the given topic IDs.
+     * @return A list of posts matching the given topic IDs, most recent first.
      */
-    @Query("SELECT p FROM Post p WHERE p.topicId IN (:topicIds)")
+    @Query("SELECT p FROM Post p WHERE p.topicId IN (:topicIds) ORDER BY p.createdAt DESC, p.id DESC")
     List<Post> findByTopicIds(@Param("topicIds") List<Long> topicIds);
 }
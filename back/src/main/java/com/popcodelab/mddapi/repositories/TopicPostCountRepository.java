@@ -0,0 +1,34 @@
+package com.popcodelab.mddapi.repositories;
+
+import com.popcodelab.mddapi.entities.TopicPostCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TopicPostCountRepository extends JpaRepository<TopicPostCount, Long> {
+
+    /**
+     * Finds the post counts of topics. The topics without any post have no count.
+     *
+     * @param topicIds the IDs of the topics
+     * @return the post counts of the topics
+     */
+    List<TopicPostCount> findByTopicIdIn(Collection<Long> topicIds);
+
+    /**
+     * Adds posts to the count of a topic.
+     *
+     * @param topicId the ID of the topic
+     * @param count   the number of new posts
+     * @return 1 if the topic has a count, 0 otherwise
+     */
+    @Modifying
+    @Query("UPDATE TopicPostCount c SET c.postCount = c.postCount + :count WHERE c.topicId = :topicId")
+    int increment(@Param("topicId") Long topicId, @Param("count") long count);
+}
@@ -0,0 +1,19 @@
+package com.popcodelab.mddapi.repositories;
+
+import com.popcodelab.mddapi.entities.TopicReadMarker;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TopicReadMarkerRepository extends JpaRepository<TopicReadMarker, TopicReadMarker.Key> {
+
+    /**
+     * Finds the read markers of a user.
+     *
+     * @param userId the ID of the user
+     * @return the read markers of the user, one per subscribed topic
+     */
+    List<TopicReadMarker> findByUserId(Long userId);
+}
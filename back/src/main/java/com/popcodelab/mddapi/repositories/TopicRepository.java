@@ -1,8 +1,11 @@
 package com.popcodelab.mddapi.repositories;
 
 import com.popcodelab.mddapi.entities.Topic;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -27,10 +30,15 @@ public interface TopicRepository extends JpaRepository<Topic, Long> {
 
     /**
      * Retrieves a list of Topic entities by their IDs.
+     * The query is cached, the topics themselves being read from the second-level cache.
      *
      * @param ids the list of IDs of the Topic entities to retrieve
      * @return a list of Topic entities matching the provided IDs
      */
     @Query("SELECT t FROM Topic t WHERE t.id IN (:ids)")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "topic-queries")
+    })
     List<Topic> findByIds(@Param("ids") List<Long> ids);
 }
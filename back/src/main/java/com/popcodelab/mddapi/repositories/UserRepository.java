@@ -1,14 +1,19 @@
 package com.popcodelab.mddapi.repositories;
 
 import com.popcodelab.mddapi.entities.User;
+import com.popcodelab.mddapi.repositories.projections.TopicSubscription;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * The UserRepository interface represents a repository for User entities in the system.
@@ -37,11 +42,16 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     /**
      * Retrieves a User entity by its email.
+     * The query is cached, as it resolves the logged user of every authenticated request.
      *
      * @param email the email of the User entity to retrieve
      * @return the User entity
      */
     @NonNull
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "user-queries")
+    })
     User findByEmail(@NonNull String email);
 
     /**
@@ -53,8 +63,37 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @NonNull
     User findByUsername(@NonNull String username);
 
+    /**
+     * Retrieves the users with the given IDs.
+     * The query is cached, the users themselves being read from the second-level cache.
+     *
+     * @param ids the IDs of the users
+     * @return the users found
+     */
     @Query("SELECT u FROM User u WHERE u.id IN (:ids)")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "user-queries")
+    })
     List<User> findByIds(@Param("ids") List<Long> ids);
 
+    /**
+     * Streams every user / topic subscription link.
+     * The caller must consume the stream inside a transaction and close it.
+     *
+     * @return a stream of TopicSubscription rows
+     */
+    @Query("SELECT new com.popcodelab.mddapi.repositories.projections.TopicSubscription(u.id, t) "
+            + "FROM User u JOIN u.subscribedTopicIds t")
+    Stream<TopicSubscription> streamAllTopicSubscriptions();
+
+    /**
+     * Retrieves the IDs of the users subscribed to a topic.
+     *
+     * @param topicId the ID of the topic
+     * @return the IDs of the subscribers
+     */
+    @Query("SELECT u.id FROM User u JOIN u.subscribedTopicIds t WHERE t = :topicId")
+    List<Long> findSubscriberIdsByTopicId(@Param("topicId") Long topicId);
 
 }
@@ -0,0 +1,13 @@
+package com.popcodelab.mddapi.repositories.projections;
+
+/**
+ * The TopicSubscription record represents a single row of the user / topic subscription link.
+ * It is used to read the subscriptions without loading the whole User entities.
+ *
+ * @param userId  the ID of the subscribed user
+ * @param topicId the ID of the topic the user is subscribed to
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+public record TopicSubscription(Long userId, Long topicId) {
+}
@@ -0,0 +1,217 @@
+package com.popcodelab.mddapi.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * The TopicTrie class is a prefix tree over the normalized words of the topics.
+ * Every node knows the topics owning at least one word going through it, so a prefix lookup
+ * is a walk down the tree followed by a read of the reached node.
+ * <p>
+ * Topics can be added, replaced and removed one by one, which keeps the maintenance cost
+ * proportional to the changed topic rather than to the whole catalog.
+ * <p>
+ * This class is not thread-safe: callers must guard it against concurrent modifications.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+public final class TopicTrie {
+
+    /**
+     * Matches the combining marks left by the canonical decomposition, i.e. the accents.
+     */
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    /**
+     * Matches everything that separates two words.
+     */
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    /**
+     * The root of the tree, matching the empty prefix.
+     */
+    private final Node root = new Node();
+
+    /**
+     * The indexed words of each topic, kept to be able to remove the topic.
+     */
+    private final Map<Long, List<String>> wordsByTopic = new HashMap<>();
+
+    /**
+     * Splits a text into lower-case words without accents.
+     *
+     * @param text the text to normalize
+     * @return the distinct words of the text, in order of appearance
+     */
+    public static List<String> normalize(final String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        String plain = DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+        return Arrays.stream(SEPARATORS.split(plain))
+                .filter(word -> !word.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    /**
+     * Indexes a topic, replacing its previous words if it was already indexed.
+     *
+     * @param topicId the ID of the topic
+     * @param texts   the texts of the topic, typically its title and description
+     */
+    public void put(final Long topicId, final String... texts) {
+        remove(topicId);
+        Set<String> words = new HashSet<>();
+        for (String text : texts) {
+            words.addAll(normalize(text));
+        }
+        for (String word : words) {
+            Node node = root;
+            node.addTopic(topicId);
+            for (int i = 0; i < word.length(); i++) {
+                node = node.children.computeIfAbsent(word.charAt(i), character -> new Node());
+                node.addTopic(topicId);
+            }
+        }
+        wordsByTopic.put(topicId, new ArrayList<>(words));
+    }
+
+    /**
+     * Removes a topic from the index.
+     *
+     * @param topicId the ID of the topic
+     */
+    public void remove(final Long topicId) {
+        List<String> words = wordsByTopic.remove(topicId);
+        if (words == null) {
+            return;
+        }
+        for (String word : words) {
+            Node node = root;
+            node.removeTopic(topicId);
+            for (int i = 0; i < word.length() && node != null; i++) {
+                Node child = node.children.get(word.charAt(i));
+                if (child != null && child.removeTopic(topicId)) {
+                    node.children.remove(word.charAt(i));
+                }
+                node = child;
+            }
+        }
+    }
+
+    /**
+     * Finds the topics owning a word starting with the given normalized prefix.
+     *
+     * @param prefix the normalized prefix
+     * @return the IDs of the matching topics
+     */
+    public Set<Long> matchPrefix(final String prefix) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.children.get(prefix.charAt(i));
+        }
+        return node == null ? Set.of() : Set.copyOf(node.topics.keySet());
+    }
+
+    /**
+     * Finds the topics owning a word starting with a prefix within the given edit distance of the normalized prefix.
+     * The tree is walked depth first while computing the Levenshtein distance one row per node,
+     * and a branch is abandoned as soon as no completion can get back under the maximum distance.
+     *
+     * @param prefix      the normalized prefix
+     * @param maxDistance the maximum number of insertions, deletions or substitutions
+     * @return the IDs of the matching topics
+     */
+    public Set<Long> matchFuzzyPrefix(final String prefix, final int maxDistance) {
+        int[] firstRow = new int[prefix.length() + 1];
+        for (int i = 0; i < firstRow.length; i++) {
+            firstRow[i] = i;
+        }
+        Set<Long> matches = new HashSet<>();
+        if (prefix.length() <= maxDistance) {
+            matches.addAll(root.topics.keySet());
+            return matches;
+        }
+        root.children.forEach((character, child) -> collectFuzzy(child, character, prefix, firstRow,
+                maxDistance, matches));
+        return matches;
+    }
+
+    /**
+     * Computes the distance row of a node and collects its topics when the prefix is close enough.
+     *
+     * @param node        the node being visited
+     * @param character   the character leading to the node
+     * @param prefix      the normalized prefix
+     * @param previousRow the distance row of the parent node
+     * @param maxDistance the maximum edit distance
+     * @param matches     the collected topic IDs
+     */
+    private void collectFuzzy(final Node node, final char character, final String prefix, final int[] previousRow,
+                              final int maxDistance, final Set<Long> matches) {
+        int[] row = new int[previousRow.length];
+        row[0] = previousRow[0] + 1;
+        int rowMinimum = row[0];
+        for (int i = 1; i < row.length; i++) {
+            int substitution = previousRow[i - 1] + (prefix.charAt(i - 1) == character ? 0 : 1);
+            row[i] = Math.min(substitution, Math.min(row[i - 1] + 1, previousRow[i] + 1));
+            rowMinimum = Math.min(rowMinimum, row[i]);
+        }
+        if (row[row.length - 1] <= maxDistance) {
+            // Every word below this node completes a close enough prefix.
+            matches.addAll(node.topics.keySet());
+            return;
+        }
+        if (rowMinimum > maxDistance) {
+            return;
+        }
+        node.children.forEach((next, child) -> collectFuzzy(child, next, prefix, row, maxDistance, matches));
+    }
+
+    /**
+     * A node of the tree.
+     */
+    private static final class Node {
+
+        /**
+         * The child nodes, keyed by the next character.
+         */
+        private final Map<Character, Node> children = new HashMap<>(4);
+
+        /**
+         * The topics owning a word going through this node, with the number of such words.
+         */
+        private final Map<Long, Integer> topics = new HashMap<>(4);
+
+        /**
+         * References a topic from this node.
+         *
+         * @param topicId the ID of the topic
+         */
+        private void addTopic(final Long topicId) {
+            topics.merge(topicId, 1, Integer::sum);
+        }
+
+        /**
+         * Dereferences a topic from this node.
+         *
+         * @param topicId the ID of the topic
+         * @return true if the node does not reference any topic anymore
+         */
+        private boolean removeTopic(final Long topicId) {
+            topics.computeIfPresent(topicId, (id, count) -> count > 1 ? count - 1 : null);
+            return topics.isEmpty();
+        }
+    }
+}
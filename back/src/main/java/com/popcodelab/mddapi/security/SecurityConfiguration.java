@@ -3,8 +3,10 @@ package com.popcodelab.mddapi.security;
 import com.nimbusds.jose.jwk.source.ImmutableSecret;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -127,6 +129,25 @@ public class SecurityConfiguration {
         return source;
     }
 
+    /**
+     * Returns the SecurityFilterChain of the actuator endpoints, checked before the one of the API.
+     * The endpoints are only served on the management port, which must not be reachable from outside,
+     * so they are left unauthenticated for the Prometheus scraper.
+     *
+     * @param http the HttpSecurity configuration
+     * @return the configured SecurityFilterChain object
+     * @throws Exception if an error occurs while configuring the filter chain
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain managementFilterChain(final HttpSecurity http) throws Exception {
+        http.securityMatcher(EndpointRequest.toAnyEndpoint());
+        http.csrf(AbstractHttpConfigurer::disable);
+        http.sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
+        http.authorizeHttpRequests(authorize -> authorize.anyRequest().permitAll());
+        return http.build();
+    }
+
     /**
      * Returns the configured SecurityFilterChain object based on the provided HttpSecurity configuration.
      *
@@ -11,4 +11,16 @@ public interface CommentService {
 
     CommentDto addNewComment(CommentDto commentDto);
 
+    /**
+     * Adds a new comment once per idempotency key : a retry with the same key returns the comment added by the first
+     * attempt, without adding it again.
+     *
+     * @param commentDto     the CommentDto object containing the details of the comment to be added
+     * @param idempotencyKey the Idempotency-Key header of the request, or null
+     * @return the CommentDto object representing the newly added comment
+     * @throws com.popcodelab.mddapi.exceptions.IdempotencyKeyReusedException if the key was first used for
+     *                                                                        a different comment
+     */
+    CommentDto addNewComment(CommentDto commentDto, String idempotencyKey);
+
 }
@@ -0,0 +1,34 @@
+package com.popcodelab.mddapi.services;
+
+import java.util.function.Supplier;
+
+/**
+ * The IdempotencyService interface runs a write operation once per idempotency key, so that a client
+ * retrying a request with the same Idempotency-Key header gets the result of the first attempt.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+public interface IdempotencyService {
+
+    /**
+     * The header holding the idempotency key of a request.
+     */
+    String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    /**
+     * Runs an operation unless it has already been run with the same key, in which case its result is returned.
+     * A call with the key of an operation still running waits for its result. A failed operation is forgotten,
+     * so that it can be retried.
+     *
+     * @param key         the idempotency key, scoped by the caller to the operation and the user, or null to
+     *                    always run the operation
+     * @param fingerprint the request, compared with equals to the one of the first call with the key
+     * @param operation   the operation
+     * @param <T>         the type of the result
+     * @return the result of the operation
+     * @throws com.popcodelab.mddapi.exceptions.IdempotencyKeyReusedException if the key was first used with
+     *                                                                        a different request
+     */
+    <T> T execute(String key, Object fingerprint, Supplier<T> operation);
+}
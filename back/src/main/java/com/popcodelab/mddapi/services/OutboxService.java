@@ -0,0 +1,24 @@
+package com.popcodelab.mddapi.services;
+
+import com.popcodelab.mddapi.events.DomainEventType;
+
+/**
+ * The OutboxService interface records the domain events in the outbox, in the transaction of the change
+ * they describe, so that an event is published if and only if its change is committed.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+public interface OutboxService {
+
+    /**
+     * Records an event in the current transaction.
+     *
+     * @param type        the type of the change
+     * @param aggregateId the identifier of the changed post, comment or topic
+     * @param scopeId     the identifier of the topic of a post or of the post of a comment, otherwise null
+     * @param userId      the identifier of the user who made the change
+     * @throws org.springframework.transaction.IllegalTransactionStateException if no transaction is active
+     */
+    void record(DomainEventType type, Long aggregateId, Long scopeId, Long userId);
+}
@@ -15,7 +15,14 @@ public interface PostService {
      */
     List<PostDto> getPostsFromUserTopics(List<Long> topicIds);
 
-    Optional<PostDto> getPostById(Long id);
+    /**
+     * Retrieves a post by its ID, recording the view of the post.
+     *
+     * @param id     The ID of the post.
+     * @param viewer What identifies the viewer, such as its login, counted in the unique viewers of the post.
+     * @return An Optional containing the PostDto of the post, or an empty Optional if no post is found.
+     */
+    Optional<PostDto> getPostById(Long id, String viewer);
 
     /**
      * Creates a new post based on the provided PostDto object.
@@ -24,4 +31,16 @@ public interface PostService {
      * @return The PostDto object representing the newly created post.
      */
     PostDto newPost(PostDto postDto);
+
+    /**
+     * Creates a new post once per idempotency key : a retry with the same key returns the post created by the first
+     * attempt, without creating it again.
+     *
+     * @param postDto        The PostDto object that contains the information of the post to be created.
+     * @param idempotencyKey The Idempotency-Key header of the request, or null.
+     * @return The PostDto object representing the newly created post.
+     * @throws com.popcodelab.mddapi.exceptions.IdempotencyKeyReusedException if the key was first used for
+     *                                                                        a different post
+     */
+    PostDto newPost(PostDto postDto, String idempotencyKey);
 }
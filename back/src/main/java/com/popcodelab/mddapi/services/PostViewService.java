@@ -0,0 +1,24 @@
+package com.popcodelab.mddapi.services;
+
+/**
+ * The PostViewService interface counts the unique viewers of the posts, approximately, without storing the views.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+public interface PostViewService {
+
+    /**
+     * Records a view of a post, without any database access nor lock.
+     *
+     * @param postId the ID of the post
+     * @param viewer what identifies the viewer, such as its login
+     */
+    void recordView(Long postId, String viewer);
+
+    /**
+     * Merges the views recorded since the last flush into the sketches of the database, and updates the estimated
+     * unique viewers of the posts.
+     */
+    void flush();
+}
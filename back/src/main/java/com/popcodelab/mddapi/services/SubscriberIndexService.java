@@ -0,0 +1,73 @@
+package com.popcodelab.mddapi.services;
+
+import java.util.Collection;
+import java.util.function.LongConsumer;
+
+/**
+ * The SubscriberIndexService interface provides an in-memory reverse index of the topic subscriptions.
+ * It answers "who subscribes to this topic" without scanning the subscription table.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+public interface SubscriberIndexService {
+
+    /**
+     * Records that a user has subscribed to a topic.
+     * Within a transaction, the change is applied once the transaction commits.
+     *
+     * @param userId  The ID of the subscribing user.
+     * @param topicId The ID of the topic.
+     */
+    void addSubscription(Long userId, Long topicId);
+
+    /**
+     * Records that a user has unsubscribed from a topic.
+     * Within a transaction, the change is applied once the transaction commits.
+     *
+     * @param userId  The ID of the unsubscribing user.
+     * @param topicId The ID of the topic.
+     */
+    void removeSubscription(Long userId, Long topicId);
+
+    /**
+     * Checks whether a user is subscribed to a topic.
+     *
+     * @param topicId The ID of the topic.
+     * @param userId  The ID of the user.
+     * @return true if the user is subscribed to the topic, false otherwise.
+     */
+    boolean isSubscribed(Long topicId, Long userId);
+
+    /**
+     * Retrieves the number of subscribers of a topic.
+     *
+     * @param topicId The ID of the topic.
+     * @return The number of users subscribed to the topic.
+     */
+    long getSubscriberCount(Long topicId);
+
+    /**
+     * Retrieves the number of users subscribed to all the given topics.
+     *
+     * @param topicIds The IDs of the topics to intersect.
+     * @return The number of users subscribed to every one of the topics.
+     */
+    long getCommonSubscriberCount(Collection<Long> topicIds);
+
+    /**
+     * Iterates over the subscribers of a topic in ascending user ID order.
+     *
+     * @param topicId  The ID of the topic.
+     * @param consumer The consumer receiving each subscriber ID.
+     */
+    void forEachSubscriber(Long topicId, LongConsumer consumer);
+
+    /**
+     * Iterates over the users subscribed to all the given topics in ascending user ID order.
+     *
+     * @param topicIds The IDs of the topics to intersect.
+     * @param consumer The consumer receiving each subscriber ID.
+     */
+    void forEachCommonSubscriber(Collection<Long> topicIds, LongConsumer consumer);
+}
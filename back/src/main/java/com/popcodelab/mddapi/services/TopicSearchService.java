@@ -0,0 +1,39 @@
+package com.popcodelab.mddapi.services;
+
+import com.popcodelab.mddapi.dto.topic.TopicDto;
+
+import java.util.List;
+
+/**
+ * The TopicSearchService interface provides the prefix search used to filter and autocomplete the topics.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+public interface TopicSearchService {
+
+    /**
+     * Searches the topics having, for every word of the query, a word of their title or description
+     * starting with it. The results are ranked by number of subscribers.
+     *
+     * @param query The text typed by the user.
+     * @param fuzzy true to tolerate typing mistakes in the query.
+     * @param limit The maximum number of topics to return.
+     * @return The best matching topics, most subscribed first.
+     */
+    List<TopicDto> search(String query, boolean fuzzy, int limit);
+
+    /**
+     * Adds a topic to the search index, or replaces it if it is already indexed.
+     *
+     * @param topicDto The topic to index.
+     */
+    void indexTopic(TopicDto topicDto);
+
+    /**
+     * Removes a topic from the search index.
+     *
+     * @param topicId The ID of the topic to remove.
+     */
+    void removeTopic(Long topicId);
+}
@@ -1,6 +1,7 @@
 package com.popcodelab.mddapi.services;
 
 
+import com.popcodelab.mddapi.dto.topic.TopicCatalog;
 import com.popcodelab.mddapi.dto.topic.TopicDto;
 
 import java.util.List;
@@ -12,4 +13,18 @@ public interface TopicService {
      * @return A list of TopicDto objects representing the retrieved topics.
      */
     List<TopicDto> getAllTopics();
+
+    /**
+     * Retrieves the current snapshot of the topic catalog.
+     * The snapshot is built on first use and kept until the topics change.
+     *
+     * @return The TopicCatalog holding all the topics and their serialized representation.
+     */
+    TopicCatalog getTopicCatalog();
+
+    /**
+     * Discards the current snapshot of the topic catalog.
+     * The next call to {@link #getTopicCatalog()} rebuilds it from the database.
+     */
+    void evictTopicCatalog();
 }
@@ -0,0 +1,42 @@
+package com.popcodelab.mddapi.services;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * The UnreadCountService interface tells how many posts of each subscribed topic a user has not read yet.
+ * <p>
+ * A new post increments a single count per topic, whatever the number of subscribers, and each subscriber keeps
+ * a read marker holding the count of the topic at its last read. The unread posts are the difference, so reading
+ * the counts of a user costs two indexed queries, and a read only rewrites the marker.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+public interface UnreadCountService {
+
+    /**
+     * Gets the number of unread posts of topics.
+     *
+     * @param userId   the ID of the user
+     * @param topicIds the IDs of the topics, usually the subscribed ones
+     * @return the number of unread posts, by topic ID. A topic never read counts all its posts.
+     */
+    Map<Long, Long> getUnreadCounts(Long userId, Collection<Long> topicIds);
+
+    /**
+     * Marks all the posts of a topic as read by a user, starting the count of the unread posts on a subscription.
+     *
+     * @param userId  the ID of the user
+     * @param topicId the ID of the topic
+     */
+    void markAsRead(Long userId, Long topicId);
+
+    /**
+     * Forgets the read marker of a user on a topic, on an unsubscription.
+     *
+     * @param userId  the ID of the user
+     * @param topicId the ID of the topic
+     */
+    void forget(Long userId, Long topicId);
+}
@@ -1,8 +1,11 @@
 package com.popcodelab.mddapi.services;
 
 import com.popcodelab.mddapi.dto.authentication.UserDto;
+import com.popcodelab.mddapi.dto.topic.TopicDto;
 import org.springframework.security.core.Authentication;
 
+import java.util.List;
+
 /**
  * The UserService interface provides methods for retrieving and updating information about users.
  */
@@ -16,6 +19,14 @@ public interface UserService {
      */
     UserDto getLoggedUser(Authentication authentication);
 
+    /**
+     * Retrieves the information about the logged user, with the number of unread posts of each subscribed topic.
+     *
+     * @param authentication The authentication object representing the logged user.
+     * @return The UserDto object containing information about the logged user and its unread counts.
+     */
+    UserDto getLoggedUserWithUnreadCounts(Authentication authentication);
+
     /**
      * Updates the information of a user.
      *
@@ -42,4 +53,21 @@ public interface UserService {
      * @return The UserDto object representing the updated user information after subscribing to the topic.
      */
     UserDto subscribeToTopic(Long topicId, Authentication authentication);
+
+    /**
+     * Retrieves the topics the logged user is subscribed to, with their number of unread posts.
+     *
+     * @param authentication The authentication object representing the logged user.
+     * @return The TopicDto objects of the subscribed topics, with their unread count.
+     */
+    List<TopicDto> getSubscribedTopics(Authentication authentication);
+
+    /**
+     * Marks all the posts of a subscribed topic as read by the logged user.
+     *
+     * @param topicId        The ID of the topic.
+     * @param authentication The authentication object representing the logged user.
+     * @return The UserDto object representing the user, with the updated unread counts.
+     */
+    UserDto markTopicAsRead(Long topicId, Authentication authentication);
 }
@@ -4,11 +4,12 @@ import com.popcodelab.mddapi.dto.authentication.SignInDto;
 import com.popcodelab.mddapi.dto.authentication.UserDto;
 import com.popcodelab.mddapi.dto.authentication.UserToRegisterDto;
 import com.popcodelab.mddapi.entities.User;
+import com.popcodelab.mddapi.mappers.UserMapper;
 import com.popcodelab.mddapi.repositories.UserRepository;
 import com.popcodelab.mddapi.services.AuthenticationService;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -19,6 +20,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * The AuthenticationServiceImpl class implements the AuthenticationService interface
@@ -27,6 +29,7 @@ import org.springframework.stereotype.Service;
 @Service
 @Log4j2
 @RequiredArgsConstructor
+@Timed(value = "mdd.service", description = "Time spent in the service methods")
 public class AuthenticationServiceImpl implements AuthenticationService {
 
     /**
@@ -40,6 +43,11 @@ public class AuthenticationServiceImpl implements AuthenticationService {
      */
     private final BCryptPasswordEncoder passwordEncoder;
 
+    /**
+     * The userMapper maps a User entity to a UserDto.
+     */
+    private final UserMapper userMapper;
+
     /**
      * The authentication manager used for user authentication in the system.
      *
@@ -56,12 +64,6 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     @Autowired
     private AuthenticationManager authenticationManager;
 
-    /**
-     * ModelMapper instance to map a Dto to an Entity and vice versa.
-     */
-    @Autowired
-    private ModelMapper modelMapper;
-
     /**
      * Authenticates a user with the provided email, username, and password.
      *
@@ -70,6 +72,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
      * @throws UsernameNotFoundException If the user is not found in the database.
      * @throws BadCredentialsException   If the provided credentials are invalid.
      */
+    @Transactional
     public Authentication authenticateUser(final SignInDto signInDto) {
         log.debug("Authenticate user : {}", signInDto.getEmailOrUsername());
         User user = userRepository.findByEmail(signInDto.getEmailOrUsername());
@@ -99,8 +102,9 @@ public class AuthenticationServiceImpl implements AuthenticationService {
      * @return The UserDto object representing the registered user.
      * @throws IllegalArgumentException if the email is already in use, the username is already in use, or the password is less than 8 characters long.
      */
+    @Transactional
     public UserDto registerUser(final UserToRegisterDto userToRegisterDto) {
-        log.debug("Register user : {}", userToRegisterDto);
+        log.debug("Register user : {}", userToRegisterDto.getEmail());
         User existingUser = userRepository.findByEmail(userToRegisterDto.getEmail());
         if (existingUser != null) {
             throw new IllegalArgumentException("Email is already in use");
@@ -120,7 +124,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         user.setUsername(userToRegisterDto.getUsername());
         user.setPassword(passwordEncoder.encode(userToRegisterDto.getPassword()));
         User savedUser = this.userRepository.save(user);
-        UserDto result = this.modelMapper.map(savedUser, UserDto.class);
+        UserDto result = this.userMapper.toDto(savedUser);
         log.info("User {} has been registered", result.getEmail());
         return result;
     }
@@ -4,18 +4,36 @@ import com.popcodelab.mddapi.dto.comment.CommentDto;
 import com.popcodelab.mddapi.entities.Comment;
 import com.popcodelab.mddapi.entities.Post;
 import com.popcodelab.mddapi.entities.User;
+import com.popcodelab.mddapi.events.DomainEventType;
+import com.popcodelab.mddapi.mappers.CommentMapper;
+import com.popcodelab.mddapi.monitoring.LogMarkers;
 import com.popcodelab.mddapi.repositories.CommentRepository;
 import com.popcodelab.mddapi.repositories.PostRepository;
 import com.popcodelab.mddapi.repositories.UserRepository;
 import com.popcodelab.mddapi.services.CommentService;
+import com.popcodelab.mddapi.services.IdempotencyService;
+import com.popcodelab.mddapi.services.OutboxService;
+import com.popcodelab.mddapi.sharding.ShardTemplate;
+import com.popcodelab.mddapi.sql.CommentWriteBehindQueue;
+import com.popcodelab.mddapi.sql.IdBlockAllocator;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
-import org.modelmapper.ModelMapper;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -25,35 +43,51 @@ import java.util.stream.Collectors;
  * that should be automatically detected and registered as a bean in the Spring context.
  * <p>
  * This class uses the CommentRepository, UserRepository, and PostRepository interfaces
- * to retrieve data from the database. It also uses the ModelMapper library to convert
+ * to retrieve data from the database. It also uses the CommentMapper to convert
  * Comment entities to CommentDto objects for the API response.
  * <p>
  * The getAllCommentsByPostId method retrieves all comments for a given post ID.
  * It uses the CommentRepository's findCommentsByPostId method to retrieve the comments
- * from the database, and then converts them to CommentDto objects using the convertToDto method.
+ * from the database, loads all their authors with a single query, and then converts them
+ * to CommentDto objects using the convertToDto method.
  * <p>
  * The convertToDto method converts a Comment entity to a CommentDto object,
- * also setting up the author of the comment by retrieving the corresponding User entity
- * from the UserRepository.
+ * also setting up the author of the comment from the loaded usernames.
  * <p>
  * The addNewComment method adds a new comment to a post. It first retrieves the user
  * and post entities specified in the commentDto from the UserRepository and PostRepository,
  * and then saves the new comment using the CommentRepository. It also updates the list
  * of comment IDs in the post entity and saves it back to the database. Finally, it converts
  * the newly saved comment to a CommentDto object and returns it.
+ * <p>
+ * When the comments are written behind, the new comments get their ID from the IdBlockAllocator and are
+ * queued in the CommentWriteBehindQueue, which inserts them in batches.
  */
 @Service
 @Log4j2
 @RequiredArgsConstructor
+@Timed(value = "mdd.service", description = "Time spent in the service methods")
 public class CommentServiceImpl implements CommentService {
 
     private final CommentRepository commentRepository;
     private final UserRepository userRepository;
     private final PostRepository postRepository;
+    private final CommentMapper commentMapper;
+    private final IdempotencyService idempotencyService;
+    private final TransactionOperations transactionOperations;
+    private final OutboxService outboxService;
+    private final ObjectProvider<CommentWriteBehindQueue> commentWriteBehindQueue;
+    private final ObjectProvider<IdBlockAllocator> commentIdAllocator;
+    /**
+     * The ShardTemplate runs the reads and writes of the comments on the shard of their post, when they are sharded.
+     */
+    private final ObjectProvider<ShardTemplate> shardTemplate;
 
-    @Autowired
-    private ModelMapper modelMapper;
-
+    /**
+     * Whether a comment written behind is only returned once inserted, rather than once queued.
+     */
+    @Value("${application.comments.write-behind.durable:false}")
+    private boolean durableWriteBehind;
 
     /**
      * Retrieves all comments for a given post ID.
@@ -62,22 +96,35 @@ public class CommentServiceImpl implements CommentService {
      * @return a list of CommentDto containing all comments for the specified post ID
      */
     @Override
+    @Transactional(readOnly = true)
     public List<CommentDto> getAllCommentsByPostId(final Long postId) {
-        return commentRepository.findCommentsByPostId(postId).stream()
-                .map(this::convertToDto)
+        List<Comment> comments = onShard(postId, true, () -> commentRepository.findCommentsByPostId(postId));
+        if (comments.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> userIds = comments.stream().map(Comment::getUserId).distinct().toList();
+        Map<Long, String> usernames = userRepository.findByIds(userIds).stream()
+                .collect(Collectors.toMap(User::getId, User::getUsername));
+        return comments.stream()
+                .map(comment -> convertToDto(comment, usernames))
                 .collect(Collectors.toList());
     }
 
     /**
-     * Convert a Comment to CommentDto, also setting up the author of the post
+     * Convert a Comment to CommentDto, also setting up the author of the comment
+     *
+     * @param comment   the comment to convert
+     * @param usernames the usernames of the authors of the comments, by user ID
+     * @return the CommentDto representing the comment
+     * @throws EntityNotFoundException if the author of the comment doesn't exist
      **/
-    private CommentDto convertToDto(Comment comment) {
-        log.debug("Convert comment id {} to DTO ", comment.getId());
-        User user = userRepository.findById(comment.getUserId())
-                .orElseThrow(() -> new EntityNotFoundException("User not found with id " + comment.getUserId()));
-        CommentDto commentDto = modelMapper.map(comment, CommentDto.class);
-        commentDto.setUsername(user.getUsername());
-        return commentDto;
+    private CommentDto convertToDto(final Comment comment, final Map<Long, String> usernames) {
+        log.debug(LogMarkers.PER_ITEM, "Convert comment id {} to DTO", comment.getId());
+        String username = usernames.get(comment.getUserId());
+        if (username == null) {
+            throw new EntityNotFoundException("User not found with id " + comment.getUserId());
+        }
+        return commentMapper.toDto(comment, username);
     }
 
     /**
@@ -88,25 +135,112 @@ public class CommentServiceImpl implements CommentService {
      * @throws EntityNotFoundException if the user or post specified in the commentDto doesn't exist
      */
     @Override
+    @Transactional
     public CommentDto addNewComment(CommentDto commentDto) {
         User user = userRepository.findById(commentDto.getUserId())
                 .orElseThrow(() -> new EntityNotFoundException("User not found with id " + commentDto.getUserId()));
 
-        Post post = postRepository.findById(commentDto.getPostId())
-                .orElseThrow(() -> new EntityNotFoundException("post not found with id " + commentDto.getPostId()));
-
-        Comment comment = modelMapper.map(commentDto, Comment.class);
+        Comment comment = commentMapper.toEntity(commentDto);
         comment.setUserId(user.getId());
+        Comment newComment = onShard(commentDto.getPostId(), false, () -> saveComment(comment));
+
+        CommentDto newCommentDto = commentMapper.toDto(newComment, user.getUsername());
+        log.debug("The comment id {} has been added to post id {} by {}",
+                newCommentDto.getId(), newComment.getPostId(), newCommentDto.getUsername());
+
+        return newCommentDto;
+    }
+
+    /**
+     * Saves a new comment, adds it to the comments of its post and records its event in the outbox of the database
+     * of the post, in the same transaction.
+     *
+     * @param comment the comment
+     * @return the saved comment
+     * @throws EntityNotFoundException if the post of the comment doesn't exist
+     */
+    private Comment saveComment(final Comment comment) {
+        Post post = postRepository.findById(comment.getPostId())
+                .orElseThrow(() -> new EntityNotFoundException("post not found with id " + comment.getPostId()));
         Comment newComment = commentRepository.save(comment);
         log.debug("Comment : {} saved", comment.getId());
         post.getCommentIds().add(newComment.getId());
         postRepository.save(post);
+        outboxService.record(DomainEventType.COMMENT_ADDED, newComment.getId(), newComment.getPostId(),
+                newComment.getUserId());
+        return newComment;
+    }
+
+    /**
+     * Runs an action on the shard of a post, in a transaction of its own, or directly when the posts are not sharded.
+     *
+     * @param postId   the ID of the post
+     * @param readOnly true if the action only reads
+     * @param action   the action
+     * @param <T>      the type of the result
+     * @return the result of the action
+     */
+    private <T> T onShard(final Long postId, final boolean readOnly, final Supplier<T> action) {
+        ShardTemplate shards = shardTemplate.getIfAvailable();
+        return shards == null ? action.get() : shards.executeOnId(postId, readOnly, action);
+    }
 
-        CommentDto newCommentDto = modelMapper.map(newComment, CommentDto.class);
-        newCommentDto.setUsername(user.getUsername());
-        log.debug("The comment id {} has been add to Post Id : {} by {} : ",
-                newCommentDto.getId(), newCommentDto.getUsername());
+    /**
+     * Adds a new comment to a post once per idempotency key, scoped to the author. The key is checked before
+     * the transaction, so that a retry does not touch the database.
+     *
+     * @param commentDto     the CommentDto object containing the details of the comment to be added
+     * @param idempotencyKey the Idempotency-Key header of the request, or null
+     * @return the CommentDto object representing the newly added comment, or the one added by the first request
+     * with the key
+     */
+    @Override
+    public CommentDto addNewComment(final CommentDto commentDto, final String idempotencyKey) {
+        String key = idempotencyKey == null ? null : "comment:" + commentDto.getUserId() + ":" + idempotencyKey;
+        return idempotencyService.execute(key,
+                Arrays.asList(commentDto.getPostId(), commentDto.getContent()),
+                () -> {
+                    CommentWriteBehindQueue queue = commentWriteBehindQueue.getIfAvailable();
+                    if (queue != null) {
+                        return enqueueComment(commentDto, queue);
+                    }
+                    return transactionOperations.execute(status -> addNewComment(commentDto));
+                });
+    }
 
-        return newCommentDto;
+    /**
+     * Adds a new comment to a post without waiting for its insertion, unless the write-behind is durable.
+     * The comment gets its ID at once, but is only listed with the comments of the post once its batch is inserted.
+     *
+     * @param commentDto the CommentDto object containing the details of the comment to be added
+     * @param queue      the queue of the comments waiting to be inserted
+     * @return the CommentDto object representing the new comment
+     * @throws EntityNotFoundException if the user or post specified in the commentDto doesn't exist
+     */
+    private CommentDto enqueueComment(final CommentDto commentDto, final CommentWriteBehindQueue queue) {
+        User user = userRepository.findById(commentDto.getUserId())
+                .orElseThrow(() -> new EntityNotFoundException("User not found with id " + commentDto.getUserId()));
+        if (!postRepository.existsById(commentDto.getPostId())) {
+            throw new EntityNotFoundException("post not found with id " + commentDto.getPostId());
+        }
+
+        Comment comment = commentMapper.toEntity(commentDto);
+        comment.setId(commentIdAllocator.getObject().nextId());
+        comment.setUserId(user.getId());
+        LocalDateTime now = LocalDateTime.now();
+        comment.setCreatedAt(now);
+        comment.setUpdatedAt(now);
+        CompletableFuture<Void> committed = queue.enqueue(comment);
+        if (durableWriteBehind) {
+            try {
+                committed.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        log.debug("The comment id {} has been queued for post id {} by {}",
+                comment.getId(), comment.getPostId(), user.getUsername());
+
+        return commentMapper.toDto(comment, user.getUsername());
     }
 }
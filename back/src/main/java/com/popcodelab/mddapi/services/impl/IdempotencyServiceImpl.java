@@ -0,0 +1,107 @@
+package com.popcodelab.mddapi.services.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.popcodelab.mddapi.exceptions.IdempotencyKeyReusedException;
+import com.popcodelab.mddapi.services.IdempotencyService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * The IdempotencyServiceImpl class keeps the results of the recent operations in memory, by idempotency key.
+ * <p>
+ * The store is bounded in size and each key expires after the ttl, which should be longer than the retry
+ * window of the clients. The first call with a key registers a pending execution before running the operation,
+ * so that a concurrent call with the same key waits for its result instead of running the operation again.
+ * The keys are kept per backend instance.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@Service
+@Log4j2
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    /**
+     * The executions of the recent keys.
+     */
+    private final Map<String, Execution> executions;
+
+    /**
+     * Creates an IdempotencyServiceImpl.
+     *
+     * @param ttl     the time during which a key is remembered
+     * @param maxKeys the maximum number of keys remembered, the least recently used ones being forgotten first
+     */
+    public IdempotencyServiceImpl(@Value("${application.idempotency.ttl:24h}") final Duration ttl,
+                                  @Value("${application.idempotency.max-keys:100000}") final long maxKeys) {
+        Cache<String, Execution> cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxKeys)
+                .build();
+        this.executions = cache.asMap();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T execute(final String key, final Object fingerprint, final Supplier<T> operation) {
+        if (key == null) {
+            return operation.get();
+        }
+        Execution execution = new Execution(fingerprint, new CompletableFuture<>());
+        Execution previous = executions.putIfAbsent(key, execution);
+        if (previous != null) {
+            if (!Objects.equals(previous.fingerprint(), fingerprint)) {
+                throw new IdempotencyKeyReusedException();
+            }
+            log.debug("Replaying the result of the idempotency key {}", key);
+            return (T) awaitResult(previous.result());
+        }
+        try {
+            T result = operation.get();
+            execution.result().complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            executions.remove(key, execution);
+            execution.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Waits for the result of an execution, rethrowing its failure.
+     *
+     * @param result the result of the execution
+     * @return the result
+     */
+    private static Object awaitResult(final CompletableFuture<Object> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * An operation run with an idempotency key.
+     *
+     * @param fingerprint the request of the first call with the key
+     * @param result      the result of the operation, completed once it has run
+     */
+    private record Execution(Object fingerprint, CompletableFuture<Object> result) {
+    }
+}
@@ -0,0 +1,36 @@
+package com.popcodelab.mddapi.services.impl;
+
+import com.popcodelab.mddapi.entities.OutboxEvent;
+import com.popcodelab.mddapi.events.DomainEventType;
+import com.popcodelab.mddapi.repositories.OutboxEventRepository;
+import com.popcodelab.mddapi.services.OutboxService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * The OutboxServiceImpl class implements the OutboxService interface, inserting the events in the outbox_events
+ * table with the OutboxEventRepository. The OutboxRelay delivers them to the consumers once committed.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@Service
+@Log4j2
+@RequiredArgsConstructor
+public class OutboxServiceImpl implements OutboxService {
+
+    /**
+     * The repository of the outbox.
+     */
+    private final OutboxEventRepository outboxEventRepository;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(final DomainEventType type, final Long aggregateId, final Long scopeId, final Long userId) {
+        outboxEventRepository.save(new OutboxEvent(type, aggregateId, scopeId, userId));
+        log.debug("The event {} of id {} has been recorded", type, aggregateId);
+    }
+}
@@ -4,22 +4,33 @@ import com.popcodelab.mddapi.dto.post.PostDto;
 import com.popcodelab.mddapi.entities.Post;
 import com.popcodelab.mddapi.entities.Topic;
 import com.popcodelab.mddapi.entities.User;
+import com.popcodelab.mddapi.events.DomainEventType;
+import com.popcodelab.mddapi.mappers.PostMapper;
 import com.popcodelab.mddapi.repositories.PostRepository;
 import com.popcodelab.mddapi.repositories.TopicRepository;
 import com.popcodelab.mddapi.repositories.UserRepository;
+import com.popcodelab.mddapi.services.IdempotencyService;
+import com.popcodelab.mddapi.services.OutboxService;
 import com.popcodelab.mddapi.services.PostService;
+import com.popcodelab.mddapi.services.PostViewService;
+import com.popcodelab.mddapi.sharding.ShardTemplate;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
-import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
 @Log4j2
 @RequiredArgsConstructor
+@Timed(value = "mdd.service", description = "Time spent in the service methods")
 public class PostServiceImpl implements PostService {
 
     /**
@@ -35,9 +46,35 @@ public class PostServiceImpl implements PostService {
      */
     private final TopicRepository topicRepository;
     /**
-     * Represents an instance of ModelMapper used for object mapping.
+     * The PostMapper maps a Post entity to a PostDto and vice versa.
      */
-    private final ModelMapper modelMapper;
+    private final PostMapper postMapper;
+    /**
+     * The IdempotencyService remembers the posts created with an idempotency key.
+     */
+    private final IdempotencyService idempotencyService;
+    /**
+     * The TransactionOperations run the creation of a post in a transaction, behind its idempotency key.
+     */
+    private final TransactionOperations transactionOperations;
+    /**
+     * The OutboxService records the creation of a post in its transaction.
+     */
+    private final OutboxService outboxService;
+    /**
+     * The PostViewService counts the unique viewers of the posts.
+     */
+    private final PostViewService postViewService;
+    /**
+     * The ShardTemplate runs the reads and writes of the posts on the shard of their topic, when they are sharded.
+     */
+    private final ObjectProvider<ShardTemplate> shardTemplate;
+
+    /**
+     * The order of the feed, most recent first.
+     */
+    private static final Comparator<Post> FEED_ORDER =
+            Comparator.comparing(Post::getCreatedAt).thenComparing(Post::getId).reversed();
 
     /**
      * Retrieves a list of PostDto objects representing posts from user topics.
@@ -45,8 +82,12 @@ public class PostServiceImpl implements PostService {
      * @param topicIds a list of topic IDs
      * @return a list of PostDto objects representing posts from user topics
      */
+    @Transactional(readOnly = true)
     public List<PostDto> getPostsFromUserTopics(final List<Long> topicIds) {
-        List<Post> allPosts = postRepository.findByTopicIds(topicIds);
+        ShardTemplate shards = shardTemplate.getIfAvailable();
+        List<Post> allPosts = shards == null
+                ? postRepository.findByTopicIds(topicIds)
+                : shards.scatter(topicIds, postRepository::findByTopicIds, FEED_ORDER);
         Set<Long> userIds = allPosts.stream().map(Post::getUserId).collect(Collectors.toSet());
         Set<Long> topicIdsInPosts = allPosts.stream().map(Post::getTopicId).collect(Collectors.toSet());
 
@@ -60,24 +101,24 @@ public class PostServiceImpl implements PostService {
             User author = userMap.get(post.getUserId());
             Topic topic = topicMap.get(post.getTopicId());
 
-            PostDto postDto = modelMapper.map(post, PostDto.class);
-            postDto.setUsername(author.getUsername());
-            postDto.setTopicTitle(topic.getTitle());
-
-            return postDto;
+            return postMapper.toDto(post, author.getUsername(), topic.getTitle());
         }).collect(Collectors.toList());
     }
 
     /**
-     * Retrieves a post by its ID.
+     * Retrieves a post by its ID, recording the view of the post.
      *
-     * @param id the ID of the post to retrieve
+     * @param id     the ID of the post to retrieve
+     * @param viewer what identifies the viewer, counted in the unique viewers of the post
      * @return an Optional containing the PostDto associated with the given ID, or an empty Optional if no post is found
      */
     @Override
-    public Optional<PostDto> getPostById(final Long id) {
-        return postRepository.findById(id)
+    @Transactional(readOnly = true)
+    public Optional<PostDto> getPostById(final Long id, final String viewer) {
+        Optional<PostDto> postDto = onShard(id, true, () -> postRepository.findById(id))
                 .map(this::mapPostToPostDto);
+        postDto.ifPresent(found -> postViewService.recordView(id, viewer));
+        return postDto;
     }
 
     private PostDto mapPostToPostDto(final Post post) {
@@ -86,15 +127,27 @@ public class PostServiceImpl implements PostService {
         Topic topic = topicRepository.findById(post.getTopicId())
                 .orElseThrow(() -> prepareEntityNotFoundException("Topic", post.getTopicId()));
 
-        PostDto postDto = modelMapper.map(post, PostDto.class);
-        postDto.setUsername(author.getUsername());
-        postDto.setTopicTitle(topic.getTitle());
+        PostDto postDto = postMapper.toDto(post, author.getUsername(), topic.getTitle());
         log.debug("Post Id : {} has been retrieved > Title : {}", postDto.getId(), postDto.getTitle());
         return postDto;
     }
 
+    /**
+     * Runs an action on the shard of a post, in a transaction of its own, or directly when the posts are not sharded.
+     *
+     * @param postId   the ID of the post
+     * @param readOnly true if the action only reads
+     * @param action   the action
+     * @param <T>      the type of the result
+     * @return the result of the action
+     */
+    private <T> T onShard(final Long postId, final boolean readOnly, final Supplier<T> action) {
+        ShardTemplate shards = shardTemplate.getIfAvailable();
+        return shards == null ? action.get() : shards.executeOnId(postId, readOnly, action);
+    }
+
     private EntityNotFoundException prepareEntityNotFoundException(final String entityType, final Long id) {
-        log.warn(entityType + " not found with id " + id);
+        log.warn("{} not found with id {}", entityType, id);
         return new EntityNotFoundException(entityType + " not found with id " + id);
     }
 
@@ -107,14 +160,22 @@ public class PostServiceImpl implements PostService {
      * @throws EntityNotFoundException If the provided userId or topicId does not exist.
      */
     @Override
+    @Transactional
     public PostDto newPost(final PostDto postDto) {
         Long userId = postDto.getUserId();
         Long topicId = postDto.getTopicId();
         validateUserAndTopicExistence(userId, topicId);
-        Post post = modelMapper.map(postDto, Post.class);
+        Post post = postMapper.toEntity(postDto);
         post.setUserId(userId);
         post.setTopicId(topicId);
-        Post newPost = postRepository.save(post);
+        ShardTemplate shards = shardTemplate.getIfAvailable();
+        // The event is recorded in the outbox of the database of the post, in the transaction of the post
+        Supplier<Post> savePost = () -> {
+            Post savedPost = postRepository.save(post);
+            outboxService.record(DomainEventType.POST_CREATED, savedPost.getId(), topicId, userId);
+            return savedPost;
+        };
+        Post newPost = shards == null ? savePost.get() : shards.executeOnTopic(topicId, false, savePost);
         log.debug("The post with title '{}' and ID {} was saved successfully", post.getTitle(), post.getId());
         User author;
         Topic topic;
@@ -125,10 +186,23 @@ public class PostServiceImpl implements PostService {
             log.error("The post with title '{}' and ID {} could not be created as it references a non-existing user or topic", postDto.getTitle(), postDto.getId());
             throw e;
         }
-        PostDto newPostDto = modelMapper.map(newPost, PostDto.class);
-        newPostDto.setUsername(author.getUsername());
-        newPostDto.setTopicTitle(topic.getTitle());
-        return newPostDto;
+        return postMapper.toDto(newPost, author.getUsername(), topic.getTitle());
+    }
+
+    /**
+     * Creates a new post once per idempotency key, scoped to the author. The key is checked before the transaction,
+     * so that a retry does not touch the database.
+     *
+     * @param postDto        The PostDto object that contains the information of the post to be created.
+     * @param idempotencyKey The Idempotency-Key header of the request, or null.
+     * @return The newly created PostDto object, or the one created by the first request with the key.
+     */
+    @Override
+    public PostDto newPost(final PostDto postDto, final String idempotencyKey) {
+        String key = idempotencyKey == null ? null : "post:" + postDto.getUserId() + ":" + idempotencyKey;
+        return idempotencyService.execute(key,
+                Arrays.asList(postDto.getTitle(), postDto.getContent(), postDto.getTopicId()),
+                () -> transactionOperations.execute(status -> newPost(postDto)));
     }
 
     /**
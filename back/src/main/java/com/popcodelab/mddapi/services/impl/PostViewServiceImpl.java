@@ -0,0 +1,194 @@
+package com.popcodelab.mddapi.services.impl;
+
+import com.popcodelab.mddapi.services.PostViewService;
+import com.popcodelab.mddapi.sharding.ShardTemplate;
+import com.popcodelab.mddapi.sketches.HyperLogLog;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The PostViewServiceImpl class implements the PostViewService interface with a HyperLogLog sketch per post.
+ * <p>
+ * The views are added to in-memory sketches, one per post viewed since the last flush, so that a view costs a hash
+ * and a register update. Every flush interval, each sketch is taken out of the map and merged, in its own short
+ * transaction, with the sketch of the post in post_view_sketches, locked meanwhile so that the backend instances
+ * merge in turn. The estimate of the merged sketch is copied into posts.unique_viewers, read with the post.
+ * A view is added without locking, by a compare-and-set of a register of the pending sketch. A thread which found
+ * the sketch before the flush took it out may still add a view to it: the flush marks the sketch as flushed before
+ * reading it, and a thread finding the mark after its add merges the whole sketch back into the pending views. The
+ * registers merged twice keep the same maximum, so no view is lost to the flush. When the posts are sharded, the
+ * sketch of a post is merged on the shard of the post, next to its unique_viewers column.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@Service
+@Log4j2
+public class PostViewServiceImpl implements PostViewService {
+
+    /**
+     * The number of bits of the hash selecting a register, fixing the memory of a sketch and its error.
+     */
+    private final int precision;
+
+    /**
+     * The views recorded since the last flush, by post ID.
+     */
+    private final Map<Long, PendingViews> pendingViews = new ConcurrentHashMap<>();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * The TransactionOperations running the merge of each sketch in a transaction.
+     */
+    private final TransactionOperations transactionOperations;
+
+    /**
+     * The ShardTemplate running the merge of each sketch on the shard of its post, when the posts are sharded.
+     */
+    private final ObjectProvider<ShardTemplate> shardTemplate;
+
+    /**
+     * Creates a PostViewServiceImpl.
+     *
+     * @param precision             the number of bits of the hash selecting a register, from 4 to 12
+     * @param jdbcTemplate          the JdbcTemplate reading and writing the sketches
+     * @param transactionOperations the TransactionOperations running the merge of each sketch in a transaction
+     * @param shardTemplate         the ShardTemplate running the merge on the shard of the post, when sharded
+     */
+    public PostViewServiceImpl(@Value("${application.posts.views.precision:12}") final int precision,
+                               final JdbcTemplate jdbcTemplate, final TransactionOperations transactionOperations,
+                               final ObjectProvider<ShardTemplate> shardTemplate) {
+        if (precision < HyperLogLog.MIN_PRECISION || precision > HyperLogLog.MAX_PRECISION) {
+            throw new IllegalArgumentException("The precision of the view sketches must be between "
+                    + HyperLogLog.MIN_PRECISION + " and " + HyperLogLog.MAX_PRECISION);
+        }
+        this.precision = precision;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionOperations = transactionOperations;
+        this.shardTemplate = shardTemplate;
+    }
+
+    @Override
+    public void recordView(final Long postId, final String viewer) {
+        PendingViews views = pendingViews.get(postId);
+        if (views == null) {
+            views = pendingViews.computeIfAbsent(postId, id -> new PendingViews(new HyperLogLog(precision)));
+        }
+        views.sketch.add(viewer);
+        if (views.flushed) {
+            // Taken out by the flush, which may have read the registers before this view
+            addPendingViews(postId, views.sketch);
+        }
+    }
+
+    @Override
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${application.posts.views.flush-interval-ms:10000}")
+    public void flush() {
+        int flushed = 0;
+        for (Long postId : List.copyOf(pendingViews.keySet())) {
+            PendingViews pending = pendingViews.remove(postId);
+            if (pending == null) {
+                // Taken out by a flush running meanwhile, on shutdown
+                continue;
+            }
+            pending.flushed = true;
+            HyperLogLog views = pending.sketch;
+            try {
+                ShardTemplate shards = shardTemplate.getIfAvailable();
+                if (shards == null) {
+                    transactionOperations.executeWithoutResult(status -> merge(postId, views));
+                } else {
+                    shards.executeOnId(postId, false, () -> merge(postId, views));
+                }
+                flushed++;
+            } catch (RuntimeException e) {
+                log.warn("The views of the post id {} could not be saved : {}", postId, e.getMessage());
+                // Kept for the next flush, with the views recorded meanwhile
+                addPendingViews(postId, views);
+            }
+        }
+        if (flushed > 0) {
+            log.debug("The views of {} posts have been saved", flushed);
+        }
+    }
+
+    /**
+     * Merges views into the pending sketch of a post, created if the post has none.
+     *
+     * @param postId the ID of the post
+     * @param views  the views
+     */
+    private void addPendingViews(final Long postId, final HyperLogLog views) {
+        pendingViews.compute(postId, (id, pending) -> {
+            PendingViews target = pending == null ? new PendingViews(new HyperLogLog(precision)) : pending;
+            target.sketch.merge(views);
+            return target;
+        });
+    }
+
+    /**
+     * Merges the recorded views of a post into its sketch and updates its estimated unique viewers.
+     *
+     * @param postId the ID of the post
+     * @param views  the views recorded since the last flush
+     * @return the merged sketch
+     */
+    private HyperLogLog merge(final Long postId, final HyperLogLog views) {
+        List<byte[]> stored = jdbcTemplate.queryForList(
+                "SELECT registers FROM post_view_sketches WHERE post_id = ? FOR UPDATE", byte[].class, postId);
+        HyperLogLog sketch = stored.isEmpty() ? new HyperLogLog(precision) : HyperLogLog.fromBytes(stored.get(0));
+        if (sketch.getPrecision() == precision) {
+            sketch.merge(views);
+        } else {
+            // The precision has changed, the sketch restarts from the recorded views
+            sketch = views;
+        }
+        if (stored.isEmpty()) {
+            // Fails if another instance inserts it meanwhile, the views being merged on the next flush
+            jdbcTemplate.update("INSERT INTO post_view_sketches (post_id, registers) VALUES (?, ?)",
+                    postId, sketch.toBytes());
+        } else {
+            jdbcTemplate.update("UPDATE post_view_sketches SET registers = ? WHERE post_id = ?",
+                    sketch.toBytes(), postId);
+        }
+        jdbcTemplate.update("UPDATE posts SET unique_viewers = ? WHERE id = ?", sketch.estimate(), postId);
+        return sketch;
+    }
+
+    /**
+     * The sketch of the views of a post recorded since the last flush.
+     */
+    private static final class PendingViews {
+
+        /**
+         * The sketch of the views.
+         */
+        private final HyperLogLog sketch;
+
+        /**
+         * Whether the flush has taken the sketch out of the pending views.
+         */
+        private volatile boolean flushed;
+
+        /**
+         * Creates the PendingViews of a sketch.
+         *
+         * @param sketch the sketch of the views
+         */
+        private PendingViews(final HyperLogLog sketch) {
+            this.sketch = sketch;
+        }
+    }
+}
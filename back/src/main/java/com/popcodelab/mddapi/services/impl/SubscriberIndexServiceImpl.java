@@ -0,0 +1,319 @@
+package com.popcodelab.mddapi.services.impl;
+
+import com.popcodelab.mddapi.invalidation.Invalidation;
+import com.popcodelab.mddapi.invalidation.InvalidationListener;
+import com.popcodelab.mddapi.repositories.UserRepository;
+import com.popcodelab.mddapi.repositories.projections.TopicSubscription;
+import com.popcodelab.mddapi.services.SubscriberIndexService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+
+/**
+ * The SubscriberIndexServiceImpl class is an implementation of the SubscriberIndexService interface.
+ * It keeps one compressed Roaring bitmap of user IDs per topic.
+ * <p>
+ * The bitmaps are never modified once published: a subscription change replaces the bitmap of the topic
+ * with an updated copy. Readers therefore work on a consistent snapshot without any locking, which suits
+ * the read-mostly access pattern of the subscriptions. A subscription change made in a transaction is only applied
+ * once the transaction commits, so that a rollback never leaves the index ahead of the database. The changes
+ * applied while the whole index is loaded are recorded, and replayed on the loaded bitmaps before they are
+ * published, so that a snapshot read before a change never undoes it.
+ * <p>
+ * The subscriptions made on the other backend instances are received as invalidations of the subscribers of their
+ * topic, whose bitmap is then reloaded from the database.
+ */
+@Service
+@Log4j2
+@RequiredArgsConstructor
+public class SubscriberIndexServiceImpl implements SubscriberIndexService, InvalidationListener {
+
+    /**
+     * An empty bitmap returned for topics without any subscriber.
+     */
+    private static final RoaringBitmap EMPTY = new RoaringBitmap();
+
+    /**
+     * Repository for managing user data.
+     */
+    private final UserRepository userRepository;
+
+    /**
+     * The subscribers of each topic, keyed by topic ID.
+     */
+    private final Map<Long, RoaringBitmap> subscribersByTopic = new ConcurrentHashMap<>();
+
+    /**
+     * Guards the changes recorded during a load of the index, so that none is applied between their replay and
+     * the publication of the loaded bitmaps.
+     */
+    private final Object changeLock = new Object();
+
+    /**
+     * The subscription changes applied since the running load of the index started, or null if none is running.
+     */
+    private List<SubscriptionChange> changesDuringLoad;
+
+    /**
+     * Builds the index from the subscription table once the application is started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void buildIndex() {
+        long start = System.nanoTime();
+        int topicCount = loadIndex();
+        log.info("Subscriber index built for {} topics in {} ms", topicCount, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Override
+    public void addSubscription(final Long userId, final Long topicId) {
+        SubscriptionChange change = new SubscriptionChange(topicId, toIndex(userId), true);
+        afterCommit(() -> apply(change));
+    }
+
+    @Override
+    public void removeSubscription(final Long userId, final Long topicId) {
+        SubscriptionChange change = new SubscriptionChange(topicId, toIndex(userId), false);
+        afterCommit(() -> apply(change));
+    }
+
+    /**
+     * Reloads the bitmaps of the topics whose subscribers have changed on another instance, or all of them when
+     * the whole region is invalidated. The transaction is not read-only, so that the subscribers are read from the
+     * primary, a replica possibly not having the change yet.
+     *
+     * @param invalidations the invalidations, without duplicates
+     */
+    @Override
+    @Transactional
+    public void onInvalidations(final List<Invalidation> invalidations) {
+        for (Invalidation invalidation : invalidations) {
+            switch (invalidation.region()) {
+                case TOPIC_SUBSCRIBERS -> {
+                    if (invalidation.key() == null) {
+                        reloadIndex();
+                        return;
+                    }
+                    reloadTopic(invalidation.key());
+                }
+                default -> {
+                    // Not in the index
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean isSubscribed(final Long topicId, final Long userId) {
+        return subscribersOf(topicId).contains(toIndex(userId));
+    }
+
+    @Override
+    public long getSubscriberCount(final Long topicId) {
+        return subscribersOf(topicId).getLongCardinality();
+    }
+
+    @Override
+    public long getCommonSubscriberCount(final Collection<Long> topicIds) {
+        if (topicIds.size() == 2) {
+            Long[] ids = topicIds.toArray(new Long[0]);
+            return RoaringBitmap.andCardinality(subscribersOf(ids[0]), subscribersOf(ids[1]));
+        }
+        return intersect(topicIds).getLongCardinality();
+    }
+
+    @Override
+    public void forEachSubscriber(final Long topicId, final LongConsumer consumer) {
+        forEach(subscribersOf(topicId), consumer);
+    }
+
+    @Override
+    public void forEachCommonSubscriber(final Collection<Long> topicIds, final LongConsumer consumer) {
+        forEach(intersect(topicIds), consumer);
+    }
+
+    /**
+     * Replaces the bitmap of a topic with its subscribers in the subscription table.
+     *
+     * @param topicId the ID of the topic
+     */
+    private void reloadTopic(final Long topicId) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        userRepository.findSubscriberIdsByTopicId(topicId).forEach(userId -> bitmap.add(toIndex(userId)));
+        if (bitmap.isEmpty()) {
+            subscribersByTopic.remove(topicId);
+        } else {
+            bitmap.runOptimize();
+            subscribersByTopic.put(topicId, bitmap);
+        }
+    }
+
+    /**
+     * Replaces all the bitmaps with the subscribers in the subscription table.
+     */
+    private void reloadIndex() {
+        log.info("Subscriber index reloaded for {} topics", loadIndex());
+    }
+
+    /**
+     * Loads the subscription table and publishes its bitmaps in place of the current ones. The changes applied
+     * meanwhile are recorded from before the first read, and replayed on the loaded bitmaps, which may predate
+     * them. The loads run one at a time.
+     *
+     * @return the number of topics with subscribers
+     */
+    private synchronized int loadIndex() {
+        synchronized (changeLock) {
+            changesDuringLoad = new ArrayList<>();
+        }
+        try {
+            Map<Long, RoaringBitmap> loaded = new HashMap<>();
+            try (Stream<TopicSubscription> subscriptions = userRepository.streamAllTopicSubscriptions()) {
+                subscriptions.forEach(subscription -> loaded
+                        .computeIfAbsent(subscription.topicId(), topicId -> new RoaringBitmap())
+                        .add(toIndex(subscription.userId())));
+            }
+            loaded.values().forEach(RoaringBitmap::runOptimize);
+            synchronized (changeLock) {
+                changesDuringLoad.forEach(change -> change.applyTo(loaded));
+                subscribersByTopic.keySet().retainAll(loaded.keySet());
+                subscribersByTopic.putAll(loaded);
+            }
+            return loaded.size();
+        } finally {
+            synchronized (changeLock) {
+                changesDuringLoad = null;
+            }
+        }
+    }
+
+    /**
+     * Applies a committed subscription change to the index, and records it if a load is running.
+     *
+     * @param change the subscription change
+     */
+    private void apply(final SubscriptionChange change) {
+        synchronized (changeLock) {
+            if (changesDuringLoad != null) {
+                changesDuringLoad.add(change);
+            }
+            change.applyTo(subscribersByTopic);
+        }
+    }
+
+    /**
+     * Runs an action after the commit of the current transaction, or immediately if there is none.
+     *
+     * @param action the action to run
+     */
+    private void afterCommit(final Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Retrieves the current bitmap of a topic.
+     *
+     * @param topicId the ID of the topic
+     * @return the bitmap of the subscribers, or an empty bitmap if the topic has no subscriber
+     */
+    private RoaringBitmap subscribersOf(final Long topicId) {
+        return subscribersByTopic.getOrDefault(topicId, EMPTY);
+    }
+
+    /**
+     * Intersects the bitmaps of the given topics.
+     *
+     * @param topicIds the IDs of the topics
+     * @return the bitmap of the users subscribed to every topic
+     */
+    private RoaringBitmap intersect(final Collection<Long> topicIds) {
+        if (topicIds.isEmpty()) {
+            return EMPTY;
+        }
+        if (topicIds.size() == 1) {
+            return subscribersOf(topicIds.iterator().next());
+        }
+        return FastAggregation.and(topicIds.stream().map(this::subscribersOf).toArray(RoaringBitmap[]::new));
+    }
+
+    /**
+     * Passes every user ID of a bitmap to the consumer.
+     *
+     * @param bitmap   the bitmap to iterate over
+     * @param consumer the consumer receiving the user IDs
+     */
+    private void forEach(final RoaringBitmap bitmap, final LongConsumer consumer) {
+        IntIterator iterator = bitmap.getIntIterator();
+        while (iterator.hasNext()) {
+            consumer.accept(Integer.toUnsignedLong(iterator.next()));
+        }
+    }
+
+    /**
+     * Converts a user ID to its position in the bitmaps.
+     *
+     * @param userId the ID of the user
+     * @return the position of the user in the bitmaps
+     * @throws ArithmeticException if the ID does not fit in 32 bits
+     */
+    private int toIndex(final Long userId) {
+        return Math.toIntExact(userId);
+    }
+
+    /**
+     * A subscription, or an unsubscription, of a user to a topic.
+     *
+     * @param topicId    the ID of the topic
+     * @param index      the position of the user in the bitmaps
+     * @param subscribed whether the user subscribed, or unsubscribed
+     */
+    private record SubscriptionChange(Long topicId, int index, boolean subscribed) {
+
+        /**
+         * Applies the change to bitmaps, replacing the bitmap of the topic with an updated copy.
+         *
+         * @param bitmaps the bitmaps, keyed by topic ID
+         */
+        private void applyTo(final Map<Long, RoaringBitmap> bitmaps) {
+            if (subscribed) {
+                bitmaps.compute(topicId, (id, current) -> {
+                    RoaringBitmap updated = current == null ? new RoaringBitmap() : current.clone();
+                    updated.add(index);
+                    return updated;
+                });
+            } else {
+                bitmaps.computeIfPresent(topicId, (id, current) -> {
+                    RoaringBitmap updated = current.clone();
+                    updated.remove(index);
+                    return updated.isEmpty() ? null : updated;
+                });
+            }
+        }
+    }
+}
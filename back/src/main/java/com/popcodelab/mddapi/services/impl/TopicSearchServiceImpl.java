@@ -0,0 +1,226 @@
+package com.popcodelab.mddapi.services.impl;
+
+import com.popcodelab.mddapi.dto.topic.TopicDto;
+import com.popcodelab.mddapi.search.TopicTrie;
+import com.popcodelab.mddapi.services.SubscriberIndexService;
+import com.popcodelab.mddapi.services.TopicSearchService;
+import com.popcodelab.mddapi.services.TopicService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The TopicSearchServiceImpl class is an implementation of the TopicSearchService interface.
+ * It answers the queries from an in-memory TopicTrie over the titles and descriptions of the topics,
+ * and ranks the matches with the subscriber counts of the SubscriberIndexService.
+ * <p>
+ * The index is loaded once the application is ready, then kept up to date topic by topic
+ * by the TopicCatalogListener.
+ */
+@Service
+@Log4j2
+@RequiredArgsConstructor
+public class TopicSearchServiceImpl implements TopicSearchService {
+
+    /**
+     * The topicService provides the topics loaded in the index at startup.
+     */
+    private final TopicService topicService;
+
+    /**
+     * The subscriberIndexService provides the subscriber counts used to rank the results.
+     */
+    private final SubscriberIndexService subscriberIndexService;
+
+    /**
+     * The prefix tree over the words of the topics.
+     */
+    private final TopicTrie topicTrie = new TopicTrie();
+
+    /**
+     * The indexed topics, keyed by ID.
+     */
+    private final Map<Long, IndexedTopic> topicsById = new HashMap<>();
+
+    /**
+     * Guards the trie and the topics: searches share the read lock, index updates take the write lock.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * The latency target of a search, in microseconds. The searches exceeding it are logged as slow.
+     * Autocomplete fires a search on every keystroke, so a search must stay well under a millisecond.
+     */
+    @Value("${application.topics.search.latency-target-micros:1000}")
+    private long latencyTargetMicros;
+
+    /**
+     * Loads all the topics in the index once the application is started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndex() {
+        List<TopicDto> topics = topicService.getAllTopics();
+        topics.forEach(this::indexTopic);
+        log.info("Topic search index built for {} topics", topics.size());
+    }
+
+    @Override
+    public List<TopicDto> search(final String query, final boolean fuzzy, final int limit) {
+        long start = System.nanoTime();
+        List<String> words = TopicTrie.normalize(query);
+        List<TopicDto> results;
+        lock.readLock().lock();
+        try {
+            Set<Long> matches = words.isEmpty() ? topicsById.keySet() : match(words, fuzzy);
+            results = rank(matches, words.isEmpty() ? null : words.get(0), limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+        long elapsedMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+        if (elapsedMicros > latencyTargetMicros) {
+            log.warn("Slow topic search '{}' (fuzzy : {}) : {} µs for a target of {} µs",
+                    query, fuzzy, elapsedMicros, latencyTargetMicros);
+        }
+        return results;
+    }
+
+    @Override
+    public void indexTopic(final TopicDto topicDto) {
+        lock.writeLock().lock();
+        try {
+            topicTrie.put(topicDto.getId(), topicDto.getTitle(), topicDto.getDescription());
+            topicsById.put(topicDto.getId(), new IndexedTopic(topicDto, TopicTrie.normalize(topicDto.getTitle())));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void removeTopic(final Long topicId) {
+        lock.writeLock().lock();
+        try {
+            topicTrie.remove(topicId);
+            topicsById.remove(topicId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the topics matching every word of the query.
+     *
+     * @param words the normalized words of the query
+     * @param fuzzy true to tolerate typing mistakes
+     * @return the IDs of the matching topics
+     */
+    private Set<Long> match(final List<String> words, final boolean fuzzy) {
+        Set<Long> matches = null;
+        for (String word : words) {
+            Set<Long> wordMatches = fuzzy
+                    ? topicTrie.matchFuzzyPrefix(word, maxDistance(word))
+                    : topicTrie.matchPrefix(word);
+            if (matches == null) {
+                matches = new HashSet<>(wordMatches);
+            } else {
+                matches.retainAll(wordMatches);
+            }
+            if (matches.isEmpty()) {
+                break;
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Keeps the best matches: most subscribed first, then the topics whose title matches the first word,
+     * then by ID.
+     *
+     * @param matches   the IDs of the matching topics
+     * @param firstWord the first normalized word of the query, or null if the query is empty
+     * @param limit     the maximum number of topics to keep
+     * @return the best topics, in rank order
+     */
+    private List<TopicDto> rank(final Set<Long> matches, final String firstWord, final int limit) {
+        if (limit <= 0 || matches.isEmpty()) {
+            return List.of();
+        }
+        Comparator<RankedTopic> order = Comparator.comparingLong(RankedTopic::subscribers)
+                .thenComparing(RankedTopic::titleMatch)
+                .thenComparing(Comparator.comparingLong((RankedTopic ranked) -> ranked.topic().getId()).reversed());
+        // Min-heap on the rank order: the head is the worst of the best topics kept so far.
+        PriorityQueue<RankedTopic> best = new PriorityQueue<>(Math.min(limit, matches.size()) + 1, order);
+        for (Long topicId : matches) {
+            IndexedTopic indexed = topicsById.get(topicId);
+            best.add(new RankedTopic(indexed.topic(), subscriberIndexService.getSubscriberCount(topicId),
+                    firstWord != null && indexed.titleStartsWith(firstWord)));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        List<TopicDto> results = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            results.add(best.poll().topic());
+        }
+        Collections.reverse(results);
+        return results;
+    }
+
+    /**
+     * Computes the number of typing mistakes tolerated for a word: none for very short words,
+     * then one, then two from six characters.
+     *
+     * @param word the normalized word
+     * @return the maximum edit distance
+     */
+    private int maxDistance(final String word) {
+        if (word.length() < 3) {
+            return 0;
+        }
+        return word.length() < 6 ? 1 : 2;
+    }
+
+    /**
+     * An indexed topic with the normalized words of its title.
+     *
+     * @param topic      the topic
+     * @param titleWords the normalized words of the title
+     */
+    private record IndexedTopic(TopicDto topic, List<String> titleWords) {
+
+        /**
+         * Checks whether a word of the title starts with the given word.
+         *
+         * @param word the normalized word
+         * @return true if the title matches the word
+         */
+        private boolean titleStartsWith(final String word) {
+            return titleWords.stream().anyMatch(titleWord -> titleWord.startsWith(word));
+        }
+    }
+
+    /**
+     * A matching topic with its ranking criteria.
+     *
+     * @param topic       the topic
+     * @param subscribers the number of subscribers of the topic
+     * @param titleMatch  true if the title of the topic matches the first word of the query
+     */
+    private record RankedTopic(TopicDto topic, long subscribers, boolean titleMatch) {
+    }
+}
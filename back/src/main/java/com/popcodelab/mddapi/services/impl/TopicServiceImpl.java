@@ -1,16 +1,23 @@
 package com.popcodelab.mddapi.services.impl;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.popcodelab.mddapi.dto.topic.TopicCatalog;
 import com.popcodelab.mddapi.dto.topic.TopicDto;
+import com.popcodelab.mddapi.mappers.TopicMapper;
 import com.popcodelab.mddapi.repositories.TopicRepository;
 import com.popcodelab.mddapi.services.TopicService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
-import org.modelmapper.ModelMapper;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 @Service
 @Log4j2
@@ -29,17 +36,20 @@ public class TopicServiceImpl implements TopicService {
     private final TopicRepository topicRepository;
 
     /**
-     * The modelMapper variable is an instance of the ModelMapper class.
-     * It is used for mapping between objects of different types.
-     * <p>
-     * This variable is autowired using the @Autowired annotation, which injects an instance
-     * of the ModelMapper class from the Spring application context.
-     *
-     * @see ModelMapper
-     * @see <a href="https://modelmapper.org/">ModelMapper Documentation</a>
+     * The objectMapper is used to pre-serialize the topic catalog in JSON,
+     * with the same settings as the HTTP message converters.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * The topicMapper maps a Topic entity to a TopicDto.
+     */
+    private final TopicMapper topicMapper;
+
+    /**
+     * The current snapshot of the topic catalog, or null when it has to be rebuilt.
      */
-    @Autowired
-    private ModelMapper modelMapper;
+    private volatile TopicCatalog topicCatalog;
 
     /**
      * Retrieves all topics.
@@ -47,9 +57,82 @@ public class TopicServiceImpl implements TopicService {
      * @return A list of TopicDto objects representing the retrieved topics.
      */
     public List<TopicDto> getAllTopics() {
-        log.info("Retrieving all the topics");
-        return topicRepository.findAll().stream()
-                .map(topic -> modelMapper.map(topic, TopicDto.class))
-                .collect(Collectors.toList());
+        return getTopicCatalog().getTopics();
+    }
+
+    /**
+     * Retrieves the current snapshot of the topic catalog, building it if needed.
+     *
+     * @return The TopicCatalog holding all the topics and their serialized representation.
+     */
+    @Override
+    public TopicCatalog getTopicCatalog() {
+        TopicCatalog catalog = topicCatalog;
+        if (catalog == null) {
+            synchronized (this) {
+                catalog = topicCatalog;
+                if (catalog == null) {
+                    catalog = buildTopicCatalog();
+                    topicCatalog = catalog;
+                }
+            }
+        }
+        return catalog;
+    }
+
+    /**
+     * Discards the current snapshot of the topic catalog.
+     */
+    @Override
+    public void evictTopicCatalog() {
+        synchronized (this) {
+            topicCatalog = null;
+        }
+        log.debug("The topic catalog has been evicted");
+    }
+
+    /**
+     * Loads all the topics and serializes them.
+     *
+     * @return the new TopicCatalog
+     */
+    private TopicCatalog buildTopicCatalog() {
+        log.info("Building the topic catalog");
+        List<TopicDto> topics = topicRepository.findAll(Sort.by("id")).stream()
+                .map(topicMapper::toDto)
+                .toList();
+        byte[] json = serialize(topics);
+        String etag = "\"" + DigestUtils.md5DigestAsHex(json) + "\"";
+        return new TopicCatalog(topics, json, gzip(json), etag);
+    }
+
+    /**
+     * Serializes the topics in JSON.
+     *
+     * @param topics the topics to serialize
+     * @return the JSON representation of the topics
+     */
+    private byte[] serialize(final List<TopicDto> topics) {
+        try {
+            return objectMapper.writeValueAsBytes(topics);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize the topic catalog", e);
+        }
+    }
+
+    /**
+     * Compresses the given bytes with gzip.
+     *
+     * @param bytes the bytes to compress
+     * @return the compressed bytes
+     */
+    private byte[] gzip(final byte[] bytes) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(bytes.length / 2 + 32);
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream)) {
+            gzipOutputStream.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to compress the topic catalog", e);
+        }
+        return outputStream.toByteArray();
     }
 }
@@ -0,0 +1,66 @@
+package com.popcodelab.mddapi.services.impl;
+
+import com.popcodelab.mddapi.entities.TopicPostCount;
+import com.popcodelab.mddapi.entities.TopicReadMarker;
+import com.popcodelab.mddapi.repositories.TopicPostCountRepository;
+import com.popcodelab.mddapi.repositories.TopicReadMarkerRepository;
+import com.popcodelab.mddapi.services.UnreadCountService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The UnreadCountServiceImpl class implements the UnreadCountService interface with the topic_post_counts
+ * and topic_read_markers tables. The post counts are incremented by the TopicPostCountConsumer, from the outbox,
+ * so a new post is counted a few milliseconds after its creation.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@Service
+@Log4j2
+@RequiredArgsConstructor
+public class UnreadCountServiceImpl implements UnreadCountService {
+
+    private final TopicPostCountRepository topicPostCountRepository;
+
+    private final TopicReadMarkerRepository topicReadMarkerRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, Long> getUnreadCounts(final Long userId, final Collection<Long> topicIds) {
+        Map<Long, Long> unreadCounts = new HashMap<>();
+        if (topicIds.isEmpty()) {
+            return unreadCounts;
+        }
+        Map<Long, Long> postCounts = topicPostCountRepository.findByTopicIdIn(topicIds).stream()
+                .collect(Collectors.toMap(TopicPostCount::getTopicId, TopicPostCount::getPostCount));
+        Map<Long, Long> readPostCounts = topicReadMarkerRepository.findByUserId(userId).stream()
+                .collect(Collectors.toMap(TopicReadMarker::getTopicId, TopicReadMarker::getReadPostCount));
+        for (Long topicId : topicIds) {
+            long postCount = postCounts.getOrDefault(topicId, 0L);
+            unreadCounts.put(topicId, Math.max(0, postCount - readPostCounts.getOrDefault(topicId, 0L)));
+        }
+        return unreadCounts;
+    }
+
+    @Override
+    @Transactional
+    public void markAsRead(final Long userId, final Long topicId) {
+        long postCount = topicPostCountRepository.findById(topicId).map(TopicPostCount::getPostCount).orElse(0L);
+        topicReadMarkerRepository.save(new TopicReadMarker(userId, topicId, postCount));
+        log.debug("The user id {} has read the {} posts of the topic id {}", userId, postCount, topicId);
+    }
+
+    @Override
+    @Transactional
+    public void forget(final Long userId, final Long topicId) {
+        topicReadMarkerRepository.deleteById(new TopicReadMarker.Key(userId, topicId));
+    }
+}
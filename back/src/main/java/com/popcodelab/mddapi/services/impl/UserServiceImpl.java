@@ -1,21 +1,31 @@
 package com.popcodelab.mddapi.services.impl;
 
 import com.popcodelab.mddapi.dto.authentication.UserDto;
+import com.popcodelab.mddapi.dto.topic.TopicDto;
 import com.popcodelab.mddapi.entities.User;
+import com.popcodelab.mddapi.events.DomainEventType;
+import com.popcodelab.mddapi.invalidation.CacheRegion;
+import com.popcodelab.mddapi.invalidation.InvalidationBus;
+import com.popcodelab.mddapi.mappers.TopicMapper;
+import com.popcodelab.mddapi.mappers.UserMapper;
 import com.popcodelab.mddapi.repositories.TopicRepository;
 import com.popcodelab.mddapi.repositories.UserRepository;
+import com.popcodelab.mddapi.services.OutboxService;
+import com.popcodelab.mddapi.services.SubscriberIndexService;
+import com.popcodelab.mddapi.services.UnreadCountService;
 import com.popcodelab.mddapi.services.UserService;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
-import org.modelmapper.ModelMapper;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * The UserServiceImpl class is an implementation of the UserService interface.
@@ -24,6 +34,7 @@ import java.util.List;
 @Service
 @Log4j2
 @RequiredArgsConstructor
+@Timed(value = "mdd.service", description = "Time spent in the service methods")
 public class UserServiceImpl implements UserService {
 
     /**
@@ -39,10 +50,36 @@ public class UserServiceImpl implements UserService {
     private final TopicRepository topicRepository;
 
     /**
-     * ModelMapper instance to map a Dto to an Entity and vice versa.
+     * The subscriberIndexService keeps the in-memory topic to subscribers index up to date
+     * with the subscriptions made through this service.
      */
-    @Autowired
-    private ModelMapper modelMapper;
+    private final SubscriberIndexService subscriberIndexService;
+
+    /**
+     * The userMapper maps a User entity to a UserDto.
+     */
+    private final UserMapper userMapper;
+
+    /**
+     * The outboxService records the subscriptions and unsubscriptions in their transaction.
+     */
+    private final OutboxService outboxService;
+
+    /**
+     * The unreadCountService counts the unread posts of the subscribed topics, from the read markers kept
+     * up to date with the subscriptions.
+     */
+    private final UnreadCountService unreadCountService;
+
+    /**
+     * The topicMapper maps a subscribed Topic entity to a TopicDto.
+     */
+    private final TopicMapper topicMapper;
+
+    /**
+     * The invalidationBus tells the other backend instances that their cached copies of a user are stale.
+     */
+    private final InvalidationBus invalidationBus;
 
     /**
      * Retrieves the information about the logged user.
@@ -50,14 +87,38 @@ public class UserServiceImpl implements UserService {
      * @param authentication The authentication object representing the logged user.
      * @return The UserDto object containing information about the logged user.
      */
+    @Transactional(readOnly = true)
     public UserDto getLoggedUser(final Authentication authentication) {
         log.debug("Looking for the user who logs with : {}", authentication.getName());
         User user = findUserByNameOrEmail(authentication.getName());
-        UserDto userDto = modelMapper.map(user, UserDto.class);
+        UserDto userDto = userMapper.toDto(user);
         log.debug("The user {} - {} has been retrieved", user.getUsername(), user.getEmail());
         return userDto;
     }
 
+    /**
+     * Retrieves the information about the logged user, with the number of unread posts of each subscribed topic.
+     *
+     * @param authentication The authentication object representing the logged user.
+     * @return The UserDto object containing information about the logged user and its unread counts.
+     */
+    @Transactional(readOnly = true)
+    public UserDto getLoggedUserWithUnreadCounts(final Authentication authentication) {
+        return toDtoWithUnreadCounts(findUserByNameOrEmail(authentication.getName()));
+    }
+
+    /**
+     * Maps a user to a UserDto, with the number of unread posts of each subscribed topic.
+     *
+     * @param user the user
+     * @return the UserDto of the user
+     */
+    private UserDto toDtoWithUnreadCounts(final User user) {
+        UserDto userDto = userMapper.toDto(user);
+        userDto.setUnreadCounts(unreadCountService.getUnreadCounts(user.getId(), user.getSubscribedTopicIds()));
+        return userDto;
+    }
+
     /**
      * Updates the information of a user.
      *
@@ -65,14 +126,16 @@ public class UserServiceImpl implements UserService {
      * @param authentication The authentication object representing the logged user.
      * @return The updated UserDto object.
      */
+    @Transactional
     public UserDto updateUser(UserDto userDto, Authentication authentication) {
         UserDto loggedUserDto = getLoggedUser(authentication);
         User user = getUserOrThrowNotFound(loggedUserDto);
         user.setUsername(userDto.getUsername());
         user.setEmail(userDto.getEmail());
         userRepository.save(user);
+        invalidationBus.publish(CacheRegion.USER, user.getId());
         log.debug("User Id {} - {} has been saved.",user.getId(),  user.getUsername());
-        return modelMapper.map(user, UserDto.class);
+        return toDtoWithUnreadCounts(user);
     }
 
     /**
@@ -112,13 +175,29 @@ public class UserServiceImpl implements UserService {
      * @param authentication the authentication object of the logged-in user
      * @return the UserDto object representing the logged-in user after the unsubscription
      */
+    @Transactional
     public UserDto unsubscribesTopic(final Long topicId, final Authentication authentication) {
         UserDto loggedUserDto = getLoggedUser(authentication);
         User user = verifyUser(loggedUserDto);
         verifyTopicExists(topicId);
         unsubscribeFromTopic(user, topicId);
         userRepository.save(user);
-        return modelMapper.map(user, UserDto.class);
+        subscriberIndexService.removeSubscription(user.getId(), topicId);
+        unreadCountService.forget(user.getId(), topicId);
+        outboxService.record(DomainEventType.TOPIC_UNSUBSCRIBED, topicId, null, user.getId());
+        publishSubscriptionChange(user.getId(), topicId);
+        return toDtoWithUnreadCounts(user);
+    }
+
+    /**
+     * Tells the other backend instances that the subscriptions of a user and the subscribers of a topic have changed.
+     *
+     * @param userId  the ID of the user
+     * @param topicId the ID of the topic
+     */
+    private void publishSubscriptionChange(final Long userId, final Long topicId) {
+        invalidationBus.publish(CacheRegion.USER_SUBSCRIPTIONS, userId);
+        invalidationBus.publish(CacheRegion.TOPIC_SUBSCRIBERS, topicId);
     }
 
     /**
@@ -167,6 +246,7 @@ public class UserServiceImpl implements UserService {
      * @return The UserDto representing the subscribed user.
      * @throws EntityNotFoundException if the user is not found.
      */
+    @Transactional
     public UserDto subscribeToTopic(final Long topicId, final Authentication authentication) {
         UserDto currentUserDTO = getLoggedUser(authentication);
         User user = userRepository.findById(currentUserDTO.getId())
@@ -179,8 +259,13 @@ public class UserServiceImpl implements UserService {
         user.setSubscribedTopicIds(subscribedTopicIds);
 
         userRepository.save(user);
+        subscriberIndexService.addSubscription(user.getId(), topicId);
+        // The unread posts are the ones published after the subscription
+        unreadCountService.markAsRead(user.getId(), topicId);
+        outboxService.record(DomainEventType.TOPIC_SUBSCRIBED, topicId, null, user.getId());
+        publishSubscriptionChange(user.getId(), topicId);
         log.debug("The user {} has subscribed to the topic Id : {}", user.getUsername(), topicId);
-        return modelMapper.map(user, UserDto.class);
+        return toDtoWithUnreadCounts(user);
     }
 
     /**
@@ -207,4 +292,45 @@ public class UserServiceImpl implements UserService {
             throw new IllegalArgumentException("User has already subscribed to this topic");
         }
     }
+
+    /**
+     * Retrieves the topics the logged user is subscribed to, with their number of unread posts.
+     *
+     * @param authentication The authentication object representing the logged user.
+     * @return The TopicDto objects of the subscribed topics, with their unread count.
+     */
+    @Transactional(readOnly = true)
+    public List<TopicDto> getSubscribedTopics(final Authentication authentication) {
+        User user = findUserByNameOrEmail(authentication.getName());
+        List<Long> topicIds = user.getSubscribedTopicIds();
+        if (topicIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Long> unreadCounts = unreadCountService.getUnreadCounts(user.getId(), topicIds);
+        return topicRepository.findByIds(new ArrayList<>(topicIds)).stream()
+                .map(topic -> {
+                    TopicDto topicDto = topicMapper.toDto(topic);
+                    topicDto.setUnreadCount(unreadCounts.get(topic.getId()));
+                    return topicDto;
+                })
+                .toList();
+    }
+
+    /**
+     * Marks all the posts of a subscribed topic as read by the logged user.
+     *
+     * @param topicId        The ID of the topic.
+     * @param authentication The authentication object representing the logged user.
+     * @return The UserDto object representing the user, with the updated unread counts.
+     * @throws IllegalArgumentException If the user is not subscribed to the topic.
+     */
+    @Transactional
+    public UserDto markTopicAsRead(final Long topicId, final Authentication authentication) {
+        User user = findUserByNameOrEmail(authentication.getName());
+        if (!user.getSubscribedTopicIds().contains(topicId)) {
+            throw new IllegalArgumentException("User did not subscribed to this topic");
+        }
+        unreadCountService.markAsRead(user.getId(), topicId);
+        return toDtoWithUnreadCounts(user);
+    }
 }
@@ -0,0 +1,52 @@
+package com.popcodelab.mddapi.sharding;
+
+import java.util.function.Supplier;
+
+/**
+ * The ShardContext class holds the shard of the connections obtained by the current thread, read by the
+ * {@link ShardRoutingDataSource}. Without a shard, the connections go to the default database.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+public final class ShardContext {
+
+    /**
+     * The shard of the current thread, or null for the default database.
+     */
+    private static final ThreadLocal<String> CURRENT_SHARD = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    /**
+     * Gets the shard of the current thread.
+     *
+     * @return the name of the shard, or null for the default database
+     */
+    public static String current() {
+        return CURRENT_SHARD.get();
+    }
+
+    /**
+     * Runs an action with the connections it obtains going to a shard, then restores the previous shard.
+     *
+     * @param shard  the name of the shard
+     * @param action the action
+     * @param <T>    the type of the result
+     * @return the result of the action
+     */
+    public static <T> T callOn(final String shard, final Supplier<T> action) {
+        String previous = CURRENT_SHARD.get();
+        CURRENT_SHARD.set(shard);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                CURRENT_SHARD.remove();
+            } else {
+                CURRENT_SHARD.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.popcodelab.mddapi.sharding;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The ShardRoutingDataSource class sends the connections obtained within a {@link ShardContext} to the database of
+ * its shard, and every other connection to the default database, which holds everything but the posts and their
+ * comments.
+ * <p>
+ * The routing is decided when the connection is obtained, so a transaction stays on one database: the work on a shard
+ * runs in a transaction of its own, see {@link ShardTemplate}.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    /**
+     * The lookup key of the default database.
+     */
+    public static final String DEFAULT = "default";
+
+    /**
+     * The shards, by name.
+     */
+    private final Map<String, DataSource> shards;
+
+    /**
+     * Creates a ShardRoutingDataSource.
+     *
+     * @param defaultDataSource the default database
+     * @param shards            the databases of the shards, by name
+     */
+    public ShardRoutingDataSource(final DataSource defaultDataSource, final Map<String, DataSource> shards) {
+        if (shards.containsKey(DEFAULT)) {
+            throw new IllegalArgumentException("A shard cannot be named " + DEFAULT);
+        }
+        this.shards = new LinkedHashMap<>(shards);
+        Map<Object, Object> targetDataSources = new HashMap<>(this.shards);
+        targetDataSources.put(DEFAULT, defaultDataSource);
+        setTargetDataSources(targetDataSources);
+        setDefaultTargetDataSource(defaultDataSource);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String shard = ShardContext.current();
+        return shard == null ? DEFAULT : shard;
+    }
+
+    /**
+     * Gets the shards.
+     *
+     * @return the databases of the shards, by name
+     */
+    public Map<String, DataSource> getShards() {
+        return shards;
+    }
+
+    /**
+     * Closes the pools of the default database and the shards.
+     *
+     * @throws Exception if a pool cannot be closed
+     */
+    @Override
+    public void close() throws Exception {
+        for (DataSource dataSource : getResolvedDataSources().values()) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.popcodelab.mddapi.sharding;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * The ShardTemplate class runs the reads and writes of the posts and their comments on their shard.
+ * <p>
+ * The work on a shard runs in a new transaction, the one of the caller, if any, being suspended: its connection is
+ * bound to the default database. The shard transaction therefore commits first, so whatever must commit with a post
+ * or a comment, such as its domain event in the outbox of the shard, is written within the work on the shard.
+ * <p>
+ * A read over several topics is scattered to the shards involved only, in parallel, and the sorted results of the
+ * shards are merged, keeping their order.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+public class ShardTemplate {
+
+    /**
+     * The router placing the topics and the IDs on the shards.
+     */
+    private final TopicShardRouter router;
+
+    /**
+     * The transactions of the writes.
+     */
+    private final TransactionTemplate writeTemplate;
+
+    /**
+     * The transactions of the reads.
+     */
+    private final TransactionTemplate readTemplate;
+
+    /**
+     * Creates a ShardTemplate.
+     *
+     * @param router             the router placing the topics and the IDs on the shards
+     * @param transactionManager the transaction manager of the ShardRoutingDataSource
+     */
+    public ShardTemplate(final TopicShardRouter router, final PlatformTransactionManager transactionManager) {
+        this.router = router;
+        this.writeTemplate = new TransactionTemplate(transactionManager);
+        this.writeTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Gets the names of the shards, the shard at index i generating the IDs equal to i + 1 modulo their number.
+     *
+     * @return the names of the shards
+     */
+    public List<String> getShardNames() {
+        return router.getShardNames();
+    }
+
+    /**
+     * Runs an action in a transaction on a shard.
+     *
+     * @param shard    the name of the shard
+     * @param readOnly true if the action only reads
+     * @param action   the action
+     * @param <T>      the type of the result
+     * @return the result of the action
+     */
+    public <T> T execute(final String shard, final boolean readOnly, final Supplier<T> action) {
+        TransactionTemplate template = readOnly ? readTemplate : writeTemplate;
+        return ShardContext.callOn(shard, () -> template.execute(status -> action.get()));
+    }
+
+    /**
+     * Runs an action in a transaction on the shard of a topic.
+     *
+     * @param topicId  the ID of the topic
+     * @param readOnly true if the action only reads
+     * @param action   the action
+     * @param <T>      the type of the result
+     * @return the result of the action
+     */
+    public <T> T executeOnTopic(final Long topicId, final boolean readOnly, final Supplier<T> action) {
+        return execute(router.shardOfTopic(topicId), readOnly, action);
+    }
+
+    /**
+     * Runs an action in a transaction on the shard which generated an ID, such as the one of a post.
+     *
+     * @param id       the ID of the post or the comment
+     * @param readOnly true if the action only reads
+     * @param action   the action
+     * @param <T>      the type of the result
+     * @return the result of the action
+     */
+    public <T> T executeOnId(final Long id, final boolean readOnly, final Supplier<T> action) {
+        return execute(router.shardOfId(id), readOnly, action);
+    }
+
+    /**
+     * Reads the rows of several topics from their shards, each shard being queried for its own topics only.
+     *
+     * @param topicIds the IDs of the topics
+     * @param query    the query of a shard, given the IDs of its topics and returning rows sorted by the order
+     * @param order    the order of the rows
+     * @param <T>      the type of the rows
+     * @return the rows of all the shards, sorted by the order
+     */
+    public <T> List<T> scatter(final Collection<Long> topicIds, final Function<List<Long>, List<T>> query,
+                               final Comparator<? super T> order) {
+        Map<String, List<Long>> topicIdsByShard = router.groupByShard(topicIds);
+        if (topicIdsByShard.isEmpty()) {
+            return List.of();
+        }
+        if (topicIdsByShard.size() == 1) {
+            Map.Entry<String, List<Long>> shard = topicIdsByShard.entrySet().iterator().next();
+            return execute(shard.getKey(), true, () -> query.apply(shard.getValue()));
+        }
+        List<List<T>> results = new ArrayList<>(topicIdsByShard.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<List<T>>> futures = new ArrayList<>(topicIdsByShard.size());
+            topicIdsByShard.forEach((shard, shardTopicIds) -> futures.add(
+                    executor.submit(() -> execute(shard, true, () -> query.apply(shardTopicIds)))));
+            for (Future<List<T>> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while reading the shards", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause
+                    ? cause : new IllegalStateException("A shard could not be read", e.getCause());
+        }
+        return merge(results, order);
+    }
+
+    /**
+     * Merges sorted lists, keeping their order.
+     *
+     * @param sortedLists the lists, each one sorted by the order
+     * @param order       the order of the elements
+     * @param <T>         the type of the elements
+     * @return the elements of all the lists, sorted by the order
+     */
+    static <T> List<T> merge(final List<List<T>> sortedLists, final Comparator<? super T> order) {
+        List<T> merged = new ArrayList<>(sortedLists.stream().mapToInt(List::size).sum());
+        PriorityQueue<Head<T>> heads = new PriorityQueue<>(Math.max(1, sortedLists.size()),
+                (first, second) -> order.compare(first.element, second.element));
+        for (List<T> sortedList : sortedLists) {
+            Iterator<T> iterator = sortedList.iterator();
+            if (iterator.hasNext()) {
+                heads.add(new Head<>(iterator.next(), iterator));
+            }
+        }
+        while (!heads.isEmpty()) {
+            Head<T> head = heads.poll();
+            merged.add(head.element);
+            if (head.rest.hasNext()) {
+                heads.add(new Head<>(head.rest.next(), head.rest));
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * The smallest element not merged yet of a list, with the rest of the list.
+     *
+     * @param element the element
+     * @param rest    the iterator over the rest of the list
+     * @param <T>     the type of the elements
+     */
+    private record Head<T>(T element, Iterator<T> rest) {
+    }
+}
@@ -0,0 +1,116 @@
+package com.popcodelab.mddapi.sharding;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The TopicShardRouter class tells on which shard the posts of a topic, and their comments, are stored.
+ * <p>
+ * A topic is placed by a jump consistent hash of its ID over the shards, unless it is pinned to a shard, as a hot
+ * topic given a shard of its own. The placement only depends on the number of shards, so the backend instances agree
+ * on it without coordination, and adding a shard only moves the topics the new shard takes.
+ * <p>
+ * The shard i of n generates the IDs i + 1, i + 1 + n, i + 1 + 2n... of its rows, so that the shard of a post is
+ * known from its ID alone, whatever the topic it belongs to.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+public class TopicShardRouter {
+
+    /**
+     * The names of the shards, in the order of their ID offsets.
+     */
+    private final List<String> shardNames;
+
+    /**
+     * The shards of the pinned topics, by topic ID.
+     */
+    private final Map<Long, String> pinnedTopics;
+
+    /**
+     * Creates a TopicShardRouter.
+     *
+     * @param shardNames   the names of the shards, the shard i generating the IDs equal to i + 1 modulo their number
+     * @param pinnedTopics the shards of the pinned topics, by topic ID
+     */
+    public TopicShardRouter(final List<String> shardNames, final Map<Long, String> pinnedTopics) {
+        if (shardNames.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is needed");
+        }
+        pinnedTopics.forEach((topicId, shard) -> {
+            if (!shardNames.contains(shard)) {
+                throw new IllegalArgumentException("The topic " + topicId + " is pinned to the unknown shard " + shard);
+            }
+        });
+        this.shardNames = List.copyOf(shardNames);
+        this.pinnedTopics = Map.copyOf(pinnedTopics);
+    }
+
+    /**
+     * Gets the shard of a topic.
+     *
+     * @param topicId the ID of the topic
+     * @return the name of the shard storing its posts
+     */
+    public String shardOfTopic(final Long topicId) {
+        String pinned = pinnedTopics.get(topicId);
+        return pinned != null ? pinned : shardNames.get(jumpConsistentHash(topicId, shardNames.size()));
+    }
+
+    /**
+     * Gets the shard which generated an ID.
+     *
+     * @param id the ID of a post or a comment
+     * @return the name of the shard storing the row
+     */
+    public String shardOfId(final Long id) {
+        return shardNames.get((int) Math.floorMod(id - 1, (long) shardNames.size()));
+    }
+
+    /**
+     * Groups topics by shard, so that each shard is only queried for its own topics.
+     *
+     * @param topicIds the IDs of the topics
+     * @return the IDs of the topics of each shard involved, by shard name
+     */
+    public Map<String, List<Long>> groupByShard(final Collection<Long> topicIds) {
+        Map<String, List<Long>> topicIdsByShard = new LinkedHashMap<>();
+        for (Long topicId : topicIds) {
+            topicIdsByShard.computeIfAbsent(shardOfTopic(topicId), shard -> new ArrayList<>()).add(topicId);
+        }
+        return topicIdsByShard;
+    }
+
+    /**
+     * Gets the names of the shards.
+     *
+     * @return the names, in the order of their ID offsets
+     */
+    public List<String> getShardNames() {
+        return shardNames;
+    }
+
+    /**
+     * Computes the jump consistent hash of a key, from "A Fast, Minimal Memory, Consistent Hash Algorithm"
+     * of Lamping and Veach: going from n to n + 1 buckets only moves 1 / (n + 1) of the keys, to the new bucket.
+     *
+     * @param key     the key
+     * @param buckets the number of buckets
+     * @return the bucket of the key, from 0 to buckets - 1
+     */
+    static int jumpConsistentHash(final long key, final int buckets) {
+        long state = key;
+        long bucket = -1;
+        long next = 0;
+        while (next < buckets) {
+            bucket = next;
+            state = state * 2862933555777941757L + 1;
+            next = (long) ((bucket + 1) * ((double) (1L << 31) / (double) ((state >>> 33) + 1)));
+        }
+        return (int) bucket;
+    }
+}
@@ -0,0 +1,217 @@
+package com.popcodelab.mddapi.sketches;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The HyperLogLog class estimates the number of distinct values added to it, in a fixed memory of
+ * 2<sup>precision</sup> one-byte registers, with a relative standard error of 1.04 / sqrt(2<sup>precision</sup>),
+ * about 1.6 % with a precision of 12.
+ * <p>
+ * A value is hashed to 64 bits: the first precision bits select a register, which keeps the highest rank of the
+ * first set bit of the remaining ones. The registers are packed eight per long, and updated by compare-and-set,
+ * so that concurrent adds never lock. Adding a value already seen only reads its register. Two sketches of the
+ * same precision are merged by keeping the highest value of each register.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+public class HyperLogLog {
+
+    /**
+     * The smallest supported precision.
+     */
+    public static final int MIN_PRECISION = 4;
+
+    /**
+     * The largest supported precision, the registers fitting the 4 KB column of the sketches.
+     */
+    public static final int MAX_PRECISION = 12;
+
+    /**
+     * The number of bits of the hash selecting the register.
+     */
+    private final int precision;
+
+    /**
+     * The number of registers.
+     */
+    private final int registerCount;
+
+    /**
+     * The registers, eight per long, the register i being the byte i % 8 of the long i / 8.
+     */
+    private final AtomicLongArray words;
+
+    /**
+     * Creates an empty HyperLogLog.
+     *
+     * @param precision the number of bits selecting the register, from 4 to 12
+     */
+    public HyperLogLog(final int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("The precision must be between " + MIN_PRECISION + " and "
+                    + MAX_PRECISION);
+        }
+        this.precision = precision;
+        this.registerCount = 1 << precision;
+        this.words = new AtomicLongArray(Math.max(1, registerCount / Long.BYTES));
+    }
+
+    /**
+     * Creates a HyperLogLog from its registers, as returned by {@link #toBytes()}.
+     *
+     * @param registers the registers, whose number is a power of two
+     * @return the HyperLogLog
+     */
+    public static HyperLogLog fromBytes(final byte[] registers) {
+        int precision = Integer.numberOfTrailingZeros(registers.length);
+        if (registers.length != 1 << precision) {
+            throw new IllegalArgumentException("The number of registers must be a power of two");
+        }
+        HyperLogLog hyperLogLog = new HyperLogLog(precision);
+        for (int i = 0; i < registers.length; i++) {
+            hyperLogLog.raise(i, registers[i]);
+        }
+        return hyperLogLog;
+    }
+
+    /**
+     * Adds a value.
+     *
+     * @param value the value
+     * @return true if a register has changed, false if the value has certainly been added before
+     */
+    public boolean add(final String value) {
+        long hash = hash(value);
+        int index = (int) (hash >>> (Long.SIZE - precision));
+        // The sentinel bit bounds the rank when all the remaining bits are zeros
+        int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+        return raise(index, rank);
+    }
+
+    /**
+     * Merges another sketch into this one.
+     *
+     * @param other the sketch, of the same precision
+     */
+    public void merge(final HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Only sketches of the same precision can be merged");
+        }
+        for (int i = 0; i < registerCount; i++) {
+            raise(i, other.register(i));
+        }
+    }
+
+    /**
+     * Estimates the number of distinct values added.
+     *
+     * @return the estimate
+     */
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (int i = 0; i < registerCount; i++) {
+            int register = register(i);
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = alpha() * registerCount * registerCount / sum;
+        if (estimate <= 2.5 * registerCount && zeros > 0) {
+            // Linear counting is more accurate while many registers are empty
+            estimate = registerCount * Math.log((double) registerCount / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * Copies the registers.
+     *
+     * @return the registers, one per byte
+     */
+    public byte[] toBytes() {
+        byte[] registers = new byte[registerCount];
+        for (int i = 0; i < registerCount; i++) {
+            registers[i] = (byte) register(i);
+        }
+        return registers;
+    }
+
+    /**
+     * Gets the precision of the sketch.
+     *
+     * @return the number of bits selecting the register
+     */
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * Reads a register.
+     *
+     * @param index the index of the register
+     * @return the value of the register
+     */
+    private int register(final int index) {
+        return (int) (words.get(index >>> 3) >>> ((index & 7) << 3)) & 0xFF;
+    }
+
+    /**
+     * Raises a register to a value, unless it is already higher.
+     *
+     * @param index the index of the register
+     * @param value the value
+     * @return true if the register has been raised
+     */
+    private boolean raise(final int index, final int value) {
+        int word = index >>> 3;
+        int shift = (index & 7) << 3;
+        while (true) {
+            long current = words.get(word);
+            if (((current >>> shift) & 0xFF) >= value) {
+                return false;
+            }
+            long raised = (current & ~(0xFFL << shift)) | ((long) value << shift);
+            if (words.compareAndSet(word, current, raised)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Gets the bias correction constant of the estimate.
+     *
+     * @return the constant for the number of registers
+     */
+    private double alpha() {
+        return switch (registerCount) {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / registerCount);
+        };
+    }
+
+    /**
+     * Hashes a value to 64 well mixed bits, with FNV-1a followed by the finalizer of MurmurHash3.
+     *
+     * @param value the value
+     * @return the hash
+     */
+    static long hash(final String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,354 @@
+package com.popcodelab.mddapi.sql;
+
+import com.popcodelab.mddapi.entities.Comment;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The CommentWriteBehindQueue class inserts the new comments in batches, behind the requests which accepted them.
+ * <p>
+ * The comments, whose id is already assigned, wait in a bounded queue, the requests blocking when it is full.
+ * A background thread takes them every flush interval, or as soon as a batch is full, and inserts each batch with
+ * one multi-row INSERT into comments, one into post_comment_ids and one into outbox_events, in a single transaction. The future of each
+ * comment is completed once its batch is committed. When a row breaks a constraint, the whole batch is rolled back
+ * and its comments are inserted one by one, so that only the faulty comments are dropped: their futures are failed
+ * and they are counted by {@link #getDroppedCount()}. Any other failure drops the whole batch.
+ * <p>
+ * On shutdown, after the web server has stopped handling the requests, the queue stops accepting comments
+ * and the pending ones are flushed before the DataSource is closed.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@Log4j2
+public class CommentWriteBehindQueue implements SmartLifecycle {
+
+    /**
+     * The columns of a comment row.
+     */
+    private static final String COMMENT_ROW = "(?, ?, ?, ?, ?, ?)";
+
+    /**
+     * The columns of a row of the comments of a post.
+     */
+    private static final String POST_COMMENT_ROW = "(?, ?)";
+
+    /**
+     * The columns of a COMMENT_ADDED row of the outbox.
+     */
+    private static final String OUTBOX_ROW = "('COMMENT_ADDED', ?, ?, ?, ?)";
+
+    /**
+     * The longest the writer waits without checking whether the queue is stopping, in nanoseconds.
+     */
+    private static final long MAX_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /**
+     * The comments waiting to be inserted.
+     */
+    private final BlockingQueue<PendingComment> pendingComments;
+
+    /**
+     * The maximum number of comments inserted by a statement.
+     */
+    private final int maxBatchSize;
+
+    /**
+     * The maximum time a comment waits for its batch.
+     */
+    private final Duration flushInterval;
+
+    /**
+     * The JdbcTemplate running the inserts.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * The TransactionOperations running each batch in a transaction.
+     */
+    private final TransactionOperations transactionOperations;
+
+    /**
+     * The number of comments accepted and never inserted.
+     */
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    /**
+     * The thread inserting the batches, while running.
+     */
+    private Thread writer;
+
+    /**
+     * Whether new comments are accepted.
+     */
+    private volatile boolean accepting;
+
+    /**
+     * Creates a CommentWriteBehindQueue.
+     *
+     * @param capacity              the maximum number of comments waiting to be inserted
+     * @param maxBatchSize          the maximum number of comments inserted by a statement
+     * @param flushInterval         the maximum time a comment waits for its batch
+     * @param jdbcTemplate          the JdbcTemplate running the inserts
+     * @param transactionOperations the TransactionOperations running each batch in a transaction
+     */
+    public CommentWriteBehindQueue(final int capacity, final int maxBatchSize, final Duration flushInterval,
+                                   final JdbcTemplate jdbcTemplate, final TransactionOperations transactionOperations) {
+        this.pendingComments = new ArrayBlockingQueue<>(capacity);
+        this.maxBatchSize = maxBatchSize;
+        this.flushInterval = flushInterval;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionOperations = transactionOperations;
+    }
+
+    /**
+     * Queues a comment, waiting for room in the queue when it is full.
+     *
+     * @param comment the comment, with its id, author, post and dates
+     * @return the future completed once the comment is committed
+     * @throws IllegalStateException if the queue is stopped
+     */
+    public CompletableFuture<Void> enqueue(final Comment comment) {
+        if (!accepting) {
+            throw new IllegalStateException("The comments are not accepted any more, the application is stopping");
+        }
+        PendingComment pendingComment = new PendingComment(comment, new CompletableFuture<>());
+        try {
+            pendingComments.put(pendingComment);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for room in the comment queue", e);
+        }
+        return pendingComment.committed();
+    }
+
+    /**
+     * Gets the number of comments waiting to be inserted.
+     *
+     * @return the number of pending comments
+     */
+    public int getPendingCount() {
+        return pendingComments.size();
+    }
+
+    /**
+     * Gets the number of comments accepted and never inserted, their batch or their row having failed.
+     *
+     * @return the number of dropped comments
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    @Override
+    public synchronized void start() {
+        accepting = true;
+        writer = Thread.ofPlatform().name("comment-write-behind").daemon().start(this::writeBatches);
+        log.info("The comments are written behind, by batches of up to {} every {} ms",
+                maxBatchSize, flushInterval.toMillis());
+    }
+
+    @Override
+    public synchronized void stop() {
+        accepting = false;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writer = null;
+        // The comments queued while the writer was finishing
+        flushPending();
+        log.info("The pending comments have been flushed");
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return writer != null;
+    }
+
+    /**
+     * Stops after the web server, so that the comments of the last requests are flushed.
+     *
+     * @return the phase, lower than the ones of the web server
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    /**
+     * Inserts the batches while the comments are accepted, then until the queue is empty.
+     */
+    private void writeBatches() {
+        List<PendingComment> batch = new ArrayList<>(maxBatchSize);
+        while (accepting || !pendingComments.isEmpty()) {
+            try {
+                takeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("The comment writer has been interrupted");
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Takes the comments of the next batch, waiting up to the flush interval for the first one,
+     * then up to the flush interval for the others unless the batch is full or the queue is stopping.
+     *
+     * @param batch the list receiving the comments
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private void takeBatch(final List<PendingComment> batch) throws InterruptedException {
+        PendingComment first = pendingComments.poll(Math.min(flushInterval.toNanos(), MAX_WAIT_NANOS),
+                TimeUnit.NANOSECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        pendingComments.drainTo(batch, maxBatchSize - batch.size());
+        long deadline = System.nanoTime() + flushInterval.toNanos();
+        while (batch.size() < maxBatchSize && accepting) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            PendingComment next = pendingComments.poll(Math.min(remaining, MAX_WAIT_NANOS), TimeUnit.NANOSECONDS);
+            if (next != null) {
+                batch.add(next);
+                pendingComments.drainTo(batch, maxBatchSize - batch.size());
+            }
+        }
+    }
+
+    /**
+     * Inserts the comments left in the queue.
+     */
+    private void flushPending() {
+        List<PendingComment> batch = new ArrayList<>(maxBatchSize);
+        while (pendingComments.drainTo(batch, maxBatchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Inserts a batch of comments and completes their futures. When a row breaks a constraint, the comments are
+     * inserted one by one.
+     *
+     * @param batch the comments
+     */
+    private void write(final List<PendingComment> batch) {
+        try {
+            transactionOperations.executeWithoutResult(status -> insert(batch));
+            batch.forEach(pendingComment -> pendingComment.committed().complete(null));
+        } catch (DataIntegrityViolationException e) {
+            if (batch.size() == 1) {
+                drop(batch, e);
+                return;
+            }
+            log.warn("A batch of {} comments has a faulty row, inserting them one by one : {}",
+                    batch.size(), e.getMessage());
+            batch.forEach(pendingComment -> write(List.of(pendingComment)));
+        } catch (RuntimeException e) {
+            drop(batch, e);
+        }
+    }
+
+    /**
+     * Fails the futures of comments which could not be inserted.
+     *
+     * @param comments the comments
+     * @param failure  the failure of their insertion
+     */
+    private void drop(final List<PendingComment> comments, final RuntimeException failure) {
+        droppedCount.addAndGet(comments.size());
+        if (comments.size() == 1) {
+            log.error("The comment id {} could not be inserted : {}", comments.get(0).comment().getId(),
+                    failure.getMessage());
+        } else {
+            log.error("A batch of {} comments could not be inserted : {}", comments.size(), failure.getMessage());
+        }
+        comments.forEach(pendingComment -> pendingComment.committed().completeExceptionally(failure));
+    }
+
+    /**
+     * Inserts the rows of a batch of comments, with one statement per table.
+     *
+     * @param batch the comments
+     */
+    private void insert(final List<PendingComment> batch) {
+        List<Object> commentValues = new ArrayList<>(batch.size() * 6);
+        List<Object> postCommentValues = new ArrayList<>(batch.size() * 2);
+        List<Object> outboxValues = new ArrayList<>(batch.size() * 4);
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        for (PendingComment pendingComment : batch) {
+            Comment comment = pendingComment.comment();
+            commentValues.add(comment.getId());
+            commentValues.add(comment.getContent());
+            commentValues.add(comment.getUserId());
+            commentValues.add(comment.getPostId());
+            commentValues.add(Timestamp.valueOf(comment.getCreatedAt()));
+            commentValues.add(Timestamp.valueOf(comment.getUpdatedAt()));
+            postCommentValues.add(comment.getPostId());
+            postCommentValues.add(comment.getId());
+            outboxValues.add(comment.getId());
+            outboxValues.add(comment.getPostId());
+            outboxValues.add(comment.getUserId());
+            outboxValues.add(now);
+        }
+        jdbcTemplate.update("INSERT INTO comments (id, content, user_id, post_id, created_at, updated_at) VALUES "
+                + rows(COMMENT_ROW, batch.size()), commentValues.toArray());
+        jdbcTemplate.update("INSERT INTO post_comment_ids (post_id, comment_ids) VALUES "
+                + rows(POST_COMMENT_ROW, batch.size()), postCommentValues.toArray());
+        jdbcTemplate.update("INSERT INTO outbox_events (type, aggregate_id, scope_id, user_id, created_at) VALUES "
+                + rows(OUTBOX_ROW, batch.size()), outboxValues.toArray());
+    }
+
+    /**
+     * Repeats the placeholders of a row.
+     *
+     * @param row   the placeholders of a row
+     * @param count the number of rows
+     * @return the placeholders of the rows, separated by commas
+     */
+    private static String rows(final String row, final int count) {
+        StringBuilder rows = new StringBuilder(count * (row.length() + 2));
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                rows.append(", ");
+            }
+            rows.append(row);
+        }
+        return rows.toString();
+    }
+
+    /**
+     * A comment waiting to be inserted.
+     *
+     * @param comment   the comment
+     * @param committed the future completed once the comment is committed
+     */
+    private record PendingComment(Comment comment, CompletableFuture<Void> committed) {
+    }
+}
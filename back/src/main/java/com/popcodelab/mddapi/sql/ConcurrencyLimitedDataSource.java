@@ -0,0 +1,164 @@
+package com.popcodelab.mddapi.sql;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.lang.NonNull;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The ConcurrencyLimitedDataSource class limits the number of connections borrowed at the same time
+ * from the wrapped pool with a fair semaphore.
+ * <p>
+ * With virtual threads, thousands of requests can ask for a connection at once. Queued on the semaphore,
+ * they get a permit in arrival order and park cheaply, instead of hitting the connection timeout of the pool.
+ * The number of permits should not exceed the size of the pool. Closing it closes the pool.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+public class ConcurrencyLimitedDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    /**
+     * The permits of the connections, granted in arrival order.
+     */
+    private final Semaphore permits;
+
+    /**
+     * The maximum number of connections borrowed at the same time.
+     */
+    private final int maxConcurrency;
+
+    /**
+     * The maximum time to wait for a permit, in milliseconds.
+     */
+    private final long acquireTimeoutMillis;
+
+    /**
+     * Creates a ConcurrencyLimitedDataSource.
+     *
+     * @param targetDataSource the pool providing the connections
+     * @param maxConcurrency   the maximum number of connections borrowed at the same time
+     * @param acquireTimeout   the maximum time to wait for a permit
+     */
+    public ConcurrencyLimitedDataSource(final DataSource targetDataSource, final int maxConcurrency,
+                                        final Duration acquireTimeout) {
+        super(targetDataSource);
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("The maximum concurrency must be positive: " + maxConcurrency);
+        }
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.maxConcurrency = maxConcurrency;
+        this.acquireTimeoutMillis = acquireTimeout.toMillis();
+    }
+
+    @Override
+    @NonNull
+    public Connection getConnection() throws SQLException {
+        acquirePermit();
+        try {
+            return releasingPermitOnClose(obtainTargetDataSource().getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    @NonNull
+    public Connection getConnection(@NonNull final String username, @NonNull final String password) throws SQLException {
+        acquirePermit();
+        try {
+            return releasingPermitOnClose(obtainTargetDataSource().getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the maximum number of connections borrowed at the same time.
+     *
+     * @return the maximum concurrency
+     */
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * Gets the number of connections which can still be borrowed without waiting.
+     *
+     * @return the number of available permits
+     */
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    /**
+     * Gets an estimate of the number of threads waiting for a connection.
+     *
+     * @return the number of waiting threads
+     */
+    public int getWaitingThreads() {
+        return permits.getQueueLength();
+    }
+
+    /**
+     * Closes the wrapped pool.
+     *
+     * @throws Exception if the pool cannot be closed
+     */
+    @Override
+    public void close() throws Exception {
+        if (obtainTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    /**
+     * Waits for a permit.
+     *
+     * @throws SQLTransientConnectionException if no permit is granted before the timeout or the thread is interrupted
+     */
+    private void acquirePermit() throws SQLTransientConnectionException {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException(
+                        "No database connection available after waiting " + acquireTimeoutMillis + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database connection", e);
+        }
+    }
+
+    /**
+     * Wraps a connection to give its permit back when it is closed.
+     *
+     * @param connection the connection
+     * @return the wrapping connection
+     */
+    private Connection releasingPermitOnClose(final Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(ConcurrencyLimitedDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    } finally {
+                        if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                            permits.release();
+                        }
+                    }
+                });
+    }
+}
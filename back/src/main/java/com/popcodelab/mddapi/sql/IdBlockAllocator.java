@@ -0,0 +1,117 @@
+package com.popcodelab.mddapi.sql;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * The IdBlockAllocator class hands out the identifiers of a table before its rows are inserted.
+ * <p>
+ * The identifiers are reserved by blocks in the id_blocks table, in a short transaction locking the row of the table,
+ * so that the backend instances never hand out the same identifier. A block starts after the greatest id of the table,
+ * which skips the ids given by the AUTO_INCREMENT column to the rows inserted otherwise. The identifiers of a block
+ * not handed out before a restart are lost, leaving gaps.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@Log4j2
+public class IdBlockAllocator {
+
+    /**
+     * The table whose identifiers are handed out, also naming its row of id_blocks.
+     */
+    private final String table;
+
+    /**
+     * The number of identifiers reserved at once.
+     */
+    private final int blockSize;
+
+    /**
+     * The JdbcTemplate running the reservations.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * The TransactionTemplate running each reservation in its own transaction.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * The next identifier of the current block.
+     */
+    private long nextId;
+
+    /**
+     * The end of the current block, excluded.
+     */
+    private long blockEnd;
+
+    /**
+     * Creates an IdBlockAllocator.
+     *
+     * @param table              the table whose identifiers are handed out
+     * @param blockSize          the number of identifiers reserved at once
+     * @param jdbcTemplate       the JdbcTemplate running the reservations
+     * @param transactionManager the transaction manager of the DataSource
+     */
+    public IdBlockAllocator(final String table, final int blockSize, final JdbcTemplate jdbcTemplate,
+                            final PlatformTransactionManager transactionManager) {
+        this.table = table;
+        this.blockSize = blockSize;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Hands out an identifier, reserving a new block when the current one is used up.
+     *
+     * @return the identifier
+     */
+    public synchronized long nextId() {
+        if (nextId == blockEnd) {
+            nextId = reserveBlock();
+            blockEnd = nextId + blockSize;
+        }
+        return nextId++;
+    }
+
+    /**
+     * Reserves a block of identifiers.
+     *
+     * @return the first identifier of the block
+     */
+    private long reserveBlock() {
+        while (true) {
+            try {
+                Long start = transactionTemplate.execute(status -> {
+                    List<Long> reserved = jdbcTemplate.queryForList(
+                            "SELECT next_id FROM id_blocks WHERE name = ? FOR UPDATE", Long.class, table);
+                    Long firstFree = jdbcTemplate.queryForObject(
+                            "SELECT COALESCE(MAX(id), 0) + 1 FROM " + table, Long.class);
+                    long first = reserved.isEmpty() ? firstFree : Math.max(reserved.get(0), firstFree);
+                    if (reserved.isEmpty()) {
+                        jdbcTemplate.update("INSERT INTO id_blocks (name, next_id) VALUES (?, ?)",
+                                table, first + blockSize);
+                    } else {
+                        jdbcTemplate.update("UPDATE id_blocks SET next_id = ? WHERE name = ?",
+                                first + blockSize, table);
+                    }
+                    return first;
+                });
+                log.debug("The ids {} to {} of {} have been reserved", start, start + blockSize - 1, table);
+                return start;
+            } catch (DuplicateKeyException e) {
+                // Another instance has created the row of the table meanwhile, it is locked on the next attempt
+                log.debug("The block of {} was reserved concurrently, retrying", table);
+            }
+        }
+    }
+}
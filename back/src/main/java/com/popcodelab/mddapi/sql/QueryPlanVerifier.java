@@ -0,0 +1,128 @@
+package com.popcodelab.mddapi.sql;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The QueryPlanVerifier class runs EXPLAIN on the hot queries of the API and reports the ones whose plan
+ * does not use the index created for them by the migrations.
+ * <p>
+ * With MySQL, only the key column of the plan is checked, the index being merely possible otherwise.
+ * With other databases, such as H2, the whole plan is searched for the index.
+ * The optimizer may prefer a full scan on a nearly empty table, so the check is meaningful on a database
+ * holding production-like data. It is enabled by application.sql.query-plan-check.enabled.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@Component
+@Log4j2
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "application.sql.query-plan-check.enabled", havingValue = "true")
+public class QueryPlanVerifier {
+
+    /**
+     * The hot queries and the index each one should use.
+     */
+    static final List<HotQuery> HOT_QUERIES = List.of(
+            new HotQuery("feed",
+                    "SELECT id FROM posts WHERE topic_id IN (1, 2, 3) ORDER BY created_at DESC, id DESC",
+                    "idx_posts_topic_created"),
+            new HotQuery("comments of a post",
+                    "SELECT id FROM comments WHERE post_id = 1 ORDER BY created_at, id",
+                    "idx_comments_post_created"));
+
+    /**
+     * The column of the MySQL plans holding the chosen index.
+     */
+    private static final String KEY_COLUMN = "key";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Logs the hot queries not using their index, once the application is started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyOnStartup() {
+        List<String> failures = verify();
+        if (failures.isEmpty()) {
+            log.info("The {} hot queries use their index", HOT_QUERIES.size());
+        }
+        failures.forEach(log::warn);
+    }
+
+    /**
+     * Runs EXPLAIN on each hot query.
+     *
+     * @return a description of each hot query whose plan does not use its index, empty if all of them do
+     */
+    public List<String> verify() {
+        List<String> failures = new ArrayList<>();
+        for (HotQuery query : HOT_QUERIES) {
+            String plan = explain(query.sql());
+            if (!plan.toLowerCase(Locale.ROOT).contains(query.index())) {
+                failures.add("The " + query.name() + " query does not use the index " + query.index()
+                        + ", its plan is: " + plan);
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * Gets the plan of a query.
+     *
+     * @param sql the query
+     * @return the plan, as text
+     */
+    private String explain(final String sql) {
+        return jdbcTemplate.query("EXPLAIN " + sql, resultSet -> {
+            StringBuilder plan = new StringBuilder();
+            while (resultSet.next()) {
+                appendRow(plan, resultSet);
+            }
+            return plan.toString();
+        });
+    }
+
+    /**
+     * Appends a row of a plan, restricted to the key column when present.
+     *
+     * @param plan      the plan being read
+     * @param resultSet the result of EXPLAIN, positioned on the row
+     * @throws SQLException if the row cannot be read
+     */
+    private static void appendRow(final StringBuilder plan, final ResultSet resultSet) throws SQLException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        for (int column = 1; column <= metaData.getColumnCount(); column++) {
+            if (KEY_COLUMN.equalsIgnoreCase(metaData.getColumnLabel(column))) {
+                plan.append(resultSet.getString(column)).append(' ');
+                return;
+            }
+        }
+        for (int column = 1; column <= metaData.getColumnCount(); column++) {
+            plan.append(resultSet.getString(column)).append(' ');
+        }
+    }
+
+    /**
+     * A hot query of the API.
+     *
+     * @param name  the name of the query, for the report
+     * @param sql   the query, with literal parameters
+     * @param index the name of the index the query should use, in lower case
+     */
+    record HotQuery(String name, String sql, String index) {
+    }
+}
@@ -0,0 +1,121 @@
+package com.popcodelab.mddapi.sql;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.function.LongConsumer;
+
+/**
+ * The ReadYourWritesFilter class carries the pins of the {@link ReadYourWritesTracker} with the clients, in a
+ * short-lived cookie holding the end of the pinning, so that the reads following a write are served by the primary
+ * whichever instance handles them.
+ * <p>
+ * The cookie is HttpOnly and SameSite=Lax: it is sent back by the front-end served from the same site as the API,
+ * with the credentials of its requests.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@RequiredArgsConstructor
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    /**
+     * The name of the cookie holding the end of the pinning, in milliseconds since the epoch.
+     */
+    public static final String COOKIE_NAME = "mdd-primary-until";
+
+    /**
+     * The shortest extension of the pinning sent again to the client within a request, in milliseconds.
+     */
+    private static final long MIN_EXTENSION_MILLIS = 1000;
+
+    /**
+     * The users pinned to the primary after a write.
+     */
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    @Override
+    protected void doFilterInternal(@NonNull final HttpServletRequest request,
+                                    @NonNull final HttpServletResponse response,
+                                    @NonNull final FilterChain filterChain) throws ServletException, IOException {
+        readYourWritesTracker.bindClient(pinnedUntil(request), new PinCookie(request, response));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            readYourWritesTracker.unbindClient();
+        }
+    }
+
+    /**
+     * Reads the end of the pinning carried by the client of a request.
+     *
+     * @param request the request
+     * @return the end of the pinning, in milliseconds since the epoch, or 0 if the client is not pinned
+     */
+    private static long pinnedUntil(final HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (COOKIE_NAME.equals(cookie.getName())) {
+                    try {
+                        return Long.parseLong(cookie.getValue());
+                    } catch (NumberFormatException e) {
+                        return 0;
+                    }
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Sends the end of the pinning of the writes of a request to its client, while the response is not committed.
+     * The writes of a request are usually sent once, the pin of a later write only being sent again when it
+     * extends the pinning by a second or more.
+     */
+    @RequiredArgsConstructor
+    private static final class PinCookie implements LongConsumer {
+
+        /**
+         * The request.
+         */
+        private final HttpServletRequest request;
+
+        /**
+         * The response carrying the cookie.
+         */
+        private final HttpServletResponse response;
+
+        /**
+         * The end of the pinning last sent, in milliseconds since the epoch.
+         */
+        private long sentUntil;
+
+        @Override
+        public void accept(final long pinnedUntil) {
+            if (response.isCommitted() || pinnedUntil - sentUntil < MIN_EXTENSION_MILLIS) {
+                return;
+            }
+            long maxAgeMillis = pinnedUntil - System.currentTimeMillis();
+            ResponseCookie cookie = ResponseCookie.from(COOKIE_NAME, Long.toString(pinnedUntil))
+                    .maxAge(Duration.ofSeconds(Math.max(1, (maxAgeMillis + 999) / 1000)))
+                    .path(request.getContextPath().isEmpty() ? "/" : request.getContextPath())
+                    .httpOnly(true)
+                    .secure(request.isSecure())
+                    .sameSite("Lax")
+                    .build();
+            response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+            sentUntil = pinnedUntil;
+        }
+    }
+}
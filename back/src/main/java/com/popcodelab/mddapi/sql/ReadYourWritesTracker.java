@@ -0,0 +1,133 @@
+package com.popcodelab.mddapi.sql;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongConsumer;
+
+/**
+ * The ReadYourWritesTracker class remembers the users who have just written to the primary database,
+ * so that their reads are not served by a replica which may not have replayed the write yet.
+ * <p>
+ * A user is pinned to the primary for a fixed window after each write. The window should be longer
+ * than the usual replication lag.
+ * <p>
+ * The pins are kept in the memory of the instance, and carried by the client as well, so that they hold behind
+ * a load balancer: the {@link ReadYourWritesFilter} binds the pin read from the request to the thread handling it,
+ * and sends the pin of a write back to the client. The pins carried by the clients are wall-clock times, compared
+ * across the instances, whose clocks must be synchronized.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+public class ReadYourWritesTracker {
+
+    /**
+     * The duration of the pinning after a write, in nanoseconds.
+     */
+    private final long windowNanos;
+
+    /**
+     * The end of the pinning of each user, as a System.nanoTime value.
+     */
+    private final Map<String, Long> pinnedUntil = new ConcurrentHashMap<>();
+
+    /**
+     * The duration of the pinning after a write, in milliseconds, for the pins carried by the clients.
+     */
+    private final long windowMillis;
+
+    /**
+     * The pin carried by the client of the request handled by the current thread, if any.
+     */
+    private final ThreadLocal<ClientPin> clientPin = new ThreadLocal<>();
+
+    /**
+     * Creates a ReadYourWritesTracker.
+     *
+     * @param window the duration of the pinning after a write
+     */
+    public ReadYourWritesTracker(final Duration window) {
+        this.windowNanos = window.toNanos();
+        this.windowMillis = window.toMillis();
+    }
+
+    /**
+     * Binds the pin carried by the client of a request to the current thread, until {@link #unbindClient()}.
+     * A pin longer than the window, which the client may have forged, is cut to the window.
+     *
+     * @param pinnedUntil the end of the pinning carried by the client, in milliseconds since the epoch, or 0
+     * @param onWrite     receives the end of the pinning of each write of the client, to send it back
+     */
+    public void bindClient(final long pinnedUntil, final LongConsumer onWrite) {
+        clientPin.set(new ClientPin(Math.min(pinnedUntil, System.currentTimeMillis() + windowMillis), onWrite));
+    }
+
+    /**
+     * Unbinds the pin of the client from the current thread.
+     */
+    public void unbindClient() {
+        clientPin.remove();
+    }
+
+    /**
+     * Records a write of a user, pinning the user to the primary for the window.
+     *
+     * @param principal the name of the user
+     */
+    public void recordWrite(final String principal) {
+        pinnedUntil.put(principal, System.nanoTime() + windowNanos);
+        ClientPin pin = clientPin.get();
+        if (pin != null) {
+            pin.onWrite().accept(System.currentTimeMillis() + windowMillis);
+        }
+    }
+
+    /**
+     * Tells whether the reads of a user must be served by the primary.
+     *
+     * @param principal the name of the user
+     * @return true if the user wrote during the window, on this instance or, as told by the client, on another one
+     */
+    public boolean isPinnedToPrimary(final String principal) {
+        ClientPin pin = clientPin.get();
+        if (pin != null && System.currentTimeMillis() < pin.pinnedUntil()) {
+            return true;
+        }
+        Long until = pinnedUntil.get(principal);
+        if (until == null) {
+            return false;
+        }
+        if (System.nanoTime() - until < 0) {
+            return true;
+        }
+        pinnedUntil.remove(principal, until);
+        return false;
+    }
+
+    /**
+     * Forgets the users whose window is over.
+     */
+    public void purgeExpired() {
+        long now = System.nanoTime();
+        pinnedUntil.values().removeIf(until -> now - until >= 0);
+    }
+
+    /**
+     * Gets the number of users currently pinned to the primary, some of them possibly expired.
+     *
+     * @return the number of pinned users
+     */
+    public int getPinnedCount() {
+        return pinnedUntil.size();
+    }
+
+    /**
+     * The pin carried by the client of a request.
+     *
+     * @param pinnedUntil the end of the pinning, in milliseconds since the epoch
+     * @param onWrite     receives the end of the pinning of each write of the client
+     */
+    private record ClientPin(long pinnedUntil, LongConsumer onWrite) {
+    }
+}
@@ -0,0 +1,139 @@
+package com.popcodelab.mddapi.sql;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * The ReplicaHealthChecker class periodically measures the replication lag of each read replica
+ * and removes from the routing the replicas which cannot be reached or lag too far behind the primary.
+ * <p>
+ * The lag query returns the lag in seconds, either in its first column or, for MySQL's
+ * SHOW REPLICA STATUS, in the Seconds_Behind_Source column. No row or a null lag means the replica
+ * is not replicating.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@Log4j2
+public class ReplicaHealthChecker {
+
+    /**
+     * The column holding the lag in the result of SHOW REPLICA STATUS.
+     */
+    private static final String LAG_COLUMN = "Seconds_Behind_Source";
+
+    /**
+     * The DataSource routing the reads to the replicas.
+     */
+    private final ReplicaRoutingDataSource routingDataSource;
+
+    /**
+     * The users pinned to the primary, purged at each check.
+     */
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    /**
+     * The query measuring the lag of a replica.
+     */
+    private final String lagQuery;
+
+    /**
+     * The maximum lag of a replica serving the reads.
+     */
+    private final Duration maxLag;
+
+    /**
+     * Creates a ReplicaHealthChecker.
+     *
+     * @param routingDataSource     the DataSource routing the reads to the replicas
+     * @param readYourWritesTracker the users pinned to the primary
+     * @param lagQuery              the query measuring the lag of a replica
+     * @param maxLag                the maximum lag of a replica serving the reads
+     */
+    public ReplicaHealthChecker(final ReplicaRoutingDataSource routingDataSource,
+                                final ReadYourWritesTracker readYourWritesTracker,
+                                final String lagQuery, final Duration maxLag) {
+        this.routingDataSource = routingDataSource;
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+    }
+
+    /**
+     * Checks every replica and updates the routing.
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${application.datasource.replication.check-interval-ms:5000}")
+    public void checkReplicas() {
+        routingDataSource.getReplicas().forEach((name, dataSource) ->
+                routingDataSource.setReplicaAvailable(name, isHealthy(name, dataSource)));
+        readYourWritesTracker.purgeExpired();
+    }
+
+    /**
+     * Tells whether a replica can serve the reads.
+     *
+     * @param name       the name of the replica
+     * @param dataSource the replica
+     * @return true if the replica answers and its lag is within the maximum
+     */
+    private boolean isHealthy(final String name, final DataSource dataSource) {
+        try {
+            Duration lag = measureLag(dataSource);
+            if (lag == null) {
+                log.warn("The replica {} is not replicating", name);
+                return false;
+            }
+            if (lag.compareTo(maxLag) > 0) {
+                log.warn("The replica {} lags {} s behind the primary", name, lag.toSeconds());
+                return false;
+            }
+            return true;
+        } catch (SQLException | RuntimeException e) {
+            log.warn("The health check of the replica {} failed: {}", name, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Measures the lag of a replica.
+     *
+     * @param dataSource the replica
+     * @return the lag, or null if the replica is not replicating
+     * @throws SQLException if the replica cannot be queried
+     */
+    private Duration measureLag(final DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            if (!resultSet.next()) {
+                return null;
+            }
+            long seconds = resultSet.getLong(lagColumn(resultSet.getMetaData()));
+            return resultSet.wasNull() ? null : Duration.ofSeconds(seconds);
+        }
+    }
+
+    /**
+     * Finds the column holding the lag.
+     *
+     * @param metaData the metadata of the result of the lag query
+     * @return the index of the Seconds_Behind_Source column if present, else 1
+     * @throws SQLException if the metadata cannot be read
+     */
+    private static int lagColumn(final ResultSetMetaData metaData) throws SQLException {
+        for (int column = 1; column <= metaData.getColumnCount(); column++) {
+            if (LAG_COLUMN.equalsIgnoreCase(metaData.getColumnLabel(column))) {
+                return column;
+            }
+        }
+        return 1;
+    }
+}
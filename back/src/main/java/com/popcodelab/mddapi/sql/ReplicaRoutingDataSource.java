@@ -0,0 +1,203 @@
+package com.popcodelab.mddapi.sql;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The ReplicaRoutingDataSource class sends the connections of the read-only transactions to the read replicas
+ * and every other connection to the primary database.
+ * <p>
+ * A read-only transaction falls back to the primary when no replica is available, or when the current user
+ * has written during the window of the {@link ReadYourWritesTracker}. The available replicas are used in turn.
+ * <p>
+ * The routing is decided when the connection is obtained, so the DataSource must be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the transaction managers obtain
+ * the connection before exposing the read-only flag of the transaction.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@Log4j2
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    /**
+     * The lookup key of the primary database.
+     */
+    public static final String PRIMARY = "primary";
+
+    /**
+     * The replicas, by name.
+     */
+    private final Map<String, DataSource> replicas;
+
+    /**
+     * The names of the replicas, in the order they are used in turn.
+     */
+    private final List<String> replicaNames;
+
+    /**
+     * The names of the replicas passing the health check. None is available until the first check.
+     */
+    private final Set<String> availableReplicas = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The counter choosing the next replica.
+     */
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    /**
+     * The users pinned to the primary after a write.
+     */
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    /**
+     * Creates a ReplicaRoutingDataSource.
+     *
+     * @param primary               the primary database
+     * @param replicas              the read replicas, by name
+     * @param readYourWritesTracker the users pinned to the primary after a write
+     */
+    public ReplicaRoutingDataSource(final DataSource primary, final Map<String, DataSource> replicas,
+                                    final ReadYourWritesTracker readYourWritesTracker) {
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.replicaNames = List.copyOf(this.replicas.keySet());
+        this.readYourWritesTracker = readYourWritesTracker;
+        Map<Object, Object> targetDataSources = new HashMap<>(this.replicas);
+        targetDataSources.put(PRIMARY, primary);
+        setTargetDataSources(targetDataSources);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String principal = currentPrincipal();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (principal != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+                recordWrite(principal);
+            }
+            return PRIMARY;
+        }
+        if (principal != null && readYourWritesTracker.isPinnedToPrimary(principal)) {
+            return PRIMARY;
+        }
+        return selectReplica();
+    }
+
+    /**
+     * Gets the replicas, by name.
+     *
+     * @return the replicas
+     */
+    public Map<String, DataSource> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Adds or removes a replica from the ones serving the read-only transactions.
+     *
+     * @param name      the name of the replica
+     * @param available whether the replica passed its health check
+     */
+    public void setReplicaAvailable(final String name, final boolean available) {
+        if (!replicas.containsKey(name)) {
+            throw new IllegalArgumentException("Unknown replica " + name);
+        }
+        if (available && availableReplicas.add(name)) {
+            log.info("The replica {} serves the read-only transactions", name);
+        } else if (!available && availableReplicas.remove(name)) {
+            log.warn("The replica {} is unavailable, its reads fall back to the other replicas or the primary", name);
+        }
+    }
+
+    /**
+     * Gets the number of replicas serving the read-only transactions.
+     *
+     * @return the number of available replicas
+     */
+    public int getAvailableReplicaCount() {
+        return availableReplicas.size();
+    }
+
+    /**
+     * Closes the pools of the primary and the replicas.
+     *
+     * @throws Exception if a pool cannot be closed
+     */
+    @Override
+    public void close() throws Exception {
+        for (DataSource dataSource : getResolvedDataSources().values()) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    /**
+     * Chooses the next available replica.
+     *
+     * @return the name of the replica, or the key of the primary if no replica is available
+     */
+    private Object selectReplica() {
+        int size = replicaNames.size();
+        if (size == 0) {
+            return PRIMARY;
+        }
+        int start = Math.floorMod(nextReplica.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            String name = replicaNames.get((start + i) % size);
+            if (availableReplicas.contains(name)) {
+                return name;
+            }
+        }
+        return PRIMARY;
+    }
+
+    /**
+     * Pins a user to the primary, from now and again when the transaction commits.
+     *
+     * @param principal the name of the user
+     */
+    private void recordWrite(final String principal) {
+        readYourWritesTracker.recordWrite(principal);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(final int status) {
+                    if (status == STATUS_COMMITTED) {
+                        readYourWritesTracker.recordWrite(principal);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Gets the name of the authenticated user of the current thread.
+     *
+     * @return the name of the user, or null for an anonymous request or a background task
+     */
+    private static String currentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,127 @@
+package com.popcodelab.mddapi.sql;
+
+import lombok.extern.log4j.Log4j2;
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.migration.Context;
+import org.flywaydb.core.api.migration.JavaMigration;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The SingleColumnIndexMigration class is the Flyway migration 2.1, which drops the single-column indexes of
+ * posts.topic_id and comments.post_id, prefixes of the feed indexes created by the migration 2.
+ * <p>
+ * The indexes are looked up by their column, not by their name: a database built by the former creates_db.sql script
+ * names them after their column, while one built by the former ddl-auto update of Hibernate names them after its
+ * foreign keys, and H2 gives them names of its own. A table without such an index is left as is. With MySQL, the
+ * foreign keys are then backed by the feed indexes. An index the database refuses to drop, as H2 does with the
+ * index it ties to each foreign key, is kept.
+ * <p>
+ * The migration is a bean, which Spring Boot hands over to Flyway, with the migrations of the shards.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@Component
+@Log4j2
+public class SingleColumnIndexMigration implements JavaMigration {
+
+    /**
+     * The indexed column of each table whose single-column index is dropped.
+     */
+    private static final Map<String, String> INDEXED_COLUMNS = Map.of("posts", "topic_id", "comments", "post_id");
+
+    @Override
+    public MigrationVersion getVersion() {
+        return MigrationVersion.fromVersion("2.1");
+    }
+
+    @Override
+    public String getDescription() {
+        return "drop single column indexes";
+    }
+
+    @Override
+    public Integer getChecksum() {
+        return null;
+    }
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return true;
+    }
+
+    @Override
+    public void migrate(final Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        String quote = connection.getMetaData().getIdentifierQuoteString().trim();
+        try (Statement statement = connection.createStatement()) {
+            for (Map.Entry<String, String> indexedColumn : INDEXED_COLUMNS.entrySet()) {
+                String table = indexedColumn.getKey();
+                for (String index : singleColumnIndexes(connection, table, indexedColumn.getValue())) {
+                    try {
+                        statement.execute("DROP INDEX " + quote + index + quote + " ON " + table);
+                        log.info("The index {} of {}.{} has been dropped", index, table, indexedColumn.getValue());
+                    } catch (SQLException e) {
+                        log.info("The index {} of {}.{} is kept : {}", index, table, indexedColumn.getValue(),
+                                e.getMessage());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the non-unique indexes of a table made of one column only.
+     *
+     * @param connection the connection to the database
+     * @param table      the name of the table
+     * @param column     the name of the column
+     * @return the names of the indexes
+     * @throws SQLException if the metadata cannot be read
+     */
+    private List<String> singleColumnIndexes(final Connection connection, final String table, final String column)
+            throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        Map<String, List<String>> columnsByIndex = new LinkedHashMap<>();
+        try (ResultSet indexInfo = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(),
+                storedName(metaData, table), false, false)) {
+            while (indexInfo.next()) {
+                String index = indexInfo.getString("INDEX_NAME");
+                if (index != null && indexInfo.getBoolean("NON_UNIQUE")) {
+                    columnsByIndex.computeIfAbsent(index, name -> new ArrayList<>())
+                            .add(indexInfo.getString("COLUMN_NAME"));
+                }
+            }
+        }
+        List<String> indexes = new ArrayList<>();
+        columnsByIndex.forEach((index, columns) -> {
+            if (columns.size() == 1 && columns.get(0).equalsIgnoreCase(column)) {
+                indexes.add(index);
+            }
+        });
+        return indexes;
+    }
+
+    /**
+     * Gets the name of a table as stored in the metadata of the database.
+     *
+     * @param metaData the metadata of the database
+     * @param table    the name of the table, in lower case
+     * @return the name of the table in the case of the metadata
+     * @throws SQLException if the metadata cannot be read
+     */
+    private String storedName(final DatabaseMetaData metaData, final String table) throws SQLException {
+        return metaData.storesUpperCaseIdentifiers() ? table.toUpperCase(Locale.ROOT) : table;
+    }
+}
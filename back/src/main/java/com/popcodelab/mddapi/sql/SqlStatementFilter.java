@@ -0,0 +1,97 @@
+package com.popcodelab.mddapi.sql;
+
+import com.popcodelab.mddapi.sql.SqlStatementRecorder.Recording;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * The SqlStatementFilter class records the SQL statements executed by each HTTP request.
+ * The number of statements is published in the mdd.sql.statements distribution, and the statements repeated
+ * with the same shape, the usual sign of an N+1 query, are logged and counted in mdd.sql.repeated.statements.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Log4j2
+@RequiredArgsConstructor
+public class SqlStatementFilter extends OncePerRequestFilter {
+
+    /**
+     * The uri tag of the requests not handled by a controller.
+     */
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    /**
+     * The registry of the metrics.
+     */
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * The number of executions of the same statement shape, within a request, from which it is reported.
+     */
+    @Value("${application.sql.repeated-statement-threshold:3}")
+    private int repeatedStatementThreshold;
+
+    @Override
+    protected void doFilterInternal(@NonNull final HttpServletRequest request,
+                                    @NonNull final HttpServletResponse response,
+                                    @NonNull final FilterChain filterChain) throws ServletException, IOException {
+        Recording recording = SqlStatementRecorder.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            recording.close();
+            report(request, recording);
+        }
+    }
+
+    /**
+     * Publishes the statements recorded during a request.
+     *
+     * @param request   the request
+     * @param recording the statements of the request
+     */
+    private void report(final HttpServletRequest request, final Recording recording) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? UNKNOWN_URI : pattern.toString();
+        String method = request.getMethod();
+        DistributionSummary.builder("mdd.sql.statements")
+                .description("SQL statements executed by an HTTP request")
+                .baseUnit("statements")
+                .tags("method", method, "uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(recording.getStatementCount());
+
+        Map<String, Integer> repeatedShapes = recording.getRepeatedShapes(repeatedStatementThreshold);
+        if (repeatedShapes.isEmpty()) {
+            return;
+        }
+        Counter.builder("mdd.sql.repeated.statements")
+                .description("HTTP requests executing the same SQL statement several times")
+                .tags("method", method, "uri", uri)
+                .register(meterRegistry)
+                .increment();
+        repeatedShapes.forEach((shape, count) ->
+                log.warn("Possible N+1 query: {} {} executed {} times: {}", method, uri, count, shape));
+    }
+}
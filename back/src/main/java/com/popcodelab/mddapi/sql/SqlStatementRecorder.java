@@ -0,0 +1,189 @@
+package com.popcodelab.mddapi.sql;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * The SqlStatementRecorder class records the SQL statements executed by the current thread.
+ * A recording is started with {@link #start()} and closed once the unit of work is done, for instance an HTTP request.
+ * Recordings can be nested: a statement is recorded by every open recording of the thread.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+public final class SqlStatementRecorder {
+
+    /**
+     * The innermost open recording of each thread.
+     */
+    private static final ThreadLocal<Recording> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Matches the string literals of a statement.
+     */
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+
+    /**
+     * Matches the numeric literals of a statement.
+     */
+    private static final Pattern NUMERIC_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+
+    /**
+     * Matches a list of parameters, such as the one of an IN clause.
+     */
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+
+    /**
+     * Matches a sequence of whitespaces.
+     */
+    private static final Pattern WHITESPACES = Pattern.compile("\\s+");
+
+    /**
+     * Utility class, not meant to be instantiated.
+     */
+    private SqlStatementRecorder() {
+    }
+
+    /**
+     * Starts a recording on the current thread.
+     *
+     * @return the recording, to close when the unit of work is done
+     */
+    public static Recording start() {
+        Recording recording = new Recording(CURRENT.get());
+        CURRENT.set(recording);
+        return recording;
+    }
+
+    /**
+     * Records a statement in the open recordings of the current thread, if any.
+     *
+     * @param sql the SQL of the statement
+     */
+    static void record(final String sql) {
+        Recording recording = CURRENT.get();
+        if (recording == null) {
+            return;
+        }
+        String shape = shapeOf(sql);
+        for (; recording != null; recording = recording.parent) {
+            recording.add(shape);
+        }
+    }
+
+    /**
+     * Computes the shape of a statement: its literals are replaced by parameters and its parameter lists
+     * are collapsed, so that the statements only differing by their values share the same shape.
+     *
+     * @param sql the SQL of the statement
+     * @return the shape of the statement
+     */
+    public static String shapeOf(final String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMERIC_LITERAL.matcher(shape).replaceAll("?");
+        shape = WHITESPACES.matcher(shape).replaceAll(" ");
+        return PARAMETER_LIST.matcher(shape).replaceAll("(?)").trim();
+    }
+
+    /**
+     * The Recording class holds the statements recorded between its start and its closing.
+     * It is only used by the thread which started it.
+     */
+    public static final class Recording implements AutoCloseable {
+
+        /**
+         * The recording which was open when this one started, or null.
+         */
+        private final Recording parent;
+
+        /**
+         * The number of statements of each shape, in the order of their first execution.
+         */
+        private final Map<String, Integer> countsByShape = new LinkedHashMap<>();
+
+        /**
+         * The number of recorded statements.
+         */
+        private int statementCount;
+
+        /**
+         * Whether the recording is closed.
+         */
+        private boolean closed;
+
+        /**
+         * Creates a recording.
+         *
+         * @param parent the recording which was open when this one started, or null
+         */
+        private Recording(final Recording parent) {
+            this.parent = parent;
+        }
+
+        /**
+         * Records a statement.
+         *
+         * @param shape the shape of the statement
+         */
+        private void add(final String shape) {
+            if (!closed) {
+                statementCount++;
+                countsByShape.merge(shape, 1, Integer::sum);
+            }
+        }
+
+        /**
+         * Gets the number of recorded statements.
+         *
+         * @return the number of statements
+         */
+        public int getStatementCount() {
+            return statementCount;
+        }
+
+        /**
+         * Gets the number of recorded statements of each shape.
+         *
+         * @return the counts, by shape
+         */
+        public Map<String, Integer> getCountsByShape() {
+            return Collections.unmodifiableMap(countsByShape);
+        }
+
+        /**
+         * Gets the shapes executed at least the given number of times, the usual sign of an N+1 query.
+         *
+         * @param threshold the minimum number of executions
+         * @return the counts of the repeated shapes, by shape
+         */
+        public Map<String, Integer> getRepeatedShapes(final int threshold) {
+            Map<String, Integer> repeatedShapes = new LinkedHashMap<>();
+            countsByShape.forEach((shape, count) -> {
+                if (count >= threshold) {
+                    repeatedShapes.put(shape, count);
+                }
+            });
+            return repeatedShapes;
+        }
+
+        /**
+         * Stops the recording and restores the enclosing one as the current recording of the thread.
+         */
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (CURRENT.get() == this) {
+                if (parent == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(parent);
+                }
+            }
+        }
+    }
+}
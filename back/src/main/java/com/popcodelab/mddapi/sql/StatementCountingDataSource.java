@@ -0,0 +1,118 @@
+package com.popcodelab.mddapi.sql;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.lang.NonNull;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+
+/**
+ * The StatementCountingDataSource class wraps the connections of a DataSource, so that every statement
+ * they prepare or execute is recorded by the {@link SqlStatementRecorder}.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+    /**
+     * The methods of a Connection preparing a statement, their first argument being the SQL.
+     */
+    private static final Set<String> PREPARING_METHODS = Set.of("prepareStatement", "prepareCall");
+
+    /**
+     * The methods of a Statement executing the SQL given as first argument.
+     */
+    private static final Set<String> EXECUTING_METHODS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "addBatch");
+
+    /**
+     * Creates a StatementCountingDataSource.
+     *
+     * @param targetDataSource the DataSource providing the connections
+     */
+    public StatementCountingDataSource(final DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    @NonNull
+    public Connection getConnection() throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    @NonNull
+    public Connection getConnection(@NonNull final String username, @NonNull final String password) throws SQLException {
+        return wrap(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    /**
+     * Wraps a connection to record its statements.
+     *
+     * @param connection the connection
+     * @return the wrapping connection
+     */
+    private static Connection wrap(final Connection connection) {
+        return (Connection) Proxy.newProxyInstance(StatementCountingDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(connection));
+    }
+
+    /**
+     * Invokes a method on the wrapped object, rethrowing the exception it throws.
+     *
+     * @param target the wrapped object
+     * @param method the method
+     * @param args   the arguments
+     * @return the result of the method
+     * @throws Throwable the exception thrown by the method
+     */
+    private static Object invoke(final Object target, final Method method, final Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    /**
+     * Records the statements prepared by a connection, and wraps the plain statements it creates.
+     */
+    private record ConnectionHandler(Connection connection) implements InvocationHandler {
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            String name = method.getName();
+            if (PREPARING_METHODS.contains(name) && args != null && args[0] instanceof String sql) {
+                SqlStatementRecorder.record(sql);
+            }
+            Object result = StatementCountingDataSource.invoke(connection, method, args);
+            if ("createStatement".equals(name)) {
+                return Proxy.newProxyInstance(StatementCountingDataSource.class.getClassLoader(),
+                        new Class<?>[]{Statement.class}, new StatementHandler((Statement) result));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Records the SQL executed by a plain statement.
+     */
+    private record StatementHandler(Statement statement) implements InvocationHandler {
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            if (EXECUTING_METHODS.contains(method.getName()) && args != null && args[0] instanceof String sql) {
+                SqlStatementRecorder.record(sql);
+            }
+            return StatementCountingDataSource.invoke(statement, method, args);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.popcodelab.mddapi.sql;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * The StatementCountingDataSourcePostProcessor class wraps the DataSource beans in a
+ * {@link StatementCountingDataSource}, so that the statements of every repository are recorded.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@Component
+@Log4j2
+public class StatementCountingDataSourcePostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(@NonNull final Object bean, @NonNull final String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof StatementCountingDataSource)) {
+            log.debug("The statements of the DataSource {} are counted", beanName);
+            return new StatementCountingDataSource(dataSource);
+        }
+        return bean;
+    }
+}
@@ -1,3 +1,5 @@
+-- Initial schema, as created by the former creates_db.sql script and the element collections of the entities.
+-- An existing database built from that script is baselined at this version.
 CREATE TABLE users
 (
     id         BIGINT PRIMARY KEY AUTO_INCREMENT,
@@ -46,6 +48,20 @@ CREATE TABLE comments
     INDEX(post_id)
 );
 
+CREATE TABLE user_subscribed_topic_ids
+(
+    user_id              BIGINT NOT NULL,
+    subscribed_topic_ids BIGINT,
+    FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE post_comment_ids
+(
+    post_id     BIGINT NOT NULL,
+    comment_ids BIGINT,
+    FOREIGN KEY (post_id) REFERENCES posts (id)
+);
+
 INSERT INTO topics (title, description)
 VALUES
     ('Machine Learning', 'Discussions on machine learning algorithms and applications'),
@@ -0,0 +1,13 @@
+-- Indexes of the hot queries, checked by the QueryPlanVerifier.
+
+-- Feed: the posts of the subscribed topics, most recent first
+CREATE INDEX idx_posts_topic_created ON posts (topic_id, created_at, id);
+-- Comments of a post, in chronological order
+CREATE INDEX idx_comments_post_created ON comments (post_id, created_at, id);
+
+-- The single-column indexes of posts.topic_id and comments.post_id, prefixes of the new ones, are dropped by the
+-- migration 2.1, SingleColumnIndexMigration, which finds them whatever their name
+
+-- Login by email or username
+CREATE UNIQUE INDEX uk_users_email ON users (email);
+CREATE UNIQUE INDEX uk_users_user_name ON users (user_name);
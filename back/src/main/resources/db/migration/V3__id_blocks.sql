@@ -0,0 +1,12 @@
+-- Blocks of identifiers reserved by the backend instances for the rows written behind in batches,
+-- which need their id before being inserted. See IdBlockAllocator.
+CREATE TABLE id_blocks
+(
+    name    VARCHAR(64) PRIMARY KEY,
+    next_id BIGINT      NOT NULL
+);
+
+-- The comments written behind start after the existing ones
+INSERT INTO id_blocks (name, next_id)
+SELECT 'comments', COALESCE(MAX(id), 0) + 1
+FROM comments;
@@ -0,0 +1,18 @@
+-- Transactional outbox: the domain events, written in the transaction of the change they describe,
+-- then relayed to the consumers of the DomainEventBus. See OutboxRelay.
+CREATE TABLE outbox_events
+(
+    id           BIGINT AUTO_INCREMENT PRIMARY KEY,
+    type         VARCHAR(32) NOT NULL,
+    aggregate_id BIGINT      NOT NULL,
+    scope_id     BIGINT      NULL,
+    user_id      BIGINT      NOT NULL,
+    created_at   DATETIME(6) NOT NULL
+);
+
+-- The last event handled by each consumer
+CREATE TABLE outbox_offsets
+(
+    consumer      VARCHAR(64) PRIMARY KEY,
+    last_event_id BIGINT      NOT NULL
+);
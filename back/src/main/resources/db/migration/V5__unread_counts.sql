@@ -0,0 +1,32 @@
+-- Unread posts of the subscribed topics: the number of posts of each topic, kept up to date from the outbox,
+-- and the number of posts of the topic when each subscriber last read it. See UnreadCountService.
+CREATE TABLE topic_post_counts
+(
+    topic_id   BIGINT PRIMARY KEY,
+    post_count BIGINT NOT NULL
+);
+
+CREATE TABLE topic_read_markers
+(
+    user_id         BIGINT NOT NULL,
+    topic_id        BIGINT NOT NULL,
+    read_post_count BIGINT NOT NULL,
+    PRIMARY KEY (user_id, topic_id)
+);
+
+-- The counts start from the existing posts, and the counter from the events recorded after them
+INSERT INTO topic_post_counts (topic_id, post_count)
+SELECT topic_id, COUNT(*)
+FROM posts
+GROUP BY topic_id;
+
+INSERT INTO outbox_offsets (consumer, last_event_id)
+SELECT 'topic-post-counts', COALESCE(MAX(id), 0)
+FROM outbox_events;
+
+-- The existing subscriptions start with every post read
+INSERT INTO topic_read_markers (user_id, topic_id, read_post_count)
+SELECT DISTINCT s.user_id, s.subscribed_topic_ids, COALESCE(c.post_count, 0)
+FROM user_subscribed_topic_ids s
+         LEFT JOIN topic_post_counts c ON c.topic_id = s.subscribed_topic_ids
+WHERE s.subscribed_topic_ids IS NOT NULL;
@@ -0,0 +1,10 @@
+-- Unique viewers of the posts: the HyperLogLog sketch of each viewed post, merged by the backend instances,
+-- and its estimate copied into the post. See PostViewService.
+CREATE TABLE post_view_sketches
+(
+    post_id   BIGINT PRIMARY KEY,
+    registers VARBINARY(4096) NOT NULL
+);
+
+ALTER TABLE posts
+    ADD COLUMN unique_viewers BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,7 @@
+-- Content of the posts stored by PostContentCodec: a version byte, followed by the content in UTF-8 or, from
+-- 512 bytes, compressed by Deflate with a preset dictionary. The existing contents are kept as is, in UTF-8.
+ALTER TABLE posts
+    MODIFY content LONGBLOB NOT NULL;
+
+UPDATE posts
+SET content = CONCAT(X'01', content);
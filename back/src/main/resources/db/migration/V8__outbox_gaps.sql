@@ -0,0 +1,9 @@
+-- The missing event ids skipped by each consumer, delivered late if their transaction commits. See OutboxRelay.
+CREATE TABLE outbox_gaps
+(
+    consumer    VARCHAR(64) NOT NULL,
+    event_id    BIGINT      NOT NULL,
+    detected_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (consumer, event_id),
+    FOREIGN KEY (consumer) REFERENCES outbox_offsets (consumer)
+);
@@ -0,0 +1,72 @@
+package com.popcodelab.mddapi.compression;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PostContentCodecTests {
+
+    private static final String ARTICLE = ("Spring Boot makes it easy to create a service, and the performance of "
+            + "the application depends on the configuration of its database connection pool. ").repeat(20)
+            + "Les caractères accentués et les emojis 🚀 sont conservés.";
+
+    @Test
+    void aShortContentIsStoredAsIs() {
+        byte[] stored = PostContentCodec.encode("Content of the post");
+
+        assertEquals(PostContentCodec.RAW, stored[0]);
+        assertArrayEquals("Content of the post".getBytes(StandardCharsets.UTF_8),
+                Arrays.copyOfRange(stored, 1, stored.length));
+        assertEquals("Content of the post", PostContentCodec.decode(stored));
+        assertEquals("", PostContentCodec.decode(PostContentCodec.encode("")));
+    }
+
+    @Test
+    void aLongContentIsCompressedAndReadBack() {
+        byte[] stored = PostContentCodec.encode(ARTICLE);
+
+        assertEquals(PostContentCodec.DEFLATE_DICTIONARY_V1, stored[0]);
+        assertTrue(stored.length < ARTICLE.getBytes(StandardCharsets.UTF_8).length / 4, stored.length + " bytes");
+        assertEquals(ARTICLE, PostContentCodec.decode(stored));
+    }
+
+    @Test
+    void aContentWhichDoesNotShrinkIsStoredAsIs() {
+        byte[] random = new byte[2048];
+        new Random(42L).nextBytes(random);
+        String content = Base64.getEncoder().encodeToString(random);
+
+        byte[] stored = PostContentCodec.encode(content);
+
+        assertTrue(stored[0] == PostContentCodec.RAW || stored.length <= content.length());
+        assertEquals(content, PostContentCodec.decode(stored));
+    }
+
+    @Test
+    void anUnknownOrCorruptedContentIsRejected() {
+        byte[] stored = PostContentCodec.encode(ARTICLE);
+
+        assertThrows(IllegalArgumentException.class, () -> PostContentCodec.decode(new byte[0]));
+        assertThrows(IllegalArgumentException.class, () -> PostContentCodec.decode(new byte[]{9, 'a'}));
+        assertThrows(IllegalArgumentException.class,
+                () -> PostContentCodec.decode(Arrays.copyOf(stored, stored.length / 2)));
+    }
+
+    @Test
+    void theConverterKeepsTheNullContents() {
+        CompressedContentConverter converter = new CompressedContentConverter();
+
+        assertNull(converter.convertToDatabaseColumn(null));
+        assertNull(converter.convertToEntityAttribute(null));
+        assertEquals(ARTICLE, converter.convertToEntityAttribute(converter.convertToDatabaseColumn(ARTICLE)));
+    }
+}
@@ -0,0 +1,61 @@
+package com.popcodelab.mddapi.configuration;
+
+import com.popcodelab.mddapi.sharding.ShardRoutingDataSource;
+import com.popcodelab.mddapi.sql.ConcurrencyLimitedDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.mock.env.MockEnvironment;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class DataSourceConcurrencyConfigurationTests {
+
+    private final MockEnvironment environment = new MockEnvironment()
+            .withProperty("application.datasource.concurrency-limit.enabled", "true")
+            .withProperty("application.datasource.concurrency-limit.permits", "8");
+
+    private final BeanPostProcessor postProcessor =
+            DataSourceConcurrencyConfiguration.concurrencyLimitedDataSourcePostProcessor(environment);
+
+    @Test
+    void onlyThePoolsAreLimited() {
+        HikariDataSource pool = pool("mdd-default", 10);
+        ShardRoutingDataSource routingDataSource = new ShardRoutingDataSource(
+                (DataSource) postProcessor.postProcessAfterInitialization(pool, "dataSource"),
+                Map.of("shard-1", DataSourceConcurrencyConfiguration.limitConcurrency(
+                        pool("mdd-shard-1", 4), "mdd-shard-1", environment)));
+
+        assertSame(routingDataSource, postProcessor.postProcessAfterInitialization(routingDataSource, "dataSource"));
+        assertEquals(8, assertInstanceOf(ConcurrencyLimitedDataSource.class,
+                routingDataSource.getResolvedDefaultDataSource()).getMaxConcurrency());
+        // The permits never exceed the size of the pool
+        assertEquals(4, assertInstanceOf(ConcurrencyLimitedDataSource.class,
+                routingDataSource.getShards().get("shard-1")).getMaxConcurrency());
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new DataSourceConcurrencyConfiguration().dataSourceConcurrencyMetrics(routingDataSource).bindTo(registry);
+        assertEquals(8, registry.get("mdd.datasource.permits.available").tag("pool", "mdd-default").gauge().value());
+        assertEquals(4, registry.get("mdd.datasource.permits.available").tag("pool", "mdd-shard-1").gauge().value());
+    }
+
+    @Test
+    void thePoolIsLeftAsIsWhenTheLimitIsDisabled() {
+        HikariDataSource pool = pool("mdd-default", 10);
+
+        assertSame(pool, DataSourceConcurrencyConfiguration.limitConcurrency(pool, "mdd-default", new MockEnvironment()));
+    }
+
+    private static HikariDataSource pool(final String name, final int size) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(name);
+        pool.setMaximumPoolSize(size);
+        return pool;
+    }
+}
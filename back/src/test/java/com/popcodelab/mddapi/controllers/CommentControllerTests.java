@@ -0,0 +1,116 @@
+package com.popcodelab.mddapi.controllers;
+
+import com.popcodelab.mddapi.entities.Comment;
+import com.popcodelab.mddapi.entities.Post;
+import com.popcodelab.mddapi.entities.Topic;
+import com.popcodelab.mddapi.entities.User;
+import com.popcodelab.mddapi.repositories.CommentRepository;
+import com.popcodelab.mddapi.repositories.PostRepository;
+import com.popcodelab.mddapi.repositories.TopicRepository;
+import com.popcodelab.mddapi.repositories.UserRepository;
+import com.popcodelab.mddapi.security.services.JwtService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.popcodelab.mddapi.sql.SqlStatementBudget.assertMaxStatements;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CommentControllerTests {
+
+    /**
+     * The number of comments of the post, each one written by a different user.
+     */
+    private static final int COMMENT_COUNT = 10;
+
+    /**
+     * The comments, their authors and the subscriptions of the authors, whatever the number of comments.
+     */
+    private static final int COMMENTS_STATEMENT_BUDGET = 4;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TopicRepository topicRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private Post post;
+
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < COMMENT_COUNT; i++) {
+            User user = new User();
+            user.setUsername("commenter" + i);
+            user.setEmail("commenter" + i + "@mdd.dev");
+            user.setPassword("not-used");
+            users.add(user);
+        }
+        users = userRepository.saveAll(users);
+        Topic topic = new Topic();
+        topic.setTitle("Java");
+        topic.setDescription("All about Java");
+        topic = topicRepository.save(topic);
+        post = new Post();
+        post.setTitle("Records");
+        post.setContent("Records are transparent carriers for immutable data.");
+        post.setUserId(users.get(0).getId());
+        post.setTopicId(topic.getId());
+        post = postRepository.save(post);
+        for (User user : users) {
+            Comment comment = new Comment();
+            comment.setContent("Comment of " + user.getUsername());
+            comment.setUserId(user.getId());
+            comment.setPostId(post.getId());
+            commentRepository.save(comment);
+        }
+        token = jwtService.generateToken(
+                new UsernamePasswordAuthenticationToken(users.get(0).getEmail(), null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        commentRepository.deleteAll();
+        postRepository.deleteAll();
+        userRepository.deleteAll();
+        topicRepository.deleteAll();
+    }
+
+    @Test
+    void getAllCommentsByPostIdLoadsTheAuthorsWithASingleQuery() throws Throwable {
+        assertMaxStatements(COMMENTS_STATEMENT_BUDGET, () -> mockMvc
+                .perform(get("/api/posts/{postId}/comments", post.getId())
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(COMMENT_COUNT)));
+    }
+}
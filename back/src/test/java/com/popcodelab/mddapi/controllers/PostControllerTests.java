@@ -0,0 +1,177 @@
+package com.popcodelab.mddapi.controllers;
+
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.popcodelab.mddapi.entities.Post;
+import com.popcodelab.mddapi.entities.Topic;
+import com.popcodelab.mddapi.entities.User;
+import com.popcodelab.mddapi.repositories.PostRepository;
+import com.popcodelab.mddapi.repositories.TopicRepository;
+import com.popcodelab.mddapi.repositories.UserRepository;
+import com.popcodelab.mddapi.security.services.JwtService;
+import com.popcodelab.mddapi.services.IdempotencyService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.popcodelab.mddapi.sql.SqlStatementBudget.assertMaxStatements;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PostControllerTests {
+
+    /**
+     * The number of authors of the posts.
+     */
+    private static final int AUTHOR_COUNT = 10;
+
+    /**
+     * The number of posts of each topic.
+     */
+    private static final int POSTS_PER_TOPIC = 10;
+
+    /**
+     * The reader, the posts, the authors and the topics with their collections, whatever the number of posts.
+     */
+    private static final int FEED_STATEMENT_BUDGET = 8;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TopicRepository topicRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    private String token;
+
+    private Long readerId;
+
+    private Long topicId;
+
+    @BeforeEach
+    void setUp() {
+        List<Topic> topics = new ArrayList<>();
+        for (String title : List.of("Java", "Angular")) {
+            Topic topic = new Topic();
+            topic.setTitle(title);
+            topic.setDescription("All about " + title);
+            topics.add(topic);
+        }
+        topics = topicRepository.saveAll(topics);
+        List<User> authors = new ArrayList<>();
+        for (int i = 0; i < AUTHOR_COUNT; i++) {
+            User author = new User();
+            author.setUsername("author" + i);
+            author.setEmail("author" + i + "@mdd.dev");
+            author.setPassword("not-used");
+            author.getSubscribedTopicIds().add(topics.get(i % topics.size()).getId());
+            authors.add(author);
+        }
+        authors = userRepository.saveAll(authors);
+        User reader = authors.get(0);
+        reader.getSubscribedTopicIds().clear();
+        topics.forEach(topic -> reader.getSubscribedTopicIds().add(topic.getId()));
+        userRepository.save(reader);
+        List<Post> posts = new ArrayList<>();
+        for (Topic topic : topics) {
+            for (int i = 0; i < POSTS_PER_TOPIC; i++) {
+                Post post = new Post();
+                post.setTitle("Post " + i + " of " + topic.getTitle());
+                post.setContent("Content of the post");
+                post.setUserId(authors.get(i % AUTHOR_COUNT).getId());
+                post.setTopicId(topic.getId());
+                posts.add(post);
+            }
+        }
+        postRepository.saveAll(posts);
+        readerId = reader.getId();
+        topicId = topics.get(0).getId();
+        token = jwtService.generateToken(new UsernamePasswordAuthenticationToken(reader.getEmail(), null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        postRepository.deleteAll();
+        userRepository.deleteAll();
+        topicRepository.deleteAll();
+    }
+
+    @Test
+    void getPostsFromUserTopicsLoadsTheFeedWithAConstantNumberOfQueries() throws Throwable {
+        assertMaxStatements(FEED_STATEMENT_BUDGET, () -> mockMvc
+                .perform(get("/api/posts").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2 * POSTS_PER_TOPIC)));
+    }
+
+    @Test
+    void getPostsFromUserTopicsIsSentAsJsonByDefault() throws Exception {
+        mockMvc.perform(get("/api/posts").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void getPostsFromUserTopicsCanBeNegotiatedAsCbor() throws Exception {
+        byte[] body = mockMvc.perform(get("/api/posts")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertEquals(2 * POSTS_PER_TOPIC, new CBORMapper().readTree(body).size());
+    }
+
+    @Test
+    void newPostIsCreatedOncePerIdempotencyKey() throws Exception {
+        long postCount = postRepository.count();
+        String first = mockMvc.perform(newPost("retried-post", "Records"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        String retry = mockMvc.perform(newPost("retried-post", "Records"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(first, retry);
+        assertEquals(postCount + 1, postRepository.count());
+        mockMvc.perform(newPost("retried-post", "Sealed classes"))
+                .andExpect(status().isUnprocessableEntity());
+        assertEquals(postCount + 1, postRepository.count());
+    }
+
+    private MockHttpServletRequestBuilder newPost(final String idempotencyKey, final String title) {
+        return post("/api/posts")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .header(IdempotencyService.IDEMPOTENCY_KEY_HEADER, idempotencyKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"title\":\"" + title + "\",\"content\":\"Transparent carriers\",\"userId\":"
+                        + readerId + ",\"topicId\":" + topicId + "}");
+    }
+}
@@ -0,0 +1,130 @@
+package com.popcodelab.mddapi.controllers;
+
+import com.popcodelab.mddapi.entities.Topic;
+import com.popcodelab.mddapi.entities.User;
+import com.popcodelab.mddapi.repositories.TopicRepository;
+import com.popcodelab.mddapi.repositories.UserRepository;
+import com.popcodelab.mddapi.security.services.JwtService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TopicControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TopicRepository topicRepository;
+
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        User reader = new User();
+        reader.setUsername("reader");
+        reader.setEmail("reader@mdd.dev");
+        reader.setPassword("not-used");
+        userRepository.save(reader);
+        Topic topic = new Topic();
+        topic.setTitle("Java");
+        topic.setDescription("All about Java");
+        topicRepository.save(topic);
+        token = jwtService.generateToken(new UsernamePasswordAuthenticationToken(reader.getEmail(), null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+        topicRepository.deleteAll();
+    }
+
+    @Test
+    void theCatalogIsGzippedOnlyWhenTheClientAcceptsGzip() throws Exception {
+        mockMvc.perform(get("/api/topics").header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "deflate, gzip;q=0.5"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().stringValues(HttpHeaders.VARY,
+                        hasItem(containsString(HttpHeaders.ACCEPT_ENCODING))));
+
+        mockMvc.perform(get("/api/topics").header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(header().stringValues(HttpHeaders.VARY,
+                        hasItem(containsString(HttpHeaders.ACCEPT_ENCODING))))
+                .andExpect(jsonPath("$[0].title").value("Java"));
+    }
+
+    @Test
+    void eachEncodingOfTheCatalogHasItsOwnEntityTag() throws Exception {
+        String gzipEtag = mockMvc.perform(get("/api/topics").header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String identityEtag = mockMvc.perform(get("/api/topics").header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertNotEquals(identityEtag, gzipEtag);
+        mockMvc.perform(get("/api/topics").header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, identityEtag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+        mockMvc.perform(get("/api/topics").header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, gzipEtag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void theGzipCodingIsReadFromTheTokensAndTheirQualities() {
+        assertTrue(TopicController.acceptsGzip("gzip"));
+        assertTrue(TopicController.acceptsGzip("GZIP ; Q=0.8"));
+        assertTrue(TopicController.acceptsGzip("br, x-gzip"));
+        assertTrue(TopicController.acceptsGzip("br, *;q=0.1"));
+        assertFalse(TopicController.acceptsGzip(null));
+        assertFalse(TopicController.acceptsGzip("gzip;q=0"));
+        assertFalse(TopicController.acceptsGzip("gzip;q=0.000, *"));
+        assertFalse(TopicController.acceptsGzip("x-gzip-foo, deflate"));
+        assertFalse(TopicController.acceptsGzip("*;q=0"));
+        assertFalse(TopicController.acceptsGzip("gzip;q=high"));
+    }
+}
@@ -0,0 +1,144 @@
+package com.popcodelab.mddapi.controllers;
+
+import com.popcodelab.mddapi.dto.post.PostDto;
+import com.popcodelab.mddapi.entities.Topic;
+import com.popcodelab.mddapi.entities.User;
+import com.popcodelab.mddapi.repositories.OutboxOffsetRepository;
+import com.popcodelab.mddapi.repositories.PostRepository;
+import com.popcodelab.mddapi.repositories.TopicPostCountRepository;
+import com.popcodelab.mddapi.repositories.TopicReadMarkerRepository;
+import com.popcodelab.mddapi.repositories.TopicRepository;
+import com.popcodelab.mddapi.repositories.UserRepository;
+import com.popcodelab.mddapi.security.services.JwtService;
+import com.popcodelab.mddapi.services.PostService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UserControllerTests {
+
+    /**
+     * The number of posts published after the subscription.
+     */
+    private static final int NEW_POST_COUNT = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TopicRepository topicRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private TopicPostCountRepository topicPostCountRepository;
+
+    @Autowired
+    private TopicReadMarkerRepository topicReadMarkerRepository;
+
+    @Autowired
+    private OutboxOffsetRepository outboxOffsetRepository;
+
+    private User reader;
+
+    private Topic topic;
+
+    private String token;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        // The posts are counted from the events recorded after the first run of the counter
+        awaitUntil(() -> outboxOffsetRepository.existsById("topic-post-counts"));
+        reader = new User();
+        reader.setUsername("reader");
+        reader.setEmail("reader@mdd.dev");
+        reader.setPassword("not-used");
+        reader = userRepository.save(reader);
+        topic = new Topic();
+        topic.setTitle("Java");
+        topic.setDescription("All about Java");
+        topic = topicRepository.save(topic);
+        token = jwtService.generateToken(new UsernamePasswordAuthenticationToken(reader.getEmail(), null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        topicReadMarkerRepository.deleteAll();
+        topicPostCountRepository.deleteAll();
+        postRepository.deleteAll();
+        userRepository.deleteAll();
+        topicRepository.deleteAll();
+    }
+
+    @Test
+    void unreadCountsFollowTheNewPostsAndAreResetOnRead() throws Exception {
+        String unreadCount = "$.unreadCounts['" + topic.getId() + "']";
+        mockMvc.perform(post("/api/me/topic/" + topic.getId()).header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(unreadCount).value(0));
+
+        for (int i = 0; i < NEW_POST_COUNT; i++) {
+            PostDto postDto = new PostDto();
+            postDto.setTitle("Post " + i);
+            postDto.setContent("Content of the post");
+            postDto.setUserId(reader.getId());
+            postDto.setTopicId(topic.getId());
+            postService.newPost(postDto);
+        }
+
+        // The posts are counted from the outbox, shortly after their creation
+        awaitUntil(() -> topicPostCountRepository.findById(topic.getId())
+                .map(count -> count.getPostCount() == NEW_POST_COUNT).orElse(false));
+        mockMvc.perform(get("/api/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(unreadCount).value(NEW_POST_COUNT));
+        mockMvc.perform(get("/api/me/topics").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(topic.getId()))
+                .andExpect(jsonPath("$[0].unreadCount").value(NEW_POST_COUNT));
+
+        mockMvc.perform(put("/api/me/topic/" + topic.getId() + "/read")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(unreadCount).value(0));
+    }
+
+    private static void awaitUntil(final BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
@@ -0,0 +1,224 @@
+package com.popcodelab.mddapi.events;
+
+import com.popcodelab.mddapi.dto.post.PostDto;
+import com.popcodelab.mddapi.entities.OutboxEvent;
+import com.popcodelab.mddapi.entities.Topic;
+import com.popcodelab.mddapi.entities.User;
+import com.popcodelab.mddapi.repositories.OutboxEventRepository;
+import com.popcodelab.mddapi.repositories.OutboxOffsetRepository;
+import com.popcodelab.mddapi.repositories.PostRepository;
+import com.popcodelab.mddapi.repositories.TopicRepository;
+import com.popcodelab.mddapi.repositories.UserRepository;
+import com.popcodelab.mddapi.services.PostService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {"application.outbox.commit-grace=100ms", "application.outbox.gap-timeout=3s"})
+@ActiveProfiles("test")
+class OutboxRelayTests {
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TopicRepository topicRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private OutboxOffsetRepository outboxOffsetRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private TransactionOperations transactionOperations;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private FlakyConsumer consumer;
+
+    private User user;
+
+    private Topic topic;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        user = new User();
+        user.setUsername("author");
+        user.setEmail("author@mdd.dev");
+        user.setPassword("not-used");
+        user = userRepository.save(user);
+        topic = new Topic();
+        topic.setTitle("Java");
+        topic.setDescription("All about Java");
+        topic = topicRepository.save(topic);
+        // A new consumer starts after the events recorded before its first run
+        awaitUntil(() -> outboxOffsetRepository.existsById(FlakyConsumer.NAME));
+    }
+
+    @AfterEach
+    void tearDown() {
+        postRepository.deleteAll();
+        topicRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void eventsAreDeliveredAgainAfterAFailure() throws InterruptedException {
+        consumer.failuresLeft.set(1);
+
+        PostDto newPost = postService.newPost(postDto(topic.getId()));
+
+        awaitUntil(() -> consumer.received.stream().anyMatch(event -> event.aggregateId().equals(newPost.getId())));
+        DomainEvent event = consumer.received.stream()
+                .filter(received -> received.aggregateId().equals(newPost.getId()))
+                .findFirst().orElseThrow();
+        assertEquals(DomainEventType.POST_CREATED, event.type());
+        assertEquals(topic.getId(), event.scopeId());
+        assertEquals(user.getId(), event.userId());
+        assertEquals(0, consumer.failuresLeft.get());
+    }
+
+    @Test
+    void eventsAreDeliveredInTheOrderOfTheOutbox() throws InterruptedException {
+        List<Long> postIds = List.of(
+                postService.newPost(postDto(topic.getId())).getId(),
+                postService.newPost(postDto(topic.getId())).getId(),
+                postService.newPost(postDto(topic.getId())).getId());
+
+        awaitUntil(() -> receivedPostIds().containsAll(postIds));
+        assertEquals(postIds, receivedPostIds().stream().filter(postIds::contains).toList());
+    }
+
+    @Test
+    void anEventCommittedAfterTheFollowingOnesIsStillDelivered() throws InterruptedException {
+        CountDownLatch recorded = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        AtomicLong lateEventId = new AtomicLong();
+        Thread lateTransaction = new Thread(() -> transactionOperations.executeWithoutResult(status -> {
+            lateEventId.set(outboxEventRepository.saveAndFlush(new OutboxEvent(DomainEventType.POST_CREATED,
+                    Long.MAX_VALUE, topic.getId(), user.getId())).getId());
+            recorded.countDown();
+            try {
+                commit.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        lateTransaction.start();
+        recorded.await();
+
+        PostDto newPost = postService.newPost(postDto(topic.getId()));
+
+        // Delivered past the missing event once the commit grace is over
+        awaitUntil(() -> receivedPostIds().contains(newPost.getId()));
+        commit.countDown();
+        lateTransaction.join();
+        awaitUntil(() -> consumer.received.stream().anyMatch(event -> event.id() == lateEventId.get()));
+    }
+
+    @Test
+    void aMissingEventIsGivenUpOnAfterTheGapTimeout() throws InterruptedException {
+        double abandoned = abandonedGapCount();
+        transactionOperations.executeWithoutResult(status -> {
+            outboxEventRepository.saveAndFlush(new OutboxEvent(DomainEventType.POST_CREATED,
+                    Long.MAX_VALUE, topic.getId(), user.getId()));
+            status.setRollbackOnly();
+        });
+
+        PostDto newPost = postService.newPost(postDto(topic.getId()));
+
+        awaitUntil(() -> receivedPostIds().contains(newPost.getId()));
+        awaitUntil(() -> abandonedGapCount() > abandoned);
+    }
+
+    private double abandonedGapCount() {
+        Counter counter = meterRegistry.find("mdd.outbox.gaps.abandoned").tag("consumer", FlakyConsumer.NAME).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private List<Long> receivedPostIds() {
+        return consumer.received.stream()
+                .filter(event -> event.type() == DomainEventType.POST_CREATED)
+                .map(DomainEvent::aggregateId)
+                .toList();
+    }
+
+    private PostDto postDto(final Long topicId) {
+        PostDto postDto = new PostDto();
+        postDto.setTitle("Outbox");
+        postDto.setContent("Content of the post");
+        postDto.setUserId(user.getId());
+        postDto.setTopicId(topicId);
+        return postDto;
+    }
+
+    private static void awaitUntil(final BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    /**
+     * A consumer failing a given number of deliveries, then recording the events.
+     */
+    static class FlakyConsumer implements DomainEventConsumer {
+
+        static final String NAME = "flaky-test-consumer";
+
+        final AtomicInteger failuresLeft = new AtomicInteger();
+
+        final List<DomainEvent> received = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String getName() {
+            return NAME;
+        }
+
+        @Override
+        public void onEvents(final List<DomainEvent> events) {
+            if (failuresLeft.getAndUpdate(failures -> Math.max(0, failures - 1)) > 0) {
+                throw new IllegalStateException("Delivery failed on purpose");
+            }
+            received.addAll(events);
+        }
+    }
+
+    @TestConfiguration
+    static class ConsumerConfiguration {
+
+        @Bean
+        FlakyConsumer flakyConsumer() {
+            return new FlakyConsumer();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.popcodelab.mddapi.invalidation;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.NetworkInterface;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class InvalidationBusTests {
+
+    private final InMemoryInvalidationBus.Network network = new InMemoryInvalidationBus.Network();
+
+    private final RecordingListener firstListener = new RecordingListener();
+
+    private final RecordingListener secondListener = new RecordingListener();
+
+    private final InMemoryInvalidationBus firstBus =
+            new InMemoryInvalidationBus(List.of(firstListener), Duration.ofHours(1), network);
+
+    private final InMemoryInvalidationBus secondBus =
+            new InMemoryInvalidationBus(List.of(secondListener), Duration.ofHours(1), network);
+
+    @Test
+    void theInvalidationsAreBatchedWithoutDuplicatesAndNotPassedBackToTheirInstance() {
+        firstBus.publish(CacheRegion.USER, 1L);
+        firstBus.publish(CacheRegion.USER, 1L);
+        firstBus.publish(CacheRegion.TOPIC_SUBSCRIBERS, 2L);
+
+        firstBus.flush();
+
+        assertEquals(1, secondListener.batches.size());
+        assertEquals(List.of(new Invalidation(CacheRegion.USER, 1L), new Invalidation(CacheRegion.TOPIC_SUBSCRIBERS, 2L)),
+                secondListener.batches.get(0).stream().sorted(Comparator.comparing(Invalidation::region)).toList());
+        assertTrue(firstListener.batches.isEmpty());
+    }
+
+    @Test
+    void aBatchReceivedTwiceIsAppliedOnce() {
+        InvalidationBatch batch = new InvalidationBatch(42L, 1L, List.of(new Invalidation(CacheRegion.USER, 1L)));
+
+        secondBus.receive(batch);
+        secondBus.receive(batch);
+
+        assertEquals(1, secondListener.batches.size());
+    }
+
+    @Test
+    void aLostBatchClearsTheWholeRegions() {
+        secondBus.receive(new InvalidationBatch(42L, 1L, List.of(new Invalidation(CacheRegion.USER, 1L))));
+        secondBus.receive(new InvalidationBatch(42L, 3L, List.of(new Invalidation(CacheRegion.USER, 2L))));
+
+        assertEquals(Arrays.stream(CacheRegion.values()).map(Invalidation::all).toList(),
+                secondListener.batches.get(1));
+    }
+
+    @Test
+    void aBatchIsReadBackFromItsBinaryForm() {
+        InvalidationBatch batch = new InvalidationBatch(-7L, 12L,
+                List.of(new Invalidation(CacheRegion.USER_SUBSCRIPTIONS, 3L),
+                        Invalidation.all(CacheRegion.TOPIC_SUBSCRIBERS)));
+
+        assertEquals(batch, InvalidationBatch.decode(ByteBuffer.wrap(batch.encode())));
+        byte[] unknownVersion = batch.encode();
+        unknownVersion[0] = InvalidationBatch.FORMAT_VERSION + 1;
+        assertThrows(IllegalArgumentException.class, () -> InvalidationBatch.decode(ByteBuffer.wrap(unknownVersion)));
+        assertThrows(IllegalArgumentException.class, () -> InvalidationBatch.decode(ByteBuffer.wrap(new byte[5])));
+    }
+
+    @Test
+    void theInvalidationsAreExchangedOnAMulticastGroup() throws Exception {
+        NetworkInterface loopback = NetworkInterface.getByInetAddress(InetAddress.getLoopbackAddress());
+        InetSocketAddress group = new InetSocketAddress(InetAddress.getByName("239.255.77.78"), 45678);
+        MulticastInvalidationBus sender = new MulticastInvalidationBus(List.of(), Duration.ofHours(1), group,
+                loopback, 0);
+        MulticastInvalidationBus receiver = new MulticastInvalidationBus(List.of(secondListener), Duration.ofHours(1),
+                group, loopback, 0);
+        try {
+            sender.start();
+            receiver.start();
+        } catch (UncheckedIOException e) {
+            if (sender.isRunning()) {
+                sender.stop();
+            }
+            assumeTrue(false, "Multicast is not available on the loopback interface : " + e.getMessage());
+        }
+        try {
+            sender.publish(CacheRegion.USER, 5L);
+            sender.flush();
+
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (secondListener.batches.isEmpty() && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(List.of(List.of(new Invalidation(CacheRegion.USER, 5L))), secondListener.batches);
+        } finally {
+            receiver.stop();
+            sender.stop();
+        }
+    }
+
+    /**
+     * A listener recording the batches it receives.
+     */
+    static class RecordingListener implements InvalidationListener {
+
+        final List<List<Invalidation>> batches = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void onInvalidations(final List<Invalidation> invalidations) {
+            batches.add(invalidations);
+        }
+    }
+}
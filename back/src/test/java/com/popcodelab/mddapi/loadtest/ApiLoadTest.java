@@ -0,0 +1,425 @@
+package com.popcodelab.mddapi.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.popcodelab.mddapi.loadtest.LoadTestDataSeeder.Dataset;
+import com.popcodelab.mddapi.loadtest.LoadTestDataSeeder.DatasetSettings;
+import com.popcodelab.mddapi.loadtest.LoadTestDataSeeder.SeededUser;
+import com.popcodelab.mddapi.loadtest.LoadTestReport.LatencyRecorder;
+import com.popcodelab.mddapi.repositories.CommentRepository;
+import com.popcodelab.mddapi.repositories.PostRepository;
+import com.popcodelab.mddapi.repositories.TopicRepository;
+import com.popcodelab.mddapi.repositories.UserRepository;
+import com.popcodelab.mddapi.services.impl.SubscriberIndexServiceImpl;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The ApiLoadTest class boots the API against the embedded database of the test profile, seeds a dataset,
+ * then drives a weighted mix of login, feed, post detail, comment and subscription traffic from concurrent
+ * virtual users. It reports the p50 and p99 latencies, the throughput and the SQL statements per request
+ * of each endpoint, as recorded on the thread of each request by the SqlStatementFilter.
+ * <p>
+ * It is excluded from the default build and runs with {@code mvn test -P loadtest}.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@Tag("loadtest")
+@Log4j2
+@ActiveProfiles({"test", "loadtest"})
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ApiLoadTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private SubscriberIndexServiceImpl subscriberIndexService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TopicRepository topicRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${loadtest.dataset.users}")
+    private int users;
+
+    @Value("${loadtest.dataset.topics}")
+    private int topics;
+
+    @Value("${loadtest.dataset.posts-per-topic}")
+    private int postsPerTopic;
+
+    @Value("${loadtest.dataset.comments-per-post}")
+    private int commentsPerPost;
+
+    @Value("${loadtest.dataset.subscriptions-per-user}")
+    private int subscriptionsPerUser;
+
+    @Value("${loadtest.concurrency}")
+    private int concurrency;
+
+    @Value("${loadtest.warmup-seconds}")
+    private long warmupSeconds;
+
+    @Value("${loadtest.duration-seconds}")
+    private long durationSeconds;
+
+    @Value("${loadtest.mix.login}")
+    private int loginWeight;
+
+    @Value("${loadtest.mix.feed}")
+    private int feedWeight;
+
+    @Value("${loadtest.mix.post-detail}")
+    private int postDetailWeight;
+
+    @Value("${loadtest.mix.comments}")
+    private int commentsWeight;
+
+    @Value("${loadtest.mix.add-comment}")
+    private int addCommentWeight;
+
+    @Value("${loadtest.mix.subscribe}")
+    private int subscribeWeight;
+
+    /**
+     * The client shared by the virtual users.
+     */
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    /**
+     * The seeded dataset.
+     */
+    private Dataset dataset;
+
+    /**
+     * The endpoints of the traffic mix.
+     */
+    enum Endpoint {
+        LOGIN("POST /api/auth/login"),
+        FEED("GET /api/posts"),
+        POST_DETAIL("GET /api/posts/{id}"),
+        COMMENTS("GET /api/posts/{postId}/comments"),
+        ADD_COMMENT("POST /api/posts/{postId}/comments"),
+        SUBSCRIBE("POST /api/me/topic/{topicId}", "DELETE /api/me/topic/{topicId}");
+
+        /**
+         * The method and the URI pattern of the requests to the endpoint, as tagged by the SqlStatementFilter.
+         */
+        private final List<String> routes;
+
+        Endpoint(final String... routes) {
+            this.routes = List.of(routes);
+        }
+    }
+
+    /**
+     * The SQL statements recorded for the requests to an endpoint.
+     *
+     * @param requests   the number of requests
+     * @param statements the number of SQL statements of these requests
+     */
+    private record StatementTotals(long requests, double statements) {
+    }
+
+    @Test
+    void runTrafficMix() throws Exception {
+        dataset = new LoadTestDataSeeder(userRepository, topicRepository, postRepository, commentRepository,
+                passwordEncoder, transactionManager)
+                .seed(new DatasetSettings(users, topics, postsPerTopic, commentsPerPost, subscriptionsPerUser));
+        // The index was built at startup, before the subscriptions were seeded
+        subscriberIndexService.buildIndex();
+
+        int virtualUserCount = Math.min(concurrency, dataset.users().size());
+        List<VirtualUser> virtualUsers = new ArrayList<>(virtualUserCount);
+        for (int i = 0; i < virtualUserCount; i++) {
+            virtualUsers.add(new VirtualUser(dataset.users().get(i)));
+        }
+        // BCrypt makes each login slow, the virtual users log in concurrently
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            virtualUsers.forEach(virtualUser -> executor.submit(() -> virtualUser.execute(Endpoint.LOGIN)));
+        }
+
+        log.info("Warming up for {} s", warmupSeconds);
+        runPhase(virtualUsers, Duration.ofSeconds(warmupSeconds));
+        log.info("Measuring for {} s with {} virtual users", durationSeconds, virtualUserCount);
+        Map<Endpoint, StatementTotals> statementsBefore = statementTotals();
+        long start = System.nanoTime();
+        Map<Endpoint, LatencyRecorder> recorders = runPhase(virtualUsers, Duration.ofSeconds(durationSeconds));
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        Map<Endpoint, StatementTotals> statementsAfter = statementTotals();
+
+        Map<String, LatencyRecorder> recordersByName = new LinkedHashMap<>();
+        Map<String, Double> statementsPerRequest = new LinkedHashMap<>();
+        recorders.forEach((endpoint, recorder) -> {
+            recordersByName.put(endpoint.name().toLowerCase(), recorder);
+            StatementTotals before = statementsBefore.get(endpoint);
+            StatementTotals after = statementsAfter.get(endpoint);
+            long requests = after.requests() - before.requests();
+            statementsPerRequest.put(endpoint.name().toLowerCase(),
+                    requests == 0 ? Double.NaN : (after.statements() - before.statements()) / requests);
+        });
+        LoadTestReport report = new LoadTestReport(recordersByName, statementsPerRequest, elapsed, virtualUserCount);
+        String formattedReport = report.format();
+        log.info("{}{}", System.lineSeparator(), formattedReport);
+        // Each variant of the load test writes its own report, e.g. target/ApiLoadTest-report.txt
+        Path reportFile = Path.of("target", getClass().getSimpleName() + "-report.txt");
+        Files.createDirectories(reportFile.getParent());
+        Files.writeString(reportFile, formattedReport);
+
+        assertEquals(0, report.getErrorCount(), "Some requests failed, see " + reportFile);
+    }
+
+    /**
+     * Reads the SQL statements recorded so far by the SqlStatementFilter for the requests to each endpoint.
+     * Each request only counts the statements run on its own thread, not the ones of the background tasks.
+     *
+     * @return the statements recorded for each endpoint
+     */
+    private Map<Endpoint, StatementTotals> statementTotals() {
+        Map<Endpoint, StatementTotals> totals = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            long requests = 0;
+            double statements = 0;
+            for (String route : endpoint.routes) {
+                String[] methodAndUri = route.split(" ");
+                DistributionSummary summary = meterRegistry.find("mdd.sql.statements")
+                        .tags("method", methodAndUri[0], "uri", methodAndUri[1])
+                        .summary();
+                if (summary != null) {
+                    requests += summary.count();
+                    statements += summary.totalAmount();
+                }
+            }
+            totals.put(endpoint, new StatementTotals(requests, statements));
+        }
+        return totals;
+    }
+
+    /**
+     * Runs the virtual users concurrently during the given duration.
+     *
+     * @param virtualUsers the virtual users
+     * @param duration     the duration of the phase
+     * @return the latencies recorded for each endpoint
+     * @throws Exception if a virtual user fails unexpectedly
+     */
+    private Map<Endpoint, LatencyRecorder> runPhase(final List<VirtualUser> virtualUsers, final Duration duration)
+            throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Callable<Map<Endpoint, LatencyRecorder>>> tasks = new ArrayList<>(virtualUsers.size());
+        for (VirtualUser virtualUser : virtualUsers) {
+            tasks.add(() -> virtualUser.run(deadline));
+        }
+        Map<Endpoint, LatencyRecorder> merged = newRecorders();
+        // The client runs on virtual threads, so that thousands of virtual users do not load the machine under test
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Future<Map<Endpoint, LatencyRecorder>> future : executor.invokeAll(tasks)) {
+                future.get().forEach((endpoint, recorder) -> merged.get(endpoint).merge(recorder));
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Creates an empty recorder for each endpoint.
+     *
+     * @return the recorders
+     */
+    private static Map<Endpoint, LatencyRecorder> newRecorders() {
+        Map<Endpoint, LatencyRecorder> recorders = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            recorders.put(endpoint, new LatencyRecorder());
+        }
+        return recorders;
+    }
+
+    /**
+     * The VirtualUser class sends the requests of one seeded user. It is used by one thread at a time.
+     */
+    private final class VirtualUser {
+
+        private final SeededUser user;
+        private final Set<Long> subscribedTopicIds;
+        private String token;
+
+        private VirtualUser(final SeededUser user) {
+            this.user = user;
+            this.subscribedTopicIds = new HashSet<>(user.subscribedTopicIds());
+        }
+
+        /**
+         * Sends requests picked from the traffic mix until the deadline.
+         *
+         * @param deadline the deadline, as given by System.nanoTime()
+         * @return the latencies recorded for each endpoint
+         */
+        private Map<Endpoint, LatencyRecorder> run(final long deadline) {
+            Map<Endpoint, LatencyRecorder> recorders = newRecorders();
+            while (System.nanoTime() < deadline) {
+                Endpoint endpoint = pickEndpoint();
+                long start = System.nanoTime();
+                boolean success = execute(endpoint);
+                recorders.get(endpoint).record(System.nanoTime() - start, success);
+            }
+            return recorders;
+        }
+
+        /**
+         * Picks an endpoint according to the weights of the traffic mix.
+         *
+         * @return the endpoint
+         */
+        private Endpoint pickEndpoint() {
+            int[] weights = {loginWeight, feedWeight, postDetailWeight, commentsWeight, addCommentWeight, subscribeWeight};
+            int pick = ThreadLocalRandom.current().nextInt(Math.max(1, Arrays.stream(weights).sum()));
+            for (int i = 0; i < weights.length; i++) {
+                pick -= weights[i];
+                if (pick < 0) {
+                    return Endpoint.values()[i];
+                }
+            }
+            return Endpoint.FEED;
+        }
+
+        /**
+         * Sends a request to the given endpoint.
+         *
+         * @param endpoint the endpoint
+         * @return true if the request succeeded
+         */
+        private boolean execute(final Endpoint endpoint) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            Long postId = dataset.postIds().get(random.nextInt(dataset.postIds().size()));
+            try {
+                switch (endpoint) {
+                    case LOGIN -> {
+                        HttpResponse<byte[]> response = send(post("/api/auth/login", Map.of(
+                                "emailOrUsername", user.email(), "password", LoadTestDataSeeder.PASSWORD)));
+                        if (isSuccess(response)) {
+                            JsonNode body = objectMapper.readTree(response.body());
+                            token = body.get("token").asText();
+                            return true;
+                        }
+                        return false;
+                    }
+                    case FEED -> {
+                        return isSuccess(send(authorized("/api/posts").GET()));
+                    }
+                    case POST_DETAIL -> {
+                        return isSuccess(send(authorized("/api/posts/" + postId).GET()));
+                    }
+                    case COMMENTS -> {
+                        return isSuccess(send(authorized("/api/posts/" + postId + "/comments").GET()));
+                    }
+                    case ADD_COMMENT -> {
+                        return isSuccess(send(post("/api/posts/" + postId + "/comments", Map.of(
+                                "content", "Load test comment", "userId", user.id()))));
+                    }
+                    case SUBSCRIBE -> {
+                        Long topicId = dataset.topicIds().get(random.nextInt(dataset.topicIds().size()));
+                        boolean subscribed = subscribedTopicIds.contains(topicId);
+                        HttpRequest.Builder request = authorized("/api/me/topic/" + topicId);
+                        boolean success = isSuccess(send(subscribed
+                                ? request.DELETE()
+                                : request.POST(HttpRequest.BodyPublishers.noBody())));
+                        if (success && !subscribed) {
+                            subscribedTopicIds.add(topicId);
+                        } else if (success) {
+                            subscribedTopicIds.remove(topicId);
+                        }
+                        return success;
+                    }
+                    default -> throw new IllegalArgumentException("Unknown endpoint " + endpoint);
+                }
+            } catch (IOException e) {
+                log.debug("{} request failed", endpoint, e);
+                return false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        private HttpRequest.Builder authorized(final String path) {
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                    .timeout(Duration.ofSeconds(30));
+            if (token != null) {
+                request.header("Authorization", "Bearer " + token);
+            }
+            return request;
+        }
+
+        private HttpRequest.Builder post(final String path, final Map<String, Object> body) throws IOException {
+            return authorized(path)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        }
+
+        private HttpResponse<byte[]> send(final HttpRequest.Builder request) throws IOException, InterruptedException {
+            return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        }
+
+        private boolean isSuccess(final HttpResponse<?> response) {
+            return response.statusCode() < 400;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.popcodelab.mddapi.loadtest;
+
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * The FeedLoadTest class only sends feed requests, from many more virtual users than the default mix.
+ * It measures the throughput of the feed on the platform threads of Tomcat, the baseline of
+ * {@link VirtualThreadsFeedLoadTest}.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@TestPropertySource(properties = {
+        "loadtest.dataset.users=500",
+        "loadtest.concurrency=500",
+        "loadtest.mix.login=0",
+        "loadtest.mix.feed=100",
+        "loadtest.mix.post-detail=0",
+        "loadtest.mix.comments=0",
+        "loadtest.mix.add-comment=0",
+        "loadtest.mix.subscribe=0"
+})
+class FeedLoadTest extends ApiLoadTest {
+}
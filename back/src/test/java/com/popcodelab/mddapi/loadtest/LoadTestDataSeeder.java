@@ -0,0 +1,195 @@
+package com.popcodelab.mddapi.loadtest;
+
+import com.popcodelab.mddapi.entities.Comment;
+import com.popcodelab.mddapi.entities.Post;
+import com.popcodelab.mddapi.entities.Topic;
+import com.popcodelab.mddapi.entities.User;
+import com.popcodelab.mddapi.repositories.CommentRepository;
+import com.popcodelab.mddapi.repositories.PostRepository;
+import com.popcodelab.mddapi.repositories.TopicRepository;
+import com.popcodelab.mddapi.repositories.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The LoadTestDataSeeder class fills the embedded database with a generated dataset of users, topics,
+ * posts, comments and subscriptions. The generation is seeded, so every run loads the same data.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@Log4j2
+@RequiredArgsConstructor
+class LoadTestDataSeeder {
+
+    /**
+     * The password of every seeded user.
+     */
+    static final String PASSWORD = "LoadTest-Passw0rd";
+
+    /**
+     * The seed of the generator.
+     */
+    private static final long SEED = 42L;
+
+    /**
+     * The words the titles and contents are made of.
+     */
+    private static final String[] WORDS = {
+            "java", "spring", "cloud", "data", "model", "stream", "thread", "cache", "query", "index",
+            "network", "security", "learning", "machine", "service", "deploy", "kernel", "memory", "latency", "design"
+    };
+
+    private final UserRepository userRepository;
+    private final TopicRepository topicRepository;
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * Seeds the database in a single transaction.
+     *
+     * @param settings the size of the dataset
+     * @return the identifiers of the seeded data, used to build the requests
+     */
+    Dataset seed(final DatasetSettings settings) {
+        long start = System.nanoTime();
+        Dataset dataset = new TransactionTemplate(transactionManager).execute(status -> doSeed(settings));
+        log.info("Seeded {} users, {} topics and {} posts in {} ms", dataset.users().size(), dataset.topicIds().size(),
+                dataset.postIds().size(), (System.nanoTime() - start) / 1_000_000);
+        return dataset;
+    }
+
+    /**
+     * Generates and saves the dataset.
+     *
+     * @param settings the size of the dataset
+     * @return the identifiers of the seeded data
+     */
+    private Dataset doSeed(final DatasetSettings settings) {
+        SplittableRandom random = new SplittableRandom(SEED);
+
+        List<Topic> topics = new ArrayList<>(settings.topics());
+        for (int i = 1; i <= settings.topics(); i++) {
+            Topic topic = new Topic();
+            topic.setTitle(text(random, 2) + " " + i);
+            topic.setDescription(text(random, 8));
+            topics.add(topic);
+        }
+        List<Long> topicIds = topicRepository.saveAll(topics).stream().map(Topic::getId).toList();
+
+        // BCrypt is slow on purpose, every user shares the same hash
+        String passwordHash = passwordEncoder.encode(PASSWORD);
+        List<User> users = new ArrayList<>(settings.users());
+        for (int i = 1; i <= settings.users(); i++) {
+            User user = new User();
+            user.setUsername("loadtest" + i);
+            user.setEmail("loadtest" + i + "@mdd.dev");
+            user.setPassword(passwordHash);
+            Set<Long> subscriptions = new HashSet<>();
+            int subscriptionCount = Math.min(settings.subscriptionsPerUser(), topicIds.size());
+            while (subscriptions.size() < subscriptionCount) {
+                subscriptions.add(topicIds.get(random.nextInt(topicIds.size())));
+            }
+            user.getSubscribedTopicIds().addAll(subscriptions);
+            users.add(user);
+        }
+        users = userRepository.saveAll(users);
+
+        List<Post> posts = new ArrayList<>(settings.topics() * settings.postsPerTopic());
+        for (Long topicId : topicIds) {
+            for (int i = 0; i < settings.postsPerTopic(); i++) {
+                Post post = new Post();
+                post.setTitle(text(random, 5));
+                post.setContent(text(random, 25));
+                post.setUserId(users.get(random.nextInt(users.size())).getId());
+                post.setTopicId(topicId);
+                posts.add(post);
+            }
+        }
+        posts = postRepository.saveAll(posts);
+
+        List<Comment> comments = new ArrayList<>(posts.size() * settings.commentsPerPost());
+        for (Post post : posts) {
+            for (int i = 0; i < settings.commentsPerPost(); i++) {
+                Comment comment = new Comment();
+                comment.setContent(text(random, 15));
+                comment.setUserId(users.get(random.nextInt(users.size())).getId());
+                comment.setPostId(post.getId());
+                comments.add(comment);
+            }
+        }
+        Map<Long, Post> postsById = posts.stream().collect(Collectors.toMap(Post::getId, Function.identity()));
+        for (Comment comment : commentRepository.saveAll(comments)) {
+            postsById.get(comment.getPostId()).getCommentIds().add(comment.getId());
+        }
+
+        List<SeededUser> seededUsers = users.stream()
+                .map(user -> new SeededUser(user.getId(), user.getEmail(), Set.copyOf(user.getSubscribedTopicIds())))
+                .toList();
+        return new Dataset(seededUsers, topicIds, posts.stream().map(Post::getId).toList());
+    }
+
+    /**
+     * Generates a text of random words.
+     *
+     * @param random    the generator
+     * @param wordCount the number of words
+     * @return the text
+     */
+    private static String text(final SplittableRandom random, final int wordCount) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < wordCount; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+
+    /**
+     * The size of the dataset to seed.
+     *
+     * @param users                the number of users
+     * @param topics               the number of topics
+     * @param postsPerTopic        the number of posts of each topic
+     * @param commentsPerPost      the number of comments of each post
+     * @param subscriptionsPerUser the number of topics each user is subscribed to
+     */
+    record DatasetSettings(int users, int topics, int postsPerTopic, int commentsPerPost, int subscriptionsPerUser) {
+    }
+
+    /**
+     * A seeded user.
+     *
+     * @param id                 the identifier of the user
+     * @param email              the email the user logs in with
+     * @param subscribedTopicIds the topics the user is subscribed to
+     */
+    record SeededUser(Long id, String email, Set<Long> subscribedTopicIds) {
+    }
+
+    /**
+     * The identifiers of the seeded data.
+     *
+     * @param users    the users
+     * @param topicIds the identifiers of the topics
+     * @param postIds  the identifiers of the posts
+     */
+    record Dataset(List<SeededUser> users, List<Long> topicIds, List<Long> postIds) {
+    }
+}
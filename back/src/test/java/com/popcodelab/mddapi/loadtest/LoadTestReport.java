@@ -0,0 +1,201 @@
+package com.popcodelab.mddapi.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The LoadTestReport class aggregates the latencies recorded for each endpoint during the measured phase
+ * of the load test, with the number of SQL statements per request recorded during the same phase.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+class LoadTestReport {
+
+    /**
+     * The latencies recorded for each endpoint, in the order of the report.
+     */
+    private final Map<String, LatencyRecorder> recorders;
+
+    /**
+     * The average number of SQL statements of a request to each endpoint.
+     */
+    private final Map<String, Double> statementsPerRequest;
+
+    /**
+     * The duration of the measured phase.
+     */
+    private final Duration duration;
+
+    /**
+     * The number of concurrent virtual users.
+     */
+    private final int concurrency;
+
+    /**
+     * Creates a report.
+     *
+     * @param recorders            the latencies recorded for each endpoint
+     * @param statementsPerRequest the average number of SQL statements of a request to each endpoint
+     * @param duration             the duration of the measured phase
+     * @param concurrency          the number of concurrent virtual users
+     */
+    LoadTestReport(final Map<String, LatencyRecorder> recorders, final Map<String, Double> statementsPerRequest,
+                   final Duration duration, final int concurrency) {
+        this.recorders = recorders;
+        this.statementsPerRequest = statementsPerRequest;
+        this.duration = duration;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Counts the failed requests of all the endpoints.
+     *
+     * @return the number of failed requests
+     */
+    long getErrorCount() {
+        return recorders.values().stream().mapToLong(LatencyRecorder::getErrorCount).sum();
+    }
+
+    /**
+     * Formats the report as a text table.
+     *
+     * @return the report
+     */
+    String format() {
+        double seconds = duration.toMillis() / 1000.0;
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.ROOT, "Load test: %d virtual users during %.1f s%n", concurrency, seconds));
+        report.append(String.format(Locale.ROOT, "%-14s %9s %7s %10s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms", "SQL/req"));
+        LatencyRecorder total = new LatencyRecorder();
+        recorders.forEach((endpoint, recorder) -> {
+            appendLine(report, endpoint, recorder, seconds, statementsPerRequest.getOrDefault(endpoint, Double.NaN));
+            total.merge(recorder);
+        });
+        appendLine(report, "total", total, seconds, Double.NaN);
+        return report.toString();
+    }
+
+    /**
+     * Appends the line of an endpoint to the report.
+     *
+     * @param report               the report
+     * @param endpoint             the name of the endpoint
+     * @param recorder             the latencies of the endpoint
+     * @param seconds              the duration of the measured phase in seconds
+     * @param statementsPerRequest the average number of SQL statements per request
+     */
+    private static void appendLine(final StringBuilder report, final String endpoint, final LatencyRecorder recorder,
+                                   final double seconds, final double statementsPerRequest) {
+        long[] latencies = recorder.sortedLatencies();
+        report.append(String.format(Locale.ROOT, "%-14s %9d %7d %10.1f %9.2f %9.2f %9.2f %9s%n",
+                endpoint,
+                latencies.length,
+                recorder.getErrorCount(),
+                latencies.length / seconds,
+                toMillis(percentile(latencies, 50)),
+                toMillis(percentile(latencies, 99)),
+                toMillis(latencies.length == 0 ? 0 : latencies[latencies.length - 1]),
+                Double.isNaN(statementsPerRequest) ? "-" : String.format(Locale.ROOT, "%.1f", statementsPerRequest)));
+    }
+
+    /**
+     * Computes a percentile with the nearest-rank method.
+     *
+     * @param sortedLatencies the sorted latencies
+     * @param percentile      the percentile, from 1 to 100
+     * @return the latency at the percentile, or 0 if there is no latency
+     */
+    private static long percentile(final long[] sortedLatencies, final int percentile) {
+        if (sortedLatencies.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sortedLatencies.length);
+        return sortedLatencies[Math.max(rank, 1) - 1];
+    }
+
+    /**
+     * Converts nanoseconds to milliseconds.
+     *
+     * @param nanos the nanoseconds
+     * @return the milliseconds
+     */
+    private static double toMillis(final long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * The LatencyRecorder class records the latencies of the requests to one endpoint.
+     * It is not thread-safe: each virtual user has its own recorders, merged at the end of the run.
+     */
+    static class LatencyRecorder {
+
+        /**
+         * The recorded latencies in nanoseconds, the first size ones being used.
+         */
+        private long[] latencies = new long[1024];
+
+        /**
+         * The number of recorded latencies.
+         */
+        private int size;
+
+        /**
+         * The number of failed requests.
+         */
+        private long errorCount;
+
+        /**
+         * Records a request.
+         *
+         * @param nanos   the latency of the request in nanoseconds
+         * @param success whether the request succeeded
+         */
+        void record(final long nanos, final boolean success) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = nanos;
+            if (!success) {
+                errorCount++;
+            }
+        }
+
+        /**
+         * Adds the requests recorded by another recorder.
+         *
+         * @param other the other recorder
+         */
+        void merge(final LatencyRecorder other) {
+            if (size + other.size > latencies.length) {
+                latencies = Arrays.copyOf(latencies, size + other.size);
+            }
+            System.arraycopy(other.latencies, 0, latencies, size, other.size);
+            size += other.size;
+            errorCount += other.errorCount;
+        }
+
+        /**
+         * Gets the number of failed requests.
+         *
+         * @return the number of failed requests
+         */
+        long getErrorCount() {
+            return errorCount;
+        }
+
+        /**
+         * Sorts the recorded latencies.
+         *
+         * @return a sorted copy of the latencies
+         */
+        long[] sortedLatencies() {
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.popcodelab.mddapi.loadtest;
+
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * The VirtualThreadsFeedLoadTest class runs the traffic of {@link FeedLoadTest} with the virtual profile,
+ * Tomcat handling the requests on virtual threads. Comparing the two reports gives the gain in throughput.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+@ActiveProfiles("virtual")
+class VirtualThreadsFeedLoadTest extends FeedLoadTest {
+}
@@ -0,0 +1,52 @@
+package com.popcodelab.mddapi.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "application.rate-limit.enabled=true",
+        "application.rate-limit.policies[0].name=login",
+        "application.rate-limit.policies[0].method=POST",
+        "application.rate-limit.policies[0].path=/api/auth/login",
+        "application.rate-limit.policies[0].key=ip",
+        "application.rate-limit.policies[0].limit=2",
+        "application.rate-limit.policies[0].period=1h"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RateLimitFilterTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void theLoginsBeyondTheLimitAreRejectedWithRetryAfter() throws Exception {
+        mockMvc.perform(login("10.0.0.1")).andExpect(status().isUnauthorized());
+        mockMvc.perform(login("10.0.0.1")).andExpect(status().isUnauthorized());
+        mockMvc.perform(login("10.0.0.1"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1800"));
+        mockMvc.perform(login("10.0.0.2")).andExpect(status().isUnauthorized());
+    }
+
+    private static MockHttpServletRequestBuilder login(final String address) {
+        return post("/api/auth/login")
+                .with(request -> {
+                    request.setRemoteAddr(address);
+                    return request;
+                })
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"emailOrUsername\":\"nobody@mdd.dev\",\"password\":\"not-a-password\"}");
+    }
+}
@@ -0,0 +1,61 @@
+package com.popcodelab.mddapi.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TokenBucketRateLimiterTests {
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+
+    private final TokenBucketRateLimiter limiter =
+            new TokenBucketRateLimiter(3, Duration.ofSeconds(3), 100, now::get);
+
+    @Test
+    void aBurstOfLimitRequestsIsAllowedThenTheClientWaitsForTheNextToken() {
+        assertEquals(0, limiter.tryAcquire("alice"));
+        assertEquals(0, limiter.tryAcquire("alice"));
+        assertEquals(0, limiter.tryAcquire("alice"));
+        assertEquals(Duration.ofSeconds(1).toNanos(), limiter.tryAcquire("alice"));
+        assertEquals(0, limiter.tryAcquire("bob"));
+    }
+
+    @Test
+    void theBucketIsRefilledWithOneTokenPerInterval() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("alice");
+        }
+        now.addAndGet(Duration.ofMillis(1500).toNanos());
+        assertEquals(0, limiter.tryAcquire("alice"));
+        assertEquals(Duration.ofMillis(500).toNanos(), limiter.tryAcquire("alice"));
+    }
+
+    @Test
+    void theClientsWhoseBucketIsFullAgainAreEvicted() {
+        limiter.tryAcquire("alice");
+        limiter.tryAcquire("bob");
+        limiter.tryAcquire("bob");
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        limiter.evictIdle();
+        assertEquals(1, limiter.getBucketCount());
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        limiter.evictIdle();
+        assertEquals(0, limiter.getBucketCount());
+    }
+
+    @Test
+    void theNewClientsShareABucketOnceTheMaximumNumberOfBucketsIsReached() {
+        TokenBucketRateLimiter smallLimiter = new TokenBucketRateLimiter(1, Duration.ofSeconds(1), 1, now::get);
+        assertEquals(0, smallLimiter.tryAcquire("alice"));
+        assertEquals(0, smallLimiter.tryAcquire("bob"));
+        assertEquals(Duration.ofSeconds(1).toNanos(), smallLimiter.tryAcquire("carol"));
+        assertEquals(1, smallLimiter.getBucketCount());
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        smallLimiter.evictIdle();
+        assertEquals(0, smallLimiter.tryAcquire("carol"));
+        assertEquals(Duration.ofSeconds(1).toNanos(), smallLimiter.tryAcquire("carol"));
+    }
+}
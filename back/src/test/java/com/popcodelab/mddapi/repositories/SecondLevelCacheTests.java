@@ -0,0 +1,111 @@
+package com.popcodelab.mddapi.repositories;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.popcodelab.mddapi.entities.Topic;
+import com.popcodelab.mddapi.entities.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.cache.CacheManager;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Set;
+
+import static com.popcodelab.mddapi.sql.SqlStatementBudget.assertMaxStatements;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SecondLevelCacheTests {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TopicRepository topicRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private List<Long> topicIds;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        Topic java = new Topic();
+        java.setTitle("Java");
+        java.setDescription("All about Java");
+        Topic angular = new Topic();
+        angular.setTitle("Angular");
+        angular.setDescription("All about Angular");
+        topicIds = topicRepository.saveAll(List.of(java, angular)).stream().map(Topic::getId).toList();
+
+        User newUser = new User();
+        newUser.setUsername("reader");
+        newUser.setEmail("reader@mdd.dev");
+        newUser.setPassword("not-used");
+        newUser.getSubscribedTopicIds().addAll(topicIds);
+        user = userRepository.save(newUser);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+        topicRepository.deleteAll();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void theRegionsAreConfiguredFromTheCacheFile() {
+        CacheManager cacheManager = ((JCacheRegionFactory) entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getCache().getRegionFactory()).getCacheManager();
+
+        assertEquals(OptionalLong.of(1000), cacheManager.getCache("topics")
+                .getConfiguration(CaffeineConfiguration.class).getMaximumSize());
+        assertEquals(OptionalLong.of(10000), cacheManager.getCache("users")
+                .getConfiguration(CaffeineConfiguration.class).getMaximumSize());
+    }
+
+    @Test
+    void topicsFoundByIdsAreServedByTheCacheOnTheNextLookup() throws Throwable {
+        topicRepository.findByIds(topicIds);
+
+        List<Topic> topics = assertMaxStatements(0, () -> topicRepository.findByIds(topicIds));
+
+        assertEquals(2, topics.size());
+    }
+
+    @Test
+    void usersAndTheirSubscriptionsAreServedByTheCacheOnTheNextLookup() throws Throwable {
+        userRepository.findByIds(List.of(user.getId()));
+
+        List<User> users = assertMaxStatements(0, () -> userRepository.findByIds(List.of(user.getId())));
+
+        assertEquals(Set.copyOf(topicIds), Set.copyOf(users.get(0).getSubscribedTopicIds()));
+    }
+
+    @Test
+    void updatingAUserInvalidatesTheCachedUserAndQueries() {
+        userRepository.findByIds(List.of(user.getId()));
+        userRepository.findByEmail(user.getEmail());
+
+        User updated = userRepository.findById(user.getId()).orElseThrow();
+        updated.setUsername("renamed");
+        updated.setEmail("renamed@mdd.dev");
+        updated.getSubscribedTopicIds().remove(topicIds.get(0));
+        userRepository.save(updated);
+
+        User cached = userRepository.findByIds(List.of(user.getId())).get(0);
+        assertEquals("renamed", cached.getUsername());
+        assertEquals(List.of(topicIds.get(1)), cached.getSubscribedTopicIds());
+        assertEquals(user.getId(), userRepository.findByEmail("renamed@mdd.dev").getId());
+    }
+}
@@ -0,0 +1,67 @@
+package com.popcodelab.mddapi.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TopicTrieTests {
+
+    private final TopicTrie topicTrie = new TopicTrie();
+
+    @BeforeEach
+    void setUp() {
+        topicTrie.put(1L, "Java", "Le langage de la JVM");
+        topicTrie.put(2L, "JavaScript", "Le langage du navigateur");
+        topicTrie.put(3L, "Python", "Scripts et données");
+    }
+
+    @Test
+    void theWordsAreNormalized() {
+        assertEquals(List.of("developpement", "ete", "c"), TopicTrie.normalize("Développement  été, C++ été"));
+        assertEquals(List.of(), TopicTrie.normalize("  "));
+        assertEquals(List.of(), TopicTrie.normalize(null));
+    }
+
+    @Test
+    void thePrefixesMatchTheTopicsOwningAWordStartingWithThem() {
+        assertEquals(Set.of(1L, 2L), topicTrie.matchPrefix("jav"));
+        assertEquals(Set.of(2L), topicTrie.matchPrefix("javas"));
+        assertEquals(Set.of(1L, 2L), topicTrie.matchPrefix("langage"));
+        // The accents of the description are removed
+        assertEquals(Set.of(3L), topicTrie.matchPrefix("donnees"));
+        assertEquals(Set.of(1L, 2L, 3L), topicTrie.matchPrefix(""));
+        assertEquals(Set.of(), topicTrie.matchPrefix("ruby"));
+    }
+
+    @Test
+    void theFuzzyPrefixesMatchUpToTheMaximumDistance() {
+        // One substitution
+        assertEquals(Set.of(1L, 2L), topicTrie.matchFuzzyPrefix("jaba", 1));
+        assertEquals(Set.of(), topicTrie.matchFuzzyPrefix("jaba", 0));
+        // A transposition costs two edits
+        assertEquals(Set.of(3L), topicTrie.matchFuzzyPrefix("pyhton", 2));
+        assertEquals(Set.of(), topicTrie.matchFuzzyPrefix("pyhton", 1));
+        // One extra letter
+        assertEquals(Set.of(3L), topicTrie.matchFuzzyPrefix("pyyth", 1));
+        // A prefix no longer than the distance matches everything
+        assertEquals(Set.of(1L, 2L, 3L), topicTrie.matchFuzzyPrefix("zz", 2));
+    }
+
+    @Test
+    void aTopicIsReplacedAndRemovedWithItsWords() {
+        topicTrie.put(1L, "Kotlin");
+
+        assertEquals(Set.of(2L), topicTrie.matchPrefix("java"));
+        assertEquals(Set.of(1L), topicTrie.matchPrefix("kot"));
+
+        topicTrie.remove(1L);
+        topicTrie.remove(4L);
+
+        assertEquals(Set.of(), topicTrie.matchPrefix("k"));
+        assertEquals(Set.of(2L, 3L), topicTrie.matchPrefix(""));
+    }
+}
@@ -0,0 +1,81 @@
+package com.popcodelab.mddapi.services.impl;
+
+import com.popcodelab.mddapi.exceptions.IdempotencyKeyReusedException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IdempotencyServiceImplTests {
+
+    private final IdempotencyServiceImpl idempotencyService = new IdempotencyServiceImpl(Duration.ofMinutes(1), 100);
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @Test
+    void aRetryReturnsTheFirstResultWithoutRunningTheOperationAgain() {
+        assertEquals(1, idempotencyService.execute("key", "request", executions::incrementAndGet));
+        assertEquals(1, idempotencyService.execute("key", "request", executions::incrementAndGet));
+        assertEquals(2, idempotencyService.execute("other-key", "request", executions::incrementAndGet));
+        assertEquals(3, idempotencyService.execute(null, "request", executions::incrementAndGet));
+    }
+
+    @Test
+    void aKeyCannotBeReusedForADifferentRequest() {
+        idempotencyService.execute("key", "request", executions::incrementAndGet);
+
+        assertThrows(IdempotencyKeyReusedException.class,
+                () -> idempotencyService.execute("key", "other request", executions::incrementAndGet));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void aFailedOperationCanBeRetried() {
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute("key", "request", () -> {
+            throw new IllegalStateException("Database unavailable");
+        }));
+
+        assertEquals(1, idempotencyService.execute("key", "request", executions::incrementAndGet));
+    }
+
+    @Test
+    void concurrentRequestsWithTheSameKeyRunTheOperationOnce() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> first = executor.submit(() -> idempotencyService.execute("key", "request", () -> {
+                started.countDown();
+                await(release);
+                return executions.incrementAndGet();
+            }));
+            started.await();
+            Future<Integer> concurrent = executor.submit(() ->
+                    idempotencyService.execute("key", "request", executions::incrementAndGet));
+            release.countDown();
+
+            assertEquals(1, first.get(10, TimeUnit.SECONDS));
+            assertEquals(1, concurrent.get(10, TimeUnit.SECONDS));
+            assertEquals(1, executions.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.popcodelab.mddapi.services.impl;
+
+import com.popcodelab.mddapi.sharding.ShardTemplate;
+import com.popcodelab.mddapi.sketches.HyperLogLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PostViewServiceImplTests {
+
+    private static final int PRECISION = 12;
+
+    private final EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+            .setType(EmbeddedDatabaseType.H2)
+            .setName("post-views-" + System.nanoTime())
+            .build();
+
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+
+    private final PostViewServiceImpl postViewService = new PostViewServiceImpl(PRECISION, jdbcTemplate,
+            new TransactionTemplate(new DataSourceTransactionManager(database)),
+            new StaticListableBeanFactory().getBeanProvider(ShardTemplate.class));
+
+    PostViewServiceImplTests() {
+        jdbcTemplate.execute("CREATE TABLE posts (id BIGINT PRIMARY KEY, unique_viewers BIGINT NOT NULL DEFAULT 0)");
+        jdbcTemplate.execute("CREATE TABLE post_view_sketches (post_id BIGINT PRIMARY KEY, registers BLOB NOT NULL)");
+        jdbcTemplate.update("INSERT INTO posts (id) VALUES (1)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void theViewsAreMergedIntoTheSketchOfThePost() {
+        postViewService.recordView(1L, "alice");
+        postViewService.recordView(1L, "bob");
+        postViewService.recordView(1L, "alice");
+        postViewService.flush();
+        postViewService.recordView(1L, "carol");
+        postViewService.flush();
+
+        assertEquals(3L, jdbcTemplate.queryForObject("SELECT unique_viewers FROM posts WHERE id = 1", Long.class));
+    }
+
+    @Test
+    void noViewIsLostWhileTheViewsAreFlushed() throws InterruptedException {
+        int threadCount = 4;
+        int viewsPerThread = 2_000;
+        HyperLogLog expected = new HyperLogLog(PRECISION);
+        for (int i = 0; i < threadCount * viewsPerThread; i++) {
+            expected.add("viewer-" + i);
+        }
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> viewers = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            int first = t * viewsPerThread;
+            Thread viewer = new Thread(() -> {
+                awaitQuietly(start);
+                for (int i = first; i < first + viewsPerThread; i++) {
+                    postViewService.recordView(1L, "viewer-" + i);
+                }
+            });
+            viewer.start();
+            viewers.add(viewer);
+        }
+        AtomicBoolean viewing = new AtomicBoolean(true);
+        Thread flusher = new Thread(() -> {
+            awaitQuietly(start);
+            while (viewing.get()) {
+                postViewService.flush();
+            }
+        });
+        flusher.start();
+
+        start.countDown();
+        for (Thread viewer : viewers) {
+            viewer.join();
+        }
+        viewing.set(false);
+        flusher.join();
+        postViewService.flush();
+
+        // Every register holds the maximum of its views, as if they had been recorded in one sketch
+        assertArrayEquals(expected.toBytes(), jdbcTemplate.queryForObject(
+                "SELECT registers FROM post_view_sketches WHERE post_id = 1", byte[].class));
+    }
+
+    private static void awaitQuietly(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.popcodelab.mddapi.services.impl;
+
+import com.popcodelab.mddapi.repositories.UserRepository;
+import com.popcodelab.mddapi.repositories.projections.TopicSubscription;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SubscriberIndexServiceImplTests {
+
+    private final SubscriberIndexServiceImpl subscriberIndexService = new SubscriberIndexServiceImpl(null);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void aSubscriptionOutsideATransactionIsAppliedAtOnce() {
+        subscriberIndexService.addSubscription(1L, 10L);
+        subscriberIndexService.addSubscription(2L, 10L);
+        subscriberIndexService.removeSubscription(1L, 10L);
+
+        assertFalse(subscriberIndexService.isSubscribed(10L, 1L));
+        assertTrue(subscriberIndexService.isSubscribed(10L, 2L));
+        assertEquals(1, subscriberIndexService.getSubscriberCount(10L));
+    }
+
+    @Test
+    void aSubscriptionIsAppliedOnceItsTransactionCommits() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        subscriberIndexService.addSubscription(1L, 10L);
+
+        assertFalse(subscriberIndexService.isSubscribed(10L, 1L));
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        assertTrue(subscriberIndexService.isSubscribed(10L, 1L));
+    }
+
+    @Test
+    void aSubscriptionRolledBackIsNeverApplied() {
+        subscriberIndexService.addSubscription(1L, 10L);
+        TransactionSynchronizationManager.initSynchronization();
+
+        subscriberIndexService.removeSubscription(1L, 10L);
+        subscriberIndexService.addSubscription(2L, 10L);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertTrue(subscriberIndexService.isSubscribed(10L, 1L));
+        assertFalse(subscriberIndexService.isSubscribed(10L, 2L));
+    }
+
+    @Test
+    void theChangesCommittedWhileTheIndexIsBuiltAreNotUndoneByTheLoadedSubscriptions() {
+        UserRepository userRepository = mock(UserRepository.class);
+        SubscriberIndexServiceImpl index = new SubscriberIndexServiceImpl(userRepository);
+        // The subscriptions are read before the unsubscription of the user 1 and the subscription of the user 3
+        when(userRepository.streamAllTopicSubscriptions()).thenReturn(Stream.of(
+                        new TopicSubscription(1L, 10L), new TopicSubscription(2L, 10L))
+                .peek(subscription -> {
+                    if (subscription.userId() == 2L) {
+                        index.removeSubscription(1L, 10L);
+                        index.addSubscription(3L, 10L);
+                    }
+                }));
+
+        index.buildIndex();
+
+        assertFalse(index.isSubscribed(10L, 1L));
+        assertTrue(index.isSubscribed(10L, 2L));
+        assertTrue(index.isSubscribed(10L, 3L));
+        assertEquals(2, index.getSubscriberCount(10L));
+
+        index.removeSubscription(2L, 10L);
+        assertFalse(index.isSubscribed(10L, 2L));
+    }
+}
@@ -0,0 +1,90 @@
+package com.popcodelab.mddapi.services.impl;
+
+import com.popcodelab.mddapi.dto.topic.TopicDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TopicSearchServiceImplTests {
+
+    private final SubscriberIndexServiceImpl subscriberIndexService = new SubscriberIndexServiceImpl(null);
+
+    private final TopicSearchServiceImpl topicSearchService = new TopicSearchServiceImpl(null, subscriberIndexService);
+
+    @BeforeEach
+    void setUp() {
+        topicSearchService.indexTopic(new TopicDto(1L, "Java", "Le langage de la JVM", null));
+        topicSearchService.indexTopic(new TopicDto(2L, "JavaScript", "Le langage du navigateur", null));
+        topicSearchService.indexTopic(new TopicDto(3L, "Kotlin", "Un langage de la JVM, proche de Java", null));
+        topicSearchService.indexTopic(new TopicDto(4L, "Python", "Scripts et données", null));
+        topicSearchService.indexTopic(new TopicDto(5L, "Jakarta EE", "Les spécifications de Java", null));
+    }
+
+    @Test
+    void theMatchesAreRankedBySubscribersThenTitleThenId() {
+        subscribe(4L, 3);
+        subscribe(3L, 2);
+        subscribe(2L, 2);
+
+        // The most subscribed first, the title matching the query before the description at equal subscribers
+        assertEquals(List.of(2L, 3L, 1L, 5L), ids(topicSearchService.search("java", false, 10)));
+        // At equal subscribers and title match, the lowest ID first
+        assertEquals(List.of(2L, 3L, 1L, 5L), ids(topicSearchService.search("ja", false, 10)));
+        assertEquals(List.of(2L, 3L), ids(topicSearchService.search("java", false, 2)));
+    }
+
+    @Test
+    void everyWordOfTheQueryMustMatch() {
+        assertEquals(List.of(1L, 3L), ids(topicSearchService.search("jvm lang", false, 10)));
+        assertEquals(List.of(), ids(topicSearchService.search("jvm python", false, 10)));
+    }
+
+    @Test
+    void theFuzzySearchToleratesMoreMistakesOnLongerWords() {
+        // One mistake from three characters
+        assertEquals(List.of(4L), ids(topicSearchService.search("pyt", true, 10)));
+        assertEquals(List.of(4L), ids(topicSearchService.search("pyth0", true, 10)));
+        assertEquals(List.of(), ids(topicSearchService.search("pyhto", true, 10)));
+        // Two mistakes from six characters
+        assertEquals(List.of(4L), ids(topicSearchService.search("pyhton", true, 10)));
+        assertEquals(List.of(), ids(topicSearchService.search("pyhton", false, 10)));
+        assertEquals(List.of(), ids(topicSearchService.search("pihtom", true, 10)));
+    }
+
+    @Test
+    void theShortQueriesAreNotFuzzy() {
+        assertEquals(List.of(4L), ids(topicSearchService.search("py", true, 10)));
+        assertEquals(List.of(), ids(topicSearchService.search("pz", true, 10)));
+        assertEquals(List.of(3L), ids(topicSearchService.search("k", true, 10)));
+    }
+
+    @Test
+    void anEmptyQueryReturnsTheBestTopics() {
+        subscribe(5L, 1);
+
+        assertEquals(List.of(5L, 1L, 2L), ids(topicSearchService.search("  ", false, 3)));
+        assertEquals(List.of(5L, 1L, 2L, 3L, 4L), ids(topicSearchService.search(null, true, 10)));
+        assertEquals(List.of(), ids(topicSearchService.search("java", false, 0)));
+    }
+
+    @Test
+    void aRemovedTopicIsNoLongerFound() {
+        topicSearchService.removeTopic(2L);
+        topicSearchService.indexTopic(new TopicDto(1L, "Jakarta", "Anciennement Java EE", null));
+
+        assertEquals(List.of(1L, 5L, 3L), ids(topicSearchService.search("ja", false, 10)));
+    }
+
+    private void subscribe(final Long topicId, final int subscribers) {
+        for (long userId = 1; userId <= subscribers; userId++) {
+            subscriberIndexService.addSubscription(userId, topicId);
+        }
+    }
+
+    private static List<Long> ids(final List<TopicDto> topics) {
+        return topics.stream().map(TopicDto::getId).toList();
+    }
+}
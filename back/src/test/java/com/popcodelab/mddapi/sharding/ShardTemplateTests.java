@@ -0,0 +1,143 @@
+package com.popcodelab.mddapi.sharding;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import javax.sql.DataSource;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardTemplateTests {
+
+    private static final List<String> SHARD_NAMES = List.of("shard-1", "shard-2", "shard-3");
+
+    private static final Comparator<Map<String, Object>> FEED_ORDER =
+            Comparator.comparing((Map<String, Object> row) -> ((Number) row.get("ID")).longValue()).reversed();
+
+    private final EmbeddedDatabase defaultDatabase = database("default-db");
+
+    private final Map<String, EmbeddedDatabase> databases = new LinkedHashMap<>();
+
+    private final ShardRoutingDataSource dataSource;
+
+    private final TopicShardRouter router = new TopicShardRouter(SHARD_NAMES, Map.of(1L, "shard-3"));
+
+    private final ShardTemplate shardTemplate;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    ShardTemplateTests() {
+        SHARD_NAMES.forEach(name -> databases.put(name, database(name)));
+        dataSource = new ShardRoutingDataSource(defaultDatabase, Map.copyOf(databases));
+        shardTemplate = new ShardTemplate(router, new DataSourceTransactionManager(dataSource));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        defaultDatabase.shutdown();
+        databases.values().forEach(EmbeddedDatabase::shutdown);
+    }
+
+    @Test
+    void thePostsOfATopicAreWrittenOnItsShardOnly() {
+        // The third shard generates the IDs 3, 6, 9...
+        insertPost(3L, 1L);
+
+        assertEquals(1, count(databases.get("shard-3")));
+        assertEquals(0, count(databases.get("shard-1")) + count(databases.get("shard-2")) + count(defaultDatabase));
+        assertEquals(1, shardTemplate.executeOnId(3L, true,
+                () -> jdbcTemplate.queryForObject("SELECT COUNT(*) FROM posts WHERE id = 3", Integer.class)));
+    }
+
+    @Test
+    void theFeedIsMergedFromTheShardsOfItsTopicsOnly() {
+        List<Long> topicIds = LongStream.rangeClosed(1, 12).boxed().toList();
+        long id = 0;
+        for (int i = 0; i < 5; i++) {
+            for (Long topicId : topicIds) {
+                insertPost(++id, topicId);
+            }
+        }
+        Set<String> queriedShards = ConcurrentHashMap.newKeySet();
+
+        List<Long> feed = shardTemplate.scatter(topicIds, shardTopicIds -> {
+            queriedShards.add(ShardContext.current());
+            return jdbcTemplate.queryForList("SELECT id FROM posts WHERE topic_id IN ("
+                    + String.join(",", shardTopicIds.stream().map(String::valueOf).toList()) + ") ORDER BY id DESC");
+        }, FEED_ORDER).stream().map(row -> ((Number) row.get("ID")).longValue()).toList();
+
+        assertEquals(LongStream.iterate(id, postId -> postId > 0, postId -> postId - 1).boxed().toList(), feed);
+        assertEquals(Set.copyOf(router.groupByShard(topicIds).keySet()), queriedShards);
+
+        queriedShards.clear();
+        shardTemplate.scatter(List.of(1L), shardTopicIds -> {
+            queriedShards.add(ShardContext.current());
+            return List.<Map<String, Object>>of();
+        }, FEED_ORDER);
+        assertEquals(Set.of("shard-3"), queriedShards);
+    }
+
+    @Test
+    void theSortedListsAreMergedInOrder() {
+        assertEquals(List.of(9, 7, 6, 5, 3, 2, 1),
+                ShardTemplate.merge(List.of(List.of(9, 5, 1), List.of(), List.of(7, 6, 3, 2)),
+                        Comparator.<Integer>reverseOrder()));
+    }
+
+    @Test
+    void theTopicsMoveToANewShardOnlyAndAsLittleAsPossible() {
+        int topicCount = 10_000;
+        int moved = 0;
+        for (long topicId = 1; topicId <= topicCount; topicId++) {
+            int before = TopicShardRouter.jumpConsistentHash(topicId, 4);
+            int after = TopicShardRouter.jumpConsistentHash(topicId, 5);
+            if (before != after) {
+                assertEquals(4, after);
+                moved++;
+            }
+            assertEquals(before, TopicShardRouter.jumpConsistentHash(topicId, 4));
+        }
+        // About a fifth of the topics move to the fifth shard
+        assertTrue(moved > topicCount / 5 * 0.9 && moved < topicCount / 5 * 1.1, moved + " topics moved");
+    }
+
+    @Test
+    void theShardOfAnIdIsGivenByItsOffset() {
+        assertEquals(List.of("shard-1", "shard-2", "shard-3", "shard-1"),
+                LongStream.rangeClosed(1, 4).mapToObj(router::shardOfId).toList());
+        assertThrows(IllegalArgumentException.class, () -> new TopicShardRouter(SHARD_NAMES, Map.of(1L, "shard-4")));
+    }
+
+    private void insertPost(final long id, final long topicId) {
+        shardTemplate.executeOnTopic(topicId, false,
+                () -> jdbcTemplate.update("INSERT INTO posts (id, topic_id) VALUES (?, ?)", id, topicId));
+    }
+
+    private static int count(final DataSource database) {
+        return new JdbcTemplate(database).queryForObject("SELECT COUNT(*) FROM posts", Integer.class);
+    }
+
+    private static EmbeddedDatabase database(final String name) {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .setName(name + "-" + System.nanoTime())
+                .build();
+        new JdbcTemplate(database).execute("CREATE TABLE posts (id BIGINT PRIMARY KEY, topic_id BIGINT NOT NULL)");
+        return database;
+    }
+}
@@ -0,0 +1,311 @@
+package com.popcodelab.mddapi.sharding;
+
+import com.popcodelab.mddapi.dto.comment.CommentDto;
+import com.popcodelab.mddapi.dto.post.PostDto;
+import com.popcodelab.mddapi.entities.Topic;
+import com.popcodelab.mddapi.entities.User;
+import com.popcodelab.mddapi.events.DomainEvent;
+import com.popcodelab.mddapi.events.DomainEventConsumer;
+import com.popcodelab.mddapi.events.DomainEventType;
+import com.popcodelab.mddapi.repositories.TopicRepository;
+import com.popcodelab.mddapi.repositories.UserRepository;
+import com.popcodelab.mddapi.services.CommentService;
+import com.popcodelab.mddapi.services.PostService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.lang.NonNull;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the services of the posts and the comments over two H2 shards, wrapped with the default database in a
+ * ShardRoutingDataSource as ShardingConfiguration does with MySQL ones.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ShardedPostsTests {
+
+    private static final List<String> SHARD_NAMES = List.of("shard-1", "shard-2");
+
+    /**
+     * The tables whose IDs tell the shard of their rows.
+     */
+    private static final List<String> SHARDED_TABLES = List.of("posts", "comments", "outbox_events");
+
+    /**
+     * The tables emptied after each test, the events being kept so that the IDs of each outbox have no gap.
+     */
+    private static final List<String> CLEARED_TABLES = List.of("post_comment_ids", "comments", "posts");
+
+    /**
+     * The databases of the shards, created with the context.
+     */
+    private static final Map<String, DataSource> SHARDS = new LinkedHashMap<>();
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TopicRepository topicRepository;
+
+    @Autowired
+    private TopicShardRouter router;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RecordingConsumer consumer;
+
+    private User user;
+
+    private final Map<String, Topic> topicsByShard = new LinkedHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setUsername("sharded");
+        user.setEmail("sharded@mdd.dev");
+        user.setPassword("not-used");
+        user = userRepository.save(user);
+        while (topicsByShard.size() < SHARD_NAMES.size()) {
+            Topic topic = new Topic();
+            topic.setTitle("Topic " + topicsByShard.size());
+            topic.setDescription("A sharded topic");
+            topic = topicRepository.save(topic);
+            topicsByShard.putIfAbsent(router.shardOfTopic(topic.getId()), topic);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (DataSource shard : SHARDS.values()) {
+            JdbcTemplate shardTemplate = new JdbcTemplate(shard);
+            CLEARED_TABLES.forEach(table -> shardTemplate.update("DELETE FROM " + table));
+        }
+        topicRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void aPostAndItsCommentAreStoredWithTheirEventsOnTheShardOfTheirTopic() throws InterruptedException {
+        Topic topic = topicsByShard.get("shard-2");
+        PostDto post = postService.newPost(postDto(topic.getId()));
+        CommentDto comment = commentService.addNewComment(commentDto(post.getId()));
+
+        JdbcTemplate shard = new JdbcTemplate(SHARDS.get("shard-2"));
+        JdbcTemplate otherShard = new JdbcTemplate(SHARDS.get("shard-1"));
+        assertEquals("shard-2", router.shardOfId(post.getId()));
+        assertEquals("shard-2", router.shardOfId(comment.getId()));
+        assertEquals(1, count(shard, "SELECT COUNT(*) FROM posts WHERE id = ?", post.getId()));
+        assertEquals(1, count(shard, "SELECT COUNT(*) FROM comments WHERE id = ?", comment.getId()));
+        assertEquals(0, count(otherShard, "SELECT COUNT(*) FROM posts WHERE id = ?", post.getId()));
+        assertEquals(0, count(jdbcTemplate, "SELECT COUNT(*) FROM posts WHERE id = ?", post.getId()));
+        // The events are in the outbox of the shard, committed with the post and the comment
+        assertEquals(2, count(shard, "SELECT COUNT(*) FROM outbox_events WHERE aggregate_id IN (?, ?)",
+                post.getId(), comment.getId()));
+        assertEquals(0, count(jdbcTemplate, "SELECT COUNT(*) FROM outbox_events WHERE aggregate_id IN (?, ?)",
+                post.getId(), comment.getId()));
+
+        // Read back through the ShardRoutingDataSource
+        assertEquals(post.getTitle(), postService.getPostById(post.getId(), "reader").orElseThrow().getTitle());
+        assertEquals(List.of(comment.getId()), commentService.getAllCommentsByPostId(post.getId()).stream()
+                .map(CommentDto::getId).toList());
+
+        // Relayed from the outbox of the shard to a consumer started after the events were recorded
+        consumer.started = true;
+        awaitUntil(() -> consumer.received.stream().anyMatch(event -> event.type() == DomainEventType.POST_CREATED
+                && event.aggregateId().equals(post.getId())));
+        awaitUntil(() -> consumer.received.stream().anyMatch(event -> event.type() == DomainEventType.COMMENT_ADDED
+                && event.aggregateId().equals(comment.getId())));
+    }
+
+    @Test
+    void theFeedMergesThePostsOfTheShardsInTheFeedOrder() {
+        Long firstTopicId = topicsByShard.get("shard-1").getId();
+        Long secondTopicId = topicsByShard.get("shard-2").getId();
+        Long first = postService.newPost(postDto(firstTopicId)).getId();
+        Long second = postService.newPost(postDto(secondTopicId)).getId();
+        Long third = postService.newPost(postDto(firstTopicId)).getId();
+        Long fourth = postService.newPost(postDto(secondTopicId)).getId();
+        assertNotEquals(router.shardOfId(first), router.shardOfId(second));
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        // The first and the second posts share their date, the most recent ID coming first
+        setCreatedAt(first, now);
+        setCreatedAt(second, now);
+        setCreatedAt(third, now.minusMinutes(2));
+        setCreatedAt(fourth, now.minusMinutes(1));
+
+        List<Long> feed = postService.getPostsFromUserTopics(List.of(firstTopicId, secondTopicId)).stream()
+                .map(PostDto::getId)
+                .toList();
+
+        assertEquals(List.of(Math.max(first, second), Math.min(first, second), fourth, third), feed);
+    }
+
+    private void setCreatedAt(final Long postId, final LocalDateTime createdAt) {
+        new JdbcTemplate(SHARDS.get(router.shardOfId(postId)))
+                .update("UPDATE posts SET created_at = ? WHERE id = ?", Timestamp.valueOf(createdAt), postId);
+    }
+
+    private PostDto postDto(final Long topicId) {
+        PostDto postDto = new PostDto();
+        postDto.setTitle("Sharded post");
+        postDto.setContent("Content of the post");
+        postDto.setUserId(user.getId());
+        postDto.setTopicId(topicId);
+        return postDto;
+    }
+
+    private CommentDto commentDto(final Long postId) {
+        CommentDto commentDto = new CommentDto();
+        commentDto.setContent("Sharded comment");
+        commentDto.setUserId(user.getId());
+        commentDto.setPostId(postId);
+        return commentDto;
+    }
+
+    private static int count(final JdbcTemplate database, final String sql, final Object... args) {
+        return database.queryForObject(sql, Integer.class, args);
+    }
+
+    private static void awaitUntil(final BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    /**
+     * A consumer recording the events, unknown to the relay until it is started.
+     */
+    static class RecordingConsumer implements DomainEventConsumer {
+
+        final List<DomainEvent> received = new CopyOnWriteArrayList<>();
+
+        volatile boolean started;
+
+        @Override
+        public String getName() {
+            if (!started) {
+                // The relay gives up on the consumer until its next run, before creating its offsets
+                throw new IllegalStateException("The consumer is not started yet");
+            }
+            return "sharded-test-consumer";
+        }
+
+        @Override
+        public void onEvents(final List<DomainEvent> events) {
+            received.addAll(events);
+        }
+    }
+
+    @TestConfiguration
+    static class ShardsConfiguration {
+
+        /**
+         * Wraps the DataSource of the application in a ShardRoutingDataSource over two H2 shards.
+         *
+         * @return the BeanPostProcessor
+         */
+        @Bean
+        static BeanPostProcessor shardRoutingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(@NonNull final Object bean,
+                                                             @NonNull final String beanName) {
+                    if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource
+                            && !(bean instanceof ShardRoutingDataSource)) {
+                        // In the mode of the default database, so that the schema copied from it fits the queries
+                        SHARD_NAMES.forEach(name -> SHARDS.put(name, new DriverManagerDataSource(
+                                "jdbc:h2:mem:" + name + "-" + UUID.randomUUID()
+                                        + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "")));
+                        return new ShardRoutingDataSource(dataSource, Map.copyOf(SHARDS));
+                    }
+                    return bean;
+                }
+            };
+        }
+
+        /**
+         * Copies the schema created by Hibernate in the default database to the shards, the shard i generating
+         * the IDs equal to i + 1 modulo the number of shards, without checking the foreign keys.
+         *
+         * @param entityManagerFactory the EntityManagerFactory, once the schema is created
+         * @param jdbcTemplate         the JdbcTemplate of the default database
+         * @return the InitializingBean creating the schemas
+         */
+        @Bean
+        InitializingBean shardSchemas(final EntityManagerFactory entityManagerFactory,
+                                      final JdbcTemplate jdbcTemplate) {
+            return () -> {
+                List<String> statements = new ArrayList<>();
+                for (String statement : jdbcTemplate.queryForList("SCRIPT NODATA", String.class)) {
+                    if (!statement.startsWith("--") && !statement.startsWith("CREATE USER")) {
+                        statements.add(statement);
+                    }
+                }
+                int index = 0;
+                for (DataSource shard : SHARDS.values()) {
+                    JdbcTemplate shardTemplate = new JdbcTemplate(shard);
+                    statements.forEach(shardTemplate::execute);
+                    for (String table : SHARDED_TABLES) {
+                        shardTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH "
+                                + (index + 1) + " SET INCREMENT BY " + SHARDS.size());
+                    }
+                    shardTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+                    index++;
+                }
+            };
+        }
+
+        @Bean
+        TopicShardRouter topicShardRouter() {
+            return new TopicShardRouter(SHARD_NAMES, Map.of());
+        }
+
+        @Bean
+        ShardTemplate shardTemplate(final TopicShardRouter topicShardRouter,
+                                    final PlatformTransactionManager transactionManager) {
+            return new ShardTemplate(topicShardRouter, transactionManager);
+        }
+
+        @Bean
+        RecordingConsumer recordingConsumer() {
+            return new RecordingConsumer();
+        }
+    }
+}
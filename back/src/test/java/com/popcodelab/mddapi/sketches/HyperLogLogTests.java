@@ -0,0 +1,76 @@
+package com.popcodelab.mddapi.sketches;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HyperLogLogTests {
+
+    /**
+     * Three standard errors at the precision 12, the estimates being well within it in practice.
+     */
+    private static final double MAX_RELATIVE_ERROR = 3 * 1.04 / Math.sqrt(1 << 12);
+
+    @Test
+    void theEstimateIsWithinTheStandardErrorOfTheDistinctValues() {
+        for (int distinct : new int[]{10, 1_000, 20_000, 100_000}) {
+            HyperLogLog hyperLogLog = new HyperLogLog(12);
+            for (int i = 0; i < distinct; i++) {
+                hyperLogLog.add("viewer-" + i);
+            }
+            double error = Math.abs(hyperLogLog.estimate() - distinct) / (double) distinct;
+            assertTrue(error <= MAX_RELATIVE_ERROR, distinct + " values estimated at " + hyperLogLog.estimate());
+        }
+    }
+
+    @Test
+    void aValueAddedAgainDoesNotChangeTheEstimate() {
+        HyperLogLog hyperLogLog = new HyperLogLog(12);
+        for (int i = 0; i < 1_000; i++) {
+            hyperLogLog.add("viewer-" + i);
+        }
+        long estimate = hyperLogLog.estimate();
+        for (int i = 0; i < 1_000; i++) {
+            assertFalse(hyperLogLog.add("viewer-" + i));
+        }
+        assertEquals(estimate, hyperLogLog.estimate());
+    }
+
+    @Test
+    void mergedSketchesEstimateTheUnionOfTheirValues() {
+        HyperLogLog first = new HyperLogLog(12);
+        HyperLogLog second = new HyperLogLog(12);
+        HyperLogLog union = new HyperLogLog(12);
+        for (int i = 0; i < 30_000; i++) {
+            String value = "viewer-" + i;
+            (i < 20_000 ? first : second).add(value);
+            if (i >= 10_000) {
+                second.add(value);
+            }
+            union.add(value);
+        }
+
+        first.merge(second);
+
+        assertArrayEquals(union.toBytes(), first.toBytes());
+        assertThrows(IllegalArgumentException.class, () -> first.merge(new HyperLogLog(10)));
+    }
+
+    @Test
+    void theRegistersAreRestoredFromTheirBytes() {
+        HyperLogLog hyperLogLog = new HyperLogLog(8);
+        for (int i = 0; i < 5_000; i++) {
+            hyperLogLog.add("viewer-" + i);
+        }
+
+        HyperLogLog restored = HyperLogLog.fromBytes(hyperLogLog.toBytes());
+
+        assertEquals(8, restored.getPrecision());
+        assertEquals(hyperLogLog.estimate(), restored.estimate());
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(new byte[100]));
+    }
+}
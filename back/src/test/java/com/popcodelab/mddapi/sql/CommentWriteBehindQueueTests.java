@@ -0,0 +1,156 @@
+package com.popcodelab.mddapi.sql;
+
+import com.popcodelab.mddapi.dto.comment.CommentDto;
+import com.popcodelab.mddapi.entities.Comment;
+import com.popcodelab.mddapi.entities.Post;
+import com.popcodelab.mddapi.entities.User;
+import com.popcodelab.mddapi.repositories.CommentRepository;
+import com.popcodelab.mddapi.repositories.PostRepository;
+import com.popcodelab.mddapi.repositories.UserRepository;
+import com.popcodelab.mddapi.services.CommentService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "application.comments.write-behind.enabled=true")
+@ActiveProfiles("test")
+class CommentWriteBehindQueueTests {
+
+    /**
+     * The number of comments added, more than a block of ids.
+     */
+    private static final int COMMENT_COUNT = 150;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionOperations transactionOperations;
+
+    private User user;
+
+    private Post post;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setUsername("writer");
+        user.setEmail("writer@mdd.dev");
+        user.setPassword("not-used");
+        user = userRepository.save(user);
+        post = new Post();
+        post.setTitle("Write-behind");
+        post.setContent("Content of the post");
+        post.setUserId(user.getId());
+        post.setTopicId(1L);
+        post = postRepository.save(post);
+    }
+
+    @AfterEach
+    void tearDown() {
+        commentRepository.deleteAll();
+        postRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void queuedCommentsAreInsertedWithTheirIds() throws InterruptedException {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < COMMENT_COUNT; i++) {
+            CommentDto commentDto = new CommentDto();
+            commentDto.setContent("Comment " + i);
+            commentDto.setUserId(user.getId());
+            commentDto.setPostId(post.getId());
+            CommentDto newComment = commentService.addNewComment(commentDto, null);
+            assertNotNull(newComment.getId());
+            assertEquals("writer", newComment.getUsername());
+            ids.add(newComment.getId());
+        }
+        assertEquals(COMMENT_COUNT, new HashSet<>(ids).size());
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        List<Comment> comments = commentRepository.findCommentsByPostId(post.getId());
+        while (comments.size() < COMMENT_COUNT && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            comments = commentRepository.findCommentsByPostId(post.getId());
+        }
+        assertEquals(new HashSet<>(ids), new HashSet<>(comments.stream().map(Comment::getId).toList()));
+        assertEquals(new HashSet<>(ids),
+                new HashSet<>(postRepository.findById(post.getId()).orElseThrow().getCommentIds()));
+    }
+
+    @Test
+    void pendingCommentsAreInsertedOnStop() {
+        CommentWriteBehindQueue queue = new CommentWriteBehindQueue(10, 10, Duration.ofSeconds(30),
+                jdbcTemplate, transactionOperations);
+        queue.start();
+        Comment comment = comment(1_000_000L, "Last words");
+        CompletableFuture<Void> committed = queue.enqueue(comment);
+
+        queue.stop();
+
+        assertTrue(committed.isDone());
+        assertFalse(committed.isCompletedExceptionally());
+        assertTrue(commentRepository.existsById(comment.getId()));
+    }
+
+    @Test
+    void onlyTheFaultyCommentsOfABatchAreDropped() {
+        CommentWriteBehindQueue queue = new CommentWriteBehindQueue(10, 10, Duration.ofSeconds(30),
+                jdbcTemplate, transactionOperations);
+        queue.start();
+        CompletableFuture<Void> first = queue.enqueue(comment(2_000_000L, "First"));
+        // Takes the id of the first comment, breaking the primary key
+        CompletableFuture<Void> duplicate = queue.enqueue(comment(2_000_000L, "Duplicate"));
+        CompletableFuture<Void> last = queue.enqueue(comment(2_000_001L, "Last"));
+
+        queue.stop();
+
+        assertFalse(first.isCompletedExceptionally());
+        assertTrue(duplicate.isCompletedExceptionally());
+        assertFalse(last.isCompletedExceptionally());
+        assertEquals(1, queue.getDroppedCount());
+        assertEquals("First", commentRepository.findById(2_000_000L).orElseThrow().getContent());
+        assertTrue(commentRepository.existsById(2_000_001L));
+    }
+
+    private Comment comment(final Long id, final String content) {
+        Comment comment = new Comment();
+        comment.setId(id);
+        comment.setContent(content);
+        comment.setUserId(user.getId());
+        comment.setPostId(post.getId());
+        comment.setCreatedAt(LocalDateTime.now());
+        comment.setUpdatedAt(comment.getCreatedAt());
+        return comment;
+    }
+}
@@ -0,0 +1,70 @@
+package com.popcodelab.mddapi.sql;
+
+import com.popcodelab.mddapi.entities.Comment;
+import com.popcodelab.mddapi.entities.Post;
+import com.popcodelab.mddapi.repositories.CommentRepository;
+import com.popcodelab.mddapi.repositories.PostRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "application.sql.query-plan-check.enabled=true")
+@ActiveProfiles("test")
+class QueryPlanVerifierTests {
+
+    /**
+     * The number of posts, and of comments of each post, so that a scan costs more than an index lookup.
+     */
+    private static final int ROW_COUNT = 50;
+
+    @Autowired
+    private QueryPlanVerifier queryPlanVerifier;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @BeforeEach
+    void setUp() {
+        List<Post> posts = new ArrayList<>();
+        for (int i = 0; i < ROW_COUNT; i++) {
+            Post post = new Post();
+            post.setTitle("Post " + i);
+            post.setContent("Content of the post");
+            post.setUserId(1L);
+            post.setTopicId(1L + i % 10);
+            posts.add(post);
+        }
+        posts = postRepository.saveAll(posts);
+        List<Comment> comments = new ArrayList<>();
+        for (int i = 0; i < ROW_COUNT; i++) {
+            Comment comment = new Comment();
+            comment.setContent("Comment " + i);
+            comment.setUserId(1L);
+            comment.setPostId(posts.get(i % posts.size()).getId());
+            comments.add(comment);
+        }
+        commentRepository.saveAll(comments);
+    }
+
+    @AfterEach
+    void tearDown() {
+        commentRepository.deleteAll();
+        postRepository.deleteAll();
+    }
+
+    @Test
+    void hotQueriesUseTheirIndex() {
+        assertEquals(List.of(), queryPlanVerifier.verify());
+    }
+}
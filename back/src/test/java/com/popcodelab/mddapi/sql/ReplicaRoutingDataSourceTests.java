@@ -0,0 +1,192 @@
+package com.popcodelab.mddapi.sql;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class ReplicaRoutingDataSourceTests {
+
+    /**
+     * The lag above which the replica is left out.
+     */
+    private static final Duration MAX_LAG = Duration.ofSeconds(2);
+
+    private DataSource primaryDataSource;
+
+    private DataSource replicaDataSource;
+
+    private JdbcTemplate primary;
+
+    private JdbcTemplate replica;
+
+    private JdbcTemplate application;
+
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    private ReplicaHealthChecker healthChecker;
+
+    private DataSourceTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        primaryDataSource = embeddedDatabase();
+        replicaDataSource = embeddedDatabase();
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        for (JdbcTemplate database : List.of(primary, replica)) {
+            database.execute("CREATE TABLE node (name VARCHAR(20))");
+        }
+        primary.update("INSERT INTO node (name) VALUES ('primary')");
+        replica.update("INSERT INTO node (name) VALUES ('replica')");
+        replica.execute("CREATE TABLE replication_lag (seconds INT)");
+        replica.update("INSERT INTO replication_lag (seconds) VALUES (0)");
+
+        readYourWritesTracker = new ReadYourWritesTracker(Duration.ofMinutes(1));
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(primaryDataSource,
+                Map.of("replica-0", replicaDataSource), readYourWritesTracker);
+        healthChecker = new ReplicaHealthChecker(routingDataSource, readYourWritesTracker,
+                "SELECT seconds FROM replication_lag", MAX_LAG);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        application = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        primary.execute("SHUTDOWN");
+        replica.execute("SHUTDOWN");
+    }
+
+    @Test
+    void readOnlyTransactionsAreServedByTheReplica() {
+        healthChecker.checkReplicas();
+
+        assertEquals("replica", readNode(true));
+        assertEquals("primary", readNode(false));
+    }
+
+    @Test
+    void readsFallBackToThePrimaryUntilTheReplicaIsChecked() {
+        assertEquals("primary", readNode(true));
+    }
+
+    @Test
+    void readsFallBackToThePrimaryWhenTheReplicaLags() {
+        healthChecker.checkReplicas();
+        replica.update("UPDATE replication_lag SET seconds = ?", MAX_LAG.toSeconds() + 1);
+        healthChecker.checkReplicas();
+
+        assertEquals("primary", readNode(true));
+
+        replica.update("UPDATE replication_lag SET seconds = 0");
+        healthChecker.checkReplicas();
+
+        assertEquals("replica", readNode(true));
+    }
+
+    @Test
+    void readsFallBackToThePrimaryWhenTheReplicaIsNotReplicating() {
+        replica.update("UPDATE replication_lag SET seconds = NULL");
+        healthChecker.checkReplicas();
+
+        assertEquals("primary", readNode(true));
+
+        replica.execute("DROP TABLE replication_lag");
+        healthChecker.checkReplicas();
+
+        assertEquals("primary", readNode(true));
+    }
+
+    @Test
+    void usersReadTheirOwnWritesFromThePrimary() {
+        healthChecker.checkReplicas();
+        authenticate("writer@mdd.dev");
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                application.update("UPDATE node SET name = name"));
+
+        assertEquals("primary", readNode(true));
+
+        authenticate("reader@mdd.dev");
+
+        assertEquals("replica", readNode(true));
+    }
+
+    @Test
+    void usersReadTheirOwnWritesFromThePrimaryOnAnotherInstance() throws Exception {
+        healthChecker.checkReplicas();
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(Duration.ofMinutes(1));
+        ReplicaRoutingDataSource routingDataSource =
+                new ReplicaRoutingDataSource(primaryDataSource, Map.of("replica-0", replicaDataSource), tracker);
+        new ReplicaHealthChecker(routingDataSource, tracker, "SELECT seconds FROM replication_lag", MAX_LAG)
+                .checkReplicas();
+        DataSource otherInstance = new LazyConnectionDataSourceProxy(routingDataSource);
+        authenticate("writer@mdd.dev");
+
+        MockHttpServletResponse writeResponse = new MockHttpServletResponse();
+        new ReadYourWritesFilter(tracker).doFilter(new MockHttpServletRequest(), writeResponse, (request, response) ->
+                new TransactionTemplate(new DataSourceTransactionManager(otherInstance)).executeWithoutResult(
+                        status -> new JdbcTemplate(otherInstance).update("UPDATE node SET name = name")));
+        Cookie pin = writeResponse.getCookie(ReadYourWritesFilter.COOKIE_NAME);
+        assertNotNull(pin);
+
+        assertEquals("replica", readNode(true));
+        MockHttpServletRequest readRequest = new MockHttpServletRequest();
+        readRequest.setCookies(pin);
+        List<String> nodes = new ArrayList<>();
+        new ReadYourWritesFilter(readYourWritesTracker).doFilter(readRequest, new MockHttpServletResponse(),
+                (request, response) -> nodes.add(readNode(true)));
+        assertEquals(List.of("primary"), nodes);
+    }
+
+    /**
+     * Reads the name of the database serving a transaction.
+     *
+     * @param readOnly whether the transaction is read-only
+     * @return the name of the database
+     */
+    private String readNode(final boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status -> application.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    /**
+     * Authenticates a user on the current thread.
+     *
+     * @param email the name of the user
+     */
+    private static void authenticate(final String email) {
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(email, null, List.of()));
+    }
+
+    /**
+     * Creates an empty in-memory database.
+     *
+     * @return the database
+     */
+    private static DataSource embeddedDatabase() {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+    }
+}
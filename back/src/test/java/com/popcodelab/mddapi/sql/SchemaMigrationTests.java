@@ -0,0 +1,125 @@
+package com.popcodelab.mddapi.sql;
+
+import com.popcodelab.mddapi.entities.Post;
+import com.popcodelab.mddapi.entities.Topic;
+import com.popcodelab.mddapi.entities.User;
+import com.popcodelab.mddapi.repositories.PostRepository;
+import com.popcodelab.mddapi.repositories.TopicRepository;
+import com.popcodelab.mddapi.repositories.UserRepository;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.Configuration;
+import org.flywaydb.core.api.migration.Context;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Builds the schema with the Flyway migrations instead of the entities, and validates the entities against it.
+ */
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.flyway.locations=classpath:db/migration,classpath:db/h2",
+        "spring.jpa.hibernate.ddl-auto=validate"})
+@ActiveProfiles("test")
+class SchemaMigrationTests {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TopicRepository topicRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private SingleColumnIndexMigration singleColumnIndexMigration;
+
+    @Test
+    void theEntitiesAreStoredInTheSchemaOfTheMigrations() {
+        assertEquals("8", flyway.info().current().getVersion().getVersion());
+        assertEquals(0, flyway.info().pending().length);
+
+        User author = new User();
+        author.setUsername("migrated");
+        author.setEmail("migrated@mdd.dev");
+        author.setPassword("not-used");
+        author = userRepository.save(author);
+        // The topics are inserted by the first migration
+        Topic topic = topicRepository.findAll().get(0);
+        Post post = new Post();
+        post.setTitle("A post");
+        String content = "Content of the post ".repeat(50);
+        post.setContent(content);
+        post.setUserId(author.getId());
+        post.setTopicId(topic.getId());
+        post = postRepository.save(post);
+
+        assertEquals(content, postRepository.findById(post.getId()).orElseThrow().getContent());
+        postRepository.delete(post);
+        userRepository.delete(author);
+    }
+
+    @Test
+    void theSingleColumnIndexesAreDroppedWhateverTheirName() throws Exception {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .setName("single-column-indexes")
+                .build();
+        try {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+            jdbcTemplate.execute("CREATE TABLE posts (id BIGINT PRIMARY KEY, topic_id BIGINT, created_at TIMESTAMP)");
+            jdbcTemplate.execute("CREATE TABLE comments (id BIGINT PRIMARY KEY, post_id BIGINT, created_at TIMESTAMP)");
+            // Named by the former creates_db.sql script, and by the former ddl-auto update of Hibernate
+            jdbcTemplate.execute("CREATE INDEX topic_id ON posts (topic_id)");
+            jdbcTemplate.execute("CREATE INDEX FKh4c7lvsc298whoyd4w9ta25cr ON comments (post_id)");
+            jdbcTemplate.execute("CREATE INDEX idx_posts_topic_created ON posts (topic_id, created_at, id)");
+            jdbcTemplate.execute("CREATE INDEX idx_comments_post_created ON comments (post_id, created_at, id)");
+
+            try (Connection connection = database.getConnection()) {
+                singleColumnIndexMigration.migrate(new Context() {
+                    @Override
+                    public Configuration getConfiguration() {
+                        return flyway.getConfiguration();
+                    }
+
+                    @Override
+                    public Connection getConnection() {
+                        return connection;
+                    }
+                });
+                assertEquals(List.of("IDX_POSTS_TOPIC_CREATED"), nonUniqueIndexes(connection, "POSTS"));
+                assertEquals(List.of("IDX_COMMENTS_POST_CREATED"), nonUniqueIndexes(connection, "COMMENTS"));
+            }
+        } finally {
+            database.shutdown();
+        }
+    }
+
+    private static List<String> nonUniqueIndexes(final Connection connection, final String table) throws Exception {
+        List<String> indexes = new ArrayList<>();
+        try (ResultSet indexInfo = connection.getMetaData().getIndexInfo(null, null, table, false, false)) {
+            while (indexInfo.next()) {
+                if (indexInfo.getBoolean("NON_UNIQUE") && !indexes.contains(indexInfo.getString("INDEX_NAME"))) {
+                    indexes.add(indexInfo.getString("INDEX_NAME"));
+                }
+            }
+        }
+        return indexes;
+    }
+}
@@ -0,0 +1,76 @@
+package com.popcodelab.mddapi.sql;
+
+import com.popcodelab.mddapi.sql.SqlStatementRecorder.Recording;
+import org.junit.jupiter.api.function.ThrowingSupplier;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * The SqlStatementBudget class lets the integration tests assert the maximum number of SQL statements
+ * executed by an action, typically a MockMvc request to an endpoint:
+ * <pre>{@code
+ * SqlStatementBudget.assertMaxStatements(3, () -> mockMvc.perform(get("/api/posts/1/comments")));
+ * }</pre>
+ * The action must run on the calling thread, which is the case of MockMvc.
+ *
+ * @author Pignon Pierre-Olivier
+ * @version 1.0
+ */
+public final class SqlStatementBudget {
+
+    /**
+     * Utility class, not meant to be instantiated.
+     */
+    private SqlStatementBudget() {
+    }
+
+    /**
+     * Runs an action and records the statements it executes.
+     *
+     * @param action the action
+     * @return the recording of the statements
+     * @throws Throwable the exception thrown by the action
+     */
+    public static Recording record(final ThrowingSupplier<?> action) throws Throwable {
+        try (Recording recording = SqlStatementRecorder.start()) {
+            action.get();
+            return recording;
+        }
+    }
+
+    /**
+     * Runs an action and fails if it executes more statements than the given budget.
+     *
+     * @param maxStatements the maximum number of statements
+     * @param action        the action
+     * @param <T>           the type of the result of the action
+     * @return the result of the action
+     * @throws Throwable the exception thrown by the action
+     */
+    public static <T> T assertMaxStatements(final int maxStatements, final ThrowingSupplier<T> action) throws Throwable {
+        T result;
+        try (Recording recording = SqlStatementRecorder.start()) {
+            result = action.get();
+            if (recording.getStatementCount() > maxStatements) {
+                fail(describe(recording, maxStatements));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Describes a recording exceeding its budget.
+     *
+     * @param recording     the recording
+     * @param maxStatements the budget
+     * @return the failure message, listing the statements by shape
+     */
+    private static String describe(final Recording recording, final int maxStatements) {
+        StringBuilder message = new StringBuilder()
+                .append("Expected at most ").append(maxStatements)
+                .append(" SQL statements but ").append(recording.getStatementCount()).append(" were executed:");
+        recording.getCountsByShape().forEach((shape, count) ->
+                message.append(System.lineSeparator()).append("  ").append(count).append(" x ").append(shape));
+        return message.toString();
+    }
+}
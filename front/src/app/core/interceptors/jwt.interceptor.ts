@@ -43,7 +43,8 @@ export class JwtInterceptor implements HttpInterceptor {
   }
 
   /**
-   * Adds authorization header to the request.
+   * Adds authorization header to the request, and sends the cookies of the API with it, such as the one keeping
+   * the reads of the user on the primary database after a write.
    *
    * @param {HttpRequest<any>} request - The request object to add the header to.
    * @param {string} token - The token to be added as the Authorization value.
@@ -55,6 +56,7 @@ export class JwtInterceptor implements HttpInterceptor {
       setHeaders: {
         Authorization: `Bearer ${token}`,
       },
+      withCredentials: true,
     });
   }
 }